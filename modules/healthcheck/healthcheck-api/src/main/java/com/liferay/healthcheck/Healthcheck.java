@@ -6,10 +6,32 @@
 package com.liferay.healthcheck;
 
 import java.util.Collection;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 
 import org.osgi.annotation.versioning.ProviderType;
 
 /**
+ * Implementations that are expensive to run, but whose result changes rarely,
+ * can declare the service property <code>healthcheck.ttl.seconds</code>. Their
+ * result is then reused for that many seconds, per company, instead of
+ * running them again.
+ *
+ * Implementations that check the whole system rather than a company, e.g.
+ * JVM settings or portal properties, can declare the service property
+ * <code>healthcheck.scope=system</code>. When running for all companies, they
+ * are only executed once and their result is reused for every company.
+ *
+ * Implementations can declare what their result depends on through the
+ * multi-valued service properties <code>healthcheck.invalidation.pid</code>,
+ * the PIDs of configurations, and
+ * <code>healthcheck.invalidation.model.class.name</code>, the class names of
+ * entities. When any of them changes, their previous result is discarded and
+ * they are executed again, for the affected companies only.
+ *
  * @author Olaf Kock
  */
 @ProviderType
@@ -18,6 +40,66 @@ public interface Healthcheck {
 	public Collection<HealthcheckItem> check(long companyId)
 		throws Exception;
 
+	/**
+	 * Runs this Healthcheck without blocking the caller. The default
+	 * implementation runs {@link #check(long)} as a single task on the given
+	 * executor. Cancelling the returned future interrupts that task, if it is
+	 * already running.
+	 *
+	 * Implementations that connect to several external hosts, or otherwise
+	 * wait for I/O, can override this method and submit their individual
+	 * probes to the executor, so that they overlap. They must not block
+	 * while waiting for their own tasks, but compose them, as the executor's
+	 * threads are limited.
+	 *
+	 * @param  companyId the company to check
+	 * @param  executor the executor to run all work of this Healthcheck on
+	 * @return a future that completes with the Healthcheck's items, or
+	 *         exceptionally with the exception that the Healthcheck threw
+	 */
+	public default CompletableFuture<Collection<HealthcheckItem>> checkAsync(
+		long companyId, Executor executor) {
+
+		FutureTask<Collection<HealthcheckItem>> futureTask = new FutureTask<>(
+			() -> check(companyId));
+
+		CompletableFuture<Collection<HealthcheckItem>> completableFuture =
+			new CompletableFuture<Collection<HealthcheckItem>>() {
+
+				@Override
+				public boolean cancel(boolean mayInterruptIfRunning) {
+					futureTask.cancel(mayInterruptIfRunning);
+
+					return super.cancel(mayInterruptIfRunning);
+				}
+
+			};
+
+		executor.execute(
+			() -> {
+				futureTask.run();
+
+				try {
+					completableFuture.complete(futureTask.get());
+				}
+				catch (CancellationException cancellationException) {
+
+					// The returned future has already been cancelled
+
+				}
+				catch (ExecutionException executionException) {
+					completableFuture.completeExceptionally(
+						executionException.getCause());
+				}
+				catch (InterruptedException interruptedException) {
+					completableFuture.completeExceptionally(
+						interruptedException);
+				}
+			});
+
+		return completableFuture;
+	}
+
 	public String getCategory();
 
-}
\ No newline at end of file
+}
@@ -5,12 +5,15 @@
 
 package com.liferay.healthcheck;
 
-import com.liferay.petra.string.StringUtil;
-import com.liferay.portal.kernel.util.ArrayUtil;
+import com.liferay.petra.string.StringBundler;
+import com.liferay.petra.string.StringPool;
 
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author Olaf Kock
@@ -42,6 +45,75 @@ public class HealthcheckItem {
 		_additionalDocumentation = Collections.emptyList();
 	}
 
+	/**
+	 * A stable 64-bit fingerprint of a source key, so that it can be looked up
+	 * without comparing strings. Collisions are practically impossible for
+	 * the number of items that Healthchecks produce.
+	 *
+	 * @return the 64-bit FNV-1a hash of the source key's characters
+	 */
+	public static long getFingerprint(String sourceKey) {
+		long fingerprint = _FNV_OFFSET_BASIS;
+
+		for (int i = 0; i < sourceKey.length(); i++) {
+			fingerprint ^= sourceKey.charAt(i);
+			fingerprint *= _FNV_PRIME;
+		}
+
+		return fingerprint;
+	}
+
+	/**
+	 * A shared, successful item without message parameters. Use it only with
+	 * constant links and message keys: Every combination stays cached for the
+	 * lifetime of this bundle, up to a fixed number of them. Beyond that, a
+	 * new item is returned for every call.
+	 *
+	 * @return the same instance for the same link and message key, as long as
+	 *         the cache isn't full
+	 */
+	public static HealthcheckItem getSuccessHealthcheckItem(
+		String link, String messageKey) {
+
+		String linkKey = (link == null) ? StringPool.BLANK : link;
+
+		Map<String, HealthcheckItem> healthcheckItems =
+			_successHealthcheckItems.get(messageKey);
+
+		if (healthcheckItems != null) {
+			HealthcheckItem healthcheckItem = healthcheckItems.get(linkKey);
+
+			if (healthcheckItem != null) {
+				return healthcheckItem;
+			}
+		}
+
+		HealthcheckItem healthcheckItem = new HealthcheckItem(
+			true, link, messageKey);
+
+		if (_successHealthcheckItemsCount.incrementAndGet() >
+				_SUCCESS_HEALTHCHECK_ITEMS_MAX) {
+
+			_successHealthcheckItemsCount.decrementAndGet();
+
+			return healthcheckItem;
+		}
+
+		healthcheckItems = _successHealthcheckItems.computeIfAbsent(
+			messageKey, key -> new ConcurrentHashMap<>());
+
+		HealthcheckItem previousHealthcheckItem = healthcheckItems.putIfAbsent(
+			linkKey, healthcheckItem);
+
+		if (previousHealthcheckItem != null) {
+			_successHealthcheckItemsCount.decrementAndGet();
+
+			return previousHealthcheckItem;
+		}
+
+		return healthcheckItem;
+	}
+
 	/**
 	 * A collection of links to Liferay Learn that document the current item's
 	 * purpose, behavior or hints to avoid failure.
@@ -50,6 +122,24 @@ public class HealthcheckItem {
 		return _additionalDocumentation;
 	}
 
+	/**
+	 * The fingerprint of this item's source key, computed once, on first use.
+	 * It can't be computed in the constructor, as subclasses override
+	 * {@link #getSourceKey()} and only initialize their source key after this
+	 * class' constructor returned.
+	 *
+	 * @return the 64-bit fingerprint of {@link #getSourceKey()}
+	 * @see    #getFingerprint(String)
+	 */
+	public long getFingerprint() {
+		if (!_fingerprinted) {
+			_fingerprint = getFingerprint(getSourceKey());
+			_fingerprinted = true;
+		}
+
+		return _fingerprint;
+	}
+
 	/**
 	 * A link(URL) that can contain further information on the tested condition
 	 *
@@ -85,14 +175,20 @@ public class HealthcheckItem {
 	 * healthcheck's message localization key and all parameters, concatenated in
 	 * a way to be usable as:
 	 *
+	 * The key is computed once, on first use.
+	 *
 	 * @return the machine readable encoding for this healthcheck
 	 */
 	public String getSourceKey() {
-		Object[] keys = new Object[_messageParameters.length + 1];
+		String sourceKey = _sourceKey;
 
-		ArrayUtil.combine(new Object[] {_messageKey}, _messageParameters, keys);
+		if (sourceKey == null) {
+			sourceKey = _toSourceKey();
 
-		return StringUtil.merge(ArrayUtil.toStringArray(keys), "-");
+			_sourceKey = sourceKey;
+		}
+
+		return sourceKey;
 	}
 
 	/**
@@ -104,10 +200,51 @@ public class HealthcheckItem {
 		return _success;
 	}
 
+	private String _toSourceKey() {
+		if (_messageParameters.length == 0) {
+			return String.valueOf(_messageKey);
+		}
+
+		StringBundler sb = new StringBundler(
+			(_messageParameters.length * 2) + 1);
+
+		sb.append(_messageKey);
+
+		for (Object messageParameter : _messageParameters) {
+			sb.append(StringPool.DASH);
+			sb.append(String.valueOf(messageParameter));
+		}
+
+		return sb.toString();
+	}
+
+	private static final long _FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+	private static final long _FNV_PRIME = 0x100000001b3L;
+
+	private static final int _SUCCESS_HEALTHCHECK_ITEMS_MAX = 256;
+
+	private static final Map<String, Map<String, HealthcheckItem>>
+		_successHealthcheckItems = new ConcurrentHashMap<>();
+	private static final AtomicInteger _successHealthcheckItemsCount =
+		new AtomicInteger();
+
 	private final Collection<String> _additionalDocumentation;
+
+	// Both values are computed deterministically, so concurrent callers may
+	// compute them twice, but never see a different one. The volatile flag
+	// publishes the fingerprint, while strings are safely published anyway.
+	// They add about 24 bytes per item, which pays off as soon as an item is
+	// looked up in an ignore list or rendered more than once: Otherwise, its
+	// source key is concatenated from all message parameters every time.
+
+	private long _fingerprint;
+	private volatile boolean _fingerprinted;
+
 	private final String _link;
 	private final String _messageKey;
 	private final Object[] _messageParameters;
+	private String _sourceKey;
 	private final boolean _success;
 
 }
@@ -15,8 +15,19 @@ import org.osgi.annotation.versioning.ProviderType;
 @ProviderType
 public interface HostnameDetector {
 
+	/**
+	 * @return the base URLs (scheme and host name) that were requested often
+	 *         enough to be recorded
+	 */
 	public Set<String> getAccessedUrls(long companyId);
 
 	public boolean isActive();
 
+	/**
+	 * @return true if a base URL was requested often enough, but could not be
+	 *         recorded, because the limit is reached and all recorded ones
+	 *         were requested recently
+	 */
+	public boolean isLimitReached(long companyId);
+
 }
\ No newline at end of file
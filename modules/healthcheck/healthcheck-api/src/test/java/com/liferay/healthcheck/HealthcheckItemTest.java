@@ -0,0 +1,105 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Olaf Kock
+ */
+public class HealthcheckItemTest {
+
+	@Test
+	public void testGetFingerprint() {
+
+		// Test vectors of the 64-bit FNV-1a hash
+
+		Assert.assertEquals(
+			0xcbf29ce484222325L, HealthcheckItem.getFingerprint(""));
+		Assert.assertEquals(
+			0xaf63dc4c8601ec8cL, HealthcheckItem.getFingerprint("a"));
+		Assert.assertEquals(
+			0x85944171f73967e8L, HealthcheckItem.getFingerprint("foobar"));
+	}
+
+	@Test
+	public void testGetFingerprintOfHealthcheckItem() {
+		HealthcheckItem healthcheckItem = new HealthcheckItem(
+			false, "link", "message-key", "parameter", 1);
+
+		Assert.assertEquals(
+			"message-key-parameter-1", healthcheckItem.getSourceKey());
+		Assert.assertEquals(
+			HealthcheckItem.getFingerprint("message-key-parameter-1"),
+			healthcheckItem.getFingerprint());
+	}
+
+	@Test
+	public void testGetFingerprintOfSubclass() {
+
+		// The source key of the subclass is only initialized after the
+		// constructor of HealthcheckItem returned
+
+		HealthcheckItem healthcheckItem = new HealthcheckItem(
+			false, "link", "message-key") {
+
+			@Override
+			public String getSourceKey() {
+				return _sourceKey;
+			}
+
+			private final String _sourceKey = "source-key";
+
+		};
+
+		Assert.assertEquals(
+			HealthcheckItem.getFingerprint("source-key"),
+			healthcheckItem.getFingerprint());
+	}
+
+	@Test
+	public void testGetSuccessHealthcheckItem() {
+		HealthcheckItem healthcheckItem =
+			HealthcheckItem.getSuccessHealthcheckItem("link", "message-key");
+
+		Assert.assertTrue(healthcheckItem.isSuccess());
+		Assert.assertEquals("link", healthcheckItem.getLink());
+		Assert.assertEquals("message-key", healthcheckItem.getMessageKey());
+		Assert.assertEquals(
+			0, healthcheckItem.getMessageParameters().length);
+
+		Assert.assertSame(
+			healthcheckItem,
+			HealthcheckItem.getSuccessHealthcheckItem("link", "message-key"));
+		Assert.assertNotSame(
+			healthcheckItem,
+			HealthcheckItem.getSuccessHealthcheckItem(
+				"other-link", "message-key"));
+		Assert.assertNotSame(
+			healthcheckItem,
+			HealthcheckItem.getSuccessHealthcheckItem(
+				"link", "other-message-key"));
+	}
+
+	@Test
+	public void testGetSuccessHealthcheckItemBeyondLimit() {
+		for (int i = 0; i < 300; i++) {
+			HealthcheckItem.getSuccessHealthcheckItem(null, "message-key-" + i);
+		}
+
+		// The cache is full, so every call returns a new item
+
+		HealthcheckItem healthcheckItem =
+			HealthcheckItem.getSuccessHealthcheckItem(null, "message-key");
+
+		Assert.assertTrue(healthcheckItem.isSuccess());
+		Assert.assertNotSame(
+			healthcheckItem,
+			HealthcheckItem.getSuccessHealthcheckItem(null, "message-key"));
+	}
+
+}
@@ -34,7 +34,7 @@ import org.osgi.service.component.annotations.Component;
  *
  * @author Olaf Kock
  */
-@Component(service = Healthcheck.class)
+@Component(property = "healthcheck.scope=system", service = Healthcheck.class)
 public class AvailableLocaleConfigurationHealthcheck implements Healthcheck {
 
 	@Override
@@ -47,7 +47,7 @@ public class AvailableLocaleConfigurationHealthcheck implements Healthcheck {
 		_validateProperties(result, PropsValues.LOCALES_BETA, "locales.beta");
 
 		if (result.isEmpty()) {
-			result.add(new HealthcheckItem(true, _LINK, _MSG));
+			result.add(HealthcheckItem.getSuccessHealthcheckItem(_LINK, _MSG));
 		}
 
 		return result;
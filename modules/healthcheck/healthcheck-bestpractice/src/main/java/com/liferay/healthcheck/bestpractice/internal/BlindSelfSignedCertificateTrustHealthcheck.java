@@ -28,7 +28,10 @@ import org.osgi.service.component.annotations.Reference;
  *
  * @author Olaf Kock
  */
-@Component(service = Healthcheck.class)
+@Component(
+	property = "healthcheck.invalidation.pid=com.liferay.dynamic.data.mapping.data.provider.configuration.DDMDataProviderConfiguration",
+	service = Healthcheck.class
+)
 public class BlindSelfSignedCertificateTrustHealthcheck implements Healthcheck {
 
 	@Override
@@ -29,7 +29,10 @@ import org.osgi.service.component.annotations.Reference;
  *
  * @author Olaf Kock
  */
-@Component(service = Healthcheck.class)
+@Component(
+	property = "healthcheck.invalidation.model.class.name=com.liferay.portal.kernel.model.User",
+	service = Healthcheck.class
+)
 public class DefaultAdminUserHealthcheck implements Healthcheck {
 
 	@Override
@@ -59,7 +62,8 @@ public class DefaultAdminUserHealthcheck implements Healthcheck {
 			}
 		}
 
-		return Arrays.asList(new HealthcheckItem(true, _LINK, _MSG));
+		return Arrays.asList(
+			HealthcheckItem.getSuccessHealthcheckItem(_LINK, _MSG));
 	}
 
 	@Override
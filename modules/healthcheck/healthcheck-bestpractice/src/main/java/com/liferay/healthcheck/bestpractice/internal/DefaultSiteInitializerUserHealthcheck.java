@@ -26,7 +26,10 @@ import org.osgi.service.component.annotations.Reference;
  *
  * @author Olaf Kock
  */
-@Component(service = Healthcheck.class)
+@Component(
+	property = "healthcheck.invalidation.model.class.name=com.liferay.portal.kernel.model.User",
+	service = Healthcheck.class
+)
 public class DefaultSiteInitializerUserHealthcheck implements Healthcheck {
 
 	@Override
@@ -38,7 +41,7 @@ public class DefaultSiteInitializerUserHealthcheck implements Healthcheck {
 		}
 
 		if (result.isEmpty()) {
-			result.add(new HealthcheckItem(true, null, _MSG));
+			result.add(HealthcheckItem.getSuccessHealthcheckItem(null, _MSG));
 		}
 
 		return result;
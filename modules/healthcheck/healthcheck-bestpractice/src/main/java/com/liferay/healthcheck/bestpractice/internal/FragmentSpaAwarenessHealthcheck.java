@@ -30,7 +30,13 @@ import java.util.List;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
 
-@Component
+@Component(
+	property = {
+		"healthcheck.invalidation.model.class.name=com.liferay.fragment.model.FragmentEntry",
+		"healthcheck.invalidation.pid=com.liferay.healthcheck.bestpractice.internal.configuration.HealthcheckBestPracticeConfiguration",
+		"healthcheck.ttl.seconds:Long=3600"
+	}
+)
 public class FragmentSpaAwarenessHealthcheck implements Healthcheck {
 
 	@Override
@@ -21,6 +21,7 @@ import org.osgi.service.component.annotations.Reference;
 
 @Component(
 		configurationPid = "com.liferay.adaptive.media.image.internal.configuration.AMImageConfiguration", 
+		property = "healthcheck.invalidation.pid=com.liferay.adaptive.media.image.internal.configuration.AMImageConfiguration",
 		service=Healthcheck.class
 )
 public class ModernImageFormatHealthcheck implements Healthcheck {
@@ -29,10 +30,10 @@ public class ModernImageFormatHealthcheck implements Healthcheck {
 	public Collection<HealthcheckItem> check(long companyId) throws Exception {
 		LinkedList<HealthcheckItem> result = new LinkedList<>();
 		if(_imageMagick.isEnabled()) {
-			result.add(new HealthcheckItem(true, getIMCPLink(), _MSG_IMAGEMAGICK_ENABLED));
+			result.add(HealthcheckItem.getSuccessHealthcheckItem(getIMCPLink(), _MSG_IMAGEMAGICK_ENABLED));
 			byte[] scaledImage = _imageMagick.scale(SINGLE_PIXEL_PNG, "image/png", 1, 1);
 			if(scaledImage != null) {
-				result.add(new HealthcheckItem(true, getIMCPLink(), "ImageMagick can be executed"));
+				result.add(HealthcheckItem.getSuccessHealthcheckItem(getIMCPLink(), "ImageMagick can be executed"));
 
 				List<String> imMimeTypes = getSettings(companyId, "com.liferay.adaptive.media.image.internal.configuration.AMImageMagickConfiguration", "mimeTypes");
 				List<String> amMimeTypes = getSettings(companyId, "com.liferay.adaptive.media.image.internal.configuration.AMImageConfiguration", "supportedMimeTypes");
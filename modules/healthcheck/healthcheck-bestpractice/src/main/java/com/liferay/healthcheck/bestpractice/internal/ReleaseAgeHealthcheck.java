@@ -46,6 +46,7 @@ import org.osgi.service.component.annotations.Reference;
 
 @Component(
 		configurationPid = "com.liferay.healthcheck.bestpractice.internal.configuration.HealthcheckBestPracticeConfiguration",
+		property = "healthcheck.invalidation.pid=com.liferay.healthcheck.bestpractice.internal.configuration.HealthcheckBestPracticeConfiguration",
 		service = Healthcheck.class
 		)
 public class ReleaseAgeHealthcheck implements Healthcheck {
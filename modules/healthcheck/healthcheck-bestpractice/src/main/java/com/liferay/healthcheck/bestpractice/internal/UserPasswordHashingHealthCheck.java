@@ -52,6 +52,11 @@ import org.osgi.service.component.annotations.Reference;
  * @author Olaf Kock
  */
 @Component(configurationPid = "com.liferay.healthcheck.bestpractice.internal.configuration.HealthcheckBestPracticeConfiguration", 
+	property = {
+		"healthcheck.invalidation.model.class.name=com.liferay.portal.kernel.model.User",
+		"healthcheck.invalidation.pid=com.liferay.healthcheck.bestpractice.internal.configuration.HealthcheckBestPracticeConfiguration",
+		"healthcheck.ttl.seconds:Long=86400"
+	},
 	service = Healthcheck.class)
 public class UserPasswordHashingHealthCheck implements Healthcheck {
 
@@ -26,7 +26,12 @@ import java.util.List;
 
 import org.osgi.service.component.annotations.Component;
 
-@Component(service = Healthcheck.class)
+@Component(
+	property = {
+		"healthcheck.scope=system", "healthcheck.ttl.seconds:Long=86400"
+	},
+	service = Healthcheck.class
+)
 public class VerifyPropertiesHealthcheck implements Healthcheck {
 
 	@Override
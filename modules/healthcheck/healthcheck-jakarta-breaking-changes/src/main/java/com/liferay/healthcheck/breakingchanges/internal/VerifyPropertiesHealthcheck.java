@@ -17,7 +17,12 @@ import java.util.LinkedList;
 
 import org.osgi.service.component.annotations.Component;
 
-@Component(service = Healthcheck.class)
+@Component(
+	property = {
+		"healthcheck.scope=system", "healthcheck.ttl.seconds:Long=86400"
+	},
+	service = Healthcheck.class
+)
 public class VerifyPropertiesHealthcheck implements Healthcheck {
 
 	@Override
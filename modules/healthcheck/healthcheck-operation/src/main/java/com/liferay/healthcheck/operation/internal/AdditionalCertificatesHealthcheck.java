@@ -8,7 +8,8 @@ package com.liferay.healthcheck.operation.internal;
 import com.liferay.configuration.admin.constants.ConfigurationAdminPortletKeys;
 import com.liferay.healthcheck.Healthcheck;
 import com.liferay.healthcheck.HealthcheckItem;
-import com.liferay.healthcheck.operation.internal.auxiliary.HttpsCertificateValidatorUtil;
+import com.liferay.healthcheck.operation.internal.auxiliary.HttpsCertificateProbe;
+import com.liferay.healthcheck.operation.internal.auxiliary.HttpsCertificateProber;
 import com.liferay.petra.string.StringBundler;
 import com.liferay.portal.kernel.settings.CompanyServiceSettingsLocator;
 import com.liferay.portal.kernel.settings.FallbackKeysSettingsUtil;
@@ -17,23 +18,68 @@ import com.liferay.portal.kernel.settings.TypedSettings;
 
 import java.net.URI;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
 
 /**
  * Check for validity of certificates for a manually configured list of servers
  *
  * @author Olaf Kock
  */
-@Component(service = Healthcheck.class)
+@Component(
+	property = "healthcheck.invalidation.pid=com.liferay.healthcheck.operation.internal.configuration.HealthcheckOperationalConfiguration",
+	service = Healthcheck.class
+)
 public class AdditionalCertificatesHealthcheck implements Healthcheck {
 
 	@Override
 	public Collection<HealthcheckItem> check(long companyId) throws Exception {
-		LinkedList<HealthcheckItem> result = new LinkedList<HealthcheckItem>();
-		
+		return checkAsync(
+			companyId, Runnable::run
+		).get();
+	}
+
+	@Override
+	public CompletableFuture<Collection<HealthcheckItem>> checkAsync(
+		long companyId, Executor executor) {
+
+		return CompletableFuture.supplyAsync(
+			() -> {
+				try {
+					return _getHttpsCertificateProbes(companyId);
+				}
+				catch (Exception exception) {
+					throw new CompletionException(exception);
+				}
+			},
+			executor
+		).thenCompose(
+			httpsCertificateProbes -> _httpsCertificateProber.probeAll(
+				companyId, httpsCertificateProbes)
+		).thenApply(
+			healthcheckItems -> new LinkedList<>(healthcheckItems)
+		);
+	}
+
+	@Override
+	public String getCategory() {
+		return "healthcheck-category-operation";
+	}
+
+	private List<HttpsCertificateProbe> _getHttpsCertificateProbes(
+			long companyId)
+		throws Exception {
+
+		List<HttpsCertificateProbe> httpsCertificateProbes = new ArrayList<>();
+
 		String settingsId = "com.liferay.healthcheck.operation.internal.configuration.HealthcheckOperationalConfiguration";
 		SettingsLocator settingsLocator = new CompanyServiceSettingsLocator(companyId, settingsId, settingsId);
 		TypedSettings settings = new TypedSettings(FallbackKeysSettingsUtil.getSettings(settingsLocator));
@@ -48,16 +94,11 @@ public class AdditionalCertificatesHealthcheck implements Healthcheck {
 			} else {
 				url = new URI("https://" + host).toURL();
 			}
-			HttpsCertificateValidatorUtil.validateCertificate(
-					url, companyId, _CONFIGURATION_LINK, result);
+			httpsCertificateProbes.add(
+				new HttpsCertificateProbe(url, _CONFIGURATION_LINK));
 		}
 
-		return result;
-	}
-
-	@Override
-	public String getCategory() {
-		return "healthcheck-category-operation";
+		return httpsCertificateProbes;
 	}
 
 	private static final String _CONFIGURATION_LINK = StringBundler.concat(
@@ -73,4 +114,8 @@ public class AdditionalCertificatesHealthcheck implements Healthcheck {
 	private static final String _PID =
 		"com.liferay.healthcheck.operation.internal.configuration." +
 			"HealthcheckOperationalConfiguration";
+
+	@Reference
+	private HttpsCertificateProber _httpsCertificateProber;
+
 }
\ No newline at end of file
@@ -9,7 +9,8 @@ import com.liferay.client.extension.model.ClientExtensionEntry;
 import com.liferay.client.extension.service.ClientExtensionEntryLocalService;
 import com.liferay.healthcheck.Healthcheck;
 import com.liferay.healthcheck.HealthcheckItem;
-import com.liferay.healthcheck.operation.internal.auxiliary.HttpsCertificateValidatorUtil;
+import com.liferay.healthcheck.operation.internal.auxiliary.HttpsCertificateProbe;
+import com.liferay.healthcheck.operation.internal.auxiliary.HttpsCertificateProber;
 import com.liferay.healthcheck.operation.internal.configuration.HealthcheckOperationalConfiguration;
 import com.liferay.petra.string.StringBundler;
 import com.liferay.portal.configuration.module.configuration.ConfigurationProvider;
@@ -20,6 +21,8 @@ import com.liferay.portal.kernel.util.StringUtil;
 import com.liferay.portal.kernel.util.UnicodePropertiesBuilder;
 
 import java.net.URI;
+
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
@@ -28,6 +31,9 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
@@ -37,6 +43,10 @@ import org.osgi.service.component.annotations.Reference;
  */
 @Component(
 	configurationPid = "com.liferay.healthcheck.operation.internal.configuration.HealthcheckOperationalConfiguration",
+	property = {
+		"healthcheck.invalidation.model.class.name=com.liferay.client.extension.model.ClientExtensionEntry",
+		"healthcheck.invalidation.pid=com.liferay.healthcheck.operation.internal.configuration.HealthcheckOperationalConfiguration"
+	},
 	service = Healthcheck.class
 )
 public class ClientExtensionHostHealthcheck implements Healthcheck {
@@ -45,6 +55,49 @@ public class ClientExtensionHostHealthcheck implements Healthcheck {
 	public Collection<HealthcheckItem> check(long companyId)
 		throws Exception {
 
+		return checkAsync(
+			companyId, Runnable::run
+		).get();
+	}
+
+	@Override
+	public CompletableFuture<Collection<HealthcheckItem>> checkAsync(
+		long companyId, Executor executor) {
+
+		List<HttpsCertificateProbe> httpsCertificateProbes = new ArrayList<>();
+
+		return CompletableFuture.supplyAsync(
+			() -> {
+				try {
+					return _check(companyId, httpsCertificateProbes);
+				}
+				catch (Exception exception) {
+					throw new CompletionException(exception);
+				}
+			},
+			executor
+		).thenCompose(
+			result -> _httpsCertificateProber.probeAll(
+				companyId, httpsCertificateProbes
+			).thenApply(
+				healthcheckItems -> {
+					result.addAll(healthcheckItems);
+
+					return result;
+				}
+			)
+		);
+	}
+
+	@Override
+	public String getCategory() {
+		return "healthcheck-category-operation";
+	}
+
+	private Collection<HealthcheckItem> _check(
+			long companyId, List<HttpsCertificateProbe> httpsCertificateProbes)
+		throws Exception {
+
 		Locale locale = _getDefaultLocale(companyId);
 		LinkedList<HealthcheckItem> result = new LinkedList<>();
 
@@ -136,7 +189,9 @@ public class ClientExtensionHostHealthcheck implements Healthcheck {
 								clientExtensionEntry.getName(locale), host,
 								virtualHostname));
 					}
-					HttpsCertificateValidatorUtil.validateCertificate(new URI(host).toURL(), companyId, parameterizedLink, result);
+					httpsCertificateProbes.add(
+						new HttpsCertificateProbe(
+							new URI(host).toURL(), parameterizedLink));
 				}
 				else {
 					if (url.startsWith("/document")) {
@@ -158,18 +213,13 @@ public class ClientExtensionHostHealthcheck implements Healthcheck {
 
 		if (result.isEmpty()) {
 			result.add(
-				new HealthcheckItem(
-					true, null, _MSG_NO_CLIENT_EXTENSION_DETECTED));
+				HealthcheckItem.getSuccessHealthcheckItem(
+					null, _MSG_NO_CLIENT_EXTENSION_DETECTED));
 		}
 
 		return result;
 	}
 
-	@Override
-	public String getCategory() {
-		return "healthcheck-category-operation";
-	}
-
 	private Locale _getDefaultLocale(long companyId) throws PortalException {
 		return _companyLocalService.getCompany(
 			companyId
@@ -224,4 +274,7 @@ public class ClientExtensionHostHealthcheck implements Healthcheck {
 	@Reference
 	private ConfigurationProvider _configurationProvider;
 
+	@Reference
+	private HttpsCertificateProber _httpsCertificateProber;
+
 }
\ No newline at end of file
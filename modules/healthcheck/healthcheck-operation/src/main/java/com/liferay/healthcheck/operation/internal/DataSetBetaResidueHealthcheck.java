@@ -102,8 +102,7 @@ public class DataSetBetaResidueHealthcheck implements Healthcheck {
 						MSG_RELEASE_WITH_BETA));
 			} else {
 				result.add(
-					new HealthcheckItem(
-						true,
+					HealthcheckItem.getSuccessHealthcheckItem(
 						null, 
 						MSG_RELEASE_WITHOUT_BETA));
 			}
@@ -11,7 +11,8 @@ import com.liferay.dynamic.data.mapping.service.DDMDataProviderInstanceLocalServ
 import com.liferay.healthcheck.Healthcheck;
 import com.liferay.healthcheck.HealthcheckItem;
 import com.liferay.healthcheck.operation.internal.auxiliary.DataProviderData;
-import com.liferay.healthcheck.operation.internal.auxiliary.HttpsCertificateValidatorUtil;
+import com.liferay.healthcheck.operation.internal.auxiliary.HttpsCertificateProbe;
+import com.liferay.healthcheck.operation.internal.auxiliary.HttpsCertificateProber;
 import com.liferay.healthcheck.operation.internal.configuration.HealthcheckOperationalConfiguration;
 import com.liferay.petra.string.StringBundler;
 import com.liferay.portal.configuration.module.configuration.ConfigurationProvider;
@@ -23,6 +24,8 @@ import com.liferay.portal.kernel.service.CompanyLocalService;
 import com.liferay.portal.kernel.service.GroupLocalService;
 
 import java.net.URI;
+
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
@@ -31,6 +34,9 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
@@ -40,6 +46,11 @@ import org.osgi.service.component.annotations.Reference;
  */
 @Component(
 	configurationPid = "com.liferay.healthcheck.operation.internal.configuration.HealthcheckOperationalConfiguration",
+	property = {
+		"healthcheck.invalidation.model.class.name=com.liferay.dynamic.data.mapping.model.DDMDataProviderInstance",
+		"healthcheck.invalidation.pid=com.liferay.dynamic.data.mapping.data.provider.configuration.DDMDataProviderConfiguration",
+		"healthcheck.invalidation.pid=com.liferay.healthcheck.operation.internal.configuration.HealthcheckOperationalConfiguration"
+	},
 	service = Healthcheck.class
 )
 public class FormDataProviderHealthcheck implements Healthcheck {
@@ -48,6 +59,49 @@ public class FormDataProviderHealthcheck implements Healthcheck {
 	public Collection<HealthcheckItem> check(long companyId)
 		throws Exception {
 
+		return checkAsync(
+			companyId, Runnable::run
+		).get();
+	}
+
+	@Override
+	public CompletableFuture<Collection<HealthcheckItem>> checkAsync(
+		long companyId, Executor executor) {
+
+		List<HttpsCertificateProbe> httpsCertificateProbes = new ArrayList<>();
+
+		return CompletableFuture.supplyAsync(
+			() -> {
+				try {
+					return _check(companyId, httpsCertificateProbes);
+				}
+				catch (Exception exception) {
+					throw new CompletionException(exception);
+				}
+			},
+			executor
+		).thenCompose(
+			result -> _httpsCertificateProber.probeAll(
+				companyId, httpsCertificateProbes
+			).thenApply(
+				healthcheckItems -> {
+					result.addAll(healthcheckItems);
+
+					return result;
+				}
+			)
+		);
+	}
+
+	@Override
+	public String getCategory() {
+		return "healthcheck-category-operation";
+	}
+
+	private Collection<HealthcheckItem> _check(
+			long companyId, List<HttpsCertificateProbe> httpsCertificateProbes)
+		throws Exception {
+
 		Locale locale = _getDefaultLocale(companyId);
 		LinkedList<HealthcheckItem> result = new LinkedList<>();
 
@@ -120,23 +174,23 @@ public class FormDataProviderHealthcheck implements Healthcheck {
 							_getDataProviderName(dataProvider, group, locale),
 							protocolAndHost, virtualHostname, url));
 				}
-				HttpsCertificateValidatorUtil.validateCertificate(new URI(protocolAndHost).toURL(), companyId, _getLink(dataProvider, group), result);
+
+				httpsCertificateProbes.add(
+					new HttpsCertificateProbe(
+						new URI(protocolAndHost).toURL(),
+						_getLink(dataProvider, group)));
 			}
 		}
 
 		if (result.isEmpty()) {
 			result.add(
-				new HealthcheckItem(true, null, _MSG_NO_DATAPROVIDER_DETECTED));
+				HealthcheckItem.getSuccessHealthcheckItem(
+					null, _MSG_NO_DATAPROVIDER_DETECTED));
 		}
 
 		return result;
 	}
 
-	@Override
-	public String getCategory() {
-		return "healthcheck-category-operation";
-	}
-
 	private String _getDataProviderName(
 		DDMDataProviderInstance dataProvider, Group group, Locale locale) {
 
@@ -198,6 +252,9 @@ public class FormDataProviderHealthcheck implements Healthcheck {
 	@Reference
 	private GroupLocalService _groupLocalService;
 
+	@Reference
+	private HttpsCertificateProber _httpsCertificateProber;
+
 	@Reference
 	private JSONFactory _jsonFactory;
 
@@ -36,6 +36,14 @@ public class HostnameDetectionHealthcheck implements Healthcheck {
 
 	@Override
 	public Collection<HealthcheckItem> check(long companyId) {
+		if (_hostnameDetector.isLimitReached(companyId)) {
+			return Arrays.asList(
+				new HealthcheckItem(
+					_hostnameDetector.isActive(), _CONFIGURATION_LINK, _MSG),
+				new HealthcheckItem(
+					false, _CONFIGURATION_LINK, _MSG_LIMIT_REACHED));
+		}
+
 		return Arrays.asList(
 			new HealthcheckItem(
 				_hostnameDetector.isActive(), _CONFIGURATION_LINK, _MSG));
@@ -76,6 +84,10 @@ public class HostnameDetectionHealthcheck implements Healthcheck {
 	private static final String _MSG =
 		"optional-hostname-detection-can-provide-more-healthchecks";
 
+	private static final String _MSG_LIMIT_REACHED =
+		"limit-of-detected-host-names-reached-rarely-requested-host-names-" +
+			"are-not-checked";
+
 	private static final String _PID =
 		"com.liferay.healthcheck.operation.internal.configuration." +
 			"HealthcheckOperationalSystemConfiguration";
@@ -22,7 +22,7 @@ import org.osgi.service.component.annotations.Component;
  *
  * @author Olaf Kock
  */
-@Component(service = Healthcheck.class)
+@Component(property = "healthcheck.scope=system", service = Healthcheck.class)
 public class MetaspaceHealthcheck implements Healthcheck {
 
 	@Override
@@ -2,7 +2,8 @@ package com.liferay.healthcheck.operation.internal;
 
 import com.liferay.healthcheck.Healthcheck;
 import com.liferay.healthcheck.HealthcheckItem;
-import com.liferay.healthcheck.operation.internal.auxiliary.HttpsCertificateValidatorUtil;
+import com.liferay.healthcheck.operation.internal.auxiliary.HttpsCertificateProbe;
+import com.liferay.healthcheck.operation.internal.auxiliary.HttpsCertificateProber;
 import com.liferay.healthcheck.operation.internal.configuration.HealthcheckOperationalConfiguration;
 import com.liferay.object.constants.ObjectActionExecutorConstants;
 import com.liferay.object.model.ObjectAction;
@@ -16,24 +17,58 @@ import com.liferay.portal.kernel.workflow.WorkflowConstants;
 
 import java.net.URI;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
 
 @Component(
 		configurationPid = "com.liferay.healthcheck.operation.internal.configuration.HealthcheckOperationalConfiguration",
+		property = {
+			"healthcheck.invalidation.model.class.name=com.liferay.object.model.ObjectAction",
+			"healthcheck.invalidation.pid=com.liferay.healthcheck.operation.internal.configuration.HealthcheckOperationalConfiguration"
+		},
 		service=Healthcheck.class
 )
 public class ObjectWebhookCertificateValidationHealthcheck implements Healthcheck {
 
 	@Override
 	public Collection<HealthcheckItem> check(long companyId) throws Exception {
+		return checkAsync(
+			companyId, Runnable::run
+		).get();
+	}
+
+	@Override
+	public CompletableFuture<Collection<HealthcheckItem>> checkAsync(long companyId, Executor executor) {
+		List<HttpsCertificateProbe> httpsCertificateProbes = new ArrayList<>();
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return _check(companyId, httpsCertificateProbes);
+			}
+			catch (Exception exception) {
+				throw new CompletionException(exception);
+			}
+		}, executor).thenCompose(result -> _httpsCertificateProber.probeAll(
+				companyId, httpsCertificateProbes).thenApply(healthcheckItems -> {
+			result.addAll(healthcheckItems);
+			if(result.isEmpty()) {
+				result.add(HealthcheckItem.getSuccessHealthcheckItem(null, _MSG_NO_WEBHOOK));
+			}
+			return result;
+		}));
+	}
+
+	private Collection<HealthcheckItem> _check(long companyId, List<HttpsCertificateProbe> httpsCertificateProbes) throws Exception {
 		LinkedList<HealthcheckItem> result = new LinkedList<HealthcheckItem>();
 		String virtualHostname = _companyLocalService.getCompany(
 				companyId
@@ -73,13 +108,10 @@ public class ObjectWebhookCertificateValidationHealthcheck implements Healthchec
 					} else {
 						result.add(new HealthcheckItem(false, generateLink(objectAction), _MSG, objectDefinition.getName(), objectAction.getName(), url.getHost(), virtualHostname));
 					}
-					HttpsCertificateValidatorUtil.validateCertificate(url, companyId, generateLink(objectAction), result);
+					httpsCertificateProbes.add(new HttpsCertificateProbe(url, generateLink(objectAction)));
 				}
 			}
 		}
-		if(result.isEmpty()) {
-			result.add(new HealthcheckItem(true, null, _MSG_NO_WEBHOOK));
-		}
 		return result;
 	}
 
@@ -92,6 +124,9 @@ public class ObjectWebhookCertificateValidationHealthcheck implements Healthchec
 		return "healthcheck-category-operation";
 	}
 
+	@Reference
+	private HttpsCertificateProber _httpsCertificateProber;
+
 	@Reference
 	private ObjectActionLocalService _objectActionLocalService;
 	
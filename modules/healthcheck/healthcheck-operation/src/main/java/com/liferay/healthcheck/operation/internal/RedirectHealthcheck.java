@@ -38,7 +38,10 @@ import org.osgi.service.component.annotations.Reference;
  */
 @Component(
 	configurationPid = RedirectHealthcheck.PID,
-	property = Constants.SERVICE_PID + "=" + RedirectHealthcheck.PID + ".scoped",
+	property = {
+		Constants.SERVICE_PID + "=" + RedirectHealthcheck.PID + ".scoped",
+		"healthcheck.invalidation.pid=" + RedirectHealthcheck.PID
+	},
 	service = {Healthcheck.class, ManagedServiceFactory.class}
 )
 public class RedirectHealthcheck implements Healthcheck, ManagedServiceFactory {
@@ -0,0 +1,112 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.operation.internal.auxiliary;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Estimates how often a hash was added, in fixed memory. Estimates can be too
+ * high, when hashes share counters, but never too low. All counters are
+ * halved after a number of additions, so that old additions fade out and
+ * collisions don't accumulate forever. Additions are counted in a
+ * {@link LongAdder}, so that concurrent additions don't contend for a single
+ * counter.
+ *
+ * @author Olaf Kock
+ */
+public class CountMinSketch {
+
+	/**
+	 * @param depth the number of rows, each with its own index for a hash
+	 * @param width the number of counters per row, a power of 2
+	 */
+	public CountMinSketch(int depth, int width) {
+		_depth = depth;
+		_width = width;
+
+		_agingThreshold = width * 10;
+		_counters = new AtomicIntegerArray(depth * width);
+	}
+
+	/**
+	 * @return the estimated number of additions of the hash, including this
+	 *         one
+	 */
+	public int add(long hash) {
+		_additions.increment();
+
+		if (_additions.sum() >= _agingThreshold) {
+			_age();
+		}
+
+		int estimate = Integer.MAX_VALUE;
+
+		for (int row = 0; row < _depth; row++) {
+			estimate = Math.min(
+				estimate, _counters.incrementAndGet(_getIndex(hash, row)));
+		}
+
+		return estimate;
+	}
+
+	public int estimate(long hash) {
+		int estimate = Integer.MAX_VALUE;
+
+		for (int row = 0; row < _depth; row++) {
+			estimate = Math.min(estimate, _counters.get(_getIndex(hash, row)));
+		}
+
+		return estimate;
+	}
+
+	private void _age() {
+		if (!_aging.compareAndSet(false, true)) {
+
+			// Another thread is aging already
+
+			return;
+		}
+
+		try {
+			if (_additions.sum() < _agingThreshold) {
+				return;
+			}
+
+			// Concurrent additions may be lost by the reset, they only delay
+			// the next aging
+
+			_additions.reset();
+
+			for (int i = 0; i < _counters.length(); i++) {
+				int count = _counters.get(i);
+
+				_counters.compareAndSet(i, count, count >>> 1);
+			}
+		}
+		finally {
+			_aging.set(false);
+		}
+	}
+
+	private int _getIndex(long hash, int row) {
+
+		// Derives the index of each row from the two halves of the hash
+
+		int index = (int)hash + (row * (int)(hash >>> 32));
+
+		return (row * _width) + (index & (_width - 1));
+	}
+
+	private final LongAdder _additions = new LongAdder();
+	private final AtomicBoolean _aging = new AtomicBoolean();
+	private final int _agingThreshold;
+	private final AtomicIntegerArray _counters;
+	private final int _depth;
+	private final int _width;
+
+}
@@ -1,15 +0,0 @@
-/**
- * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
- * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
- */
-
-package com.liferay.healthcheck.operation.internal.auxiliary;
-
-/**
- * @author Olaf Kock
- */
-public interface Counter {
-
-	public void tick();
-
-}
\ No newline at end of file
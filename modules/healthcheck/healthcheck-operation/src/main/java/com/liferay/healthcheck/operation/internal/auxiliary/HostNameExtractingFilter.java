@@ -14,7 +14,14 @@ import com.liferay.portal.kernel.util.PortalUtil;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.servlet.FilterChain;
 import javax.servlet.http.HttpServletRequest;
@@ -29,17 +36,125 @@ import javax.servlet.http.HttpServletResponse;
  * configuration, so that it does not have an impact on request processing time
  * unless explicitly enabled.
  *
+ * Requests are processed concurrently. Host names that were seen before are
+ * detected by looking up scheme and server name, as returned by the request,
+ * without building the base URL, and only counted. Only new host names
+ * allocate memory. Which requests are inspected is decided by the configured
+ * {@link HostnameSampler}.
+ *
+ * Clients can send any Host header, so host names are only recorded after
+ * they were requested a number of times, which is estimated in fixed memory.
+ * Requests for recorded host names don't touch the estimate, so that popular
+ * host names don't contend for the same counters. The number of recorded host
+ * names per company is limited as well. Once the limit is reached, a new host
+ * name replaces the least recently requested recorded one, if that one was
+ * not requested for a day, so that junk host names can't fill the limit
+ * forever. The number of distinct host names, including the ones that were
+ * not recorded, is estimated separately for logging.
+ *
+ * The time when each recorded host name was last requested is kept as well,
+ * with a resolution of a minute, so that host names that are no longer
+ * requested can be removed, see HostnameStore.
+ *
  * @see HostnameDetectorImpl
  * @author Olaf Kock
  */
 public class HostNameExtractingFilter extends BaseFilter {
 
-	public HostNameExtractingFilter(Counter counter) {
-		_counter = counter;
+	/**
+	 * Records base URLs that were detected before, e.g. by other cluster
+	 * nodes, without counting them as new. Base URLs that are recorded
+	 * already get the later of both last request times.
+	 *
+	 * @param lastRequestTimes the time of the last request, by base URL
+	 */
+	public void addAccessedUrls(
+		long companyId, Map<String, Long> lastRequestTimes) {
+
+		CompanyBaseUrls companyBaseUrls = _getCompanyBaseUrls(companyId);
+
+		for (Map.Entry<String, Long> entry : lastRequestTimes.entrySet()) {
+			String baseUrl = entry.getKey();
+
+			int index = baseUrl.indexOf("://");
+
+			if (index <= 0) {
+				continue;
+			}
+
+			String scheme = baseUrl.substring(0, index);
+			String host = baseUrl.substring(index + 3);
+
+			if (!companyBaseUrls.update(scheme, host, entry.getValue())) {
+				companyBaseUrls.record(
+					scheme, host, baseUrl, _maxHosts, false, entry.getValue());
+			}
+		}
+	}
+
+	/**
+	 * @return the time of the last request, by recorded base URL
+	 */
+	public Map<String, Long> getAccessedUrlLastRequestTimes(long companyId) {
+		CompanyBaseUrls companyBaseUrls = _companyBaseUrlsMap.get(companyId);
+
+		if (companyBaseUrls == null) {
+			return Collections.emptyMap();
+		}
+
+		return companyBaseUrls.getLastRequestTimes();
 	}
 
 	public Set<String> getAccessedUrls(long companyId) {
-		return Collections.unmodifiableSet(_getRequestedBaseUrls(companyId));
+		CompanyBaseUrls companyBaseUrls = _companyBaseUrlsMap.get(companyId);
+
+		if (companyBaseUrls == null) {
+			return Collections.emptySet();
+		}
+
+		return Collections.unmodifiableSet(companyBaseUrls.getBaseUrls());
+	}
+
+	public Set<Long> getCompanyIds() {
+		return Collections.unmodifiableSet(_companyBaseUrlsMap.keySet());
+	}
+
+	public boolean isLimitReached(long companyId) {
+		CompanyBaseUrls companyBaseUrls = _companyBaseUrlsMap.get(companyId);
+
+		if (companyBaseUrls == null) {
+			return false;
+		}
+
+		return companyBaseUrls._limitReached.get();
+	}
+
+	/**
+	 * Removes the recorded base URLs that were not requested since the given
+	 * time
+	 */
+	public void removeAccessedUrls(long companyId, long lastRequestTime) {
+		CompanyBaseUrls companyBaseUrls = _companyBaseUrlsMap.get(companyId);
+
+		if (companyBaseUrls != null) {
+			companyBaseUrls.remove(lastRequestTime);
+		}
+	}
+
+	public void setHostnameSampler(HostnameSampler hostnameSampler) {
+		_hostnameSampler = hostnameSampler;
+	}
+
+	public void setMaxHosts(int maxHosts) {
+		_maxHosts = maxHosts;
+	}
+
+	/**
+	 * @param promotionThreshold the number of inspected requests after which a
+	 *        host name is recorded
+	 */
+	public void setPromotionThreshold(int promotionThreshold) {
+		_promotionThreshold = promotionThreshold;
 	}
 
 	@Override
@@ -53,57 +168,422 @@ public class HostNameExtractingFilter extends BaseFilter {
 			HttpServletResponse httpServletResponse, FilterChain filterChain)
 		throws Exception {
 
-		String host = httpServletRequest.getServerName();
+		HostnameSampler hostnameSampler = _hostnameSampler;
+
+		if (hostnameSampler.isInspect()) {
+			String host = httpServletRequest.getServerName();
 
-		if ((host != null) && (host.length() > 1)) {
-			_register(
-				PortalUtil.getCompanyId(httpServletRequest),
-				httpServletRequest.getScheme() + "://" + host);
+			if ((host != null) && (host.length() > 1)) {
+				hostnameSampler.inspected(
+					_register(
+						PortalUtil.getCompanyId(httpServletRequest),
+						httpServletRequest.getScheme(), host));
+			}
+			else {
+				hostnameSampler.inspected(false);
+			}
 		}
 
 		super.processFilter(
 			httpServletRequest, httpServletResponse, filterChain);
-
-		_counter.tick();
 	}
 
-	private HashSet<String> _getRequestedBaseUrls(long companyId) {
-		HashSet<String> urls = _requestedBaseUrls.get(companyId);
+	private CompanyBaseUrls _getCompanyBaseUrls(long companyId) {
+
+		// Most installations serve a single company, so the last one is
+		// checked first to avoid boxing the company ID for the lookup
 
-		if (urls == null) {
-			urls = new HashSet<>();
+		CompanyBaseUrls companyBaseUrls = _lastCompanyBaseUrls;
 
-			_requestedBaseUrls.put(companyId, urls);
+		if ((companyBaseUrls != null) &&
+			(companyBaseUrls._companyId == companyId)) {
+
+			return companyBaseUrls;
 		}
 
-		return urls;
+		companyBaseUrls = _companyBaseUrlsMap.computeIfAbsent(
+			companyId, key -> new CompanyBaseUrls(companyId));
+
+		_lastCompanyBaseUrls = companyBaseUrls;
+
+		return companyBaseUrls;
 	}
 
-	private void _register(long companyId, String baseUrl) {
+	private boolean _register(long companyId, String scheme, String host) {
+		CompanyBaseUrls companyBaseUrls = _getCompanyBaseUrls(companyId);
+
+		if (companyBaseUrls.count(scheme, host)) {
+			return false;
+		}
+
+		String baseUrl = companyBaseUrls.add(
+			scheme, host, _maxHosts, _promotionThreshold);
+
+		if (baseUrl == null) {
+			return false;
+		}
+
 		if (_log.isInfoEnabled()) {
-			HashSet<String> set = _getRequestedBaseUrls(companyId);
+			_log.info(
+				StringBundler.concat(
+					"new URL: ", baseUrl, " in company ", companyId));
+		}
+
+		return true;
+	}
+
+	private static final Log _log = LogFactoryUtil.getLog(
+		HostNameExtractingFilter.class);
+
+	private final Map<Long, CompanyBaseUrls> _companyBaseUrlsMap =
+		new ConcurrentHashMap<>();
+	private volatile HostnameSampler _hostnameSampler;
+	private volatile CompanyBaseUrls _lastCompanyBaseUrls;
+	private volatile int _maxHosts = 100;
+	private volatile int _promotionThreshold = 3;
+
+	private static class CompanyBaseUrls {
+
+		public CompanyBaseUrls(long companyId) {
+			_companyId = companyId;
+		}
+
+		/**
+		 * Counts a request for a host name that is not recorded yet, and
+		 * records it once it was requested often enough.
+		 *
+		 * @return the new base URL, or null if the host name isn't recorded
+		 *         now
+		 */
+		public String add(
+			String scheme, String host, int maxHosts, int promotionThreshold) {
+
+			long hash = _hash(scheme, host);
+
+			_hyperLogLog.add(hash);
+
+			if (_countMinSketch.add(hash) < promotionThreshold) {
+				return null;
+			}
 
-			if (!set.contains(baseUrl)) {
-				set.add(baseUrl);
+			String baseUrl = scheme + "://" + host;
+
+			if (record(
+					scheme, host, baseUrl, maxHosts, true,
+					System.currentTimeMillis())) {
+
+				return baseUrl;
+			}
+
+			return null;
+		}
+
+		/**
+		 * Counts a request for a recorded host name by moving its last request
+		 * time forward
+		 *
+		 * @return true if the host name is recorded
+		 */
+		public boolean count(String scheme, String host) {
+			RecordedHost recordedHost = _getRecordedHost(scheme, host);
+
+			if (recordedHost == null) {
+				return false;
+			}
+
+			recordedHost.requested(System.currentTimeMillis());
+
+			return true;
+		}
+
+		public Set<String> getBaseUrls() {
+			Set<String> baseUrls = new HashSet<>();
+
+			for (Map<String, RecordedHost> recordedHosts :
+					_schemeRecordedHosts.values()) {
+
+				for (RecordedHost recordedHost : recordedHosts.values()) {
+					baseUrls.add(recordedHost._baseUrl);
+				}
+			}
+
+			return baseUrls;
+		}
+
+		public Map<String, Long> getLastRequestTimes() {
+			Map<String, Long> lastRequestTimes = new HashMap<>();
+
+			for (Map<String, RecordedHost> recordedHosts :
+					_schemeRecordedHosts.values()) {
+
+				for (RecordedHost recordedHost : recordedHosts.values()) {
+					lastRequestTimes.put(
+						recordedHost._baseUrl, recordedHost._lastRequestTime);
+				}
+			}
+
+			return lastRequestTimes;
+		}
+
+		/**
+		 * Also adds the host name to the estimated number of distinct host
+		 * names, so that the ones detected before count as well.
+		 *
+		 * @param  replace whether the host name replaces the least recently
+		 *         requested recorded one, once the limit is reached
+		 * @return true if the host name was recorded, false if it was recorded
+		 *         before, or the limit is reached
+		 */
+		public boolean record(
+			String scheme, String host, String baseUrl, int maxHosts,
+			boolean replace, long lastRequestTime) {
+
+			_hyperLogLog.add(_hash(scheme, host));
+
+			RecordedHost recordedHost = new RecordedHost(
+				baseUrl, lastRequestTime);
+
+			if (_size.incrementAndGet() > maxHosts) {
+				_size.decrementAndGet();
+
+				if (replace &&
+					_replaceLeastRecent(
+						scheme, host, recordedHost,
+						lastRequestTime - _REPLACEMENT_IDLE_TIME)) {
+
+					return true;
+				}
+
+				if (_limitReached.compareAndSet(false, true) &&
+					_log.isWarnEnabled()) {
+
+					_log.warn(
+						StringBundler.concat(
+							"Recorded ", maxHosts, " host names in company ",
+							_companyId, ", about ", _hyperLogLog.estimate(),
+							" distinct host names were requested"));
+				}
+
+				return false;
+			}
+
+			Map<String, RecordedHost> recordedHosts =
+				_schemeRecordedHosts.computeIfAbsent(
+					scheme, key -> new ConcurrentHashMap<>());
+
+			if (recordedHosts.putIfAbsent(host, recordedHost) == null) {
+
+				// The limit may have been raised
+
+				_limitReached.set(false);
+
+				return true;
+			}
+
+			// Another request recorded it first
+
+			_size.decrementAndGet();
+
+			return false;
+		}
+
+		/**
+		 * Removes the recorded host names that were not requested since the
+		 * given time. Removing any host name drops the number of recorded
+		 * host names below the limit.
+		 */
+		public synchronized void remove(long lastRequestTime) {
+			for (Map<String, RecordedHost> recordedHosts :
+					_schemeRecordedHosts.values()) {
+
+				Iterator<RecordedHost> iterator =
+					recordedHosts.values(
+					).iterator();
+
+				while (iterator.hasNext()) {
+					RecordedHost recordedHost = iterator.next();
+
+					if (recordedHost._lastRequestTime < lastRequestTime) {
+						iterator.remove();
+
+						_limitReached.set(false);
+						_size.decrementAndGet();
+
+						if (_log.isInfoEnabled()) {
+							_log.info(
+								StringBundler.concat(
+									"Removed URL ", recordedHost._baseUrl,
+									" in company ", _companyId,
+									", it was not requested since ",
+									recordedHost._lastRequestTime));
+						}
+					}
+				}
+			}
+		}
+
+		/**
+		 * Sets the time of the last request of a recorded host name, unless
+		 * it was requested later
+		 *
+		 * @return true if the host name is recorded
+		 */
+		public boolean update(
+			String scheme, String host, long lastRequestTime) {
+
+			RecordedHost recordedHost = _getRecordedHost(scheme, host);
+
+			if (recordedHost == null) {
+				return false;
+			}
+
+			recordedHost.requested(lastRequestTime);
+
+			return true;
+		}
+
+		private RecordedHost _getRecordedHost(String scheme, String host) {
+			Map<String, RecordedHost> recordedHosts = _schemeRecordedHosts.get(
+				scheme);
+
+			if (recordedHosts == null) {
+				return null;
+			}
+
+			return recordedHosts.get(host);
+		}
+
+		/**
+		 * Replaces the least recently requested recorded host name, if it was
+		 * not requested since the given time. Only called once the limit is
+		 * reached, so scanning all recorded host names is bounded by the
+		 * limit. Replacements are serialized, so that two of them don't pick
+		 * the same host name.
+		 */
+		private synchronized boolean _replaceLeastRecent(
+			String scheme, String host, RecordedHost recordedHost,
+			long idleTime) {
+
+			Map<String, RecordedHost> leastRecentRecordedHosts = null;
+			String leastRecentHost = null;
+			long leastRecentTime = idleTime;
+
+			for (Map<String, RecordedHost> recordedHosts :
+					_schemeRecordedHosts.values()) {
+
+				for (Map.Entry<String, RecordedHost> entry :
+						recordedHosts.entrySet()) {
+
+					RecordedHost curRecordedHost = entry.getValue();
+
+					if (curRecordedHost._lastRequestTime < leastRecentTime) {
+						leastRecentRecordedHosts = recordedHosts;
+						leastRecentHost = entry.getKey();
+						leastRecentTime = curRecordedHost._lastRequestTime;
+					}
+				}
+			}
+
+			if (leastRecentHost == null) {
+				return false;
+			}
+
+			Map<String, RecordedHost> recordedHosts =
+				_schemeRecordedHosts.computeIfAbsent(
+					scheme, key -> new ConcurrentHashMap<>());
+
+			if (recordedHosts.putIfAbsent(host, recordedHost) != null) {
+
+				// Another request recorded it first
+
+				return false;
+			}
+
+			RecordedHost leastRecentRecordedHost =
+				leastRecentRecordedHosts.remove(leastRecentHost);
+
+			if (_log.isInfoEnabled()) {
 				_log.info(
 					StringBundler.concat(
-						"new URL: ", baseUrl, " in company ", companyId));
+						"Replaced URL ", leastRecentRecordedHost._baseUrl,
+						" by ", recordedHost._baseUrl, " in company ",
+						_companyId));
 			}
+
+			return true;
 		}
-		else {
-			_getRequestedBaseUrls(
-				companyId
-			).add(
-				baseUrl
-			);
+
+		private long _hash(String scheme, String host) {
+			long hash = _mix(_seed, scheme.length());
+
+			for (int i = 0; i < scheme.length(); i++) {
+				hash = _mix(hash, scheme.charAt(i));
+			}
+
+			for (int i = 0; i < host.length(); i++) {
+				hash = _mix(hash, host.charAt(i));
+			}
+
+			hash ^= hash >>> 33;
+			hash *= 0xFF51AFD7ED558CCDL;
+			hash ^= hash >>> 33;
+
+			return hash;
+		}
+
+		private long _mix(long hash, long value) {
+			hash = (hash ^ value) * 0x9E3779B97F4A7C15L;
+
+			return hash ^ (hash >>> 32);
 		}
+
+		private static final long _REPLACEMENT_IDLE_TIME =
+			TimeUnit.DAYS.toMillis(1);
+
+		private final long _companyId;
+		private final CountMinSketch _countMinSketch = new CountMinSketch(
+			4, 1024);
+		private final HyperLogLog _hyperLogLog = new HyperLogLog(10);
+		private final AtomicBoolean _limitReached = new AtomicBoolean();
+
+		// Recorded hosts by host name, by scheme
+
+		private final Map<String, Map<String, RecordedHost>>
+			_schemeRecordedHosts = new ConcurrentHashMap<>();
+
+		// Random per company, so that colliding host names can't be prepared
+		// in advance
+
+		private final long _seed = ThreadLocalRandom.current(
+		).nextLong();
+		private final AtomicInteger _size = new AtomicInteger();
+
 	}
 
-	private static final Log _log = LogFactoryUtil.getLog(
-		HostNameExtractingFilter.class);
+	private static class RecordedHost {
+
+		public RecordedHost(String baseUrl, long lastRequestTime) {
+			_baseUrl = baseUrl;
+			_lastRequestTime = lastRequestTime;
+		}
+
+		/**
+		 * Moves the time of the last request forward. Popular host names are
+		 * requested concurrently all the time, so the time is only written
+		 * once per minute. Concurrent writes may move it back by less than
+		 * that.
+		 */
+		public void requested(long time) {
+			if ((time - _lastRequestTime) >= _LAST_REQUEST_TIME_RESOLUTION) {
+				_lastRequestTime = time;
+			}
+		}
+
+		private static final long _LAST_REQUEST_TIME_RESOLUTION = 60000;
 
-	private final Counter _counter;
-	private final HashMap<Long, HashSet<String>> _requestedBaseUrls =
-		new HashMap<>();
+		private final String _baseUrl;
+		private volatile long _lastRequestTime;
+
+	}
 
 }
\ No newline at end of file
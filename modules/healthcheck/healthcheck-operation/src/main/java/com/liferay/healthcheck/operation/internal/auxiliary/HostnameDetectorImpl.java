@@ -7,13 +7,23 @@ package com.liferay.healthcheck.operation.internal.auxiliary;
 
 import com.liferay.healthcheck.HostnameDetector;
 import com.liferay.healthcheck.operation.internal.configuration.HealthcheckOperationalSystemConfiguration;
+import com.liferay.petra.string.StringBundler;
 import com.liferay.portal.configuration.metatype.bnd.util.ConfigurableUtil;
 import com.liferay.portal.kernel.log.Log;
 import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.service.PortalPreferencesLocalService;
+import com.liferay.portal.kernel.util.NamedThreadFactory;
+import com.liferay.portal.kernel.util.Time;
 
 import java.util.Hashtable;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.servlet.Filter;
 
@@ -25,6 +35,7 @@ import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.annotations.Reference;
 
 /**
  * @author Olaf Kock
@@ -37,6 +48,8 @@ public class HostnameDetectorImpl implements HostnameDetector {
 
 	@Override
 	public Set<String> getAccessedUrls(long companyId) {
+		_load(companyId);
+
 		return _hostNameExtractingFilter.getAccessedUrls(companyId);
 	}
 
@@ -49,62 +62,219 @@ public class HostnameDetectorImpl implements HostnameDetector {
 		return false;
 	}
 
+	@Override
+	public boolean isLimitReached(long companyId) {
+		_load(companyId);
+
+		return _hostNameExtractingFilter.isLimitReached(companyId);
+	}
+
 	@Activate
-	@Modified
 	protected void activate(Map<String, Object> properties) {
 		if (_log.isDebugEnabled()) {
 			_log.debug("Activating");
 		}
 
-		int maxFilterExecutions = ConfigurableUtil.createConfigurable(
-			HealthcheckOperationalSystemConfiguration.class, properties
-		).maxFilterExecutions();
+		_hostnameStore = new HostnameStore(
+			_hostNameExtractingFilter, _portalPreferencesLocalService);
+		_scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(
+			new NamedThreadFactory(
+				"Healthcheck Hostname Store", Thread.NORM_PRIORITY,
+				HostnameDetectorImpl.class.getClassLoader()));
 
-		if (maxFilterExecutions < 0) {
-			_useCount = Integer.MAX_VALUE;
+		modified(properties);
+	}
+
+	@Deactivate
+	protected void deactivate() {
+		if (_log.isDebugEnabled()) {
+			_log.debug("Deactivating");
+		}
+
+		_stopFilter();
+
+		// The last flush runs on the executor as well, so that it never
+		// overlaps with a scheduled one. Shutting down cancels those.
+
+		if (_persistenceEnabled) {
+			_scheduledExecutorService.execute(this::_flush);
+		}
+
+		_scheduledExecutorService.shutdown();
+
+		try {
+			if (!_scheduledExecutorService.awaitTermination(
+					_FLUSH_TIMEOUT, TimeUnit.SECONDS)) {
+
+				_log.error("Unable to store the host names in time");
+
+				_scheduledExecutorService.shutdownNow();
+			}
+		}
+		catch (InterruptedException interruptedException) {
+			_scheduledExecutorService.shutdownNow();
+
+			Thread.currentThread(
+			).interrupt();
+		}
+	}
+
+	@Modified
+	protected void modified(Map<String, Object> properties) {
+		HealthcheckOperationalSystemConfiguration
+			healthcheckOperationalSystemConfiguration =
+				ConfigurableUtil.createConfigurable(
+					HealthcheckOperationalSystemConfiguration.class,
+					properties);
+
+		_hostNameExtractingFilter.setMaxHosts(
+			healthcheckOperationalSystemConfiguration.
+				hostnameDetectionMaxHosts());
+		_hostNameExtractingFilter.setPromotionThreshold(
+			healthcheckOperationalSystemConfiguration.
+				hostnameDetectionPromotionThreshold());
+		_hostnameStore.setMaxAge(
+			TimeUnit.DAYS.toMillis(
+				healthcheckOperationalSystemConfiguration.
+					hostnameDetectionMaxAgeDays()));
+
+		_scheduleFlush(
+			healthcheckOperationalSystemConfiguration.
+				hostnameDetectionFlushInterval());
+
+		HostnameSampler hostnameSampler = _createHostnameSampler(
+			healthcheckOperationalSystemConfiguration);
+
+		if (hostnameSampler == null) {
+			if (_log.isInfoEnabled()) {
+				_log.info("Filtering for host names in healthchecks disabled");
+			}
+
+			_stopFilter();
+
+			return;
+		}
+
+		_hostNameExtractingFilter.setHostnameSampler(hostnameSampler);
+
+		_startFilter();
+	}
+
+	private HostnameSampler _createHostnameSampler(
+		HealthcheckOperationalSystemConfiguration
+			healthcheckOperationalSystemConfiguration) {
+
+		String hostnameDetectionMode =
+			healthcheckOperationalSystemConfiguration.hostnameDetectionMode();
+		int samplingRate =
+			healthcheckOperationalSystemConfiguration.
+				hostnameDetectionSamplingRate();
+
+		if (hostnameDetectionMode.equals("sampling")) {
+			if (samplingRate <= 0) {
+				return null;
+			}
 
 			if (_log.isInfoEnabled()) {
 				_log.info(
-					"Activating unlimited filtering for host names in " +
-						"healthchecks");
+					"Filtering for host names in 1 of " + samplingRate +
+						" requests");
 			}
+
+			return new RateHostnameSampler(samplingRate);
 		}
-		else {
-			_useCount = maxFilterExecutions;
+
+		if (hostnameDetectionMode.equals("time-window")) {
+			int windowSeconds =
+				healthcheckOperationalSystemConfiguration.
+					hostnameDetectionWindowSeconds();
+
+			if (windowSeconds <= 0) {
+				return null;
+			}
 
 			if (_log.isInfoEnabled()) {
 				_log.info(
-					"Future Filter executions limited to: " +
-						maxFilterExecutions);
+					"Filtering for host names during the first " +
+						windowSeconds + " seconds of each hour");
 			}
+
+			return new TimeWindowHostnameSampler(windowSeconds * Time.SECOND);
 		}
 
-		if (_useCount > 0) {
-			_startFilter();
+		if (hostnameDetectionMode.equals("until-quiet")) {
+			int quietMinutes =
+				healthcheckOperationalSystemConfiguration.
+					hostnameDetectionQuietMinutes();
+
+			if (quietMinutes <= 0) {
+				return null;
+			}
+
+			if (_log.isInfoEnabled()) {
+				_log.info(
+					StringBundler.concat(
+						"Filtering for host names until no new host name was ",
+						"seen for ", quietMinutes, " minutes, then in 1 of ",
+						samplingRate, " requests"));
+			}
+
+			return new UntilQuietHostnameSampler(
+				quietMinutes * Time.MINUTE, samplingRate);
 		}
-	}
 
-	@Deactivate
-	protected void deactivate() {
-		if (_log.isDebugEnabled()) {
-			_log.debug("Deactivating");
+		int maxFilterExecutions =
+			healthcheckOperationalSystemConfiguration.maxFilterExecutions();
+
+		if (maxFilterExecutions < 0) {
+			if (_log.isInfoEnabled()) {
+				_log.info(
+					"Activating unlimited filtering for host names in " +
+						"healthchecks");
+			}
+
+			return new RateHostnameSampler(1);
 		}
 
-		_stopFilter();
+		if (maxFilterExecutions == 0) {
+			return null;
+		}
+
+		if (_log.isInfoEnabled()) {
+			_log.info(
+				"Future Filter executions limited to: " + maxFilterExecutions);
+		}
+
+		return new BudgetHostnameSampler(maxFilterExecutions);
 	}
 
-	private void _limitUsage() {
-		if (_useCount < Integer.MAX_VALUE) {
-			_useCount--;
+	private void _flush() {
+		_hostnameStore.flush(isActive());
+	}
 
-			if (_log.isInfoEnabled() && ((_useCount % 1000) == 0)) {
-				_log.info("Future Filter executions limited to: " + _useCount);
-			}
+	private void _load(long companyId) {
+		if (_persistenceEnabled) {
+			_hostnameStore.load(companyId);
+		}
+	}
 
-			if (_useCount < 0) {
-				_stopFilter();
-			}
+	private synchronized void _scheduleFlush(int flushInterval) {
+		if (_flushScheduledFuture != null) {
+			_flushScheduledFuture.cancel(false);
+
+			_flushScheduledFuture = null;
 		}
+
+		_persistenceEnabled = flushInterval > 0;
+
+		if (!_persistenceEnabled) {
+			return;
+		}
+
+		_flushScheduledFuture =
+			_scheduledExecutorService.scheduleWithFixedDelay(
+				this::_flush, flushInterval, flushInterval,
+				TimeUnit.MINUTES);
 	}
 
 	private synchronized void _startFilter() {
@@ -156,20 +326,155 @@ public class HostnameDetectorImpl implements HostnameDetector {
 		}
 	}
 
+	private static final long _FLUSH_TIMEOUT = 30;
+
 	private static final Log _log = LogFactoryUtil.getLog(
 		HostnameDetectorImpl.class);
 
+	private ScheduledFuture<?> _flushScheduledFuture;
 	private final HostNameExtractingFilter _hostNameExtractingFilter =
-		new HostNameExtractingFilter(
-			new Counter() {
+		new HostNameExtractingFilter();
+	private HostnameStore _hostnameStore;
+	private volatile boolean _persistenceEnabled;
+
+	@Reference
+	private PortalPreferencesLocalService _portalPreferencesLocalService;
+
+	private ScheduledExecutorService _scheduledExecutorService;
+	private volatile ServiceRegistration<Filter> _serviceRegistration;
+
+	/**
+	 * Inspects every request until the budget is used up. Inspections are
+	 * counted in a LongAdder, so that request threads don't contend for it.
+	 */
+	private class BudgetHostnameSampler implements HostnameSampler {
+
+		public BudgetHostnameSampler(int budget) {
+			_budget = budget;
+		}
+
+		@Override
+		public void inspected(boolean newHost) {
+			_inspections.increment();
+
+			if (_inspections.sum() >= _budget) {
+				_stopFilter();
+			}
+		}
+
+		@Override
+		public boolean isInspect() {
+			return true;
+		}
+
+		private final int _budget;
+		private final LongAdder _inspections = new LongAdder();
+
+	}
+
+	/**
+	 * Inspects 1 in N requests, chosen randomly per thread, so that request
+	 * threads don't share any state
+	 */
+	private static class RateHostnameSampler implements HostnameSampler {
+
+		public RateHostnameSampler(int samplingRate) {
+			_samplingRate = samplingRate;
+		}
+
+		@Override
+		public void inspected(boolean newHost) {
+		}
+
+		@Override
+		public boolean isInspect() {
+			if (_samplingRate == 1) {
+				return true;
+			}
 
-				public void tick() {
-					_limitUsage();
-				}
+			ThreadLocalRandom threadLocalRandom = ThreadLocalRandom.current();
 
-			});
+			if (threadLocalRandom.nextInt(_samplingRate) == 0) {
+				return true;
+			}
+
+			return false;
+		}
+
+		private final int _samplingRate;
+
+	}
+
+	/**
+	 * Inspects every request during the first milliseconds of each hour
+	 */
+	private static class TimeWindowHostnameSampler implements HostnameSampler {
+
+		public TimeWindowHostnameSampler(long window) {
+			_window = window;
+		}
+
+		@Override
+		public void inspected(boolean newHost) {
+		}
+
+		@Override
+		public boolean isInspect() {
+			if ((System.currentTimeMillis() % Time.HOUR) < _window) {
+				return true;
+			}
+
+			return false;
+		}
+
+		private final long _window;
+
+	}
+
+	/**
+	 * Inspects every request until no new host name was seen for some time,
+	 * then continues to inspect 1 in N requests. A new host name found in the
+	 * samples restarts the inspection of every request.
+	 */
+	private class UntilQuietHostnameSampler implements HostnameSampler {
 
-	private ServiceRegistration<Filter> _serviceRegistration;
-	private volatile int _useCount = 1000;
+		public UntilQuietHostnameSampler(long quietTime, int samplingRate) {
+			_quietTime = quietTime;
+
+			if (samplingRate > 0) {
+				_rateHostnameSampler = new RateHostnameSampler(samplingRate);
+			}
+			else {
+				_rateHostnameSampler = null;
+			}
+		}
+
+		@Override
+		public void inspected(boolean newHost) {
+			if (newHost) {
+				_lastNewHostTime = System.currentTimeMillis();
+			}
+		}
+
+		@Override
+		public boolean isInspect() {
+			if ((System.currentTimeMillis() - _lastNewHostTime) < _quietTime) {
+				return true;
+			}
+
+			if (_rateHostnameSampler == null) {
+				_stopFilter();
+
+				return false;
+			}
+
+			return _rateHostnameSampler.isInspect();
+		}
+
+		private volatile long _lastNewHostTime = System.currentTimeMillis();
+		private final long _quietTime;
+		private final RateHostnameSampler _rateHostnameSampler;
+
+	}
 
 }
\ No newline at end of file
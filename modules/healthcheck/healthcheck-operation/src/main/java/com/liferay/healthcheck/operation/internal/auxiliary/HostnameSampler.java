@@ -0,0 +1,26 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.operation.internal.auxiliary;
+
+/**
+ * Decides which requests are inspected by the HostNameExtractingFilter. Both
+ * methods are called concurrently by all request threads.
+ *
+ * @author Olaf Kock
+ */
+public interface HostnameSampler {
+
+	/**
+	 * Called after a request was inspected
+	 *
+	 * @param newHost true if the request used a host name that wasn't seen
+	 *        before
+	 */
+	public void inspected(boolean newHost);
+
+	public boolean isInspect();
+
+}
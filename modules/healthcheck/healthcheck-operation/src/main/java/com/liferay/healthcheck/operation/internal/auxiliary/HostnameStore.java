@@ -0,0 +1,256 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.operation.internal.auxiliary;
+
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.portlet.PortletPreferencesFactoryUtil;
+import com.liferay.portal.kernel.service.PortalPreferencesLocalService;
+import com.liferay.portal.kernel.util.PortletKeys;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.portlet.PortletPreferences;
+
+/**
+ * Stores the host names that the HostNameExtractingFilter recorded in the
+ * portal preferences of each company. All cluster nodes share the database,
+ * so every flush merges the host names of this node with the ones that the
+ * other nodes stored, and loads theirs into the filter. After a restart, the
+ * stored host names are available without inspecting any request.
+ *
+ * Every host name is stored with the time of its last request, and host names
+ * that were not requested for the maximum age are removed, so that host names
+ * that are out of use do not take up the limit of the filter forever. Only a
+ * running filter notices requests, so host names only expire while it runs.
+ *
+ * Loading and flushing never happens on the request path. All flushes of a
+ * node run on the same thread, including the last one on deactivation.
+ *
+ * @author Olaf Kock
+ */
+public class HostnameStore {
+
+	public HostnameStore(
+		HostNameExtractingFilter hostNameExtractingFilter,
+		PortalPreferencesLocalService portalPreferencesLocalService) {
+
+		_hostNameExtractingFilter = hostNameExtractingFilter;
+		_portalPreferencesLocalService = portalPreferencesLocalService;
+	}
+
+	/**
+	 * Merges the host names of all companies with the stored ones
+	 *
+	 * @param expire whether host names that were not requested for the
+	 *        maximum age are removed. Pass false while the filter is stopped,
+	 *        as then no request refreshes the time of the last request.
+	 */
+	public void flush(boolean expire) {
+		Set<Long> companyIds = new HashSet<>(_loadedCompanyIds);
+
+		companyIds.addAll(_hostNameExtractingFilter.getCompanyIds());
+
+		for (long companyId : companyIds) {
+			try {
+				_flush(companyId, expire);
+			}
+			catch (Exception exception) {
+				_log.error(
+					"Unable to store the host names of company " + companyId,
+					exception);
+			}
+		}
+	}
+
+	/**
+	 * Loads the stored host names of the company into the filter, unless
+	 * this happened before
+	 */
+	public void load(long companyId) {
+		if (_loadedCompanyIds.contains(companyId)) {
+			return;
+		}
+
+		// Concurrent callers wait for the first one, and a company is only
+		// marked as loaded once it was, so that failures are tried again
+
+		synchronized (this) {
+			if (_loadedCompanyIds.contains(companyId)) {
+				return;
+			}
+
+			try {
+				_hostNameExtractingFilter.addAccessedUrls(
+					companyId,
+					_getLastRequestTimes(_getStoredValues(companyId)));
+
+				_loadedCompanyIds.add(companyId);
+			}
+			catch (Exception exception) {
+				_log.error(
+					"Unable to load the host names of company " + companyId,
+					exception);
+			}
+		}
+	}
+
+	/**
+	 * @param maxAge the milliseconds after which host names that were not
+	 *        requested are removed, or 0 to keep them
+	 */
+	public void setMaxAge(long maxAge) {
+		_maxAge = maxAge;
+	}
+
+	private void _flush(long companyId, boolean expire) throws Exception {
+		String[] storedValues = _getStoredValues(companyId);
+
+		Map<String, Long> storedLastRequestTimes = _getLastRequestTimes(
+			storedValues);
+
+		_hostNameExtractingFilter.addAccessedUrls(
+			companyId, storedLastRequestTimes);
+
+		_loadedCompanyIds.add(companyId);
+
+		long maxAge = _maxAge;
+
+		if (expire && (maxAge > 0)) {
+			_hostNameExtractingFilter.removeAccessedUrls(
+				companyId, System.currentTimeMillis() - maxAge);
+		}
+
+		Map<String, Long> lastRequestTimes =
+			_hostNameExtractingFilter.getAccessedUrlLastRequestTimes(
+				companyId);
+
+		if (!_isChanged(
+				storedValues, storedLastRequestTimes, lastRequestTimes)) {
+
+			return;
+		}
+
+		String[] values = new String[lastRequestTimes.size()];
+
+		int i = 0;
+
+		for (Map.Entry<String, Long> entry : lastRequestTimes.entrySet()) {
+			values[i++] = entry.getKey() + " " + entry.getValue();
+		}
+
+		PortletPreferences portletPreferences = _getPortletPreferences(
+			companyId);
+
+		portletPreferences.setValues(_PREFERENCE_NAME, values);
+
+		_portalPreferencesLocalService.updatePreferences(
+			companyId, PortletKeys.PREFS_OWNER_TYPE_COMPANY,
+			PortletPreferencesFactoryUtil.toXML(portletPreferences));
+	}
+
+	/**
+	 * @return the time of the last request, by stored base URL. Base URLs
+	 *         that were stored without a time count as requested now.
+	 */
+	private Map<String, Long> _getLastRequestTimes(String[] values) {
+		Map<String, Long> lastRequestTimes = new HashMap<>();
+
+		for (String value : values) {
+			int index = value.lastIndexOf(' ');
+
+			if (index < 0) {
+				lastRequestTimes.put(value, System.currentTimeMillis());
+
+				continue;
+			}
+
+			try {
+				lastRequestTimes.put(
+					value.substring(0, index),
+					Long.parseLong(value.substring(index + 1)));
+			}
+			catch (NumberFormatException numberFormatException) {
+				if (_log.isDebugEnabled()) {
+					_log.debug(
+						"Ignoring stored host name " + value,
+						numberFormatException);
+				}
+			}
+		}
+
+		return lastRequestTimes;
+	}
+
+	private PortletPreferences _getPortletPreferences(long companyId) {
+		return _portalPreferencesLocalService.getPreferences(
+			companyId, PortletKeys.PREFS_OWNER_TYPE_COMPANY);
+	}
+
+	private String[] _getStoredValues(long companyId) {
+		PortletPreferences portletPreferences = _getPortletPreferences(
+			companyId);
+
+		return portletPreferences.getValues(_PREFERENCE_NAME, new String[0]);
+	}
+
+	/**
+	 * Only stores when host names were added or removed, or when the time of
+	 * a last request moved by more than the resolution of the stored times,
+	 * so that busy sites do not write on every flush. Host names that were
+	 * stored without a time are stored again, so that they can expire.
+	 */
+	private boolean _isChanged(
+		String[] storedValues, Map<String, Long> storedLastRequestTimes,
+		Map<String, Long> lastRequestTimes) {
+
+		for (String storedValue : storedValues) {
+			if (storedValue.indexOf(' ') < 0) {
+				return true;
+			}
+		}
+
+		if (!storedLastRequestTimes.keySet(
+			).equals(
+				lastRequestTimes.keySet()
+			)) {
+
+			return true;
+		}
+
+		for (Map.Entry<String, Long> entry : lastRequestTimes.entrySet()) {
+			long storedLastRequestTime = storedLastRequestTimes.get(
+				entry.getKey());
+
+			if ((entry.getValue() - storedLastRequestTime) >=
+					_LAST_REQUEST_TIME_RESOLUTION) {
+
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static final long _LAST_REQUEST_TIME_RESOLUTION =
+		TimeUnit.HOURS.toMillis(1);
+
+	private static final String _PREFERENCE_NAME =
+		"com.liferay.healthcheck.operation.accessed.urls";
+
+	private static final Log _log = LogFactoryUtil.getLog(HostnameStore.class);
+
+	private final HostNameExtractingFilter _hostNameExtractingFilter;
+	private final Set<Long> _loadedCompanyIds = ConcurrentHashMap.newKeySet();
+	private volatile long _maxAge;
+	private final PortalPreferencesLocalService _portalPreferencesLocalService;
+
+}
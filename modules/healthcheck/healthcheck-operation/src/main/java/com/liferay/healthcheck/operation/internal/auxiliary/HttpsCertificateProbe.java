@@ -0,0 +1,35 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.operation.internal.auxiliary;
+
+import java.net.URL;
+
+/**
+ * A URL whose certificate is to be validated, along with the hint (link)
+ * that the resulting HealthcheckItem points to. Healthchecks collect these
+ * first, so that the actual connections can be made concurrently.
+ *
+ * @author Olaf Kock
+ */
+public class HttpsCertificateProbe {
+
+	public HttpsCertificateProbe(URL url, String hint) {
+		_url = url;
+		_hint = hint;
+	}
+
+	public String getHint() {
+		return _hint;
+	}
+
+	public URL getURL() {
+		return _url;
+	}
+
+	private final String _hint;
+	private final URL _url;
+
+}
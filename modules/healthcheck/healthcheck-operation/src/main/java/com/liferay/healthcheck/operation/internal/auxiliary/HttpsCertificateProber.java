@@ -0,0 +1,350 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.operation.internal.auxiliary;
+
+import com.liferay.healthcheck.HealthcheckItem;
+import com.liferay.healthcheck.operation.internal.auxiliary.cert.HttpsCertificateValidatorImpl;
+import com.liferay.healthcheck.operation.internal.configuration.HealthcheckOperationalSystemConfiguration;
+import com.liferay.petra.string.StringBundler;
+import com.liferay.portal.configuration.metatype.bnd.util.ConfigurableUtil;
+import com.liferay.portal.kernel.settings.CompanyServiceSettingsLocator;
+import com.liferay.portal.kernel.settings.FallbackKeysSettingsUtil;
+import com.liferay.portal.kernel.settings.SettingsException;
+import com.liferay.portal.kernel.settings.SettingsLocator;
+import com.liferay.portal.kernel.settings.TypedSettings;
+import com.liferay.portal.kernel.util.HtmlUtil;
+import com.liferay.portal.kernel.util.NamedThreadFactory;
+
+import java.io.IOException;
+
+import java.net.URL;
+import java.net.UnknownHostException;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
+
+/**
+ * Validates the HTTPS certificates of the URLs that Healthchecks reference.
+ * With this add-on, they can visualize certificates that need renewal, which
+ * is otherwise easy to miss until the certificate actually expires.
+ *
+ * All probes of a batch are connected concurrently, on a pool of threads that
+ * is shared by all Healthchecks, so that the number of parallel connections
+ * is bounded. Every connection has its own connect and read timeout, so a
+ * batch with a few slow hosts takes about one timeout, not one per host.
+ * Probes for the same host within a batch share a single connection.
+ *
+ * Healthchecks that validate certificates implement checkAsync by collecting
+ * their probes on the given executor and composing the result of probeAll,
+ * and check by running checkAsync on the calling thread. The given executor
+ * never waits for a remote server.
+ *
+ * Validity results are cached per company, see HttpsCertificateValidatorImpl,
+ * to limit time-consuming external connections and to make sure that external
+ * servers aren't getting upset with occasional connections. As we're dealing
+ * with weeks validity, no attention has been paid to time zones. Changes of
+ * the cache age take effect for the cached results as well.
+ *
+ * Connections honor the JVM's proxy settings, i.e. the system properties
+ * https.proxyHost, https.proxyPort and http.nonProxyHosts, through the default
+ * ProxySelector. The TLS handshake is tunneled through the proxy, so the
+ * certificates are still those of the external server.
+ *
+ * @author Olaf Kock
+ */
+@Component(
+	configurationPid = "com.liferay.healthcheck.operation.internal.configuration.HealthcheckOperationalSystemConfiguration",
+	service = HttpsCertificateProber.class
+)
+public class HttpsCertificateProber {
+
+	/**
+	 * Starts validating the certificates of all probes concurrently.
+	 *
+	 * @return one future per probe, in the order of the probes. Each future
+	 *         completes with the items of its probe, as soon as its host
+	 *         responded or timed out.
+	 */
+	public List<CompletableFuture<List<HealthcheckItem>>> probe(
+		long companyId, List<HttpsCertificateProbe> httpsCertificateProbes) {
+
+		List<CompletableFuture<List<HealthcheckItem>>> futures =
+			new ArrayList<>(httpsCertificateProbes.size());
+		Map<String, CompletableFuture<LocalDateTime>> validityFutures =
+			new HashMap<>();
+
+		for (HttpsCertificateProbe httpsCertificateProbe :
+				httpsCertificateProbes) {
+
+			URL url = httpsCertificateProbe.getURL();
+
+			if (!"https".equals(url.getProtocol())) {
+				futures.add(
+					CompletableFuture.completedFuture(
+						Collections.singletonList(
+							new HealthcheckItem(
+								false, httpsCertificateProbe.getHint(),
+								_MSG_NOT_HTTPS, url.toString()))));
+
+				continue;
+			}
+
+			CompletableFuture<LocalDateTime> validityFuture =
+				validityFutures.computeIfAbsent(
+					StringBundler.concat(url.getHost(), ":", url.getPort()),
+					key -> CompletableFuture.supplyAsync(
+						() -> {
+							try {
+								return _extractValidity(companyId, url);
+							}
+							catch (Exception exception) {
+								throw new CompletionException(exception);
+							}
+						},
+						_threadPoolExecutor));
+
+			futures.add(
+				validityFuture.handle(
+					(validity, throwable) -> _toHealthcheckItems(
+						companyId, url, httpsCertificateProbe.getHint(),
+						validity, throwable)));
+		}
+
+		return futures;
+	}
+
+	/**
+	 * Validates the certificates of all probes concurrently.
+	 *
+	 * @return a future that completes with the items of all probes, in the
+	 *         order of the probes. Failures are reported as items of their
+	 *         probes, so the future doesn't complete exceptionally.
+	 */
+	public CompletableFuture<List<HealthcheckItem>> probeAll(
+		long companyId, List<HttpsCertificateProbe> httpsCertificateProbes) {
+
+		List<CompletableFuture<List<HealthcheckItem>>> futures = probe(
+			companyId, httpsCertificateProbes);
+
+		return CompletableFuture.allOf(
+			futures.toArray(new CompletableFuture<?>[0])
+		).thenApply(
+			unused -> {
+				List<HealthcheckItem> healthcheckItems = new ArrayList<>();
+
+				for (CompletableFuture<List<HealthcheckItem>> future :
+						futures) {
+
+					healthcheckItems.addAll(future.join());
+				}
+
+				return healthcheckItems;
+			}
+		);
+	}
+
+	@Activate
+	protected void activate(Map<String, Object> properties) {
+		_threadPoolExecutor = new ThreadPoolExecutor(
+			1, 1, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+			new NamedThreadFactory(
+				"Healthcheck Certificate Prober", Thread.NORM_PRIORITY,
+				HttpsCertificateProber.class.getClassLoader()));
+
+		_threadPoolExecutor.allowCoreThreadTimeOut(true);
+
+		modified(properties);
+	}
+
+	@Deactivate
+	protected void deactivate() {
+		_threadPoolExecutor.shutdownNow();
+	}
+
+	@Modified
+	protected void modified(Map<String, Object> properties) {
+		HealthcheckOperationalSystemConfiguration
+			healthcheckOperationalSystemConfiguration =
+				ConfigurableUtil.createConfigurable(
+					HealthcheckOperationalSystemConfiguration.class,
+					properties);
+
+		int parallelism = Math.max(
+			1,
+			healthcheckOperationalSystemConfiguration.
+				certificateProbeParallelism());
+
+		// The maximum pool size must never be below the core pool size
+
+		if (parallelism > _threadPoolExecutor.getMaximumPoolSize()) {
+			_threadPoolExecutor.setMaximumPoolSize(parallelism);
+			_threadPoolExecutor.setCorePoolSize(parallelism);
+		}
+		else {
+			_threadPoolExecutor.setCorePoolSize(parallelism);
+			_threadPoolExecutor.setMaximumPoolSize(parallelism);
+		}
+
+		long timeout = TimeUnit.SECONDS.toMillis(
+			Math.max(
+				1,
+				healthcheckOperationalSystemConfiguration.
+					certificateProbeTimeout()));
+
+		_timeout = (int)Math.min(timeout, Integer.MAX_VALUE);
+	}
+
+	private LocalDateTime _extractValidity(long companyId, URL url)
+		throws Exception {
+
+		HttpsCertificateValidatorImpl httpsCertificateValidatorImpl =
+			_getHttpsCertificateValidatorImpl(companyId);
+
+		return httpsCertificateValidatorImpl.extractValidity(url, _timeout);
+	}
+
+	private HttpsCertificateValidatorImpl _getHttpsCertificateValidatorImpl(
+			long companyId)
+		throws SettingsException {
+
+		// The cache age is read for every probe, so that configuration changes
+		// take effect without dropping the cached validities
+
+		long maxCacheAgeHours = _getConfigurationValue(
+			companyId, "maxCacheAgeHours");
+
+		HttpsCertificateValidatorImpl httpsCertificateValidatorImpl =
+			_httpsCertificateValidatorImpls.computeIfAbsent(
+				companyId,
+				key -> new HttpsCertificateValidatorImpl(maxCacheAgeHours));
+
+		httpsCertificateValidatorImpl.setMaxCacheAgeHours(maxCacheAgeHours);
+
+		return httpsCertificateValidatorImpl;
+	}
+
+	private List<HealthcheckItem> _toHealthcheckItems(
+		long companyId, URL url, String hint, LocalDateTime validity,
+		Throwable throwable) {
+
+		if (throwable instanceof CompletionException) {
+			throwable = throwable.getCause();
+		}
+
+		if (throwable instanceof UnknownHostException) {
+			return Collections.singletonList(
+				new HealthcheckItem(
+					false, hint, _MSG_UNKNOWN_HOST, url.toString()));
+		}
+
+		if ((throwable instanceof IOException) ||
+			(throwable instanceof IllegalStateException)) {
+
+			return Collections.singletonList(
+				new HealthcheckItem(
+					false, hint, _MSG_IO, url.toString(),
+					HtmlUtil.escape(throwable.getMessage())));
+		}
+
+		if (throwable != null) {
+			return _toHealthcheckItems(hint, url, throwable);
+		}
+
+		long weeksValid = ChronoUnit.WEEKS.between(
+			LocalDateTime.now(), validity);
+
+		if (weeksValid < 0) {
+			return Collections.singletonList(
+				new HealthcheckItem(
+					false, hint, _MSG_EXPIRED, url.getHost(), validity,
+					Math.abs(weeksValid)));
+		}
+
+		long minimumValidity;
+
+		try {
+			minimumValidity = _getConfigurationValue(
+				companyId, "minimumCertValidityWeeks");
+		}
+		catch (SettingsException settingsException) {
+			return _toHealthcheckItems(hint, url, settingsException);
+		}
+
+		return Collections.singletonList(
+			new HealthcheckItem(
+				weeksValid > minimumValidity, hint, _MSG, url.getHost(),
+				weeksValid, validity.toString()));
+	}
+
+	private List<HealthcheckItem> _toHealthcheckItems(
+		String hint, URL url, Throwable throwable) {
+
+		return Collections.singletonList(
+			new HealthcheckItem(
+				false, hint, _MSG_ERROR, url.toString(),
+				HtmlUtil.escape(throwable.toString())));
+	}
+
+	/**
+	 * Retrieves the company specific configuration of the certificate checks
+	 */
+	private static long _getConfigurationValue(long companyId, String key)
+		throws SettingsException {
+
+		SettingsLocator settingsLocator = new CompanyServiceSettingsLocator(
+			companyId, _SETTINGS_ID, _SETTINGS_ID);
+
+		TypedSettings typedSettings = new TypedSettings(
+			FallbackKeysSettingsUtil.getSettings(settingsLocator));
+
+		return typedSettings.getLongValue(key);
+	}
+
+	private static final String _MSG =
+		"certificate-for-x-is-valid-for-x-weeks-until-x";
+
+	private static final String _MSG_ERROR =
+		"error-when-checking-certificate-of-x-x";
+
+	private static final String _MSG_EXPIRED =
+		"certificate-for-x-is-expired-since-x-x-weeks-ago";
+
+	private static final String _MSG_IO = "ioexception-when-connecting-to-x-x";
+
+	private static final String _MSG_NOT_HTTPS = "url-x-is-not-https";
+
+	private static final String _MSG_UNKNOWN_HOST =
+		"cant-resolve-url-x-for-certificate-check";
+
+	private static final String _SETTINGS_ID =
+		"com.liferay.healthcheck.operation.internal.configuration." +
+			"HealthcheckOperationalConfiguration";
+
+	// Probes of several Healthchecks run concurrently
+
+	private final Map<Long, HttpsCertificateValidatorImpl>
+		_httpsCertificateValidatorImpls = new ConcurrentHashMap<>();
+	private ThreadPoolExecutor _threadPoolExecutor;
+	private volatile int _timeout;
+
+}
@@ -0,0 +1,71 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.operation.internal.auxiliary;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Estimates the number of distinct hashes that were added, in fixed memory.
+ * With 2^precision registers, the standard error is 1.04 / sqrt(2^precision).
+ *
+ * Registers are updated atomically, so that concurrent additions never lose
+ * an update. As most additions don't raise their register, they only read it.
+ *
+ * @author Olaf Kock
+ */
+public class HyperLogLog {
+
+	public HyperLogLog(int precision) {
+		_precision = precision;
+
+		_registers = new AtomicIntegerArray(1 << precision);
+	}
+
+	public void add(long hash) {
+		int index = (int)(hash >>> (64 - _precision));
+
+		int rank =
+			Long.numberOfLeadingZeros(
+				(hash << _precision) | (1L << (_precision - 1))) + 1;
+
+		if (rank > _registers.get(index)) {
+			_registers.accumulateAndGet(index, rank, Math::max);
+		}
+	}
+
+	public long estimate() {
+		int registers = _registers.length();
+
+		double sum = 0;
+		int zeroRegisters = 0;
+
+		for (int i = 0; i < registers; i++) {
+			int rank = _registers.get(i);
+
+			sum += 1.0 / (1L << rank);
+
+			if (rank == 0) {
+				zeroRegisters++;
+			}
+		}
+
+		double estimate =
+			(0.7213 / (1 + (1.079 / registers))) * registers * registers / sum;
+
+		if ((estimate <= (2.5 * registers)) && (zeroRegisters > 0)) {
+
+			// Linear counting is more accurate for small cardinalities
+
+			estimate = registers * Math.log((double)registers / zeroRegisters);
+		}
+
+		return Math.round(estimate);
+	}
+
+	private final int _precision;
+	private final AtomicIntegerArray _registers;
+
+}
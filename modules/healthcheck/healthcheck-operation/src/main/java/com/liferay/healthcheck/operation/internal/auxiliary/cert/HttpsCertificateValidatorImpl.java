@@ -14,15 +14,17 @@ import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.Collection;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.KeyManager;
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocketFactory;
 import javax.net.ssl.TrustManager;
 
 public class HttpsCertificateValidatorImpl {
-	private long maxCacheAgeHours;
+	private volatile long maxCacheAgeHours;
 
 	/**
 	 * @param maxCacheAgeHours don't reconnect to a server for this long. Set to negative for no-cache.
@@ -35,16 +37,17 @@ public class HttpsCertificateValidatorImpl {
 	 * Retrieve the shortest validity of any certificate in the certificate chain to url.
 	 * 
 	 * @param url
+	 * @param timeout connect and read timeout in milliseconds
 	 * @return
 	 * @throws Exception
 	 */
-	public LocalDateTime extractValidity(URL url) throws Exception {
+	public LocalDateTime extractValidity(URL url, int timeout) throws Exception {
 		String host = url.getHost();
 		ValidityCacheItem cachedResult = _validityCache.get(host);
 		if(cachedResult == null || 
 				ChronoUnit.HOURS.between(
 						cachedResult.lastChecked, LocalDateTime.now()) > (int) maxCacheAgeHours) {
-			LocalDateTime validity = extractValidityFromServer(url);
+			LocalDateTime validity = extractValidityFromServer(url, timeout);
 			cachedResult = new ValidityCacheItem(validity);
 			_validityCache.put(host, cachedResult);
 		} else {
@@ -53,6 +56,15 @@ public class HttpsCertificateValidatorImpl {
 		return cachedResult.validity;
 	}
 	
+	/**
+	 * Changes take effect for cached validities as well, they are not dropped.
+	 *
+	 * @param maxCacheAgeHours don't reconnect to a server for this long. Set to negative for no-cache.
+	 */
+	public void setMaxCacheAgeHours(long maxCacheAgeHours) {
+		this.maxCacheAgeHours = maxCacheAgeHours;
+	}
+
 	private static final class ValidityCacheItem {
 		public ValidityCacheItem(LocalDateTime validity) {
 			this.validity = validity;
@@ -62,7 +74,7 @@ public class HttpsCertificateValidatorImpl {
 		public LocalDateTime lastChecked;
 	}
 	
-	private HashMap<String, ValidityCacheItem> _validityCache = new HashMap<String, ValidityCacheItem>(); 
+	private Map<String, ValidityCacheItem> _validityCache = new ConcurrentHashMap<String, ValidityCacheItem>(); 
 	
 	/**
 	 * Note: We don't need any trust relationship with the server we connect to, because 
@@ -79,41 +91,69 @@ public class HttpsCertificateValidatorImpl {
 	 * @throws Exception
 	 */
 	
-	private LocalDateTime extractValidityFromServer(URL url) throws Exception {
-    	@SuppressWarnings("deprecation")
+	private LocalDateTime extractValidityFromServer(URL url, int timeout) throws Exception {
+		@SuppressWarnings("deprecation")
 		Date resultDate = new Date(9999, 1, 1);
-        SSLContext ctx = SSLContext.getInstance("TLS");
-        ctx.init(new KeyManager[0], new TrustManager[] {new DefaultTrustManager()}, new SecureRandom());
-        SSLContext.setDefault(ctx);
-
-        HttpsURLConnection conn = (HttpsURLConnection) url.openConnection();
-        
-        SANExtractingHostnameVerifier sanExtractingHostnameVerifier = new SANExtractingHostnameVerifier();
-		conn.setHostnameVerifier(sanExtractingHostnameVerifier);
-       	conn.getResponseCode();
-    	Collection<String> subjectAlternativeNames = sanExtractingHostnameVerifier.getRequestedSubjectAlternativeNames();
-    	
-       	if(subjectAlternativeNames.isEmpty()) {
-	        Certificate[] certs = conn.getServerCertificates();
-	        for (Certificate cert :certs){
-	        	X509Certificate x509cert = (X509Certificate) cert;
-	        	Date notAfter = x509cert.getNotAfter();
-	        	if(notAfter.before(resultDate) ) {
-	        		resultDate = notAfter;
-	        	}
-	        }
-	        conn.disconnect();
+
+		// Honors the JVM's proxy settings, see HttpsCertificateProber
+
+		HttpsURLConnection conn = (HttpsURLConnection) url.openConnection();
+
+		// Disconnect on every path, including failed handshakes and timeouts,
+		// so that no socket is left behind
+
+		try {
+
+			// Only this connection trusts any server, the JVM's default stays untouched
+
+			conn.setSSLSocketFactory(getSSLSocketFactory());
+			conn.setConnectTimeout(timeout);
+			conn.setReadTimeout(timeout);
+
+			SANExtractingHostnameVerifier sanExtractingHostnameVerifier = new SANExtractingHostnameVerifier();
+			conn.setHostnameVerifier(sanExtractingHostnameVerifier);
+
+			// The handshake is all we need, no request is sent
+
+			conn.connect();
+			Collection<String> subjectAlternativeNames = sanExtractingHostnameVerifier.getRequestedSubjectAlternativeNames();
+
+			if(!subjectAlternativeNames.isEmpty()) {
+				// TODO: If this was not an exception, the message could be properly translated.
+				throw new IOException(
+						"Host name " + url.getHost() + " not found in certificates. Available names: " +
+						StringUtil.merge(subjectAlternativeNames, ", "));
+			}
+
+			Certificate[] certs = conn.getServerCertificates();
+			for (Certificate cert :certs){
+				X509Certificate x509cert = (X509Certificate) cert;
+				Date notAfter = x509cert.getNotAfter();
+				if(notAfter.before(resultDate) ) {
+					resultDate = notAfter;
+				}
+			}
 			LocalDateTime result = LocalDateTimeUtil.toLocalDateTime(resultDate);
 			_log.debug("Certificate chain of " + url + " valid until " + result);
-			return result; 
-       	} else {
-	        conn.disconnect();
-	        // TODO: If this was not an exception, the message could be properly translated.
-       		throw new IOException(
-       				"Host name " + url.getHost() + " not found in certificates. Available names: " +
-       				StringUtil.merge(subjectAlternativeNames, ", "));
-       	}
+			return result;
+		}
+		finally {
+			conn.disconnect();
+		}
+	}
+
+    private static SSLSocketFactory getSSLSocketFactory() throws Exception {
+    	SSLSocketFactory sslSocketFactory = _sslSocketFactory;
+    	if(sslSocketFactory == null) {
+	        SSLContext ctx = SSLContext.getInstance("TLS");
+	        ctx.init(new KeyManager[0], new TrustManager[] {new DefaultTrustManager()}, new SecureRandom());
+	        sslSocketFactory = ctx.getSocketFactory();
+	        _sslSocketFactory = sslSocketFactory;
+    	}
+    	return sslSocketFactory;
     }
-    
+
+    private static volatile SSLSocketFactory _sslSocketFactory;
+
     static Log _log = LogFactoryUtil.getLog(HttpsCertificateValidatorImpl.class);
 }
@@ -31,6 +31,92 @@ public interface HealthcheckOperationalSystemConfiguration {
 	)
 	public int maxFilterExecutions();
 
+	@Meta.AD(
+		deflt = "budget",
+		description = "healthcheck-operational-hostname-detection-mode-description",
+		name = "healthcheck-operational-hostname-detection-mode-name",
+		optionLabels = {
+			"hostname-detection-mode-budget",
+			"hostname-detection-mode-sampling",
+			"hostname-detection-mode-time-window",
+			"hostname-detection-mode-until-quiet"
+		},
+		optionValues = {"budget", "sampling", "time-window", "until-quiet"},
+		required = false
+	)
+	public String hostnameDetectionMode();
+
+	@Meta.AD(
+		deflt = "100",
+		description = "healthcheck-operational-hostname-detection-sampling-rate-description",
+		name = "healthcheck-operational-hostname-detection-sampling-rate-name",
+		required = false
+	)
+	public int hostnameDetectionSamplingRate();
+
+	@Meta.AD(
+		deflt = "60",
+		description = "healthcheck-operational-hostname-detection-window-seconds-description",
+		name = "healthcheck-operational-hostname-detection-window-seconds-name",
+		required = false
+	)
+	public int hostnameDetectionWindowSeconds();
+
+	@Meta.AD(
+		deflt = "60",
+		description = "healthcheck-operational-hostname-detection-quiet-minutes-description",
+		name = "healthcheck-operational-hostname-detection-quiet-minutes-name",
+		required = false
+	)
+	public int hostnameDetectionQuietMinutes();
+
+	@Meta.AD(
+		deflt = "100",
+		description = "healthcheck-operational-hostname-detection-max-hosts-description",
+		name = "healthcheck-operational-hostname-detection-max-hosts-name",
+		required = false
+	)
+	public int hostnameDetectionMaxHosts();
+
+	@Meta.AD(
+		deflt = "3",
+		description = "healthcheck-operational-hostname-detection-promotion-threshold-description",
+		name = "healthcheck-operational-hostname-detection-promotion-threshold-name",
+		required = false
+	)
+	public int hostnameDetectionPromotionThreshold();
+
+	@Meta.AD(
+		deflt = "5",
+		description = "healthcheck-operational-hostname-detection-flush-interval-description",
+		name = "healthcheck-operational-hostname-detection-flush-interval-name",
+		required = false
+	)
+	public int hostnameDetectionFlushInterval();
+
+	@Meta.AD(
+		deflt = "30",
+		description = "healthcheck-operational-hostname-detection-max-age-days-description",
+		name = "healthcheck-operational-hostname-detection-max-age-days-name",
+		required = false
+	)
+	public int hostnameDetectionMaxAgeDays();
+
+	@Meta.AD(
+		deflt = "16",
+		description = "healthcheck-operational-certificate-probe-parallelism-description",
+		name = "healthcheck-operational-certificate-probe-parallelism-name",
+		required = false
+	)
+	public int certificateProbeParallelism();
+
+	@Meta.AD(
+		deflt = "10",
+		description = "healthcheck-operational-certificate-probe-timeout-description",
+		name = "healthcheck-operational-certificate-probe-timeout-name",
+		required = false
+	)
+	public int certificateProbeTimeout();
 
 	@Meta.AD(
 		description = "healthcheck-remaining-activation-weeks-before-warning-description",
@@ -0,0 +1,81 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.operation.internal.auxiliary;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Olaf Kock
+ */
+public class CountMinSketchTest {
+
+	@Test
+	public void testAdd() {
+		CountMinSketch countMinSketch = new CountMinSketch(4, 1024);
+
+		Assert.assertEquals(0, countMinSketch.estimate(_hash(1)));
+
+		for (int i = 1; i <= 5; i++) {
+			Assert.assertEquals(i, countMinSketch.add(_hash(1)));
+		}
+
+		Assert.assertEquals(5, countMinSketch.estimate(_hash(1)));
+	}
+
+	@Test
+	public void testAging() {
+		CountMinSketch countMinSketch = new CountMinSketch(4, 16);
+
+		for (int i = 0; i < 100; i++) {
+			countMinSketch.add(_hash(0));
+		}
+
+		// The 160th addition halves all counters, collisions with the other
+		// hashes may add to the estimate
+
+		for (int i = 1; i <= 60; i++) {
+			countMinSketch.add(_hash(i));
+		}
+
+		int estimate = countMinSketch.estimate(_hash(0));
+
+		Assert.assertTrue(String.valueOf(estimate), estimate >= 50);
+		Assert.assertTrue(String.valueOf(estimate), estimate < 80);
+	}
+
+	@Test
+	public void testEstimateIsNeverTooLow() {
+		CountMinSketch countMinSketch = new CountMinSketch(4, 64);
+
+		// Stays below the 640 additions that age the counters
+
+		for (int i = 0; i < 200; i++) {
+			for (int j = 0; j <= (i % 5); j++) {
+				countMinSketch.add(_hash(i));
+			}
+		}
+
+		for (int i = 0; i < 200; i++) {
+			int estimate = countMinSketch.estimate(_hash(i));
+
+			Assert.assertTrue(String.valueOf(estimate), estimate > (i % 5));
+		}
+	}
+
+	/**
+	 * The SplitMix64 finalizer, so that consecutive numbers spread over all
+	 * counters
+	 */
+	private static long _hash(long value) {
+		value += 0x9e3779b97f4a7c15L;
+		value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+		value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+
+		return value ^ (value >>> 31);
+	}
+
+}
@@ -0,0 +1,226 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.operation.internal.auxiliary;
+
+import com.liferay.healthcheck.operation.internal.configuration.HealthcheckOperationalSystemConfiguration;
+import com.liferay.portal.kernel.test.ReflectionTestUtil;
+
+import java.lang.reflect.Proxy;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.ServiceReference;
+import org.osgi.framework.ServiceRegistration;
+
+/**
+ * @author Olaf Kock
+ */
+public class HostnameDetectorImplTest {
+
+	@Before
+	public void setUp() {
+		_configurationValues.put("hostnameDetectionMode", "budget");
+		_configurationValues.put("hostnameDetectionQuietMinutes", 60);
+		_configurationValues.put("hostnameDetectionSamplingRate", 100);
+		_configurationValues.put("hostnameDetectionWindowSeconds", 60);
+		_configurationValues.put("maxFilterExecutions", 16);
+
+		ReflectionTestUtil.setFieldValue(
+			_hostnameDetectorImpl, "_serviceRegistration",
+			Proxy.newProxyInstance(
+				ServiceRegistration.class.getClassLoader(),
+				new Class<?>[] {ServiceRegistration.class},
+				(proxy, method, args) -> {
+					if (method.getName(
+						).equals(
+							"getReference"
+						)) {
+
+						return _serviceReference;
+					}
+
+					if (method.getName(
+						).equals(
+							"unregister"
+						)) {
+
+						_unregistrations.incrementAndGet();
+					}
+
+					return null;
+				}));
+	}
+
+	@Test
+	public void testBudgetHostnameSampler() {
+		HostnameSampler hostnameSampler = _createHostnameSampler();
+
+		for (int i = 0; i < 15; i++) {
+			Assert.assertTrue(hostnameSampler.isInspect());
+
+			hostnameSampler.inspected(false);
+		}
+
+		Assert.assertEquals(0, _unregistrations.get());
+
+		// The last inspection of the budget stops the filter
+
+		hostnameSampler.inspected(true);
+
+		Assert.assertEquals(1, _unregistrations.get());
+	}
+
+	@Test
+	public void testCreateHostnameSamplerDisabled() {
+		_configurationValues.put("maxFilterExecutions", 0);
+
+		Assert.assertNull(_createHostnameSampler());
+
+		_configurationValues.put("hostnameDetectionMode", "sampling");
+		_configurationValues.put("hostnameDetectionSamplingRate", 0);
+
+		Assert.assertNull(_createHostnameSampler());
+
+		_configurationValues.put("hostnameDetectionMode", "time-window");
+		_configurationValues.put("hostnameDetectionWindowSeconds", 0);
+
+		Assert.assertNull(_createHostnameSampler());
+
+		_configurationValues.put("hostnameDetectionMode", "until-quiet");
+		_configurationValues.put("hostnameDetectionQuietMinutes", 0);
+
+		Assert.assertNull(_createHostnameSampler());
+	}
+
+	@Test
+	public void testRateHostnameSampler() {
+		_configurationValues.put("hostnameDetectionMode", "sampling");
+		_configurationValues.put("hostnameDetectionSamplingRate", 1);
+
+		HostnameSampler hostnameSampler = _createHostnameSampler();
+
+		for (int i = 0; i < 1000; i++) {
+			Assert.assertTrue(hostnameSampler.isInspect());
+		}
+
+		_configurationValues.put(
+			"hostnameDetectionSamplingRate", Integer.MAX_VALUE);
+
+		hostnameSampler = _createHostnameSampler();
+
+		int inspections = 0;
+
+		for (int i = 0; i < 1000; i++) {
+			if (hostnameSampler.isInspect()) {
+				inspections++;
+			}
+		}
+
+		Assert.assertTrue(String.valueOf(inspections), inspections <= 1);
+	}
+
+	@Test
+	public void testTimeWindowHostnameSampler() {
+		_configurationValues.put("hostnameDetectionMode", "time-window");
+		_configurationValues.put("hostnameDetectionWindowSeconds", 3600);
+
+		HostnameSampler hostnameSampler = _createHostnameSampler();
+
+		Assert.assertTrue(hostnameSampler.isInspect());
+	}
+
+	@Test
+	public void testUntilQuietHostnameSampler() {
+		_configurationValues.put("hostnameDetectionMode", "until-quiet");
+		_configurationValues.put("hostnameDetectionSamplingRate", 0);
+
+		HostnameSampler hostnameSampler = _createHostnameSampler();
+
+		Assert.assertTrue(hostnameSampler.isInspect());
+
+		// Without a sampling rate, the quiet time stops the filter
+
+		ReflectionTestUtil.setFieldValue(
+			hostnameSampler, "_lastNewHostTime", 0L);
+
+		Assert.assertFalse(hostnameSampler.isInspect());
+		Assert.assertEquals(1, _unregistrations.get());
+
+		// A new host name restarts the inspection of every request
+
+		hostnameSampler.inspected(true);
+
+		Assert.assertTrue(hostnameSampler.isInspect());
+	}
+
+	@Test
+	public void testUntilQuietHostnameSamplerWithSamplingRate() {
+		_configurationValues.put("hostnameDetectionMode", "until-quiet");
+		_configurationValues.put(
+			"hostnameDetectionSamplingRate", Integer.MAX_VALUE);
+
+		HostnameSampler hostnameSampler = _createHostnameSampler();
+
+		ReflectionTestUtil.setFieldValue(
+			hostnameSampler, "_lastNewHostTime", 0L);
+
+		int inspections = 0;
+
+		for (int i = 0; i < 1000; i++) {
+			if (hostnameSampler.isInspect()) {
+				inspections++;
+			}
+		}
+
+		Assert.assertTrue(String.valueOf(inspections), inspections <= 1);
+		Assert.assertEquals(0, _unregistrations.get());
+	}
+
+	private HostnameSampler _createHostnameSampler() {
+		return ReflectionTestUtil.invoke(
+			_hostnameDetectorImpl, "_createHostnameSampler",
+			new Class<?>[] {HealthcheckOperationalSystemConfiguration.class},
+			Proxy.newProxyInstance(
+				HealthcheckOperationalSystemConfiguration.class.
+					getClassLoader(),
+				new Class<?>[] {
+					HealthcheckOperationalSystemConfiguration.class
+				},
+				(proxy, method, args) -> _configurationValues.get(
+					method.getName())));
+	}
+
+	private final Map<String, Object> _configurationValues = new HashMap<>();
+	private final HostnameDetectorImpl _hostnameDetectorImpl =
+		new HostnameDetectorImpl();
+	private final ServiceReference<?> _serviceReference =
+		(ServiceReference<?>)Proxy.newProxyInstance(
+			ServiceReference.class.getClassLoader(),
+			new Class<?>[] {ServiceReference.class},
+			(proxy, method, args) -> {
+				if (method.getName(
+					).equals(
+						"getBundle"
+					)) {
+
+					return Proxy.newProxyInstance(
+						Bundle.class.getClassLoader(),
+						new Class<?>[] {Bundle.class},
+						(bundleProxy, bundleMethod, bundleArgs) -> null);
+				}
+
+				return null;
+			});
+	private final AtomicInteger _unregistrations = new AtomicInteger();
+
+}
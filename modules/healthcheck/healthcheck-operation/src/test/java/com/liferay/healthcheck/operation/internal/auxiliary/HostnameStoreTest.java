@@ -0,0 +1,275 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.operation.internal.auxiliary;
+
+import com.liferay.portal.kernel.portlet.PortletPreferencesFactory;
+import com.liferay.portal.kernel.portlet.PortletPreferencesFactoryUtil;
+import com.liferay.portal.kernel.service.PortalPreferencesLocalService;
+
+import java.lang.reflect.Proxy;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.portlet.PortletPreferences;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Olaf Kock
+ */
+public class HostnameStoreTest {
+
+	@Before
+	public void setUp() {
+		_portalPreferencesLocalService =
+			(PortalPreferencesLocalService)Proxy.newProxyInstance(
+				PortalPreferencesLocalService.class.getClassLoader(),
+				new Class<?>[] {PortalPreferencesLocalService.class},
+				(proxy, method, args) -> {
+					if (method.getName(
+						).equals(
+							"getPreferences"
+						)) {
+
+						return _portletPreferences;
+					}
+
+					if (method.getName(
+						).equals(
+							"updatePreferences"
+						)) {
+
+						_updates.incrementAndGet();
+					}
+
+					return null;
+				});
+		_portletPreferences = (PortletPreferences)Proxy.newProxyInstance(
+			PortletPreferences.class.getClassLoader(),
+			new Class<?>[] {PortletPreferences.class},
+			(proxy, method, args) -> {
+				if (method.getName(
+					).equals(
+						"getValues"
+					)) {
+
+					return _storedValues.getOrDefault(
+						(String)args[0], (String[])args[1]);
+				}
+
+				if (method.getName(
+					).equals(
+						"setValues"
+					)) {
+
+					_storedValues.put((String)args[0], (String[])args[1]);
+				}
+
+				return null;
+			});
+		_portletPreferencesFactory =
+			PortletPreferencesFactoryUtil.getPortletPreferencesFactory();
+
+		PortletPreferencesFactoryUtil portletPreferencesFactoryUtil =
+			new PortletPreferencesFactoryUtil();
+
+		portletPreferencesFactoryUtil.setPortletPreferencesFactory(
+			(PortletPreferencesFactory)Proxy.newProxyInstance(
+				PortletPreferencesFactory.class.getClassLoader(),
+				new Class<?>[] {PortletPreferencesFactory.class},
+				(proxy, method, args) -> "<portlet-preferences />"));
+	}
+
+	@After
+	public void tearDown() {
+		PortletPreferencesFactoryUtil portletPreferencesFactoryUtil =
+			new PortletPreferencesFactoryUtil();
+
+		portletPreferencesFactoryUtil.setPortletPreferencesFactory(
+			_portletPreferencesFactory);
+	}
+
+	@Test
+	public void testFlush() {
+		long now = System.currentTimeMillis();
+
+		HostNameExtractingFilter hostNameExtractingFilter =
+			new HostNameExtractingFilter();
+
+		hostNameExtractingFilter.addAccessedUrls(
+			_COMPANY_ID, Collections.singletonMap("https://a.example", now));
+
+		HostnameStore hostnameStore = new HostnameStore(
+			hostNameExtractingFilter, _portalPreferencesLocalService);
+
+		hostnameStore.flush(true);
+
+		Assert.assertEquals(1, _updates.get());
+		Assert.assertArrayEquals(
+			new String[] {"https://a.example " + now}, _getStoredValues());
+
+		// Nothing changed, so nothing is stored
+
+		hostnameStore.flush(true);
+
+		Assert.assertEquals(1, _updates.get());
+	}
+
+	@Test
+	public void testFlushExpires() {
+		long now = System.currentTimeMillis();
+
+		Map<String, Long> lastRequestTimes = new HashMap<>();
+
+		lastRequestTimes.put(
+			"https://a.example", now - TimeUnit.DAYS.toMillis(2));
+		lastRequestTimes.put("https://b.example", now);
+
+		HostNameExtractingFilter hostNameExtractingFilter =
+			new HostNameExtractingFilter();
+
+		hostNameExtractingFilter.addAccessedUrls(
+			_COMPANY_ID, lastRequestTimes);
+
+		HostnameStore hostnameStore = new HostnameStore(
+			hostNameExtractingFilter, _portalPreferencesLocalService);
+
+		hostnameStore.setMaxAge(TimeUnit.DAYS.toMillis(1));
+
+		// A stopped filter keeps all host names
+
+		hostnameStore.flush(false);
+
+		Assert.assertEquals(
+			lastRequestTimes.keySet(),
+			hostNameExtractingFilter.getAccessedUrls(_COMPANY_ID));
+		Assert.assertEquals(2, _getStoredValues().length);
+
+		hostnameStore.flush(true);
+
+		Assert.assertEquals(
+			Collections.singleton("https://b.example"),
+			hostNameExtractingFilter.getAccessedUrls(_COMPANY_ID));
+		Assert.assertArrayEquals(
+			new String[] {"https://b.example " + now}, _getStoredValues());
+	}
+
+	@Test
+	public void testFlushMerges() {
+		long now = System.currentTimeMillis();
+
+		_storedValues.put(
+			_PREFERENCE_NAME, new String[] {"https://b.example " + now});
+
+		HostNameExtractingFilter hostNameExtractingFilter =
+			new HostNameExtractingFilter();
+
+		hostNameExtractingFilter.addAccessedUrls(
+			_COMPANY_ID, Collections.singletonMap("https://a.example", now));
+
+		HostnameStore hostnameStore = new HostnameStore(
+			hostNameExtractingFilter, _portalPreferencesLocalService);
+
+		hostnameStore.flush(true);
+
+		Assert.assertEquals(
+			new HashSet<>(
+				Arrays.asList("https://a.example", "https://b.example")),
+			hostNameExtractingFilter.getAccessedUrls(_COMPANY_ID));
+		Assert.assertEquals(
+			new HashSet<>(
+				Arrays.asList(
+					"https://a.example " + now, "https://b.example " + now)),
+			new HashSet<>(Arrays.asList(_getStoredValues())));
+	}
+
+	@Test
+	public void testLoad() {
+		long now = System.currentTimeMillis();
+
+		HostNameExtractingFilter hostNameExtractingFilter =
+			new HostNameExtractingFilter();
+
+		hostNameExtractingFilter.addAccessedUrls(
+			_COMPANY_ID, Collections.singletonMap("https://a.example", now));
+
+		HostnameStore hostnameStore = new HostnameStore(
+			hostNameExtractingFilter, _portalPreferencesLocalService);
+
+		hostnameStore.flush(true);
+
+		// Another node, or this one after a restart
+
+		hostNameExtractingFilter = new HostNameExtractingFilter();
+
+		hostnameStore = new HostnameStore(
+			hostNameExtractingFilter, _portalPreferencesLocalService);
+
+		hostnameStore.load(_COMPANY_ID);
+
+		Assert.assertEquals(
+			Collections.singletonMap("https://a.example", now),
+			hostNameExtractingFilter.getAccessedUrlLastRequestTimes(
+				_COMPANY_ID));
+	}
+
+	@Test
+	public void testLoadWithoutLastRequestTime() {
+		_storedValues.put(
+			_PREFERENCE_NAME, new String[] {"https://a.example"});
+
+		HostNameExtractingFilter hostNameExtractingFilter =
+			new HostNameExtractingFilter();
+
+		HostnameStore hostnameStore = new HostnameStore(
+			hostNameExtractingFilter, _portalPreferencesLocalService);
+
+		hostnameStore.load(_COMPANY_ID);
+
+		Assert.assertEquals(
+			Collections.singleton("https://a.example"),
+			hostNameExtractingFilter.getAccessedUrls(_COMPANY_ID));
+
+		// The host name is stored again with a time, so that it can expire
+
+		hostnameStore.flush(true);
+
+		Assert.assertEquals(1, _updates.get());
+
+		String[] storedValues = _getStoredValues();
+
+		Assert.assertEquals(
+			Arrays.toString(storedValues), 1, storedValues.length);
+		Assert.assertTrue(
+			storedValues[0],
+			storedValues[0].startsWith("https://a.example "));
+	}
+
+	private String[] _getStoredValues() {
+		return _storedValues.get(_PREFERENCE_NAME);
+	}
+
+	private static final long _COMPANY_ID = 1;
+
+	private static final String _PREFERENCE_NAME =
+		"com.liferay.healthcheck.operation.accessed.urls";
+
+	private PortalPreferencesLocalService _portalPreferencesLocalService;
+	private PortletPreferences _portletPreferences;
+	private PortletPreferencesFactory _portletPreferencesFactory;
+	private final Map<String, String[]> _storedValues = new HashMap<>();
+	private final AtomicInteger _updates = new AtomicInteger();
+
+}
@@ -0,0 +1,98 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.operation.internal.auxiliary;
+
+import com.liferay.healthcheck.HealthcheckItem;
+import com.liferay.portal.kernel.test.ReflectionTestUtil;
+
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.URL;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Olaf Kock
+ */
+public class HttpsCertificateProberTest {
+
+	@Before
+	public void setUp() throws Exception {
+		_serverSocket = new ServerSocket(
+			0, 1, InetAddress.getLoopbackAddress());
+		_threadPoolExecutor = new ThreadPoolExecutor(
+			2, 2, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+
+		ReflectionTestUtil.setFieldValue(
+			_httpsCertificateProber, "_threadPoolExecutor",
+			_threadPoolExecutor);
+		ReflectionTestUtil.setFieldValue(
+			_httpsCertificateProber, "_timeout", 200);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		_serverSocket.close();
+		_threadPoolExecutor.shutdownNow();
+	}
+
+	@Test
+	public void testProbeAll() throws Exception {
+		int port = _serverSocket.getLocalPort();
+
+		List<HealthcheckItem> healthcheckItems =
+			_httpsCertificateProber.probeAll(
+				1,
+				Arrays.asList(
+					new HttpsCertificateProbe(
+						new URL("https://127.0.0.1:" + port + "/a"), "a"),
+					new HttpsCertificateProbe(
+						new URL("http://127.0.0.1:" + port + "/b"), "b"),
+					new HttpsCertificateProbe(
+						new URL("https://localhost:" + port + "/c"), "c"),
+					new HttpsCertificateProbe(
+						new URL("https://127.0.0.1:" + port + "/d"), "d"))
+			).get(
+				10, TimeUnit.SECONDS
+			);
+
+		// Probes for the same host share a connection, and an unresponsive
+		// host fails its probes without failing the batch
+
+		Assert.assertEquals(2, _threadPoolExecutor.getTaskCount());
+		Assert.assertEquals(
+			healthcheckItems.toString(), 4, healthcheckItems.size());
+
+		String[] links = {"a", "b", "c", "d"};
+
+		for (int i = 0; i < links.length; i++) {
+			HealthcheckItem healthcheckItem = healthcheckItems.get(i);
+
+			Assert.assertFalse(healthcheckItem.isSuccess());
+			Assert.assertEquals(links[i], healthcheckItem.getLink());
+		}
+
+		HealthcheckItem healthcheckItem = healthcheckItems.get(1);
+
+		Assert.assertEquals(
+			"url-x-is-not-https", healthcheckItem.getMessageKey());
+	}
+
+	private final HttpsCertificateProber _httpsCertificateProber =
+		new HttpsCertificateProber();
+	private ServerSocket _serverSocket;
+	private ThreadPoolExecutor _threadPoolExecutor;
+
+}
@@ -0,0 +1,104 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.operation.internal.auxiliary;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Olaf Kock
+ */
+public class HyperLogLogTest {
+
+	@Test
+	public void testAddConcurrently() throws Exception {
+		HyperLogLog hyperLogLog = new HyperLogLog(10);
+
+		List<Thread> threads = new ArrayList<>();
+
+		for (int i = 0; i < 4; i++) {
+			int offset = i * 25000;
+
+			Thread thread = new Thread(
+				() -> {
+					for (int j = 0; j < 25000; j++) {
+						hyperLogLog.add(_hash(offset + j));
+					}
+				});
+
+			thread.start();
+
+			threads.add(thread);
+		}
+
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		_assertEstimate(100000, hyperLogLog.estimate());
+	}
+
+	@Test
+	public void testAddDuplicates() {
+		HyperLogLog hyperLogLog = new HyperLogLog(10);
+
+		for (int i = 0; i < 1000; i++) {
+			hyperLogLog.add(_hash(i));
+		}
+
+		long estimate = hyperLogLog.estimate();
+
+		for (int i = 0; i < 10; i++) {
+			for (int j = 0; j < 1000; j++) {
+				hyperLogLog.add(_hash(j));
+			}
+		}
+
+		Assert.assertEquals(estimate, hyperLogLog.estimate());
+	}
+
+	@Test
+	public void testEstimate() {
+		HyperLogLog hyperLogLog = new HyperLogLog(10);
+
+		Assert.assertEquals(0, hyperLogLog.estimate());
+
+		for (int i = 0; i < 100000; i++) {
+			hyperLogLog.add(_hash(i));
+
+			if (i == 99) {
+				_assertEstimate(100, hyperLogLog.estimate());
+			}
+		}
+
+		_assertEstimate(100000, hyperLogLog.estimate());
+	}
+
+	/**
+	 * Allows three times the standard error of 1.04 / sqrt(1024), about 10
+	 * percent
+	 */
+	private static void _assertEstimate(long expected, long estimate) {
+		Assert.assertEquals(
+			String.valueOf(estimate), expected, estimate, expected * 0.1);
+	}
+
+	/**
+	 * The SplitMix64 finalizer, so that consecutive numbers spread over all
+	 * registers
+	 */
+	private static long _hash(long value) {
+		value += 0x9e3779b97f4a7c15L;
+		value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+		value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+
+		return value ^ (value >>> 31);
+	}
+
+}
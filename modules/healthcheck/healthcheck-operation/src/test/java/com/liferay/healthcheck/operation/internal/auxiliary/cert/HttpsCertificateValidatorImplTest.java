@@ -0,0 +1,51 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.operation.internal.auxiliary.cert;
+
+import java.io.IOException;
+
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.URL;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Olaf Kock
+ */
+public class HttpsCertificateValidatorImplTest {
+
+	@Test
+	public void testExtractValidityTimesOut() throws Exception {
+
+		// The backlog completes the connection, but no handshake is answered
+
+		try (ServerSocket serverSocket = new ServerSocket(
+				0, 1, InetAddress.getLoopbackAddress())) {
+
+			HttpsCertificateValidatorImpl httpsCertificateValidatorImpl =
+				new HttpsCertificateValidatorImpl(-1);
+
+			long start = System.currentTimeMillis();
+
+			try {
+				httpsCertificateValidatorImpl.extractValidity(
+					new URL(
+						"https://127.0.0.1:" + serverSocket.getLocalPort()),
+					200);
+
+				Assert.fail();
+			}
+			catch (IOException ioException) {
+				long duration = System.currentTimeMillis() - start;
+
+				Assert.assertTrue(String.valueOf(duration), duration < 5000);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,552 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.cluster;
+
+import com.liferay.healthcheck.Healthcheck;
+import com.liferay.healthcheck.HealthcheckItem;
+import com.liferay.healthcheck.web.internal.configuration.HealthcheckWebConfiguration;
+import com.liferay.healthcheck.web.internal.executor.HealthcheckExecutor;
+import com.liferay.healthcheck.web.internal.executor.HealthcheckResult;
+import com.liferay.petra.string.StringBundler;
+import com.liferay.portal.configuration.metatype.bnd.util.ConfigurableUtil;
+import com.liferay.portal.kernel.cluster.ClusterExecutorUtil;
+import com.liferay.portal.kernel.cluster.ClusterNode;
+import com.liferay.portal.kernel.cluster.ClusterNodeResponse;
+import com.liferay.portal.kernel.cluster.ClusterNodeResponses;
+import com.liferay.portal.kernel.cluster.ClusterRequest;
+import com.liferay.portal.kernel.cluster.FutureClusterResponses;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.util.MethodHandler;
+import com.liferay.portal.kernel.util.MethodKey;
+import com.liferay.portal.kernel.util.NamedThreadFactory;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Runs all Healthchecks on every cluster node and merges the results, tagged
+ * with the node that produced them: Many conditions, e.g. the JVM's memory
+ * or the portal properties, can differ between nodes.
+ *
+ * The request to every remote node is sent at once, and each node's response
+ * is awaited with its own deadline, so that a slow or unreachable node
+ * delays neither the local Healthchecks nor the results of the other nodes.
+ * Without clustering, this only runs the local Healthchecks.
+ *
+ * @author Olaf Kock
+ */
+@Component(
+	configurationPid = "com.liferay.healthcheck.web.internal.configuration.HealthcheckWebConfiguration",
+	service = ClusterHealthcheckExecutor.class
+)
+public class ClusterHealthcheckExecutor {
+
+	/**
+	 * Runs the local Healthchecks on behalf of another cluster node. Invoked
+	 * through ClusterExecutor, do not call directly.
+	 *
+	 * @param classNames the class names of the Healthchecks to run, ignoring
+	 *        their cached results, or null to run all of them
+	 */
+	public static HashMap<Long, ArrayList<ClusterHealthcheckResult>>
+		executeLocally(long[] companyIds, String[] classNames) {
+
+		ClusterHealthcheckExecutor clusterHealthcheckExecutor =
+			_clusterHealthcheckExecutor;
+
+		if (clusterHealthcheckExecutor == null) {
+			throw new IllegalStateException(
+				"Healthchecks are not available on this cluster node");
+		}
+
+		HashMap<Long, ArrayList<ClusterHealthcheckResult>>
+			clusterHealthcheckResults = new HashMap<>();
+
+		Map<Long, List<HealthcheckResult>> healthcheckResults =
+			clusterHealthcheckExecutor._executeLocally(
+				companyIds, _toSet(classNames));
+
+		for (Map.Entry<Long, List<HealthcheckResult>> entry :
+				healthcheckResults.entrySet()) {
+
+			ArrayList<ClusterHealthcheckResult>
+				companyClusterHealthcheckResults = new ArrayList<>();
+
+			for (HealthcheckResult healthcheckResult : entry.getValue()) {
+				companyClusterHealthcheckResults.add(
+					new ClusterHealthcheckResult(healthcheckResult));
+			}
+
+			clusterHealthcheckResults.put(
+				entry.getKey(), companyClusterHealthcheckResults);
+		}
+
+		return clusterHealthcheckResults;
+	}
+
+	/**
+	 * Runs all Healthchecks for the given company on every cluster node and
+	 * waits for all of them to complete, or to time out.
+	 *
+	 * @return the local results, in the order of the registered Healthchecks,
+	 *         followed by the results of the remote nodes
+	 */
+	public List<HealthcheckResult> execute(long companyId) {
+		Map<Long, List<HealthcheckResult>> healthcheckResults = execute(
+			new long[] {companyId});
+
+		return healthcheckResults.get(companyId);
+	}
+
+	/**
+	 * Runs all Healthchecks for the given company on every cluster node and
+	 * hands each result to the consumer as soon as it is available. Just like
+	 * with HealthcheckExecutor, the consumer is always called on the calling
+	 * thread, one result at a time.
+	 *
+	 * @see HealthcheckExecutor#execute(long, Consumer)
+	 */
+	public void execute(
+		long companyId, Consumer<HealthcheckResult> healthcheckResultConsumer) {
+
+		List<ClusterNode> clusterNodes = _getRemoteClusterNodes();
+
+		if (clusterNodes.isEmpty()) {
+			_healthcheckExecutor.execute(companyId, healthcheckResultConsumer);
+
+			return;
+		}
+
+		BlockingQueue<Map<Long, List<HealthcheckResult>>>
+			remoteHealthcheckResults = _executeRemotely(
+				new long[] {companyId}, null, clusterNodes);
+
+		String localClusterNodeName = _getClusterNodeName(
+			ClusterExecutorUtil.getLocalClusterNode());
+
+		_healthcheckExecutor.execute(
+			companyId,
+			healthcheckResult -> healthcheckResultConsumer.accept(
+				_tag(healthcheckResult, localClusterNodeName)));
+
+		_collect(
+			clusterNodes.size(), remoteHealthcheckResults,
+			(resultCompanyId, healthcheckResult) ->
+				healthcheckResultConsumer.accept(healthcheckResult));
+	}
+
+	/**
+	 * Runs all Healthchecks for all given companies on every cluster node and
+	 * waits for all of them to complete, or to time out.
+	 *
+	 * @return the results per company: the local results, in the order of
+	 *         the registered Healthchecks, followed by the results of the
+	 *         remote nodes
+	 * @see    HealthcheckExecutor#execute(long[])
+	 */
+	public Map<Long, List<HealthcheckResult>> execute(long[] companyIds) {
+		return _execute(companyIds, null);
+	}
+
+	/**
+	 * Runs only the Healthchecks with the given class names for all given
+	 * companies on every cluster node, ignoring their cached results, and
+	 * waits for all of them to complete, or to time out.
+	 *
+	 * @see HealthcheckExecutor#execute(long[], Set)
+	 */
+	public Map<Long, List<HealthcheckResult>> execute(
+		long[] companyIds, Set<String> classNames) {
+
+		return _execute(companyIds, classNames);
+	}
+
+	@Activate
+	protected void activate(Map<String, Object> properties) {
+		_executorService = Executors.newCachedThreadPool(
+			new NamedThreadFactory(
+				"Healthcheck-Cluster", Thread.NORM_PRIORITY,
+				ClusterHealthcheckExecutor.class.getClassLoader()));
+
+		modified(properties);
+
+		_clusterHealthcheckExecutor = this;
+	}
+
+	@Deactivate
+	protected void deactivate() {
+		_clusterHealthcheckExecutor = null;
+
+		_executorService.shutdownNow();
+	}
+
+	@Modified
+	protected void modified(Map<String, Object> properties) {
+		HealthcheckWebConfiguration healthcheckWebConfiguration =
+			ConfigurableUtil.createConfigurable(
+				HealthcheckWebConfiguration.class, properties);
+
+		_clusterExecutionEnabled =
+			healthcheckWebConfiguration.clusterExecutionEnabled();
+		_clusterNodeTimeout = Math.max(
+			1, healthcheckWebConfiguration.clusterNodeTimeout());
+	}
+
+	private void _collect(
+		int count,
+		BlockingQueue<Map<Long, List<HealthcheckResult>>>
+			remoteHealthcheckResults,
+		BiConsumer<Long, HealthcheckResult> healthcheckResultConsumer) {
+
+		// Every node's task delivers exactly once, latest at its deadline
+
+		for (int i = 0; i < count; i++) {
+			try {
+				Map<Long, List<HealthcheckResult>> healthcheckResults =
+					remoteHealthcheckResults.take();
+
+				for (Map.Entry<Long, List<HealthcheckResult>> entry :
+						healthcheckResults.entrySet()) {
+
+					for (HealthcheckResult healthcheckResult :
+							entry.getValue()) {
+
+						healthcheckResultConsumer.accept(
+							entry.getKey(), healthcheckResult);
+					}
+				}
+			}
+			catch (InterruptedException interruptedException) {
+				Thread.currentThread(
+				).interrupt();
+
+				return;
+			}
+		}
+	}
+
+	private Map<Long, List<HealthcheckResult>> _execute(
+		long[] companyIds, Set<String> classNames) {
+
+		List<ClusterNode> clusterNodes = _getRemoteClusterNodes();
+
+		if (clusterNodes.isEmpty()) {
+			return _executeLocally(companyIds, classNames);
+		}
+
+		BlockingQueue<Map<Long, List<HealthcheckResult>>>
+			remoteHealthcheckResults = _executeRemotely(
+				companyIds, classNames, clusterNodes);
+
+		Map<Long, List<HealthcheckResult>> healthcheckResults =
+			new LinkedHashMap<>();
+
+		String localClusterNodeName = _getClusterNodeName(
+			ClusterExecutorUtil.getLocalClusterNode());
+
+		Map<Long, List<HealthcheckResult>> localHealthcheckResults =
+			_executeLocally(companyIds, classNames);
+
+		for (Map.Entry<Long, List<HealthcheckResult>> entry :
+				localHealthcheckResults.entrySet()) {
+
+			List<HealthcheckResult> companyHealthcheckResults =
+				new ArrayList<>();
+
+			for (HealthcheckResult healthcheckResult : entry.getValue()) {
+				companyHealthcheckResults.add(
+					_tag(healthcheckResult, localClusterNodeName));
+			}
+
+			healthcheckResults.put(entry.getKey(), companyHealthcheckResults);
+		}
+
+		_collect(
+			clusterNodes.size(), remoteHealthcheckResults,
+			(companyId, healthcheckResult) -> {
+				List<HealthcheckResult> companyHealthcheckResults =
+					healthcheckResults.computeIfAbsent(
+						companyId, key -> new ArrayList<>());
+
+				companyHealthcheckResults.add(healthcheckResult);
+			});
+
+		return healthcheckResults;
+	}
+
+	private Map<Long, List<HealthcheckResult>> _executeLocally(
+		long[] companyIds, Set<String> classNames) {
+
+		if (classNames == null) {
+			return _healthcheckExecutor.execute(companyIds);
+		}
+
+		return _healthcheckExecutor.execute(companyIds, classNames);
+	}
+
+	private BlockingQueue<Map<Long, List<HealthcheckResult>>>
+		_executeRemotely(
+			long[] companyIds, Set<String> classNames,
+			List<ClusterNode> clusterNodes) {
+
+		BlockingQueue<Map<Long, List<HealthcheckResult>>>
+			remoteHealthcheckResults = new LinkedBlockingQueue<>();
+		long clusterNodeTimeout = _clusterNodeTimeout;
+
+		long deadline =
+			System.currentTimeMillis() +
+				TimeUnit.SECONDS.toMillis(clusterNodeTimeout);
+
+		for (ClusterNode clusterNode : clusterNodes) {
+			_executorService.execute(
+				() -> remoteHealthcheckResults.add(
+					_executeRemotely(
+						companyIds, classNames, clusterNode,
+						clusterNodeTimeout, deadline)));
+		}
+
+		return remoteHealthcheckResults;
+	}
+
+	private Map<Long, List<HealthcheckResult>> _executeRemotely(
+		long[] companyIds, Set<String> classNames, ClusterNode clusterNode,
+		long clusterNodeTimeout, long deadline) {
+
+		String clusterNodeName = _getClusterNodeName(clusterNode);
+
+		String[] classNamesArray = null;
+
+		if (classNames != null) {
+			classNamesArray = classNames.toArray(new String[0]);
+		}
+
+		try {
+			FutureClusterResponses futureClusterResponses =
+				ClusterExecutorUtil.execute(
+					ClusterRequest.createUnicastRequest(
+						new MethodHandler(
+							_executeLocallyMethodKey, companyIds,
+							classNamesArray),
+						clusterNode.getClusterNodeId()));
+
+			ClusterNodeResponses clusterNodeResponses =
+				futureClusterResponses.get(
+					Math.max(0, deadline - System.currentTimeMillis()),
+					TimeUnit.MILLISECONDS);
+
+			ClusterNodeResponse clusterNodeResponse =
+				clusterNodeResponses.getClusterResponse(
+					clusterNode.getClusterNodeId());
+
+			@SuppressWarnings("unchecked")
+			Map<Long, List<ClusterHealthcheckResult>>
+				clusterHealthcheckResults =
+					(Map<Long, List<ClusterHealthcheckResult>>)
+						clusterNodeResponse.getResult();
+
+			Map<Long, List<HealthcheckResult>> healthcheckResults =
+				new HashMap<>();
+
+			for (Map.Entry<Long, List<ClusterHealthcheckResult>> entry :
+					clusterHealthcheckResults.entrySet()) {
+
+				List<HealthcheckResult> companyHealthcheckResults =
+					new ArrayList<>();
+
+				for (ClusterHealthcheckResult clusterHealthcheckResult :
+						entry.getValue()) {
+
+					companyHealthcheckResults.add(
+						new HealthcheckResult(
+							_getHealthcheck(clusterHealthcheckResult),
+							clusterHealthcheckResult.getHealthcheckItems(),
+							clusterNodeName));
+				}
+
+				healthcheckResults.put(
+					entry.getKey(), companyHealthcheckResults);
+			}
+
+			return healthcheckResults;
+		}
+		catch (TimeoutException timeoutException) {
+			if (_log.isWarnEnabled()) {
+				_log.warn(
+					StringBundler.concat(
+						"Cluster node ", clusterNodeName,
+						" did not deliver healthcheck results within ",
+						clusterNodeTimeout, " seconds"));
+			}
+
+			return _toHealthcheckResults(
+				companyIds, clusterNodeName, _MSG_TIMEOUT, clusterNodeName,
+				clusterNodeTimeout);
+		}
+		catch (InterruptedException interruptedException) {
+			Thread.currentThread(
+			).interrupt();
+
+			return _toHealthcheckResults(
+				companyIds, clusterNodeName, _MSG_FAILURE, clusterNodeName,
+				interruptedException.getClass(
+				).getName());
+		}
+		catch (Exception exception) {
+			_log.error(
+				"Unable to retrieve healthcheck results from cluster node " +
+					clusterNodeName,
+				exception);
+
+			return _toHealthcheckResults(
+				companyIds, clusterNodeName, _MSG_FAILURE, clusterNodeName,
+				exception.getMessage());
+		}
+	}
+
+	private String _getClusterNodeName(ClusterNode clusterNode) {
+		InetSocketAddress portalInetSocketAddress =
+			clusterNode.getPortalInetSocketAddress();
+
+		if (portalInetSocketAddress != null) {
+			return portalInetSocketAddress.getHostString() + ":" +
+				portalInetSocketAddress.getPort();
+		}
+
+		InetAddress bindInetAddress = clusterNode.getBindInetAddress();
+
+		if (bindInetAddress != null) {
+			return bindInetAddress.getHostAddress();
+		}
+
+		return clusterNode.getClusterNodeId();
+	}
+
+	private Healthcheck _getHealthcheck(
+		ClusterHealthcheckResult clusterHealthcheckResult) {
+
+		Healthcheck healthcheck = _healthcheckExecutor.getHealthcheck(
+			clusterHealthcheckResult.getHealthcheckClassName());
+
+		if (healthcheck == null) {
+			healthcheck = new RemoteHealthcheck(
+				clusterHealthcheckResult.getCategory(),
+				clusterHealthcheckResult.getHealthcheckItems());
+		}
+
+		return healthcheck;
+	}
+
+	private List<ClusterNode> _getRemoteClusterNodes() {
+		if (!_clusterExecutionEnabled || !ClusterExecutorUtil.isEnabled()) {
+			return Collections.emptyList();
+		}
+
+		ClusterNode localClusterNode =
+			ClusterExecutorUtil.getLocalClusterNode();
+
+		List<ClusterNode> clusterNodes = new ArrayList<>();
+
+		for (ClusterNode clusterNode : ClusterExecutorUtil.getClusterNodes()) {
+			if (!Objects.equals(
+					clusterNode.getClusterNodeId(),
+					localClusterNode.getClusterNodeId())) {
+
+				clusterNodes.add(clusterNode);
+			}
+		}
+
+		return clusterNodes;
+	}
+
+	private HealthcheckResult _tag(
+		HealthcheckResult healthcheckResult, String clusterNodeName) {
+
+		return new HealthcheckResult(
+			healthcheckResult.getHealthcheck(),
+			healthcheckResult.getHealthcheckItems(), clusterNodeName);
+	}
+
+	private Map<Long, List<HealthcheckResult>> _toHealthcheckResults(
+		long[] companyIds, String clusterNodeName, String messageKey,
+		Object... messageParameters) {
+
+		List<HealthcheckItem> healthcheckItems = Collections.singletonList(
+			new HealthcheckItem(false, null, messageKey, messageParameters));
+
+		List<HealthcheckResult> healthcheckResults =
+			Collections.singletonList(
+				new HealthcheckResult(
+					new RemoteHealthcheck(
+						"healthcheck-category-generic", healthcheckItems),
+					healthcheckItems, clusterNodeName));
+
+		Map<Long, List<HealthcheckResult>> companyHealthcheckResults =
+			new HashMap<>();
+
+		for (long companyId : companyIds) {
+			companyHealthcheckResults.put(companyId, healthcheckResults);
+		}
+
+		return companyHealthcheckResults;
+	}
+
+	private static Set<String> _toSet(String[] classNames) {
+		if (classNames == null) {
+			return null;
+		}
+
+		return new HashSet<>(Arrays.asList(classNames));
+	}
+
+	private static final String _MSG_FAILURE =
+		"healthcheck-results-of-cluster-node-x-could-not-be-retrieved-x";
+
+	private static final String _MSG_TIMEOUT =
+		"cluster-node-x-did-not-deliver-healthcheck-results-within-x-seconds";
+
+	private static final Log _log = LogFactoryUtil.getLog(
+		ClusterHealthcheckExecutor.class);
+
+	private static volatile ClusterHealthcheckExecutor
+		_clusterHealthcheckExecutor;
+	private static final MethodKey _executeLocallyMethodKey = new MethodKey(
+		ClusterHealthcheckExecutor.class, "executeLocally", long[].class,
+		String[].class);
+
+	private volatile boolean _clusterExecutionEnabled;
+	private volatile long _clusterNodeTimeout;
+	private ExecutorService _executorService;
+
+	@Reference
+	private HealthcheckExecutor _healthcheckExecutor;
+
+}
@@ -0,0 +1,55 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.cluster;
+
+import com.liferay.healthcheck.HealthcheckItem;
+import com.liferay.portal.kernel.util.ArrayUtil;
+
+import java.io.Serializable;
+
+import java.util.Collection;
+
+/**
+ * A HealthcheckItem in a form that can be sent from one cluster node to
+ * another. Message parameters are converted to strings on the executing node,
+ * the source key is kept as it was computed there, so that ignoring an item
+ * works on every node.
+ *
+ * @author Olaf Kock
+ */
+public class ClusterHealthcheckItem implements Serializable {
+
+	public ClusterHealthcheckItem(HealthcheckItem healthcheckItem) {
+		Collection<String> additionalDocumentation =
+			healthcheckItem.getAdditionalDocumentation();
+
+		_additionalDocumentation = additionalDocumentation.toArray(
+			new String[0]);
+
+		_link = healthcheckItem.getLink();
+		_messageKey = healthcheckItem.getMessageKey();
+		_messageParameters = ArrayUtil.toStringArray(
+			healthcheckItem.getMessageParameters());
+		_sourceKey = healthcheckItem.getSourceKey();
+		_success = healthcheckItem.isSuccess();
+	}
+
+	public HealthcheckItem toHealthcheckItem() {
+		return new RemoteHealthcheckItem(
+			_success, _additionalDocumentation, _link, _messageKey,
+			_messageParameters, _sourceKey);
+	}
+
+	private static final long serialVersionUID = 1L;
+
+	private final String[] _additionalDocumentation;
+	private final String _link;
+	private final String _messageKey;
+	private final String[] _messageParameters;
+	private final String _sourceKey;
+	private final boolean _success;
+
+}
@@ -0,0 +1,69 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.cluster;
+
+import com.liferay.healthcheck.Healthcheck;
+import com.liferay.healthcheck.HealthcheckItem;
+import com.liferay.healthcheck.web.internal.executor.HealthcheckResult;
+
+import java.io.Serializable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A HealthcheckResult in a form that can be sent from one cluster node to
+ * another. The Healthcheck itself is only referenced by its class name and
+ * resolved again on the receiving node.
+ *
+ * @author Olaf Kock
+ */
+public class ClusterHealthcheckResult implements Serializable {
+
+	public ClusterHealthcheckResult(HealthcheckResult healthcheckResult) {
+		Healthcheck healthcheck = healthcheckResult.getHealthcheck();
+
+		_category = healthcheck.getCategory();
+		_healthcheckClassName = healthcheck.getClass(
+		).getName();
+
+		for (HealthcheckItem healthcheckItem :
+				healthcheckResult.getHealthcheckItems()) {
+
+			_clusterHealthcheckItems.add(
+				new ClusterHealthcheckItem(healthcheckItem));
+		}
+	}
+
+	public String getCategory() {
+		return _category;
+	}
+
+	public String getHealthcheckClassName() {
+		return _healthcheckClassName;
+	}
+
+	public List<HealthcheckItem> getHealthcheckItems() {
+		List<HealthcheckItem> healthcheckItems = new ArrayList<>(
+			_clusterHealthcheckItems.size());
+
+		for (ClusterHealthcheckItem clusterHealthcheckItem :
+				_clusterHealthcheckItems) {
+
+			healthcheckItems.add(clusterHealthcheckItem.toHealthcheckItem());
+		}
+
+		return healthcheckItems;
+	}
+
+	private static final long serialVersionUID = 1L;
+
+	private final String _category;
+	private final ArrayList<ClusterHealthcheckItem> _clusterHealthcheckItems =
+		new ArrayList<>();
+	private final String _healthcheckClassName;
+
+}
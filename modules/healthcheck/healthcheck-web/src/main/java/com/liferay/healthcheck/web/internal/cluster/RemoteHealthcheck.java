@@ -0,0 +1,42 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.cluster;
+
+import com.liferay.healthcheck.Healthcheck;
+import com.liferay.healthcheck.HealthcheckItem;
+
+import java.util.Collection;
+
+/**
+ * Stands in for a Healthcheck that delivered a result on another cluster
+ * node, but is not deployed on the current one. It provides the category for
+ * displaying the remote result, and checking returns the remote items.
+ *
+ * @author Olaf Kock
+ */
+public class RemoteHealthcheck implements Healthcheck {
+
+	public RemoteHealthcheck(
+		String category, Collection<HealthcheckItem> healthcheckItems) {
+
+		_category = category;
+		_healthcheckItems = healthcheckItems;
+	}
+
+	@Override
+	public Collection<HealthcheckItem> check(long companyId) {
+		return _healthcheckItems;
+	}
+
+	@Override
+	public String getCategory() {
+		return _category;
+	}
+
+	private final String _category;
+	private final Collection<HealthcheckItem> _healthcheckItems;
+
+}
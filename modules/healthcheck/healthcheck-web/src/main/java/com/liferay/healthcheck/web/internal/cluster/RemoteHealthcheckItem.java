@@ -0,0 +1,37 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.cluster;
+
+import com.liferay.healthcheck.HealthcheckItem;
+
+/**
+ * A HealthcheckItem that was produced on another cluster node. Its source key
+ * is the one computed on that node, as Healthchecks may compute it
+ * differently from the default.
+ *
+ * @author Olaf Kock
+ */
+public class RemoteHealthcheckItem extends HealthcheckItem {
+
+	public RemoteHealthcheckItem(
+		boolean success, String[] additionalDocumentation, String link,
+		String messageKey, String[] messageParameters, String sourceKey) {
+
+		super(
+			success, additionalDocumentation, link, messageKey,
+			(Object[])messageParameters);
+
+		_sourceKey = sourceKey;
+	}
+
+	@Override
+	public String getSourceKey() {
+		return _sourceKey;
+	}
+
+	private final String _sourceKey;
+
+}
@@ -0,0 +1,171 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.configuration;
+
+import aQute.bnd.annotation.metatype.Meta;
+
+import com.liferay.portal.configuration.metatype.annotations.ExtendedObjectClassDefinition;
+
+/**
+ * @author Olaf Kock
+ */
+@ExtendedObjectClassDefinition(
+	category = "healthcheck", scope = ExtendedObjectClassDefinition.Scope.SYSTEM
+)
+@Meta.OCD(
+	description = "healthcheck-web-configuration-description",
+	id = "com.liferay.healthcheck.web.internal.configuration.HealthcheckWebConfiguration",
+	localization = "content/Language",
+	name = "healthcheck-web-configuration-name"
+)
+public interface HealthcheckWebConfiguration {
+
+	@Meta.AD(
+		deflt = "0",
+		description = "healthcheck-web-auto-unignore-days-description",
+		name = "healthcheck-web-auto-unignore-days-name", required = false
+	)
+	public int autoUnignoreDays();
+
+	@Meta.AD(
+		deflt = "10",
+		description = "healthcheck-web-auto-unignore-runs-description",
+		name = "healthcheck-web-auto-unignore-runs-name", required = false
+	)
+	public int autoUnignoreRuns();
+
+	@Meta.AD(
+		deflt = "60",
+		description = "healthcheck-web-circuit-breaker-backoff-description",
+		name = "healthcheck-web-circuit-breaker-backoff-name", required = false
+	)
+	public int circuitBreakerBackoff();
+
+	@Meta.AD(
+		deflt = "3",
+		description = "healthcheck-web-circuit-breaker-threshold-description",
+		name = "healthcheck-web-circuit-breaker-threshold-name",
+		required = false
+	)
+	public int circuitBreakerThreshold();
+
+	@Meta.AD(
+		deflt = "true",
+		description = "healthcheck-web-cluster-execution-enabled-description",
+		name = "healthcheck-web-cluster-execution-enabled-name",
+		required = false
+	)
+	public boolean clusterExecutionEnabled();
+
+	@Meta.AD(
+		deflt = "120",
+		description = "healthcheck-web-cluster-node-timeout-description",
+		name = "healthcheck-web-cluster-node-timeout-name", required = false
+	)
+	public int clusterNodeTimeout();
+
+	@Meta.AD(
+		deflt = "30",
+		description = "healthcheck-web-healthcheck-timeout-description",
+		name = "healthcheck-web-healthcheck-timeout-name", required = false
+	)
+	public int healthcheckTimeout();
+
+	@Meta.AD(
+		deflt = "false",
+		description = "healthcheck-web-history-enabled-description",
+		name = "healthcheck-web-history-enabled-name", required = false
+	)
+	public boolean historyEnabled();
+
+	@Meta.AD(
+		deflt = "8",
+		description = "healthcheck-web-history-segments-description",
+		name = "healthcheck-web-history-segments-name", required = false
+	)
+	public int historySegments();
+
+	@Meta.AD(
+		deflt = "5",
+		description = "healthcheck-web-invalidation-refresh-delay-description",
+		name = "healthcheck-web-invalidation-refresh-delay-name",
+		required = false
+	)
+	public int invalidationRefreshDelay();
+
+	@Meta.AD(
+		deflt = "8",
+		description = "healthcheck-web-max-parallel-healthchecks-description",
+		name = "healthcheck-web-max-parallel-healthchecks-name",
+		required = false
+	)
+	public int maxParallelHealthchecks();
+
+	@Meta.AD(
+		deflt = "", description = "healthcheck-web-metrics-token-description",
+		name = "healthcheck-web-metrics-token-name", required = false,
+		type = Meta.Type.Password
+	)
+	public String metricsToken();
+
+	@Meta.AD(
+		deflt = "60",
+		description = "healthcheck-web-notification-delay-description",
+		name = "healthcheck-web-notification-delay-name", required = false
+	)
+	public int notificationDelay();
+
+	@Meta.AD(
+		deflt = "EnvironmentCompleteHealthcheck|ClusterSizeHealthcheck|ContentIndexedHealthCheck",
+		description = "healthcheck-web-probe-healthchecks-description",
+		name = "healthcheck-web-probe-healthchecks-name", required = false
+	)
+	public String[] probeHealthchecks();
+
+	@Meta.AD(
+		deflt = "30", description = "healthcheck-web-probe-interval-description",
+		name = "healthcheck-web-probe-interval-name", required = false
+	)
+	public int probeInterval();
+
+	@Meta.AD(
+		deflt = "false",
+		description = "healthcheck-web-probe-stale-run-unavailable-description",
+		name = "healthcheck-web-probe-stale-run-unavailable-name",
+		required = false
+	)
+	public boolean probeStaleRunUnavailable();
+
+	@Meta.AD(
+		deflt = "", description = "healthcheck-web-probe-token-description",
+		name = "healthcheck-web-probe-token-name", required = false,
+		type = Meta.Type.Password
+	)
+	public String probeToken();
+
+	@Meta.AD(
+		deflt = "true",
+		description = "healthcheck-web-scheduled-run-enabled-description",
+		name = "healthcheck-web-scheduled-run-enabled-name", required = false
+	)
+	public boolean scheduledRunEnabled();
+
+	@Meta.AD(
+		deflt = "60",
+		description = "healthcheck-web-scheduled-run-interval-description",
+		name = "healthcheck-web-scheduled-run-interval-name", required = false
+	)
+	public int scheduledRunInterval();
+
+	@Meta.AD(
+		deflt = "5000",
+		description = "healthcheck-web-slow-healthcheck-threshold-description",
+		name = "healthcheck-web-slow-healthcheck-threshold-name",
+		required = false
+	)
+	public int slowHealthcheckThreshold();
+
+}
@@ -0,0 +1,45 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.executor;
+
+import com.liferay.healthcheck.Healthcheck;
+import com.liferay.healthcheck.HealthcheckItem;
+
+import java.util.Date;
+
+/**
+ * Signals that a Healthcheck has not been executed, because it repeatedly
+ * timed out and is skipped for a while.
+ *
+ * @author Olaf Kock
+ */
+public class CircuitOpenHealthcheckItem extends HealthcheckItem {
+
+	public CircuitOpenHealthcheckItem(
+		Healthcheck healthcheck, int timeouts, long openUntil) {
+
+		super(
+			false, (String)null, _MSG,
+			healthcheck.getClass(
+			).getName(),
+			timeouts, new Date(openUntil));
+
+		_sourceKey =
+			healthcheck.getClass(
+			).getName() + "-skipped";
+	}
+
+	@Override
+	public String getSourceKey() {
+		return _sourceKey;
+	}
+
+	private static final String _MSG =
+		"healthcheck-x-is-skipped-after-x-consecutive-timeouts-until-x";
+
+	private final String _sourceKey;
+
+}
@@ -0,0 +1,45 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.executor;
+
+import com.liferay.healthcheck.Healthcheck;
+import com.liferay.healthcheck.HealthcheckItem;
+
+/**
+ * Signals that a Healthcheck failed with an exception instead of delivering
+ * its own result. The source key does not contain the exception's message, so
+ * that an ignored exception stays ignored, even if its message changes.
+ *
+ * @author Olaf Kock
+ */
+public class ExceptionHealthcheckItem extends HealthcheckItem {
+
+	public ExceptionHealthcheckItem(
+		Healthcheck healthcheck, Throwable throwable) {
+
+		super(
+			false, (String)null, _MSG,
+			healthcheck.getClass(
+			).getName(),
+			throwable.getClass(
+			).getName(),
+			throwable.getMessage());
+
+		_sourceKey =
+			healthcheck.getClass(
+			).getName() + "-exception";
+	}
+
+	@Override
+	public String getSourceKey() {
+		return _sourceKey;
+	}
+
+	private static final String _MSG = "an-exception-occurred-for-x-x-x";
+
+	private final String _sourceKey;
+
+}
@@ -0,0 +1,122 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.executor;
+
+import com.liferay.healthcheck.Healthcheck;
+import com.liferay.petra.string.StringBundler;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of consecutive timeouts per Healthcheck and company. Once a
+ * Healthcheck timed out often enough, its circuit opens and it is skipped for
+ * the back-off period. Afterwards it is tried once more: a single further
+ * timeout opens the circuit again, a result closes it.
+ *
+ * The thresholds can be changed at any time, without losing the state of the
+ * circuits. Circuits that are already open stay open for the back-off period
+ * that was configured when they opened.
+ *
+ * @author Olaf Kock
+ */
+public class HealthcheckCircuitBreaker {
+
+	/**
+	 * @return an item signalling the open circuit, or null if the Healthcheck
+	 *         can be executed
+	 */
+	public CircuitOpenHealthcheckItem getCircuitOpenHealthcheckItem(
+		Healthcheck healthcheck, long companyId) {
+
+		Circuit circuit = _circuits.get(_getKey(healthcheck, companyId));
+
+		if ((circuit == null) ||
+			(circuit._openUntil <= System.currentTimeMillis())) {
+
+			return null;
+		}
+
+		return new CircuitOpenHealthcheckItem(
+			healthcheck, circuit._timeouts, circuit._openUntil);
+	}
+
+	public void recordResult(Healthcheck healthcheck, long companyId) {
+		_circuits.remove(_getKey(healthcheck, companyId));
+	}
+
+	public void recordTimeout(Healthcheck healthcheck, long companyId) {
+		Circuit circuit = _circuits.compute(
+			_getKey(healthcheck, companyId),
+			(key, previousCircuit) -> {
+				int timeouts = 1;
+
+				if (previousCircuit != null) {
+					timeouts = previousCircuit._timeouts + 1;
+				}
+
+				long openUntil = 0;
+
+				if (timeouts >= _threshold) {
+					openUntil = System.currentTimeMillis() + _backoff;
+				}
+
+				return new Circuit(timeouts, openUntil);
+			});
+
+		if ((circuit._openUntil > 0) && _log.isWarnEnabled()) {
+			_log.warn(
+				StringBundler.concat(
+					"Skipping ", healthcheck.getClass(
+					).getName(),
+					" for company ", companyId, " after ", circuit._timeouts,
+					" consecutive timeouts"));
+		}
+	}
+
+	/**
+	 * @param backoff the time, in milliseconds, that an open circuit stays
+	 *        open
+	 */
+	public void setBackoff(long backoff) {
+		_backoff = backoff;
+	}
+
+	/**
+	 * @param threshold the number of consecutive timeouts that open the
+	 *        circuit
+	 */
+	public void setThreshold(int threshold) {
+		_threshold = Math.max(1, threshold);
+	}
+
+	private String _getKey(Healthcheck healthcheck, long companyId) {
+		return healthcheck.getClass(
+		).getName() + "#" + companyId;
+	}
+
+	private static final Log _log = LogFactoryUtil.getLog(
+		HealthcheckCircuitBreaker.class);
+
+	private volatile long _backoff;
+	private final Map<String, Circuit> _circuits = new ConcurrentHashMap<>();
+	private volatile int _threshold = 1;
+
+	private static class Circuit {
+
+		private Circuit(int timeouts, long openUntil) {
+			_timeouts = timeouts;
+			_openUntil = openUntil;
+		}
+
+		private final long _openUntil;
+		private final int _timeouts;
+
+	}
+
+}
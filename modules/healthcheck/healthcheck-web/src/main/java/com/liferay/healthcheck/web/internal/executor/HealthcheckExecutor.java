@@ -0,0 +1,946 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.executor;
+
+import com.liferay.healthcheck.Healthcheck;
+import com.liferay.healthcheck.HealthcheckItem;
+import com.liferay.healthcheck.web.internal.configuration.HealthcheckWebConfiguration;
+import com.liferay.osgi.service.tracker.collections.list.ServiceTrackerList;
+import com.liferay.osgi.service.tracker.collections.list.ServiceTrackerListFactory;
+import com.liferay.osgi.service.tracker.collections.map.PropertyServiceReferenceComparator;
+import com.liferay.petra.string.StringBundler;
+import com.liferay.portal.configuration.metatype.bnd.util.ConfigurableUtil;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.model.CompanyConstants;
+import com.liferay.portal.kernel.security.auth.CompanyThreadLocal;
+import com.liferay.portal.kernel.util.NamedThreadFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceReference;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
+import org.osgi.util.tracker.ServiceTrackerCustomizer;
+
+/**
+ * Runs all registered Healthchecks in parallel, on a bounded number of
+ * threads, so that the time to run all of them is roughly that of the slowest
+ * one, rather than the sum of all. Virtual threads are used when the JVM
+ * provides them.
+ *
+ * Every Healthcheck gets a deadline, counted from when it actually starts
+ * running: Some of them connect to external hosts, and an unreachable host
+ * must not block the caller forever. As Healthchecks that ignore their
+ * cancellation keep their thread, the whole run has a deadline as well:
+ * Healthchecks that could not even start by then are reported as timed out.
+ * Healthchecks are started through
+ * {@link Healthcheck#checkAsync(long, java.util.concurrent.Executor)}, so
+ * that those that override it can overlap their own I/O on the same pool.
+ *
+ * Healthchecks that are expensive, but rarely change their result, can
+ * declare the service property <code>healthcheck.ttl.seconds</code>. Their
+ * results are reused per company until they expire. Healthchecks that check
+ * conditions of the whole system, rather than of a company, can declare the
+ * service property <code>healthcheck.scope=system</code>, so that they are
+ * executed only once when running for several companies.
+ *
+ * The wall time, CPU time and allocated bytes of every execution are recorded
+ * per Healthcheck, see {@link #getHealthcheckTimingHistograms()}.
+ * Healthchecks that take longer than the configured threshold get an
+ * additional item that reports them as slow.
+ *
+ * Cached results can be dropped early through
+ * {@link #invalidate(Predicate, long)}, when a change is known to affect
+ * them.
+ *
+ * @author Olaf Kock
+ */
+@Component(
+	configurationPid = "com.liferay.healthcheck.web.internal.configuration.HealthcheckWebConfiguration",
+	service = HealthcheckExecutor.class
+)
+public class HealthcheckExecutor {
+
+	/**
+	 * Runs all Healthchecks for the given company and waits for all of them
+	 * to complete.
+	 *
+	 * @return the results, in the order of the registered Healthchecks
+	 * @see    #execute(long, Consumer)
+	 */
+	public List<HealthcheckResult> execute(long companyId) {
+		Map<Long, List<HealthcheckResult>> healthcheckResults = execute(
+			new long[] {companyId});
+
+		return healthcheckResults.get(companyId);
+	}
+
+	/**
+	 * Runs all Healthchecks for the given company and hands each result to
+	 * the consumer as soon as it is available, so that callers can deliver
+	 * results progressively. The consumer is always called on the calling
+	 * thread, one result at a time. This method returns once all Healthchecks
+	 * completed.
+	 *
+	 * Healthchecks that exceed the configured timeout are cancelled and
+	 * reported as timed out. Healthchecks that timed out too often in a row
+	 * are not executed at all for a while.
+	 */
+	public void execute(
+		long companyId, Consumer<HealthcheckResult> healthcheckResultConsumer) {
+
+		_execute(
+			new long[] {companyId}, trackedHealthcheck -> true, true,
+			(resultCompanyId, healthcheckResult) ->
+				healthcheckResultConsumer.accept(healthcheckResult));
+	}
+
+	/**
+	 * Runs all Healthchecks for all given companies and waits for all of them
+	 * to complete. All executions share the same bounded pool of threads.
+	 * Healthchecks that declare the service property
+	 * <code>healthcheck.scope=system</code> are executed only once, and their
+	 * result is reported for every company.
+	 *
+	 * @return the results per company, each in the order of the registered
+	 *         Healthchecks
+	 */
+	public Map<Long, List<HealthcheckResult>> execute(long[] companyIds) {
+		return _execute(companyIds, trackedHealthcheck -> true, true);
+	}
+
+	/**
+	 * Runs only the Healthchecks with the given class names for all given
+	 * companies, ignoring any cached results, e.g. after a change invalidated
+	 * their previous results. Fresh results replace those in the cache.
+	 *
+	 * @return the results per company, each in the order of the registered
+	 *         Healthchecks
+	 * @see    #execute(long[])
+	 */
+	public Map<Long, List<HealthcheckResult>> execute(
+		long[] companyIds, Set<String> classNames) {
+
+		return _execute(
+			companyIds,
+			trackedHealthcheck -> classNames.contains(
+				_getClassName(trackedHealthcheck)),
+			false);
+	}
+
+	/**
+	 * Runs only the Healthchecks matching the predicate for all given
+	 * companies and waits for all of them to complete. Cached results are
+	 * reused.
+	 *
+	 * @return the results per company, each in the order of the registered
+	 *         Healthchecks
+	 * @see    #execute(long[])
+	 */
+	public Map<Long, List<HealthcheckResult>> execute(
+		Predicate<TrackedHealthcheck> predicate, long[] companyIds) {
+
+		return _execute(companyIds, predicate, true);
+	}
+
+	/**
+	 * @return the registered Healthcheck with the given class name, or null if
+	 *         there is none
+	 */
+	public Healthcheck getHealthcheck(String className) {
+		for (TrackedHealthcheck trackedHealthcheck :
+				_serviceTrackerList.toList()) {
+
+			Healthcheck healthcheck = trackedHealthcheck.getHealthcheck();
+
+			if (className.equals(
+					healthcheck.getClass(
+					).getName())) {
+
+				return healthcheck;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * @return the timings of the latest executions, per Healthcheck that was
+	 *         executed at least once
+	 */
+	public List<HealthcheckTimingHistogram> getHealthcheckTimingHistograms() {
+		return new ArrayList<>(_healthcheckTimingHistograms.values());
+	}
+
+	/**
+	 * Drops the cached results of the Healthchecks matching the predicate,
+	 * so that they are executed again the next time. Results of system
+	 * scoped Healthchecks are dropped regardless of the company.
+	 *
+	 * @param  companyId the company whose results are dropped, or
+	 *         CompanyConstants.SYSTEM to drop them for all companies
+	 * @return the class names of the matching Healthchecks
+	 */
+	public Set<String> invalidate(
+		Predicate<TrackedHealthcheck> predicate, long companyId) {
+
+		Set<String> classNames = new HashSet<>();
+
+		for (TrackedHealthcheck trackedHealthcheck :
+				_serviceTrackerList.toList()) {
+
+			if (!predicate.test(trackedHealthcheck)) {
+				continue;
+			}
+
+			Healthcheck healthcheck = trackedHealthcheck.getHealthcheck();
+
+			if (companyId == CompanyConstants.SYSTEM) {
+				_healthcheckResultCache.remove(healthcheck);
+			}
+			else {
+				_healthcheckResultCache.remove(
+					healthcheck,
+					trackedHealthcheck.getScopeCompanyId(companyId));
+			}
+
+			classNames.add(_getClassName(trackedHealthcheck));
+		}
+
+		return classNames;
+	}
+
+	@Activate
+	protected void activate(
+		BundleContext bundleContext, Map<String, Object> properties) {
+
+		_serviceTrackerList = ServiceTrackerListFactory.open(
+			bundleContext, Healthcheck.class, null,
+			new ServiceTrackerCustomizer<Healthcheck, TrackedHealthcheck>() {
+
+				@Override
+				public TrackedHealthcheck addingService(
+					ServiceReference<Healthcheck> serviceReference) {
+
+					return new TrackedHealthcheck(
+						bundleContext.getService(serviceReference),
+						serviceReference);
+				}
+
+				@Override
+				public void modifiedService(
+					ServiceReference<Healthcheck> serviceReference,
+					TrackedHealthcheck trackedHealthcheck) {
+
+					trackedHealthcheck.update(serviceReference);
+				}
+
+				@Override
+				public void removedService(
+					ServiceReference<Healthcheck> serviceReference,
+					TrackedHealthcheck trackedHealthcheck) {
+
+					_healthcheckResultCache.remove(
+						trackedHealthcheck.getHealthcheck());
+					_healthcheckTimingHistograms.remove(
+						_getClassName(trackedHealthcheck));
+
+					bundleContext.ungetService(serviceReference);
+				}
+
+			},
+			new PropertyServiceReferenceComparator<>("service.ranking"));
+
+		_scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(
+			new NamedThreadFactory(
+				"Healthcheck Timeout", Thread.NORM_PRIORITY,
+				HealthcheckExecutor.class.getClassLoader()));
+
+		_configure(properties);
+	}
+
+	@Deactivate
+	protected void deactivate() {
+		_executorService.shutdownNow();
+		_scheduledExecutorService.shutdownNow();
+
+		_serviceTrackerList.close();
+	}
+
+	@Modified
+	protected void modified(Map<String, Object> properties) {
+		ExecutorService executorService = _executorService;
+
+		_configure(properties);
+
+		executorService.shutdown();
+	}
+
+	private void _accept(
+		long[] companyIds, HealthcheckResult healthcheckResult,
+		BiConsumer<Long, HealthcheckResult> healthcheckResultConsumer) {
+
+		for (long companyId : companyIds) {
+			healthcheckResultConsumer.accept(companyId, healthcheckResult);
+		}
+	}
+
+	private Map<Long, List<HealthcheckResult>> _execute(
+		long[] companyIds, Predicate<TrackedHealthcheck> predicate,
+		boolean useCache) {
+
+		Map<Long, Map<Healthcheck, HealthcheckResult>> healthcheckResults =
+			new HashMap<>();
+
+		List<Healthcheck> healthchecks = _execute(
+			companyIds, predicate, useCache,
+			(companyId, healthcheckResult) -> {
+				Map<Healthcheck, HealthcheckResult> companyHealthcheckResults =
+					healthcheckResults.computeIfAbsent(
+						companyId, key -> new IdentityHashMap<>());
+
+				companyHealthcheckResults.put(
+					healthcheckResult.getHealthcheck(), healthcheckResult);
+			});
+
+		Map<Long, List<HealthcheckResult>> orderedHealthcheckResults =
+			new LinkedHashMap<>();
+
+		for (long companyId : companyIds) {
+			Map<Healthcheck, HealthcheckResult> companyHealthcheckResults =
+				healthcheckResults.getOrDefault(
+					companyId, Collections.emptyMap());
+
+			List<HealthcheckResult> orderedCompanyHealthcheckResults =
+				new ArrayList<>(healthchecks.size());
+
+			for (Healthcheck healthcheck : healthchecks) {
+				HealthcheckResult healthcheckResult =
+					companyHealthcheckResults.get(healthcheck);
+
+				if (healthcheckResult != null) {
+					orderedCompanyHealthcheckResults.add(healthcheckResult);
+				}
+			}
+
+			orderedHealthcheckResults.put(
+				companyId, orderedCompanyHealthcheckResults);
+		}
+
+		return orderedHealthcheckResults;
+	}
+
+	private List<Healthcheck> _execute(
+		long[] companyIds, Predicate<TrackedHealthcheck> predicate,
+		boolean useCache,
+		BiConsumer<Long, HealthcheckResult> healthcheckResultConsumer) {
+
+		ExecutorService executorService = _executorService;
+		int maxParallelHealthchecks = _maxParallelHealthchecks;
+		List<TrackedHealthcheck> trackedHealthchecks =
+			_serviceTrackerList.toList();
+		long slowHealthcheckThreshold = _slowHealthcheckThreshold;
+		long timeout = _timeout;
+
+		BlockingQueue<HealthcheckExecution> completedHealthcheckExecutions =
+			new LinkedBlockingQueue<>();
+		List<HealthcheckExecution> healthcheckExecutions = new ArrayList<>(
+			trackedHealthchecks.size() * companyIds.length);
+		List<Healthcheck> healthchecks = new ArrayList<>(
+			trackedHealthchecks.size());
+
+		for (TrackedHealthcheck trackedHealthcheck : trackedHealthchecks) {
+			if (!predicate.test(trackedHealthcheck)) {
+				continue;
+			}
+
+			Healthcheck healthcheck = trackedHealthcheck.getHealthcheck();
+
+			healthchecks.add(healthcheck);
+
+			// A system scoped Healthcheck runs once, in the context of the
+			// first company, and its result is reported for all of them
+
+			long[][] executionCompanyIds = null;
+
+			if (trackedHealthcheck.isSystemScoped()) {
+				executionCompanyIds = new long[][] {companyIds};
+			}
+			else {
+				executionCompanyIds = new long[companyIds.length][];
+
+				for (int i = 0; i < companyIds.length; i++) {
+					executionCompanyIds[i] = new long[] {companyIds[i]};
+				}
+			}
+
+			for (long[] resultCompanyIds : executionCompanyIds) {
+				long companyId = resultCompanyIds[0];
+
+				long scopeCompanyId = trackedHealthcheck.getScopeCompanyId(
+					companyId);
+
+				if (useCache && (trackedHealthcheck.getTtl() > 0)) {
+					HealthcheckResult healthcheckResult =
+						_healthcheckResultCache.get(
+							healthcheck, scopeCompanyId);
+
+					if (healthcheckResult != null) {
+						_accept(
+							resultCompanyIds, healthcheckResult,
+							healthcheckResultConsumer);
+
+						continue;
+					}
+				}
+
+				CircuitOpenHealthcheckItem circuitOpenHealthcheckItem =
+					_healthcheckCircuitBreaker.getCircuitOpenHealthcheckItem(
+						healthcheck, scopeCompanyId);
+
+				if (circuitOpenHealthcheckItem != null) {
+					_accept(
+						resultCompanyIds,
+						new HealthcheckResult(
+							healthcheck,
+							Collections.singletonList(
+								circuitOpenHealthcheckItem)),
+						healthcheckResultConsumer);
+
+					continue;
+				}
+
+				HealthcheckExecution healthcheckExecution =
+					new HealthcheckExecution(
+						trackedHealthcheck, companyId, scopeCompanyId,
+						resultCompanyIds, executorService, timeout,
+						completedHealthcheckExecutions);
+
+				healthcheckExecution._start();
+
+				healthcheckExecutions.add(healthcheckExecution);
+			}
+		}
+
+		// Each Healthcheck has its own deadline once it started. The run is
+		// given as many of them as it takes to work through all executions on
+		// the pool, plus one to start them all.
+
+		long rounds =
+			((healthcheckExecutions.size() + maxParallelHealthchecks - 1) /
+				maxParallelHealthchecks) + 1;
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(
+			timeout * rounds);
+
+		for (int i = 0; i < healthcheckExecutions.size(); i++) {
+			HealthcheckExecution healthcheckExecution = null;
+
+			try {
+				healthcheckExecution = completedHealthcheckExecutions.poll(
+					deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+
+				if (healthcheckExecution == null) {
+
+					// Cancelling completes all executions that are still
+					// pending, including those that never got a thread
+
+					for (HealthcheckExecution remainingHealthcheckExecution :
+							healthcheckExecutions) {
+
+						remainingHealthcheckExecution._cancel();
+					}
+
+					healthcheckExecution =
+						completedHealthcheckExecutions.poll();
+
+					if (healthcheckExecution == null) {
+						break;
+					}
+				}
+			}
+			catch (InterruptedException interruptedException) {
+				Thread.currentThread(
+				).interrupt();
+
+				for (HealthcheckExecution remainingHealthcheckExecution :
+						healthcheckExecutions) {
+
+					remainingHealthcheckExecution._cancel();
+				}
+
+				break;
+			}
+
+			TrackedHealthcheck trackedHealthcheck =
+				healthcheckExecution._trackedHealthcheck;
+
+			Healthcheck healthcheck = trackedHealthcheck.getHealthcheck();
+			HealthcheckTiming healthcheckTiming =
+				healthcheckExecution._getHealthcheckTiming();
+			long[] resultCompanyIds = healthcheckExecution._companyIds;
+			long scopeCompanyId = healthcheckExecution._scopeCompanyId;
+
+			HealthcheckTimingHistogram healthcheckTimingHistogram =
+				_healthcheckTimingHistograms.computeIfAbsent(
+					_getClassName(trackedHealthcheck),
+					HealthcheckTimingHistogram::new);
+
+			healthcheckTimingHistogram.record(healthcheckTiming);
+
+			try {
+				HealthcheckResult healthcheckResult = new HealthcheckResult(
+					healthcheck, healthcheckExecution._get());
+
+				_accept(
+					resultCompanyIds,
+					_toHealthcheckResult(
+						healthcheckResult, healthcheckTiming,
+						slowHealthcheckThreshold),
+					healthcheckResultConsumer);
+
+				_healthcheckCircuitBreaker.recordResult(
+					healthcheck, scopeCompanyId);
+
+				if ((trackedHealthcheck.getTtl() > 0) &&
+					!healthcheckResult.isFailedExecution()) {
+
+					_healthcheckResultCache.put(
+						scopeCompanyId, healthcheckResult,
+						trackedHealthcheck.getTtl());
+				}
+			}
+			catch (CancellationException cancellationException) {
+				if (!healthcheckExecution._isStarted()) {
+
+					// Not the Healthcheck's fault, the pool is saturated
+
+					if (_log.isWarnEnabled()) {
+						_log.warn(
+							StringBundler.concat(
+								healthcheck.getClass(
+								).getName(),
+								" did not start before the deadline of all ",
+								"Healthchecks"));
+					}
+				}
+				else {
+					if (_log.isWarnEnabled()) {
+						_log.warn(
+							StringBundler.concat(
+								healthcheck.getClass(
+								).getName(),
+								" timed out after ", timeout, " seconds"));
+					}
+
+					_healthcheckCircuitBreaker.recordTimeout(
+						healthcheck, scopeCompanyId);
+				}
+
+				_accept(
+					resultCompanyIds,
+					new HealthcheckResult(
+						healthcheck,
+						Collections.singletonList(
+							new TimeoutHealthcheckItem(healthcheck, timeout))),
+					healthcheckResultConsumer);
+			}
+			catch (ExecutionException executionException) {
+				Throwable throwable = executionException.getCause();
+
+				if ((throwable instanceof CompletionException) &&
+					(throwable.getCause() != null)) {
+
+					throwable = throwable.getCause();
+				}
+
+				_accept(
+					resultCompanyIds,
+					_toHealthcheckResult(healthcheck, throwable),
+					healthcheckResultConsumer);
+			}
+			catch (InterruptedException interruptedException) {
+
+				// Can't happen, the task is already done
+
+				Thread.currentThread(
+				).interrupt();
+			}
+		}
+
+		return healthchecks;
+	}
+
+	private void _configure(Map<String, Object> properties) {
+		HealthcheckWebConfiguration healthcheckWebConfiguration =
+			ConfigurableUtil.createConfigurable(
+				HealthcheckWebConfiguration.class, properties);
+
+		int maxParallelHealthchecks = Math.max(
+			1, healthcheckWebConfiguration.maxParallelHealthchecks());
+
+		if (_log.isDebugEnabled()) {
+			_log.debug(
+				"Running up to " + maxParallelHealthchecks +
+					" healthchecks in parallel");
+		}
+
+		ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(
+			maxParallelHealthchecks, maxParallelHealthchecks, 60,
+			TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+			_createThreadFactory());
+
+		threadPoolExecutor.allowCoreThreadTimeOut(true);
+
+		_executorService = threadPoolExecutor;
+		_maxParallelHealthchecks = maxParallelHealthchecks;
+
+		// The circuit breaker is kept, so that open circuits and counted
+		// timeouts survive configuration changes
+
+		_healthcheckCircuitBreaker.setBackoff(
+			TimeUnit.MINUTES.toMillis(
+				healthcheckWebConfiguration.circuitBreakerBackoff()));
+		_healthcheckCircuitBreaker.setThreshold(
+			healthcheckWebConfiguration.circuitBreakerThreshold());
+		_slowHealthcheckThreshold = Math.max(
+			0, healthcheckWebConfiguration.slowHealthcheckThreshold());
+		_timeout = Math.max(
+			1, healthcheckWebConfiguration.healthcheckTimeout());
+	}
+
+	private ThreadFactory _createThreadFactory() {
+
+		// Virtual threads are only available from Java 21 on, while this
+		// code still needs to compile for older targets
+
+		try {
+			Object builder = Thread.class.getMethod(
+				"ofVirtual"
+			).invoke(
+				null
+			);
+
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+
+			builder = builderClass.getMethod(
+				"name", String.class, long.class
+			).invoke(
+				builder, "Healthcheck-", 0L
+			);
+
+			return (ThreadFactory)builderClass.getMethod(
+				"factory"
+			).invoke(
+				builder
+			);
+		}
+		catch (ReflectiveOperationException reflectiveOperationException) {
+			if (_log.isDebugEnabled()) {
+				_log.debug(
+					"Virtual threads are not available, using platform " +
+						"threads",
+					reflectiveOperationException);
+			}
+
+			return new NamedThreadFactory(
+				"Healthcheck", Thread.NORM_PRIORITY,
+				HealthcheckExecutor.class.getClassLoader());
+		}
+	}
+
+	private String _getClassName(TrackedHealthcheck trackedHealthcheck) {
+		Healthcheck healthcheck = trackedHealthcheck.getHealthcheck();
+
+		return healthcheck.getClass(
+		).getName();
+	}
+
+	/**
+	 * Adds an item to the result of a Healthcheck that took longer than the
+	 * threshold, so that slow Healthchecks are visible and can be tuned.
+	 * Results are cached without it, as reusing them takes no time.
+	 */
+	private HealthcheckResult _toHealthcheckResult(
+		HealthcheckResult healthcheckResult,
+		HealthcheckTiming healthcheckTiming, long slowHealthcheckThreshold) {
+
+		long wallTime = TimeUnit.NANOSECONDS.toMillis(
+			healthcheckTiming.getWallTime());
+
+		if ((slowHealthcheckThreshold == 0) ||
+			(wallTime <= slowHealthcheckThreshold)) {
+
+			return healthcheckResult;
+		}
+
+		Healthcheck healthcheck = healthcheckResult.getHealthcheck();
+
+		List<HealthcheckItem> healthcheckItems = new ArrayList<>(
+			healthcheckResult.getHealthcheckItems());
+
+		healthcheckItems.add(
+			new SlowHealthcheckItem(
+				healthcheck, wallTime, slowHealthcheckThreshold));
+
+		return new HealthcheckResult(healthcheck, healthcheckItems);
+	}
+
+	private HealthcheckResult _toHealthcheckResult(
+		Healthcheck healthcheck, Throwable throwable) {
+
+		_log.error(throwable);
+
+		return new HealthcheckResult(
+			healthcheck,
+			Collections.singletonList(
+				new ExceptionHealthcheckItem(healthcheck, throwable)));
+	}
+
+	private static final Log _log = LogFactoryUtil.getLog(
+		HealthcheckExecutor.class);
+
+	private volatile ExecutorService _executorService;
+	private final HealthcheckCircuitBreaker _healthcheckCircuitBreaker =
+		new HealthcheckCircuitBreaker();
+	private final HealthcheckResultCache _healthcheckResultCache =
+		new HealthcheckResultCache();
+	private final Map<String, HealthcheckTimingHistogram>
+		_healthcheckTimingHistograms = new ConcurrentHashMap<>();
+	private volatile int _maxParallelHealthchecks;
+	private ScheduledExecutorService _scheduledExecutorService;
+	private ServiceTrackerList<TrackedHealthcheck> _serviceTrackerList;
+	private volatile long _slowHealthcheckThreshold;
+	private volatile long _timeout;
+
+	/**
+	 * A single asynchronous execution of a Healthcheck. The Healthcheck's
+	 * tasks run on the bounded pool, with the company set for the current
+	 * thread. The deadline is counted from when the first of them actually
+	 * starts, so that Healthchecks waiting for a free thread don't time out.
+	 */
+	private class HealthcheckExecution implements Executor {
+
+		private HealthcheckExecution(
+			TrackedHealthcheck trackedHealthcheck, long companyId,
+			long scopeCompanyId, long[] companyIds,
+			ExecutorService executorService, long timeout,
+			BlockingQueue<HealthcheckExecution>
+				completedHealthcheckExecutions) {
+
+			_trackedHealthcheck = trackedHealthcheck;
+			_companyId = companyId;
+			_scopeCompanyId = scopeCompanyId;
+			_companyIds = companyIds;
+			_executorService = executorService;
+			_timeout = timeout;
+			_completedHealthcheckExecutions = completedHealthcheckExecutions;
+		}
+
+		@Override
+		public void execute(Runnable runnable) {
+			_executorService.execute(
+				() -> {
+
+					// Skip the tasks of executions that were cancelled while
+					// they waited for a thread
+
+					CompletableFuture<Collection<HealthcheckItem>>
+						completableFuture = _completableFuture;
+
+					if ((completableFuture != null) &&
+						completableFuture.isDone()) {
+
+						return;
+					}
+
+					if (_scheduledFuture == null) {
+						_startDeadline();
+					}
+
+					long previousCompanyId = CompanyThreadLocal.getCompanyId();
+
+					CompanyThreadLocal.setCompanyId(_companyId);
+
+					long allocatedBytes =
+						ThreadUsageUtil.getCurrentThreadAllocatedBytes();
+					long cpuTime = ThreadUsageUtil.getCurrentThreadCpuTime();
+
+					try {
+						runnable.run();
+					}
+					finally {
+						CompanyThreadLocal.setCompanyId(previousCompanyId);
+
+						_record(
+							allocatedBytes,
+							ThreadUsageUtil.getCurrentThreadAllocatedBytes(),
+							_allocatedBytes);
+						_record(
+							cpuTime, ThreadUsageUtil.getCurrentThreadCpuTime(),
+							_cpuTime);
+					}
+				});
+		}
+
+		private void _cancel() {
+			_completableFuture.cancel(true);
+		}
+
+		private HealthcheckTiming _getHealthcheckTiming() {
+			long wallTime = 0;
+
+			if (_startTime != 0) {
+				wallTime = _endTime - _startTime;
+			}
+
+			return new HealthcheckTiming(
+				wallTime, _cpuTime.get(), _allocatedBytes.get());
+		}
+
+		private Collection<HealthcheckItem> _get()
+			throws ExecutionException, InterruptedException {
+
+			Collection<HealthcheckItem> healthcheckItems =
+				_completableFuture.get();
+
+			if (healthcheckItems == null) {
+				return Collections.emptyList();
+			}
+
+			return healthcheckItems;
+		}
+
+		private boolean _isStarted() {
+			if (_startTime != 0) {
+				return true;
+			}
+
+			return false;
+		}
+
+		/**
+		 * Adds the usage of a task to the total, unless the usage of one of
+		 * the tasks could not be measured. Then the total is not available.
+		 */
+		private void _record(long before, long after, AtomicLong total) {
+			if ((before < 0) || (after < 0)) {
+				total.set(-1);
+
+				return;
+			}
+
+			total.getAndUpdate(
+				value -> {
+					if (value < 0) {
+						return value;
+					}
+
+					return value + (after - before);
+				});
+		}
+
+		private void _start() {
+			Healthcheck healthcheck = _trackedHealthcheck.getHealthcheck();
+
+			CompletableFuture<Collection<HealthcheckItem>> completableFuture =
+				null;
+
+			try {
+				completableFuture = healthcheck.checkAsync(_companyId, this);
+			}
+			catch (Exception exception) {
+				completableFuture = new CompletableFuture<>();
+
+				completableFuture.completeExceptionally(exception);
+			}
+
+			_completableFuture = completableFuture;
+
+			completableFuture.whenComplete(
+				(healthcheckItems, throwable) -> {
+					_endTime = System.nanoTime();
+
+					ScheduledFuture<?> scheduledFuture = _scheduledFuture;
+
+					if (scheduledFuture != null) {
+						scheduledFuture.cancel(false);
+					}
+
+					_completedHealthcheckExecutions.add(this);
+				});
+		}
+
+		private synchronized void _startDeadline() {
+			if (_scheduledFuture != null) {
+				return;
+			}
+
+			_startTime = System.nanoTime();
+
+			_scheduledFuture = _scheduledExecutorService.schedule(
+				() -> {
+					CompletableFuture<Collection<HealthcheckItem>>
+						completableFuture = _completableFuture;
+
+					if (completableFuture != null) {
+						completableFuture.cancel(true);
+					}
+				},
+				_timeout, TimeUnit.SECONDS);
+		}
+
+		private final AtomicLong _allocatedBytes = new AtomicLong();
+		private final long _companyId;
+		private final long[] _companyIds;
+		private volatile CompletableFuture<Collection<HealthcheckItem>>
+			_completableFuture;
+		private final BlockingQueue<HealthcheckExecution>
+			_completedHealthcheckExecutions;
+		private final AtomicLong _cpuTime = new AtomicLong();
+		private volatile long _endTime;
+		private final ExecutorService _executorService;
+		private volatile ScheduledFuture<?> _scheduledFuture;
+		private final long _scopeCompanyId;
+		private volatile long _startTime;
+		private final long _timeout;
+		private final TrackedHealthcheck _trackedHealthcheck;
+
+	}
+
+}
@@ -0,0 +1,74 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.executor;
+
+import com.liferay.healthcheck.Healthcheck;
+import com.liferay.healthcheck.HealthcheckItem;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * The items that a single Healthcheck produced for a single company, along
+ * with the Healthcheck itself, which is required to localize the items. The
+ * items are copied, so that a result can safely be kept and shared.
+ *
+ * @author Olaf Kock
+ */
+public class HealthcheckResult {
+
+	public HealthcheckResult(
+		Healthcheck healthcheck, Collection<HealthcheckItem> healthcheckItems) {
+
+		this(healthcheck, healthcheckItems, null);
+	}
+
+	public HealthcheckResult(
+		Healthcheck healthcheck, Collection<HealthcheckItem> healthcheckItems,
+		String clusterNodeName) {
+
+		_healthcheck = healthcheck;
+		_healthcheckItems = Collections.unmodifiableList(
+			new ArrayList<>(healthcheckItems));
+		_clusterNodeName = clusterNodeName;
+	}
+
+	/**
+	 * @return the name of the cluster node that produced this result, or null
+	 *         if the Healthchecks were not executed cluster wide
+	 */
+	public String getClusterNodeName() {
+		return _clusterNodeName;
+	}
+
+	public Healthcheck getHealthcheck() {
+		return _healthcheck;
+	}
+
+	public Collection<HealthcheckItem> getHealthcheckItems() {
+		return _healthcheckItems;
+	}
+
+	/**
+	 * @return true if the Healthcheck could not deliver its own result, e.g.
+	 *         because it threw an exception
+	 */
+	public boolean isFailedExecution() {
+		for (HealthcheckItem healthcheckItem : _healthcheckItems) {
+			if (healthcheckItem instanceof ExceptionHealthcheckItem) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private final String _clusterNodeName;
+	private final Healthcheck _healthcheck;
+	private final Collection<HealthcheckItem> _healthcheckItems;
+
+}
@@ -0,0 +1,83 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.executor;
+
+import com.liferay.healthcheck.Healthcheck;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the results of Healthchecks that declared a time to live, per
+ * Healthcheck and company, until they expire.
+ *
+ * @author Olaf Kock
+ */
+public class HealthcheckResultCache {
+
+	/**
+	 * @return the cached result, or null if there is none, or if it expired
+	 */
+	public HealthcheckResult get(Healthcheck healthcheck, long companyId) {
+		CacheEntry cacheEntry = _cacheEntries.get(
+			_getKey(healthcheck, companyId));
+
+		if ((cacheEntry == null) ||
+			(cacheEntry._expirationTime <= System.currentTimeMillis())) {
+
+			return null;
+		}
+
+		return cacheEntry._healthcheckResult;
+	}
+
+	public void put(
+		long companyId, HealthcheckResult healthcheckResult, long ttl) {
+
+		_cacheEntries.put(
+			_getKey(healthcheckResult.getHealthcheck(), companyId),
+			new CacheEntry(
+				healthcheckResult, System.currentTimeMillis() + ttl));
+	}
+
+	public void remove(Healthcheck healthcheck) {
+		String prefix =
+			healthcheck.getClass(
+			).getName() + "#";
+
+		_cacheEntries.keySet(
+		).removeIf(
+			key -> key.startsWith(prefix)
+		);
+	}
+
+	public void remove(Healthcheck healthcheck, long companyId) {
+		_cacheEntries.remove(_getKey(healthcheck, companyId));
+	}
+
+	private String _getKey(Healthcheck healthcheck, long companyId) {
+		return healthcheck.getClass(
+		).getName() + "#" + companyId;
+	}
+
+	private final Map<String, CacheEntry> _cacheEntries =
+		new ConcurrentHashMap<>();
+
+	private static class CacheEntry {
+
+		private CacheEntry(
+			HealthcheckResult healthcheckResult, long expirationTime) {
+
+			_healthcheckResult = healthcheckResult;
+			_expirationTime = expirationTime;
+		}
+
+		private final long _expirationTime;
+		private final HealthcheckResult _healthcheckResult;
+
+	}
+
+}
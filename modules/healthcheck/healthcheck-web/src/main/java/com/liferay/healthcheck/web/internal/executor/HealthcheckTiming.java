@@ -0,0 +1,51 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.executor;
+
+/**
+ * The resources that a single execution of a Healthcheck consumed. CPU time
+ * and allocated bytes only cover the tasks that the Healthcheck ran on the
+ * Healthcheck threads, and are only available where the JVM measures them
+ * for these threads.
+ *
+ * @author Olaf Kock
+ */
+public class HealthcheckTiming {
+
+	public HealthcheckTiming(long wallTime, long cpuTime, long allocatedBytes) {
+
+		_wallTime = wallTime;
+		_cpuTime = cpuTime;
+		_allocatedBytes = allocatedBytes;
+	}
+
+	/**
+	 * @return the number of bytes allocated, or -1 if not available
+	 */
+	public long getAllocatedBytes() {
+		return _allocatedBytes;
+	}
+
+	/**
+	 * @return the CPU time in nanoseconds, or -1 if not available
+	 */
+	public long getCpuTime() {
+		return _cpuTime;
+	}
+
+	/**
+	 * @return the time in nanoseconds from the start of the execution until
+	 *         its result was available
+	 */
+	public long getWallTime() {
+		return _wallTime;
+	}
+
+	private final long _allocatedBytes;
+	private final long _cpuTime;
+	private final long _wallTime;
+
+}
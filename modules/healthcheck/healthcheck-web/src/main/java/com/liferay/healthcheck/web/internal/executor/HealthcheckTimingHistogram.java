@@ -0,0 +1,199 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.executor;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the timings of the latest executions of a Healthcheck, across all
+ * companies, and sorts their wall times into fixed buckets. Only the latest
+ * executions count, so that the histogram follows changes, e.g. after a
+ * Healthcheck's configuration was tuned.
+ *
+ * @author Olaf Kock
+ */
+public class HealthcheckTimingHistogram {
+
+	/**
+	 * @return the inclusive upper bounds of the buckets, in milliseconds. The
+	 *         last bucket, without a bound, contains all longer executions.
+	 */
+	public static long[] getBucketUpperBounds() {
+		return _BUCKET_UPPER_BOUNDS.clone();
+	}
+
+	public HealthcheckTimingHistogram(String className) {
+		_className = className;
+	}
+
+	/**
+	 * @return the number of the latest executions per bucket, with one more
+	 *         bucket than there are upper bounds
+	 * @see    #getBucketUpperBounds()
+	 */
+	public synchronized long[] getBucketCounts() {
+		return _bucketCounts.clone();
+	}
+
+	public String getClassName() {
+		return _className;
+	}
+
+	/**
+	 * @return the number of all executions so far
+	 */
+	public synchronized long getCount() {
+		return _count;
+	}
+
+	public synchronized HealthcheckTiming getLastHealthcheckTiming() {
+		if (_count == 0) {
+			return null;
+		}
+
+		return _healthcheckTimings[(int)((_count - 1) % _WINDOW_SIZE)];
+	}
+
+	/**
+	 * @return the maximum wall time of the latest executions, in milliseconds
+	 */
+	public long getMaxWallTime() {
+		return getWallTimePercentile(100);
+	}
+
+	/**
+	 * @return the average number of bytes allocated by the latest executions,
+	 *         or -1 if not available
+	 */
+	public synchronized long getMeanAllocatedBytes() {
+		long count = 0;
+		long sum = 0;
+
+		for (int i = 0; i < _size(); i++) {
+			long allocatedBytes = _healthcheckTimings[i].getAllocatedBytes();
+
+			if (allocatedBytes >= 0) {
+				count++;
+				sum += allocatedBytes;
+			}
+		}
+
+		if (count == 0) {
+			return -1;
+		}
+
+		return sum / count;
+	}
+
+	/**
+	 * @return the average CPU time of the latest executions, in milliseconds,
+	 *         or -1 if not available
+	 */
+	public synchronized long getMeanCpuTime() {
+		long count = 0;
+		long sum = 0;
+
+		for (int i = 0; i < _size(); i++) {
+			long cpuTime = _healthcheckTimings[i].getCpuTime();
+
+			if (cpuTime >= 0) {
+				count++;
+				sum += cpuTime;
+			}
+		}
+
+		if (count == 0) {
+			return -1;
+		}
+
+		return TimeUnit.NANOSECONDS.toMillis(sum / count);
+	}
+
+	/**
+	 * @return the sum of the wall times of all executions so far, in
+	 *         milliseconds
+	 */
+	public synchronized long getTotalWallTime() {
+		return TimeUnit.NANOSECONDS.toMillis(_totalWallTime);
+	}
+
+	/**
+	 * @param  percentile the percentile, between 0 and 100
+	 * @return the wall time in milliseconds that the given percentage of the
+	 *         latest executions did not exceed, or 0 if there were none
+	 */
+	public synchronized long getWallTimePercentile(double percentile) {
+		int size = _size();
+
+		if (size == 0) {
+			return 0;
+		}
+
+		long[] wallTimes = new long[size];
+
+		for (int i = 0; i < size; i++) {
+			wallTimes[i] = _healthcheckTimings[i].getWallTime();
+		}
+
+		Arrays.sort(wallTimes);
+
+		int index = (int)Math.ceil(percentile / 100 * size) - 1;
+
+		return TimeUnit.NANOSECONDS.toMillis(
+			wallTimes[Math.min(size - 1, Math.max(0, index))]);
+	}
+
+	public synchronized void record(HealthcheckTiming healthcheckTiming) {
+		int index = (int)(_count % _WINDOW_SIZE);
+
+		HealthcheckTiming evictedHealthcheckTiming =
+			_healthcheckTimings[index];
+
+		if (evictedHealthcheckTiming != null) {
+			_bucketCounts[_getBucket(evictedHealthcheckTiming)]--;
+		}
+
+		_healthcheckTimings[index] = healthcheckTiming;
+
+		_bucketCounts[_getBucket(healthcheckTiming)]++;
+
+		_count++;
+		_totalWallTime += healthcheckTiming.getWallTime();
+	}
+
+	private int _getBucket(HealthcheckTiming healthcheckTiming) {
+		long wallTime = TimeUnit.NANOSECONDS.toMillis(
+			healthcheckTiming.getWallTime());
+
+		for (int i = 0; i < _BUCKET_UPPER_BOUNDS.length; i++) {
+			if (wallTime <= _BUCKET_UPPER_BOUNDS[i]) {
+				return i;
+			}
+		}
+
+		return _BUCKET_UPPER_BOUNDS.length;
+	}
+
+	private int _size() {
+		return (int)Math.min(_count, _WINDOW_SIZE);
+	}
+
+	private static final long[] _BUCKET_UPPER_BOUNDS = {
+		10, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000
+	};
+
+	private static final int _WINDOW_SIZE = 100;
+
+	private final long[] _bucketCounts =
+		new long[_BUCKET_UPPER_BOUNDS.length + 1];
+	private final String _className;
+	private long _count;
+	private final HealthcheckTiming[] _healthcheckTimings =
+		new HealthcheckTiming[_WINDOW_SIZE];
+	private long _totalWallTime;
+
+}
@@ -0,0 +1,43 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.executor;
+
+import com.liferay.healthcheck.Healthcheck;
+import com.liferay.healthcheck.HealthcheckItem;
+
+/**
+ * Signals that a Healthcheck took longer than the configured threshold. Its
+ * own items are reported as usual.
+ *
+ * @author Olaf Kock
+ */
+public class SlowHealthcheckItem extends HealthcheckItem {
+
+	public SlowHealthcheckItem(
+		Healthcheck healthcheck, long wallTime, long threshold) {
+
+		super(
+			false, (String)null, _MSG,
+			healthcheck.getClass(
+			).getName(),
+			wallTime, threshold);
+
+		_sourceKey =
+			healthcheck.getClass(
+			).getName() + "-slow";
+	}
+
+	@Override
+	public String getSourceKey() {
+		return _sourceKey;
+	}
+
+	private static final String _MSG =
+		"healthcheck-x-took-x-milliseconds-which-is-more-than-x-milliseconds";
+
+	private final String _sourceKey;
+
+}
@@ -0,0 +1,91 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.executor;
+
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Measures the CPU time and the allocated bytes of the current thread, where
+ * the JVM supports it. Not all JVMs do, and virtual threads aren't measured
+ * at all.
+ *
+ * @author Olaf Kock
+ */
+public class ThreadUsageUtil {
+
+	/**
+	 * @return the number of bytes that the current thread allocated so far,
+	 *         or -1 if not available
+	 */
+	public static long getCurrentThreadAllocatedBytes() {
+		if (!_allocatedBytesSupported) {
+			return -1;
+		}
+
+		try {
+			com.sun.management.ThreadMXBean threadMXBean =
+				(com.sun.management.ThreadMXBean)_threadMXBean;
+
+			return threadMXBean.getCurrentThreadAllocatedBytes();
+		}
+		catch (UnsupportedOperationException unsupportedOperationException) {
+			return -1;
+		}
+	}
+
+	/**
+	 * @return the CPU time in nanoseconds that the current thread used so
+	 *         far, or -1 if not available
+	 */
+	public static long getCurrentThreadCpuTime() {
+		if (!_cpuTimeSupported) {
+			return -1;
+		}
+
+		try {
+			return _threadMXBean.getCurrentThreadCpuTime();
+		}
+		catch (UnsupportedOperationException unsupportedOperationException) {
+			return -1;
+		}
+	}
+
+	private static boolean _isAllocatedBytesSupported() {
+		try {
+			if (_threadMXBean instanceof com.sun.management.ThreadMXBean) {
+				com.sun.management.ThreadMXBean threadMXBean =
+					(com.sun.management.ThreadMXBean)_threadMXBean;
+
+				return threadMXBean.isThreadAllocatedMemorySupported() &&
+					threadMXBean.isThreadAllocatedMemoryEnabled();
+			}
+		}
+		catch (LinkageError linkageError) {
+			if (_log.isDebugEnabled()) {
+				_log.debug("Allocated bytes can't be measured", linkageError);
+			}
+		}
+
+		return false;
+	}
+
+	private static final Log _log = LogFactoryUtil.getLog(
+		ThreadUsageUtil.class);
+
+	private static final ThreadMXBean _threadMXBean =
+		ManagementFactory.getThreadMXBean();
+
+	private static final boolean _allocatedBytesSupported =
+		_isAllocatedBytesSupported();
+	private static final boolean _cpuTimeSupported =
+		_threadMXBean.isCurrentThreadCpuTimeSupported() &&
+		_threadMXBean.isThreadCpuTimeEnabled();
+
+}
@@ -0,0 +1,41 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.executor;
+
+import com.liferay.healthcheck.Healthcheck;
+import com.liferay.healthcheck.HealthcheckItem;
+
+/**
+ * Signals that a Healthcheck did not deliver its result within the
+ * configured timeout and has been cancelled.
+ *
+ * @author Olaf Kock
+ */
+public class TimeoutHealthcheckItem extends HealthcheckItem {
+
+	public TimeoutHealthcheckItem(Healthcheck healthcheck, long timeout) {
+		super(
+			false, (String)null, _MSG,
+			healthcheck.getClass(
+			).getName(),
+			timeout);
+
+		_sourceKey =
+			healthcheck.getClass(
+			).getName() + "-timeout";
+	}
+
+	@Override
+	public String getSourceKey() {
+		return _sourceKey;
+	}
+
+	private static final String _MSG =
+		"healthcheck-x-timed-out-after-x-seconds";
+
+	private final String _sourceKey;
+
+}
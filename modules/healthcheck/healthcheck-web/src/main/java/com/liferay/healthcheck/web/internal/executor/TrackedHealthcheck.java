@@ -0,0 +1,121 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.executor;
+
+import com.liferay.healthcheck.Healthcheck;
+import com.liferay.portal.kernel.model.CompanyConstants;
+import com.liferay.portal.kernel.util.GetterUtil;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.osgi.framework.ServiceReference;
+
+/**
+ * A Healthcheck service, along with the service properties that determine how
+ * it is executed.
+ *
+ * @author Olaf Kock
+ */
+public class TrackedHealthcheck {
+
+	public TrackedHealthcheck(
+		Healthcheck healthcheck,
+		ServiceReference<Healthcheck> serviceReference) {
+
+		_healthcheck = healthcheck;
+
+		update(serviceReference);
+	}
+
+	public Healthcheck getHealthcheck() {
+		return _healthcheck;
+	}
+
+	/**
+	 * @return the company that results of this Healthcheck are attributed to
+	 *         when executed for the given company: the company itself, or
+	 *         CompanyConstants.SYSTEM for system scoped Healthchecks
+	 */
+	public long getScopeCompanyId(long companyId) {
+		if (_systemScoped) {
+			return CompanyConstants.SYSTEM;
+		}
+
+		return companyId;
+	}
+
+	/**
+	 * @return the time in milliseconds that a result of this Healthcheck can
+	 *         be reused, or 0 if it needs to be executed every time
+	 */
+	public long getTtl() {
+		return _ttl;
+	}
+
+	/**
+	 * @return true if a change of the configuration with the given PID, or
+	 *         of a factory configuration with the given factory PID, can
+	 *         change the result of this Healthcheck
+	 */
+	public boolean isInvalidatedByConfiguration(String pid) {
+		return _invalidationPids.contains(pid);
+	}
+
+	/**
+	 * @return true if a change of an entity of the given model class can
+	 *         change the result of this Healthcheck
+	 */
+	public boolean isInvalidatedByModel(String modelClassName) {
+		return _invalidationModelClassNames.contains(modelClassName);
+	}
+
+	/**
+	 * @return true if this Healthcheck checks conditions of the whole system,
+	 *         so that its result is the same for every company
+	 */
+	public boolean isSystemScoped() {
+		return _systemScoped;
+	}
+
+	public void update(ServiceReference<Healthcheck> serviceReference) {
+		_invalidationModelClassNames = _getStringValues(
+			serviceReference, "healthcheck.invalidation.model.class.name");
+		_invalidationPids = _getStringValues(
+			serviceReference, "healthcheck.invalidation.pid");
+		_systemScoped = Objects.equals(
+			serviceReference.getProperty("healthcheck.scope"), "system");
+		_ttl = TimeUnit.SECONDS.toMillis(
+			Math.max(
+				0,
+				GetterUtil.getLong(
+					serviceReference.getProperty("healthcheck.ttl.seconds"))));
+	}
+
+	private Set<String> _getStringValues(
+		ServiceReference<Healthcheck> serviceReference, String key) {
+
+		String[] values = GetterUtil.getStringValues(
+			serviceReference.getProperty(key));
+
+		if (values.length == 0) {
+			return Collections.emptySet();
+		}
+
+		return new HashSet<>(Arrays.asList(values));
+	}
+
+	private final Healthcheck _healthcheck;
+	private volatile Set<String> _invalidationModelClassNames;
+	private volatile Set<String> _invalidationPids;
+	private volatile boolean _systemScoped;
+	private volatile long _ttl;
+
+}
@@ -0,0 +1,442 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.history;
+
+import com.liferay.healthcheck.HealthcheckItem;
+import com.liferay.healthcheck.web.internal.configuration.HealthcheckWebConfiguration;
+import com.liferay.healthcheck.web.internal.executor.HealthcheckResult;
+import com.liferay.healthcheck.web.internal.ignore.HealthcheckIgnoreList;
+import com.liferay.healthcheck.web.internal.ignore.HealthcheckIgnores;
+import com.liferay.healthcheck.web.internal.registry.HealthcheckSnapshot;
+import com.liferay.healthcheck.web.internal.registry.HealthcheckSnapshotListener;
+import com.liferay.petra.string.StringBundler;
+import com.liferay.portal.configuration.metatype.bnd.util.ConfigurableUtil;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.util.GetterUtil;
+import com.liferay.portal.kernel.util.NamedThreadFactory;
+import com.liferay.portal.kernel.util.PropsKeys;
+import com.liferay.portal.kernel.util.PropsUtil;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongPredicate;
+
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Records the fingerprint and status of every item of every run, so that
+ * results can be followed over time, e.g. when an item was seen first or
+ * last, or whether it keeps appearing and disappearing.
+ *
+ * The history is appended to memory-mapped segment files in the Liferay
+ * data directory, on a separate thread, so that neither running nor
+ * rendering Healthchecks waits for it. When a segment is full, a new one is
+ * started, and the oldest ones are deleted. Queries scan the records from
+ * the latest to the oldest, reading only the fields they need.
+ *
+ * Ignored items that were not seen for the configured number of days and
+ * runs are removed from the ignore list after each run, so that they get
+ * noticed when they come back.
+ *
+ * @author Olaf Kock
+ */
+@Component(
+	configurationPid = "com.liferay.healthcheck.web.internal.configuration.HealthcheckWebConfiguration",
+	service = {HealthcheckHistory.class, HealthcheckSnapshotListener.class}
+)
+public class HealthcheckHistory implements HealthcheckSnapshotListener {
+
+	/**
+	 * @param  companyId the company whose runs to scan
+	 * @param  fingerprintPredicate selects the items to report on
+	 * @return the history of the selected items, and the number of runs
+	 */
+	public HealthcheckHistoryReport getHealthcheckHistoryReport(
+		long companyId, LongPredicate fingerprintPredicate) {
+
+		return getHealthcheckHistoryReport(
+			_healthcheckHistorySegments.toArray(
+				new HealthcheckHistorySegment[0]),
+			companyId, fingerprintPredicate);
+	}
+
+	@Override
+	public void onHealthcheckSnapshot(HealthcheckSnapshot healthcheckSnapshot) {
+		if (_executorService == null) {
+			return;
+		}
+
+		_executorService.execute(() -> _append(healthcheckSnapshot));
+	}
+
+	/**
+	 * @param healthcheckHistorySegments the segments to scan, from the oldest
+	 *        to the latest
+	 */
+	protected static HealthcheckHistoryReport getHealthcheckHistoryReport(
+		HealthcheckHistorySegment[] healthcheckHistorySegments, long companyId,
+		LongPredicate fingerprintPredicate) {
+
+		HealthcheckHistoryReport healthcheckHistoryReport =
+			new HealthcheckHistoryReport();
+
+		// Items precede the marker of their run, so a backward scan reads
+		// the marker first, with the number of items that belong to it.
+		// Items of runs that were interrupted don't have one.
+
+		int remainingItems = 0;
+
+		for (int i = healthcheckHistorySegments.length - 1; i >= 0; i--) {
+			HealthcheckHistorySegment healthcheckHistorySegment =
+				healthcheckHistorySegments[i];
+
+			for (int j = healthcheckHistorySegment.getCount() - 1; j >= 0;
+				 j--) {
+
+				if (healthcheckHistorySegment.getCompanyId(j) != companyId) {
+					continue;
+				}
+
+				int flags = healthcheckHistorySegment.getFlags(j);
+
+				if ((flags & HealthcheckHistorySegment.FLAG_RUN) != 0) {
+					healthcheckHistoryReport.addRun(
+						healthcheckHistorySegment.getTime(j));
+
+					remainingItems = healthcheckHistorySegment.getValue(j);
+
+					continue;
+				}
+
+				if (remainingItems <= 0) {
+					continue;
+				}
+
+				remainingItems--;
+
+				long fingerprint = healthcheckHistorySegment.getFingerprint(j);
+
+				if (fingerprintPredicate.test(fingerprint)) {
+					healthcheckHistoryReport.addItem(
+						fingerprint, healthcheckHistorySegment.getTime(j),
+						flags);
+				}
+			}
+		}
+
+		return healthcheckHistoryReport;
+	}
+
+	@Activate
+	protected void activate(Map<String, Object> properties) {
+		HealthcheckWebConfiguration healthcheckWebConfiguration =
+			ConfigurableUtil.createConfigurable(
+				HealthcheckWebConfiguration.class, properties);
+
+		if (!healthcheckWebConfiguration.historyEnabled()) {
+			return;
+		}
+
+		_autoUnignoreDays = healthcheckWebConfiguration.autoUnignoreDays();
+		_autoUnignoreRuns = healthcheckWebConfiguration.autoUnignoreRuns();
+		_historySegments = Math.max(
+			1, healthcheckWebConfiguration.historySegments());
+
+		_directory = new File(
+			PropsUtil.get(PropsKeys.LIFERAY_HOME), "data/healthcheck/history");
+
+		_directory.mkdirs();
+
+		_open();
+
+		_executorService = Executors.newSingleThreadExecutor(
+			new NamedThreadFactory(
+				"Healthcheck History", Thread.NORM_PRIORITY,
+				HealthcheckHistory.class.getClassLoader()));
+	}
+
+	@Deactivate
+	protected void deactivate() throws InterruptedException {
+		if (_executorService == null) {
+			return;
+		}
+
+		_executorService.shutdown();
+
+		if (!_executorService.awaitTermination(10, TimeUnit.SECONDS)) {
+			_executorService.shutdownNow();
+		}
+
+		for (HealthcheckHistorySegment healthcheckHistorySegment :
+				_healthcheckHistorySegments) {
+
+			_close(healthcheckHistorySegment);
+		}
+
+		_healthcheckHistorySegments.clear();
+	}
+
+	private void _append(HealthcheckSnapshot healthcheckSnapshot) {
+		long companyId = healthcheckSnapshot.getCompanyId();
+		long createTime = healthcheckSnapshot.getCreateTime();
+
+		// Snapshots are published again, unchanged, when the ignore list
+		// changes. Runs and refreshes always come with a newer create time,
+		// and are recorded once each.
+
+		Long lastCreateTime = _lastCreateTimes.get(companyId);
+
+		if ((lastCreateTime != null) && (lastCreateTime >= createTime)) {
+			return;
+		}
+
+		_lastCreateTimes.put(companyId, createTime);
+
+		HealthcheckIgnores healthcheckIgnores =
+			_healthcheckIgnoreList.getHealthcheckIgnores(companyId);
+
+		try {
+			int count = 0;
+
+			for (HealthcheckResult healthcheckResult :
+					healthcheckSnapshot.getHealthcheckResults()) {
+
+				for (HealthcheckItem healthcheckItem :
+						healthcheckResult.getHealthcheckItems()) {
+
+					int flags = 0;
+
+					if (healthcheckItem.isSuccess()) {
+						flags |= HealthcheckHistorySegment.FLAG_SUCCESS;
+					}
+
+					if (healthcheckIgnores.contains(healthcheckItem)) {
+						flags |= HealthcheckHistorySegment.FLAG_IGNORED;
+					}
+
+					_append(
+						companyId, createTime, healthcheckItem.getFingerprint(),
+						flags, 0);
+
+					count++;
+				}
+			}
+
+			// The marker completes the run, items of an interrupted run are
+			// dropped when reading
+
+			_append(
+				companyId, createTime, 0, HealthcheckHistorySegment.FLAG_RUN,
+				count);
+		}
+		catch (IOException ioException) {
+			_log.error(
+				"Unable to record the healthcheck history of company " +
+					companyId,
+				ioException);
+
+			return;
+		}
+
+		if (_autoUnignoreDays > 0) {
+			_autoUnignore(companyId, healthcheckIgnores);
+		}
+	}
+
+	private void _append(
+			long companyId, long time, long fingerprint, int flags, int value)
+		throws IOException {
+
+		HealthcheckHistorySegment healthcheckHistorySegment = null;
+
+		if (!_healthcheckHistorySegments.isEmpty()) {
+			healthcheckHistorySegment = _healthcheckHistorySegments.get(
+				_healthcheckHistorySegments.size() - 1);
+		}
+
+		if ((healthcheckHistorySegment == null) ||
+			healthcheckHistorySegment.isFull()) {
+
+			healthcheckHistorySegment = _rotate();
+		}
+
+		healthcheckHistorySegment.append(
+			companyId, time, fingerprint, flags, value);
+	}
+
+	private void _autoUnignore(
+		long companyId, HealthcheckIgnores healthcheckIgnores) {
+
+		if (healthcheckIgnores.isEmpty()) {
+			return;
+		}
+
+		HealthcheckHistoryReport healthcheckHistoryReport =
+			getHealthcheckHistoryReport(
+				companyId, healthcheckIgnores::contains);
+
+		long lastSeenTimeThreshold =
+			System.currentTimeMillis() -
+				TimeUnit.DAYS.toMillis(_autoUnignoreDays);
+
+		List<String> sourceKeys = new ArrayList<>();
+
+		for (String sourceKey : healthcheckIgnores.getSourceKeys()) {
+			HealthcheckHistoryEntry healthcheckHistoryEntry =
+				healthcheckHistoryReport.getHealthcheckHistoryEntry(
+					HealthcheckItem.getFingerprint(sourceKey));
+
+			// Items that were never seen count as seen before the first
+			// recorded run
+
+			long lastSeenTime = healthcheckHistoryReport.getFirstRunTime();
+			int runsSinceLastSeen = healthcheckHistoryReport.getRuns();
+
+			if (healthcheckHistoryEntry != null) {
+				lastSeenTime = healthcheckHistoryEntry.getLastSeenTime();
+				runsSinceLastSeen = healthcheckHistoryEntry.getLastSeenRun();
+			}
+
+			if ((lastSeenTime < lastSeenTimeThreshold) &&
+				(runsSinceLastSeen >= Math.max(1, _autoUnignoreRuns))) {
+
+				sourceKeys.add(sourceKey);
+			}
+		}
+
+		if (sourceKeys.isEmpty()) {
+			return;
+		}
+
+		if (_log.isInfoEnabled()) {
+			_log.info(
+				StringBundler.concat(
+					"Unignoring ", sourceKeys.size(),
+					" healthcheck items of company ", companyId,
+					" that were not seen for ", _autoUnignoreDays, " days"));
+		}
+
+		_healthcheckIgnoreList.unignore(companyId, sourceKeys);
+	}
+
+	private void _close(HealthcheckHistorySegment healthcheckHistorySegment) {
+		try {
+			healthcheckHistorySegment.close();
+		}
+		catch (IOException ioException) {
+			_log.error(
+				"Unable to close " + healthcheckHistorySegment.getFile(),
+				ioException);
+		}
+	}
+
+	private long _getSequence(File file) {
+		String name = file.getName();
+
+		return GetterUtil.getLong(
+			name.substring(0, name.length() - _EXTENSION.length()), -1);
+	}
+
+	private void _open() {
+		File[] files = _directory.listFiles(
+			(directory, name) -> name.endsWith(_EXTENSION));
+
+		if (files == null) {
+			return;
+		}
+
+		List<File> sortedFiles = new ArrayList<>();
+
+		for (File file : files) {
+			if (_getSequence(file) >= 0) {
+				sortedFiles.add(file);
+			}
+		}
+
+		sortedFiles.sort(Comparator.comparingLong(this::_getSequence));
+
+		for (File file : sortedFiles) {
+			_sequence = _getSequence(file);
+
+			try {
+				_healthcheckHistorySegments.add(
+					HealthcheckHistorySegment.open(file));
+			}
+			catch (IOException ioException) {
+				_log.error(
+					"Unable to open the healthcheck history segment " + file +
+						", it is deleted",
+					ioException);
+
+				file.delete();
+			}
+		}
+	}
+
+	private HealthcheckHistorySegment _rotate() throws IOException {
+		HealthcheckHistorySegment healthcheckHistorySegment =
+			HealthcheckHistorySegment.create(
+				new File(_directory, ++_sequence + _EXTENSION));
+
+		_healthcheckHistorySegments.add(healthcheckHistorySegment);
+
+		while (_healthcheckHistorySegments.size() > _historySegments) {
+			HealthcheckHistorySegment oldestHealthcheckHistorySegment =
+				_healthcheckHistorySegments.remove(0);
+
+			// Scans that are still running keep reading the mapped memory,
+			// which stays valid until it is garbage collected
+
+			_close(oldestHealthcheckHistorySegment);
+
+			File file = oldestHealthcheckHistorySegment.getFile();
+
+			if (!file.delete() && _log.isWarnEnabled()) {
+				_log.warn("Unable to delete " + file);
+			}
+		}
+
+		return healthcheckHistorySegment;
+	}
+
+	private static final String _EXTENSION = ".hch";
+
+	private static final Log _log = LogFactoryUtil.getLog(
+		HealthcheckHistory.class);
+
+	private volatile int _autoUnignoreDays;
+	private volatile int _autoUnignoreRuns;
+	private File _directory;
+	private volatile ExecutorService _executorService;
+	private final List<HealthcheckHistorySegment> _healthcheckHistorySegments =
+		new CopyOnWriteArrayList<>();
+
+	@Reference
+	private HealthcheckIgnoreList _healthcheckIgnoreList;
+
+	private int _historySegments;
+
+	// Only accessed by the thread of the executor service
+
+	private final Map<Long, Long> _lastCreateTimes = new HashMap<>();
+
+	private long _sequence;
+
+}
@@ -0,0 +1,112 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.history;
+
+/**
+ * The history of a single item, identified by its fingerprint, in the runs
+ * of a company. Runs are numbered backwards, starting with 0 for the latest
+ * run.
+ *
+ * @author Olaf Kock
+ */
+public class HealthcheckHistoryEntry {
+
+	public HealthcheckHistoryEntry(long fingerprint) {
+		_fingerprint = fingerprint;
+	}
+
+	public long getFingerprint() {
+		return _fingerprint;
+	}
+
+	public long getFirstSeenTime() {
+		return _firstSeenTime;
+	}
+
+	/**
+	 * @return the number of the latest run that contained the item, which is
+	 *         the number of runs without it since then
+	 */
+	public int getLastSeenRun() {
+		return _lastSeenRun;
+	}
+
+	public long getLastSeenTime() {
+		return _lastSeenTime;
+	}
+
+	/**
+	 * @return the number of runs that contained the item
+	 */
+	public int getSeenRuns() {
+		return _seenRuns;
+	}
+
+	/**
+	 * @param  runs the number of latest runs to look at, at most 64
+	 * @return how often the item appeared or disappeared between two
+	 *         consecutive runs
+	 */
+	public int getTransitions(int runs) {
+		runs = Math.min(runs, 64);
+
+		if (runs < 2) {
+			return 0;
+		}
+
+		long changes = _presence ^ (_presence >>> 1);
+
+		return Long.bitCount(changes & (-1L >>> (65 - runs)));
+	}
+
+	/**
+	 * @return true if the item succeeded in the latest run that contained it
+	 */
+	public boolean isSuccess() {
+		return _success;
+	}
+
+	/**
+	 * Adds an occurrence of the item. Occurrences need to be added from the
+	 * latest to the oldest run.
+	 */
+	protected void add(int run, long time, int flags) {
+		if (_seenRuns == 0) {
+			_lastSeenRun = run;
+			_lastSeenTime = time;
+			_success =
+				(flags & HealthcheckHistorySegment.FLAG_SUCCESS) != 0;
+		}
+		else if (run == _previousRun) {
+
+			// The same item from another cluster node
+
+			return;
+		}
+
+		_firstSeenTime = time;
+		_previousRun = run;
+		_seenRuns++;
+
+		if (run < 64) {
+			_presence |= 1L << run;
+		}
+	}
+
+	private final long _fingerprint;
+	private long _firstSeenTime;
+	private int _lastSeenRun;
+	private long _lastSeenTime;
+
+	// Bit n is set if the item was contained in run n
+
+	private long _presence;
+
+	private int _previousRun = -1;
+	private int _seenRuns;
+	private boolean _success;
+
+}
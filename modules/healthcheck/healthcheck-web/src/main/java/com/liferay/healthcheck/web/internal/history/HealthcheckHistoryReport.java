@@ -0,0 +1,89 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.history;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The result of a scan through the history of a company, for the items
+ * that the scan was asked for.
+ *
+ * @author Olaf Kock
+ */
+public class HealthcheckHistoryReport {
+
+	/**
+	 * Number of latest runs in which an item needs to appear or disappear
+	 * {@link #FLAPPING_TRANSITIONS} times to be considered flapping
+	 */
+	public static final int FLAPPING_RUNS = 20;
+
+	public static final int FLAPPING_TRANSITIONS = 4;
+
+	public long getFirstRunTime() {
+		return _firstRunTime;
+	}
+
+	/**
+	 * @return the history of the item, or null if it wasn't contained in any
+	 *         recorded run
+	 */
+	public HealthcheckHistoryEntry getHealthcheckHistoryEntry(
+		long fingerprint) {
+
+		return _healthcheckHistoryEntries.get(fingerprint);
+	}
+
+	public int getRuns() {
+		return _runs;
+	}
+
+	public boolean isFlapping(long fingerprint) {
+		HealthcheckHistoryEntry healthcheckHistoryEntry =
+			_healthcheckHistoryEntries.get(fingerprint);
+
+		if ((healthcheckHistoryEntry != null) &&
+			(healthcheckHistoryEntry.getTransitions(
+				Math.min(FLAPPING_RUNS, _runs)) >= FLAPPING_TRANSITIONS)) {
+
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Adds an item of the run that was added last.
+	 */
+	protected void addItem(long fingerprint, long time, int flags) {
+		HealthcheckHistoryEntry healthcheckHistoryEntry =
+			_healthcheckHistoryEntries.get(fingerprint);
+
+		if (healthcheckHistoryEntry == null) {
+			healthcheckHistoryEntry = new HealthcheckHistoryEntry(fingerprint);
+
+			_healthcheckHistoryEntries.put(
+				fingerprint, healthcheckHistoryEntry);
+		}
+
+		healthcheckHistoryEntry.add(_runs - 1, time, flags);
+	}
+
+	/**
+	 * Adds a run that is older than all runs added so far.
+	 */
+	protected void addRun(long time) {
+		_firstRunTime = time;
+		_runs++;
+	}
+
+	private long _firstRunTime;
+	private final Map<Long, HealthcheckHistoryEntry>
+		_healthcheckHistoryEntries = new HashMap<>();
+	private int _runs;
+
+}
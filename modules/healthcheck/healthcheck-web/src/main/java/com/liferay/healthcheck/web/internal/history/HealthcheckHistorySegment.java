@@ -0,0 +1,196 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.history;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A file of fixed size records, mapped into memory. Records are only ever
+ * appended, by a single thread, and can be read concurrently by index,
+ * without deserializing anything but the requested field.
+ *
+ * The number of complete records is written to the header after each
+ * record, so that a partially written record is ignored after a crash.
+ *
+ * @author Olaf Kock
+ */
+public class HealthcheckHistorySegment implements Closeable {
+
+	public static final int CAPACITY = 131072;
+
+	public static final int FLAG_IGNORED = 4;
+
+	public static final int FLAG_RUN = 1;
+
+	public static final int FLAG_SUCCESS = 2;
+
+	public static HealthcheckHistorySegment create(File file)
+		throws IOException {
+
+		HealthcheckHistorySegment healthcheckHistorySegment =
+			new HealthcheckHistorySegment(
+				file,
+				FileChannel.open(
+					file.toPath(), StandardOpenOption.CREATE_NEW,
+					StandardOpenOption.READ, StandardOpenOption.WRITE));
+
+		MappedByteBuffer mappedByteBuffer =
+			healthcheckHistorySegment._mappedByteBuffer;
+
+		mappedByteBuffer.putInt(_OFFSET_MAGIC, _MAGIC);
+		mappedByteBuffer.putInt(_OFFSET_VERSION, _VERSION);
+		mappedByteBuffer.putInt(_OFFSET_COUNT, 0);
+
+		return healthcheckHistorySegment;
+	}
+
+	public static HealthcheckHistorySegment open(File file)
+		throws IOException {
+
+		HealthcheckHistorySegment healthcheckHistorySegment =
+			new HealthcheckHistorySegment(
+				file,
+				FileChannel.open(
+					file.toPath(), StandardOpenOption.READ,
+					StandardOpenOption.WRITE));
+
+		MappedByteBuffer mappedByteBuffer =
+			healthcheckHistorySegment._mappedByteBuffer;
+
+		int count = mappedByteBuffer.getInt(_OFFSET_COUNT);
+
+		if ((mappedByteBuffer.getInt(_OFFSET_MAGIC) != _MAGIC) ||
+			(mappedByteBuffer.getInt(_OFFSET_VERSION) != _VERSION) ||
+			(count < 0) || (count > CAPACITY)) {
+
+			healthcheckHistorySegment.close();
+
+			throw new IOException("Invalid history segment " + file);
+		}
+
+		healthcheckHistorySegment._count = count;
+
+		return healthcheckHistorySegment;
+	}
+
+	/**
+	 * @return false if the segment is full
+	 */
+	public boolean append(
+		long companyId, long time, long fingerprint, int flags, int value) {
+
+		int count = _count;
+
+		if (count >= CAPACITY) {
+			return false;
+		}
+
+		int offset = _getOffset(count);
+
+		_mappedByteBuffer.putLong(offset, companyId);
+		_mappedByteBuffer.putLong(offset + 8, time);
+		_mappedByteBuffer.putLong(offset + 16, fingerprint);
+		_mappedByteBuffer.putInt(offset + 24, flags);
+		_mappedByteBuffer.putInt(offset + 28, value);
+
+		_mappedByteBuffer.putInt(_OFFSET_COUNT, count + 1);
+
+		// Publishes the record to readers on other threads
+
+		_count = count + 1;
+
+		return true;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (_fileChannel.isOpen()) {
+			_mappedByteBuffer.force();
+
+			_fileChannel.close();
+		}
+	}
+
+	public long getCompanyId(int index) {
+		return _mappedByteBuffer.getLong(_getOffset(index));
+	}
+
+	public int getCount() {
+		return _count;
+	}
+
+	public File getFile() {
+		return _file;
+	}
+
+	public long getFingerprint(int index) {
+		return _mappedByteBuffer.getLong(_getOffset(index) + 16);
+	}
+
+	public int getFlags(int index) {
+		return _mappedByteBuffer.getInt(_getOffset(index) + 24);
+	}
+
+	public long getTime(int index) {
+		return _mappedByteBuffer.getLong(_getOffset(index) + 8);
+	}
+
+	/**
+	 * @return the number of items of a run marker, 0 for all other records
+	 */
+	public int getValue(int index) {
+		return _mappedByteBuffer.getInt(_getOffset(index) + 28);
+	}
+
+	public boolean isFull() {
+		if (_count >= CAPACITY) {
+			return true;
+		}
+
+		return false;
+	}
+
+	private HealthcheckHistorySegment(File file, FileChannel fileChannel)
+		throws IOException {
+
+		_file = file;
+		_fileChannel = fileChannel;
+
+		_mappedByteBuffer = fileChannel.map(
+			FileChannel.MapMode.READ_WRITE, 0,
+			_HEADER_SIZE + ((long)CAPACITY * _RECORD_SIZE));
+	}
+
+	private int _getOffset(int index) {
+		return _HEADER_SIZE + (index * _RECORD_SIZE);
+	}
+
+	private static final int _HEADER_SIZE = 32;
+
+	private static final int _MAGIC = 0x48434831;
+
+	private static final int _OFFSET_COUNT = 8;
+
+	private static final int _OFFSET_MAGIC = 0;
+
+	private static final int _OFFSET_VERSION = 4;
+
+	private static final int _RECORD_SIZE = 32;
+
+	private static final int _VERSION = 1;
+
+	private volatile int _count;
+	private final File _file;
+	private final FileChannel _fileChannel;
+	private final MappedByteBuffer _mappedByteBuffer;
+
+}
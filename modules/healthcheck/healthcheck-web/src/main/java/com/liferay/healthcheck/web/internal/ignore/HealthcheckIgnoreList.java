@@ -0,0 +1,477 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.ignore;
+
+import com.liferay.healthcheck.HealthcheckItem;
+import com.liferay.healthcheck.web.internal.constants.HealthcheckWebPortletKeys;
+import com.liferay.osgi.service.tracker.collections.list.ServiceTrackerList;
+import com.liferay.osgi.service.tracker.collections.list.ServiceTrackerListFactory;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.service.CompanyLocalService;
+import com.liferay.portal.kernel.service.PortletPreferencesLocalService;
+import com.liferay.portal.kernel.util.NamedThreadFactory;
+import com.liferay.portal.kernel.util.Portal;
+import com.liferay.portal.kernel.util.PortletKeys;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.UnaryOperator;
+
+import javax.portlet.PortletPreferences;
+
+import org.osgi.framework.BundleContext;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Keeps the ignore list of every company compiled in memory, see
+ * HealthcheckIgnores. Changes are applied to the compiled list right away,
+ * but written to the company's portlet preferences in batches, a short while
+ * after the last change.
+ *
+ * Every lookup compares the compiled list with the stored one, which the
+ * portal caches and invalidates on all cluster nodes. When another node
+ * changed it, the list is compiled again, and the changes of this node that
+ * were not written yet are applied on top. Writing applies them to the
+ * stored list as well, so that changes of several nodes are merged, and
+ * never overwritten.
+ *
+ * Ignore lists used to be stored in the preferences of the portlet on the
+ * control panel page. They are moved to the companies' lists once, in the
+ * background, after activation.
+ *
+ * @author Olaf Kock
+ */
+@Component(service = HealthcheckIgnoreList.class)
+public class HealthcheckIgnoreList {
+
+	public HealthcheckIgnores getHealthcheckIgnores(long companyId) {
+		HealthcheckIgnores healthcheckIgnores = _getHealthcheckIgnores(
+			companyId);
+
+		if (healthcheckIgnores == null) {
+			return HealthcheckIgnores.EMPTY;
+		}
+
+		return healthcheckIgnores;
+	}
+
+	public void ignore(long companyId, Collection<String> sourceKeys) {
+		_update(
+			companyId,
+			healthcheckIgnores -> healthcheckIgnores.add(sourceKeys));
+	}
+
+	public void reset(long companyId) {
+		_update(companyId, healthcheckIgnores -> HealthcheckIgnores.EMPTY);
+	}
+
+	public void unignore(long companyId, Collection<String> sourceKeys) {
+		_update(
+			companyId,
+			healthcheckIgnores -> healthcheckIgnores.remove(sourceKeys));
+	}
+
+	@Activate
+	protected void activate(BundleContext bundleContext) {
+		_scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(
+			new NamedThreadFactory(
+				"Healthcheck Ignore List", Thread.NORM_PRIORITY,
+				HealthcheckIgnoreList.class.getClassLoader()));
+		_serviceTrackerList = ServiceTrackerListFactory.open(
+			bundleContext, HealthcheckIgnoreListListener.class);
+
+		_scheduledExecutorService.execute(this::_migrateLegacyIgnoreLists);
+	}
+
+	@Deactivate
+	protected void deactivate() {
+		_serviceTrackerList.close();
+
+		// The last batch is stored on the executor as well, so that it never
+		// overlaps with a scheduled one
+
+		_scheduledExecutorService.execute(this::_store);
+
+		_scheduledExecutorService.shutdown();
+
+		try {
+			if (!_scheduledExecutorService.awaitTermination(
+					_STORE_TIMEOUT, TimeUnit.SECONDS)) {
+
+				_log.error("Unable to store the ignore lists in time");
+
+				_scheduledExecutorService.shutdownNow();
+			}
+		}
+		catch (InterruptedException interruptedException) {
+			_scheduledExecutorService.shutdownNow();
+
+			Thread.currentThread(
+			).interrupt();
+		}
+	}
+
+	private HealthcheckIgnores _compile(
+		String[] sourceKeys,
+		List<UnaryOperator<HealthcheckIgnores>> unaryOperators) {
+
+		HealthcheckIgnores healthcheckIgnores = HealthcheckIgnores.EMPTY;
+
+		if (sourceKeys.length > 0) {
+			Map<Long, String> fingerprintSourceKeys = new HashMap<>();
+
+			for (String sourceKey : sourceKeys) {
+				fingerprintSourceKeys.put(
+					HealthcheckItem.getFingerprint(sourceKey), sourceKey);
+			}
+
+			healthcheckIgnores = new HealthcheckIgnores(fingerprintSourceKeys);
+		}
+
+		if (unaryOperators == null) {
+			return healthcheckIgnores;
+		}
+
+		for (UnaryOperator<HealthcheckIgnores> unaryOperator :
+				unaryOperators) {
+
+			healthcheckIgnores = unaryOperator.apply(healthcheckIgnores);
+		}
+
+		return healthcheckIgnores;
+	}
+
+	/**
+	 * @return the company's list, or null if it could not be loaded
+	 */
+	private HealthcheckIgnores _getHealthcheckIgnores(long companyId) {
+		String[] sourceKeys = null;
+
+		try {
+			sourceKeys = _getStoredSourceKeys(companyId);
+		}
+		catch (Exception exception) {
+			_log.error(
+				"Unable to load the ignore list of company " + companyId,
+				exception);
+
+			return null;
+		}
+
+		CompiledHealthcheckIgnores compiledHealthcheckIgnores =
+			_compiledHealthcheckIgnoresMap.get(companyId);
+
+		if ((compiledHealthcheckIgnores != null) &&
+			Arrays.equals(compiledHealthcheckIgnores._sourceKeys, sourceKeys)) {
+
+			return compiledHealthcheckIgnores._healthcheckIgnores;
+		}
+
+		// The stored list changed, on this or on another node
+
+		HealthcheckIgnores healthcheckIgnores = null;
+
+		synchronized (this) {
+			compiledHealthcheckIgnores = _compiledHealthcheckIgnoresMap.get(
+				companyId);
+
+			if ((compiledHealthcheckIgnores != null) &&
+				Arrays.equals(
+					compiledHealthcheckIgnores._sourceKeys, sourceKeys)) {
+
+				return compiledHealthcheckIgnores._healthcheckIgnores;
+			}
+
+			healthcheckIgnores = _compile(
+				sourceKeys, _unaryOperatorsMap.get(companyId));
+
+			_compiledHealthcheckIgnoresMap.put(
+				companyId,
+				new CompiledHealthcheckIgnores(healthcheckIgnores, sourceKeys));
+		}
+
+		if (compiledHealthcheckIgnores == null) {
+			return healthcheckIgnores;
+		}
+
+		List<String> previousSourceKeys =
+			compiledHealthcheckIgnores._healthcheckIgnores.getSourceKeys();
+
+		if (!previousSourceKeys.equals(healthcheckIgnores.getSourceKeys())) {
+			_notifyListeners(companyId);
+		}
+
+		return healthcheckIgnores;
+	}
+
+	private PortletPreferences _getPortletPreferences(long companyId) {
+		return _portletPreferencesLocalService.getPreferences(
+			companyId, companyId, PortletKeys.PREFS_OWNER_TYPE_COMPANY,
+			PortletKeys.PREFS_PLID_SHARED,
+			HealthcheckWebPortletKeys.HEALTHCHECK_WEB_PORTLET);
+	}
+
+	private String[] _getStoredSourceKeys(long companyId) {
+		PortletPreferences portletPreferences = _getPortletPreferences(
+			companyId);
+
+		return portletPreferences.getValues(_PREFERENCE_NAME, new String[0]);
+	}
+
+	private void _migrateLegacyIgnoreList(long companyId) throws Exception {
+		long plid = _portal.getControlPanelPlid(companyId);
+
+		PortletPreferences portletPreferences =
+			_portletPreferencesLocalService.fetchPreferences(
+				companyId, PortletKeys.PREFS_OWNER_ID_DEFAULT,
+				PortletKeys.PREFS_OWNER_TYPE_LAYOUT, plid,
+				HealthcheckWebPortletKeys.HEALTHCHECK_WEB_PORTLET);
+
+		if (portletPreferences == null) {
+			return;
+		}
+
+		String[] sourceKeys = portletPreferences.getValues(
+			_PREFERENCE_NAME, new String[0]);
+
+		if (sourceKeys.length == 0) {
+			return;
+		}
+
+		if (_getHealthcheckIgnores(companyId) == null) {
+			return;
+		}
+
+		ignore(companyId, Arrays.asList(sourceKeys));
+
+		// The legacy list is only removed once the company's list is stored
+
+		_store(companyId);
+
+		portletPreferences.reset(_PREFERENCE_NAME);
+
+		_portletPreferencesLocalService.updatePreferences(
+			PortletKeys.PREFS_OWNER_ID_DEFAULT,
+			PortletKeys.PREFS_OWNER_TYPE_LAYOUT, plid,
+			HealthcheckWebPortletKeys.HEALTHCHECK_WEB_PORTLET,
+			portletPreferences);
+
+		if (_log.isInfoEnabled()) {
+			_log.info("Moved the legacy ignore list of company " + companyId);
+		}
+	}
+
+	private void _migrateLegacyIgnoreLists() {
+		for (long companyId : _companyLocalService.getCompanyIds()) {
+			try {
+				_migrateLegacyIgnoreList(companyId);
+			}
+			catch (Exception exception) {
+				_log.error(
+					"Unable to move the legacy ignore list of company " +
+						companyId,
+					exception);
+			}
+		}
+	}
+
+	private void _notifyListeners(long companyId) {
+		for (HealthcheckIgnoreListListener healthcheckIgnoreListListener :
+				_serviceTrackerList) {
+
+			try {
+				healthcheckIgnoreListListener.onHealthcheckIgnoreListChanged(
+					companyId);
+			}
+			catch (Exception exception) {
+				_log.error(
+					"Unable to notify " + healthcheckIgnoreListListener,
+					exception);
+			}
+		}
+	}
+
+	private void _store() {
+
+		// Changes from now on need another batch
+
+		_storeScheduled.set(false);
+
+		Set<Long> companyIds = null;
+
+		synchronized (this) {
+			companyIds = new HashSet<>(_unaryOperatorsMap.keySet());
+		}
+
+		for (long companyId : companyIds) {
+			try {
+				_store(companyId);
+			}
+			catch (Exception exception) {
+				_log.error(
+					"Unable to store the ignore list of company " + companyId,
+					exception);
+			}
+		}
+	}
+
+	/**
+	 * Applies the changes of this node to the stored list. Changes that fail
+	 * to be stored are kept, and stored with the next batch.
+	 */
+	private void _store(long companyId) throws Exception {
+		List<UnaryOperator<HealthcheckIgnores>> unaryOperators = null;
+
+		synchronized (this) {
+			unaryOperators = _unaryOperatorsMap.get(companyId);
+
+			if (unaryOperators == null) {
+				return;
+			}
+
+			unaryOperators = new ArrayList<>(unaryOperators);
+		}
+
+		PortletPreferences portletPreferences = _getPortletPreferences(
+			companyId);
+
+		HealthcheckIgnores healthcheckIgnores = _compile(
+			portletPreferences.getValues(_PREFERENCE_NAME, new String[0]),
+			unaryOperators);
+
+		List<String> sourceKeys = healthcheckIgnores.getSourceKeys();
+
+		portletPreferences.setValues(
+			_PREFERENCE_NAME, sourceKeys.toArray(new String[0]));
+
+		_portletPreferencesLocalService.updatePreferences(
+			companyId, PortletKeys.PREFS_OWNER_TYPE_COMPANY,
+			PortletKeys.PREFS_PLID_SHARED,
+			HealthcheckWebPortletKeys.HEALTHCHECK_WEB_PORTLET,
+			portletPreferences);
+
+		// Changes are only ever appended, so the stored ones come first
+
+		synchronized (this) {
+			List<UnaryOperator<HealthcheckIgnores>> pendingUnaryOperators =
+				_unaryOperatorsMap.get(companyId);
+
+			pendingUnaryOperators.subList(
+				0, unaryOperators.size()
+			).clear();
+
+			if (pendingUnaryOperators.isEmpty()) {
+				_unaryOperatorsMap.remove(companyId);
+			}
+		}
+	}
+
+	private void _update(
+		long companyId, UnaryOperator<HealthcheckIgnores> unaryOperator) {
+
+		if (_getHealthcheckIgnores(companyId) == null) {
+			return;
+		}
+
+		synchronized (this) {
+			CompiledHealthcheckIgnores compiledHealthcheckIgnores =
+				_compiledHealthcheckIgnoresMap.get(companyId);
+
+			HealthcheckIgnores healthcheckIgnores = unaryOperator.apply(
+				compiledHealthcheckIgnores._healthcheckIgnores);
+
+			if (healthcheckIgnores ==
+					compiledHealthcheckIgnores._healthcheckIgnores) {
+
+				return;
+			}
+
+			_compiledHealthcheckIgnoresMap.put(
+				companyId,
+				new CompiledHealthcheckIgnores(
+					healthcheckIgnores,
+					compiledHealthcheckIgnores._sourceKeys));
+
+			List<UnaryOperator<HealthcheckIgnores>> unaryOperators =
+				_unaryOperatorsMap.computeIfAbsent(
+					companyId, key -> new ArrayList<>());
+
+			unaryOperators.add(unaryOperator);
+		}
+
+		if (_storeScheduled.compareAndSet(false, true)) {
+			_scheduledExecutorService.schedule(
+				() -> _store(), _STORE_DELAY, TimeUnit.SECONDS);
+		}
+
+		_notifyListeners(companyId);
+	}
+
+	private static final String _PREFERENCE_NAME = "ignore";
+
+	private static final int _STORE_DELAY = 2;
+
+	private static final long _STORE_TIMEOUT = 30;
+
+	private static final Log _log = LogFactoryUtil.getLog(
+		HealthcheckIgnoreList.class);
+
+	@Reference
+	private CompanyLocalService _companyLocalService;
+
+	private final Map<Long, CompiledHealthcheckIgnores>
+		_compiledHealthcheckIgnoresMap = new ConcurrentHashMap<>();
+
+	@Reference
+	private Portal _portal;
+
+	@Reference
+	private PortletPreferencesLocalService _portletPreferencesLocalService;
+
+	private ScheduledExecutorService _scheduledExecutorService;
+	private ServiceTrackerList<HealthcheckIgnoreListListener>
+		_serviceTrackerList;
+	private final AtomicBoolean _storeScheduled = new AtomicBoolean();
+
+	// The changes of this node that were not stored yet, in their order. Only
+	// accessed while holding the lock on this instance.
+
+	private final Map<Long, List<UnaryOperator<HealthcheckIgnores>>>
+		_unaryOperatorsMap = new HashMap<>();
+
+	/**
+	 * A compiled list, along with the stored source keys it was compiled from
+	 */
+	private static class CompiledHealthcheckIgnores {
+
+		private CompiledHealthcheckIgnores(
+			HealthcheckIgnores healthcheckIgnores, String[] sourceKeys) {
+
+			_healthcheckIgnores = healthcheckIgnores;
+			_sourceKeys = sourceKeys;
+		}
+
+		private final HealthcheckIgnores _healthcheckIgnores;
+		private final String[] _sourceKeys;
+
+	}
+
+}
@@ -0,0 +1,17 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.ignore;
+
+/**
+ * Gets notified whenever the ignore list of a company changed.
+ *
+ * @author Olaf Kock
+ */
+public interface HealthcheckIgnoreListListener {
+
+	public void onHealthcheckIgnoreListChanged(long companyId);
+
+}
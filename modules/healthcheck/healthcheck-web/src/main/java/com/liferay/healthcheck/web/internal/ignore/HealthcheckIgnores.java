@@ -0,0 +1,160 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.ignore;
+
+import com.liferay.healthcheck.HealthcheckItem;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The compiled, immutable ignore list of a company. Lookups hash into an
+ * open addressing table of source key fingerprints, so they take constant
+ * time and don't allocate anything. Changes create a new instance, which
+ * reuses the fingerprints of the unchanged source keys.
+ *
+ * @author Olaf Kock
+ */
+public class HealthcheckIgnores {
+
+	public static final HealthcheckIgnores EMPTY = new HealthcheckIgnores(
+		Collections.emptyMap());
+
+	public boolean contains(HealthcheckItem healthcheckItem) {
+		return contains(healthcheckItem.getFingerprint());
+	}
+
+	public boolean contains(long fingerprint) {
+		if (fingerprint == 0) {
+			return _containsZero;
+		}
+
+		int mask = _fingerprints.length - 1;
+
+		for (int i = _getIndex(fingerprint, mask);; i = (i + 1) & mask) {
+			if (_fingerprints[i] == fingerprint) {
+				return true;
+			}
+
+			if (_fingerprints[i] == 0) {
+				return false;
+			}
+		}
+	}
+
+	public boolean contains(String sourceKey) {
+		if (sourceKey == null) {
+			return false;
+		}
+
+		return contains(HealthcheckItem.getFingerprint(sourceKey));
+	}
+
+	/**
+	 * @return the ignored source keys, sorted alphabetically
+	 */
+	public List<String> getSourceKeys() {
+		return _sortedSourceKeys;
+	}
+
+	public boolean isEmpty() {
+		return _sourceKeys.isEmpty();
+	}
+
+	public int size() {
+		return _sourceKeys.size();
+	}
+
+	/**
+	 * @param sourceKeys the ignored source keys by their fingerprints. The
+	 *        map must not be modified afterwards.
+	 */
+	protected HealthcheckIgnores(Map<Long, String> sourceKeys) {
+		_sourceKeys = sourceKeys;
+
+		List<String> sortedSourceKeys = new ArrayList<>(sourceKeys.values());
+
+		Collections.sort(sortedSourceKeys);
+
+		_sortedSourceKeys = Collections.unmodifiableList(sortedSourceKeys);
+
+		// Keep the table at most half full, so that probe sequences stay
+		// short
+
+		int size = Integer.highestOneBit((sourceKeys.size() * 2) + 1) * 2;
+
+		_fingerprints = new long[size];
+
+		boolean containsZero = false;
+
+		for (long fingerprint : sourceKeys.keySet()) {
+			if (fingerprint == 0) {
+				containsZero = true;
+
+				continue;
+			}
+
+			int mask = size - 1;
+
+			int i = _getIndex(fingerprint, mask);
+
+			while (_fingerprints[i] != 0) {
+				i = (i + 1) & mask;
+			}
+
+			_fingerprints[i] = fingerprint;
+		}
+
+		_containsZero = containsZero;
+	}
+
+	protected HealthcheckIgnores add(Collection<String> sourceKeys) {
+		Map<Long, String> newSourceKeys = new HashMap<>(_sourceKeys);
+
+		for (String sourceKey : sourceKeys) {
+			newSourceKeys.put(
+				HealthcheckItem.getFingerprint(sourceKey), sourceKey);
+		}
+
+		if (newSourceKeys.size() == _sourceKeys.size()) {
+			return this;
+		}
+
+		return new HealthcheckIgnores(newSourceKeys);
+	}
+
+	protected HealthcheckIgnores remove(Collection<String> sourceKeys) {
+		Map<Long, String> newSourceKeys = new HashMap<>(_sourceKeys);
+
+		for (String sourceKey : sourceKeys) {
+			newSourceKeys.remove(HealthcheckItem.getFingerprint(sourceKey));
+		}
+
+		if (newSourceKeys.size() == _sourceKeys.size()) {
+			return this;
+		}
+
+		return new HealthcheckIgnores(newSourceKeys);
+	}
+
+	private static int _getIndex(long fingerprint, int mask) {
+
+		// FNV-1a hashes are well distributed in the high bits, fold them into
+		// the low bits that select the slot
+
+		return (int)(fingerprint ^ (fingerprint >>> 32)) & mask;
+	}
+
+	private final boolean _containsZero;
+	private final long[] _fingerprints;
+	private final List<String> _sortedSourceKeys;
+	private final Map<Long, String> _sourceKeys;
+
+}
@@ -0,0 +1,98 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.invalidation;
+
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.model.CompanyConstants;
+import com.liferay.portal.kernel.util.GetterUtil;
+
+import java.util.Dictionary;
+
+import org.osgi.service.cm.Configuration;
+import org.osgi.service.cm.ConfigurationAdmin;
+import org.osgi.service.cm.ConfigurationEvent;
+import org.osgi.service.cm.ConfigurationListener;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Invalidates the results of Healthchecks that depend on a configuration,
+ * whenever it changes. Changes of instance scoped configurations only
+ * invalidate the results of their company. All other changes, including
+ * deletions, whose company can't be determined anymore, invalidate the
+ * results of all companies.
+ *
+ * @author Olaf Kock
+ */
+@Component(service = ConfigurationListener.class)
+public class HealthcheckInvalidationConfigurationListener
+	implements ConfigurationListener {
+
+	@Override
+	public void configurationEvent(ConfigurationEvent configurationEvent) {
+		String pid = configurationEvent.getFactoryPid();
+
+		if (pid == null) {
+			pid = configurationEvent.getPid();
+		}
+
+		// Scoped factory configurations share the PID of the configuration
+		// they apply to, so that Healthchecks can declare either of them
+
+		if (pid.endsWith(_SCOPED_SUFFIX)) {
+			pid = pid.substring(0, pid.length() - _SCOPED_SUFFIX.length());
+		}
+
+		_healthcheckInvalidator.invalidateConfiguration(
+			pid, _getCompanyId(configurationEvent));
+	}
+
+	private long _getCompanyId(ConfigurationEvent configurationEvent) {
+		if ((configurationEvent.getFactoryPid() == null) ||
+			(configurationEvent.getType() == ConfigurationEvent.CM_DELETED)) {
+
+			return CompanyConstants.SYSTEM;
+		}
+
+		try {
+			Configuration configuration = _configurationAdmin.getConfiguration(
+				configurationEvent.getPid(), "?");
+
+			Dictionary<String, Object> properties =
+				configuration.getProperties();
+
+			if (properties == null) {
+				return CompanyConstants.SYSTEM;
+			}
+
+			return GetterUtil.getLong(
+				properties.get("companyId"), CompanyConstants.SYSTEM);
+		}
+		catch (Exception exception) {
+			if (_log.isDebugEnabled()) {
+				_log.debug(
+					"Unable to get the company of configuration " +
+						configurationEvent.getPid(),
+					exception);
+			}
+
+			return CompanyConstants.SYSTEM;
+		}
+	}
+
+	private static final String _SCOPED_SUFFIX = ".scoped";
+
+	private static final Log _log = LogFactoryUtil.getLog(
+		HealthcheckInvalidationConfigurationListener.class);
+
+	@Reference
+	private ConfigurationAdmin _configurationAdmin;
+
+	@Reference
+	private HealthcheckInvalidator _healthcheckInvalidator;
+
+}
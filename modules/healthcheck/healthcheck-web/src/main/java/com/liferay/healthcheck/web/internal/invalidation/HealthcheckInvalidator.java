@@ -0,0 +1,178 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.invalidation;
+
+import com.liferay.healthcheck.web.internal.configuration.HealthcheckWebConfiguration;
+import com.liferay.healthcheck.web.internal.executor.HealthcheckExecutor;
+import com.liferay.healthcheck.web.internal.executor.TrackedHealthcheck;
+import com.liferay.healthcheck.web.internal.registry.HealthcheckRegistry;
+import com.liferay.portal.configuration.metatype.bnd.util.ConfigurableUtil;
+import com.liferay.portal.kernel.cluster.ClusterMasterExecutor;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.util.NamedThreadFactory;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Marks the results of Healthchecks as dirty when a configuration or an
+ * entity that they depend on changes, and executes only those Healthchecks
+ * again, for only the affected companies. Healthchecks declare their
+ * dependencies through the service properties
+ * <code>healthcheck.invalidation.pid</code> and
+ * <code>healthcheck.invalidation.model.class.name</code>.
+ *
+ * Changes often come in bursts, e.g. when a configuration form is saved, or
+ * entities are imported. Therefore the affected Healthchecks are executed
+ * after a short delay, once for all changes within it.
+ *
+ * Refreshing executes the Healthchecks on all cluster nodes. Configuration
+ * changes are seen by every node, so only the master node refreshes them,
+ * while every node invalidates its own cached results. Entity changes are
+ * only seen by the node that made them, which refreshes them.
+ *
+ * @author Olaf Kock
+ */
+@Component(
+	configurationPid = "com.liferay.healthcheck.web.internal.configuration.HealthcheckWebConfiguration",
+	service = HealthcheckInvalidator.class
+)
+public class HealthcheckInvalidator {
+
+	/**
+	 * @param pid       the PID of the changed configuration, or the factory
+	 *                  PID of a changed factory configuration
+	 * @param companyId the company that the configuration applies to, or
+	 *                  CompanyConstants.SYSTEM if it applies to all of them
+	 */
+	public void invalidateConfiguration(String pid, long companyId) {
+		_invalidate(
+			trackedHealthcheck ->
+				trackedHealthcheck.isInvalidatedByConfiguration(pid),
+			companyId, _clusterMasterExecutor.isMaster());
+	}
+
+	/**
+	 * @param modelClassName the class name of the changed entity
+	 * @param companyId      the company of the changed entity
+	 */
+	public void invalidateModel(String modelClassName, long companyId) {
+		_invalidate(
+			trackedHealthcheck -> trackedHealthcheck.isInvalidatedByModel(
+				modelClassName),
+			companyId, true);
+	}
+
+	@Activate
+	protected void activate(Map<String, Object> properties) {
+		_scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(
+			new NamedThreadFactory(
+				"Healthcheck Invalidation", Thread.NORM_PRIORITY,
+				HealthcheckInvalidator.class.getClassLoader()));
+
+		modified(properties);
+	}
+
+	@Deactivate
+	protected void deactivate() {
+		_scheduledExecutorService.shutdownNow();
+	}
+
+	@Modified
+	protected void modified(Map<String, Object> properties) {
+		HealthcheckWebConfiguration healthcheckWebConfiguration =
+			ConfigurableUtil.createConfigurable(
+				HealthcheckWebConfiguration.class, properties);
+
+		_refreshDelay = Math.max(
+			0, healthcheckWebConfiguration.invalidationRefreshDelay());
+	}
+
+	private void _invalidate(
+		Predicate<TrackedHealthcheck> predicate, long companyId,
+		boolean refresh) {
+
+		Set<String> classNames = _healthcheckExecutor.invalidate(
+			predicate, companyId);
+
+		if (!refresh || classNames.isEmpty() || (_refreshDelay == 0)) {
+			return;
+		}
+
+		_dirtyClassNames.merge(
+			companyId, classNames,
+			(dirtyClassNames, newClassNames) -> {
+				Set<String> mergedClassNames = new HashSet<>(dirtyClassNames);
+
+				mergedClassNames.addAll(newClassNames);
+
+				return mergedClassNames;
+			});
+
+		if (_refreshScheduled.compareAndSet(false, true)) {
+			_scheduledExecutorService.schedule(
+				this::_refresh, _refreshDelay, TimeUnit.SECONDS);
+		}
+	}
+
+	private void _refresh() {
+
+		// Changes from now on need another refresh
+
+		_refreshScheduled.set(false);
+
+		for (Long companyId : _dirtyClassNames.keySet()) {
+			Set<String> classNames = _dirtyClassNames.remove(companyId);
+
+			if (classNames == null) {
+				continue;
+			}
+
+			try {
+				_healthcheckRegistry.refreshHealthchecks(companyId, classNames);
+			}
+			catch (Exception exception) {
+				_log.error(
+					"Unable to refresh healthchecks for company " + companyId,
+					exception);
+			}
+		}
+	}
+
+	private static final Log _log = LogFactoryUtil.getLog(
+		HealthcheckInvalidator.class);
+
+	@Reference
+	private ClusterMasterExecutor _clusterMasterExecutor;
+
+	private final Map<Long, Set<String>> _dirtyClassNames =
+		new ConcurrentHashMap<>();
+
+	@Reference
+	private HealthcheckExecutor _healthcheckExecutor;
+
+	@Reference
+	private HealthcheckRegistry _healthcheckRegistry;
+
+	private volatile int _refreshDelay;
+	private final AtomicBoolean _refreshScheduled = new AtomicBoolean();
+	private ScheduledExecutorService _scheduledExecutorService;
+
+}
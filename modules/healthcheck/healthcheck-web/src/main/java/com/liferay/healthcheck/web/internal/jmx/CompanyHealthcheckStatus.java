@@ -0,0 +1,68 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.jmx;
+
+/**
+ * The counts of a company's latest HealthcheckSnapshot, as exposed through
+ * HealthcheckMXBean.
+ *
+ * @author Olaf Kock
+ */
+public class CompanyHealthcheckStatus {
+
+	public CompanyHealthcheckStatus(
+		long companyId, String webId, int failed, int ignored, int succeeded,
+		long lastRunTime, long lastRunDuration) {
+
+		_companyId = companyId;
+		_webId = webId;
+		_failed = failed;
+		_ignored = ignored;
+		_succeeded = succeeded;
+		_lastRunTime = lastRunTime;
+		_lastRunDuration = lastRunDuration;
+	}
+
+	public long getCompanyId() {
+		return _companyId;
+	}
+
+	public int getFailed() {
+		return _failed;
+	}
+
+	public int getIgnored() {
+		return _ignored;
+	}
+
+	/**
+	 * @return the time in milliseconds that it took to run the Healthchecks
+	 */
+	public long getLastRunDuration() {
+		return _lastRunDuration;
+	}
+
+	public long getLastRunTime() {
+		return _lastRunTime;
+	}
+
+	public int getSucceeded() {
+		return _succeeded;
+	}
+
+	public String getWebId() {
+		return _webId;
+	}
+
+	private final long _companyId;
+	private final int _failed;
+	private final int _ignored;
+	private final long _lastRunDuration;
+	private final long _lastRunTime;
+	private final int _succeeded;
+	private final String _webId;
+
+}
@@ -0,0 +1,38 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.jmx;
+
+/**
+ * Exposes the latest Healthcheck results to JMX clients. All attributes are
+ * computed when the Healthchecks run, reading them never executes a
+ * Healthcheck.
+ *
+ * @author Olaf Kock
+ */
+public interface HealthcheckMXBean {
+
+	public CompanyHealthcheckStatus[] getCompanyHealthcheckStatuses();
+
+	/**
+	 * @return the number of failed items in all companies, excluding the
+	 *         ignored ones
+	 */
+	public int getFailed();
+
+	public HealthcheckStatus[] getHealthcheckStatuses();
+
+	public int getIgnored();
+
+	/**
+	 * @return the time in milliseconds since the epoch at which the
+	 *         Healthchecks last ran for any company, or 0 if they did not run
+	 *         yet
+	 */
+	public long getLastRunTime();
+
+	public int getSucceeded();
+
+}
@@ -0,0 +1,313 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.jmx;
+
+import com.liferay.healthcheck.HealthcheckItem;
+import com.liferay.healthcheck.web.internal.executor.HealthcheckExecutor;
+import com.liferay.healthcheck.web.internal.executor.HealthcheckResult;
+import com.liferay.healthcheck.web.internal.executor.HealthcheckTiming;
+import com.liferay.healthcheck.web.internal.executor.HealthcheckTimingHistogram;
+import com.liferay.healthcheck.web.internal.ignore.HealthcheckIgnoreList;
+import com.liferay.healthcheck.web.internal.ignore.HealthcheckIgnores;
+import com.liferay.healthcheck.web.internal.registry.HealthcheckSnapshot;
+import com.liferay.healthcheck.web.internal.registry.HealthcheckSnapshotListener;
+import com.liferay.portal.kernel.model.Company;
+import com.liferay.portal.kernel.service.CompanyLocalService;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.AttributeList;
+import javax.management.DynamicMBean;
+import javax.management.NotCompliantMBeanException;
+import javax.management.StandardMBean;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Precomputes all attributes of HealthcheckMXBean whenever a snapshot gets
+ * registered, so that monitoring systems can poll them as often as they like
+ * without ever executing a Healthcheck. All attributes are published as one
+ * immutable status, so that reading several attributes at once never mixes
+ * two updates.
+ *
+ * @author Olaf Kock
+ */
+@Component(
+	property = {
+		"jmx.objectname=com.liferay.healthcheck:classification=healthcheck,name=HealthcheckManager",
+		"jmx.objectname.cache.key=HealthcheckManager"
+	},
+	service = {
+		DynamicMBean.class, HealthcheckManager.class,
+		HealthcheckSnapshotListener.class
+	}
+)
+public class HealthcheckManager
+	extends StandardMBean
+	implements HealthcheckMXBean, HealthcheckSnapshotListener {
+
+	public HealthcheckManager() throws NotCompliantMBeanException {
+		super(HealthcheckMXBean.class, true);
+	}
+
+	/**
+	 * Reads all requested attributes from the same status
+	 */
+	@Override
+	public AttributeList getAttributes(String[] attributes) {
+		_pinnedStatus.set(_status);
+
+		try {
+			return super.getAttributes(attributes);
+		}
+		finally {
+			_pinnedStatus.remove();
+		}
+	}
+
+	@Override
+	public CompanyHealthcheckStatus[] getCompanyHealthcheckStatuses() {
+		Status status = _getStatus();
+
+		return status._companyHealthcheckStatuses;
+	}
+
+	@Override
+	public int getFailed() {
+		Status status = _getStatus();
+
+		return status._failed;
+	}
+
+	@Override
+	public HealthcheckStatus[] getHealthcheckStatuses() {
+		Status status = _getStatus();
+
+		return status._healthcheckStatuses;
+	}
+
+	@Override
+	public int getIgnored() {
+		Status status = _getStatus();
+
+		return status._ignored;
+	}
+
+	@Override
+	public long getLastRunTime() {
+		Status status = _getStatus();
+
+		return status._lastRunTime;
+	}
+
+	@Override
+	public int getSucceeded() {
+		Status status = _getStatus();
+
+		return status._succeeded;
+	}
+
+	@Override
+	public synchronized void onHealthcheckSnapshot(
+		HealthcheckSnapshot healthcheckSnapshot) {
+
+		long companyId = healthcheckSnapshot.getCompanyId();
+
+		HealthcheckIgnores healthcheckIgnores =
+			_healthcheckIgnoreList.getHealthcheckIgnores(companyId);
+		Map<String, Long> lastRunDurations = _getLastRunDurations();
+
+		int failed = 0;
+		int ignored = 0;
+		int succeeded = 0;
+
+		List<HealthcheckStatus> healthcheckStatuses = new ArrayList<>();
+
+		for (HealthcheckResult healthcheckResult :
+				healthcheckSnapshot.getHealthcheckResults()) {
+
+			int resultFailed = 0;
+			int resultIgnored = 0;
+			int resultSucceeded = 0;
+
+			for (HealthcheckItem healthcheckItem :
+					healthcheckResult.getHealthcheckItems()) {
+
+				if (healthcheckIgnores.contains(healthcheckItem)) {
+					resultIgnored++;
+				}
+				else if (healthcheckItem.isSuccess()) {
+					resultSucceeded++;
+				}
+				else {
+					resultFailed++;
+				}
+			}
+
+			Class<?> clazz = healthcheckResult.getHealthcheck(
+			).getClass();
+
+			healthcheckStatuses.add(
+				new HealthcheckStatus(
+					companyId, clazz.getName(),
+					healthcheckResult.getHealthcheck(
+					).getCategory(),
+					healthcheckResult.getClusterNodeName(), resultFailed,
+					resultIgnored, resultSucceeded,
+					healthcheckSnapshot.getCreateTime(),
+					lastRunDurations.getOrDefault(clazz.getName(), -1L)));
+
+			failed += resultFailed;
+			ignored += resultIgnored;
+			succeeded += resultSucceeded;
+		}
+
+		_companyStatuses.put(
+			companyId,
+			new CompanyStatus(
+				new CompanyHealthcheckStatus(
+					companyId, _getWebId(companyId), failed, ignored,
+					succeeded, healthcheckSnapshot.getCreateTime(),
+					healthcheckSnapshot.getDuration()),
+				healthcheckStatuses));
+
+		_status = new Status(_companyStatuses.values());
+	}
+
+	/**
+	 * Drops the status of a deleted company, which doesn't get snapshots
+	 * anymore
+	 */
+	public synchronized void removeCompany(long companyId) {
+		if (_companyStatuses.remove(companyId) != null) {
+			_status = new Status(_companyStatuses.values());
+		}
+	}
+
+	private Map<String, Long> _getLastRunDurations() {
+		Map<String, Long> lastRunDurations = new HashMap<>();
+
+		for (HealthcheckTimingHistogram healthcheckTimingHistogram :
+				_healthcheckExecutor.getHealthcheckTimingHistograms()) {
+
+			HealthcheckTiming healthcheckTiming =
+				healthcheckTimingHistogram.getLastHealthcheckTiming();
+
+			if (healthcheckTiming != null) {
+				lastRunDurations.put(
+					healthcheckTimingHistogram.getClassName(),
+					TimeUnit.NANOSECONDS.toMillis(
+						healthcheckTiming.getWallTime()));
+			}
+		}
+
+		return lastRunDurations;
+	}
+
+	private Status _getStatus() {
+		Status status = _pinnedStatus.get();
+
+		if (status == null) {
+			status = _status;
+		}
+
+		return status;
+	}
+
+	private String _getWebId(long companyId) {
+		Company company = _companyLocalService.fetchCompany(companyId);
+
+		if (company == null) {
+			return null;
+		}
+
+		return company.getWebId();
+	}
+
+	@Reference
+	private CompanyLocalService _companyLocalService;
+
+	private final Map<Long, CompanyStatus> _companyStatuses = new TreeMap<>();
+
+	@Reference
+	private HealthcheckExecutor _healthcheckExecutor;
+
+	@Reference
+	private HealthcheckIgnoreList _healthcheckIgnoreList;
+
+	private final ThreadLocal<Status> _pinnedStatus = new ThreadLocal<>();
+	private volatile Status _status = new Status(
+		Collections.<CompanyStatus>emptyList());
+
+	private static class CompanyStatus {
+
+		private CompanyStatus(
+			CompanyHealthcheckStatus companyHealthcheckStatus,
+			List<HealthcheckStatus> healthcheckStatuses) {
+
+			_companyHealthcheckStatus = companyHealthcheckStatus;
+			_healthcheckStatuses = healthcheckStatuses;
+		}
+
+		private final CompanyHealthcheckStatus _companyHealthcheckStatus;
+		private final List<HealthcheckStatus> _healthcheckStatuses;
+
+	}
+
+	private static class Status {
+
+		private Status(Collection<CompanyStatus> companyStatuses) {
+			List<CompanyHealthcheckStatus> companyHealthcheckStatuses =
+				new ArrayList<>();
+			List<HealthcheckStatus> healthcheckStatuses = new ArrayList<>();
+
+			int failed = 0;
+			int ignored = 0;
+			long lastRunTime = 0;
+			int succeeded = 0;
+
+			for (CompanyStatus companyStatus : companyStatuses) {
+				CompanyHealthcheckStatus companyHealthcheckStatus =
+					companyStatus._companyHealthcheckStatus;
+
+				companyHealthcheckStatuses.add(companyHealthcheckStatus);
+				healthcheckStatuses.addAll(companyStatus._healthcheckStatuses);
+
+				failed += companyHealthcheckStatus.getFailed();
+				ignored += companyHealthcheckStatus.getIgnored();
+				lastRunTime = Math.max(
+					lastRunTime, companyHealthcheckStatus.getLastRunTime());
+				succeeded += companyHealthcheckStatus.getSucceeded();
+			}
+
+			_companyHealthcheckStatuses = companyHealthcheckStatuses.toArray(
+				new CompanyHealthcheckStatus[0]);
+			_failed = failed;
+			_healthcheckStatuses = healthcheckStatuses.toArray(
+				new HealthcheckStatus[0]);
+			_ignored = ignored;
+			_lastRunTime = lastRunTime;
+			_succeeded = succeeded;
+		}
+
+		private final CompanyHealthcheckStatus[] _companyHealthcheckStatuses;
+		private final int _failed;
+		private final HealthcheckStatus[] _healthcheckStatuses;
+		private final int _ignored;
+		private final long _lastRunTime;
+		private final int _succeeded;
+
+	}
+
+}
@@ -0,0 +1,32 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.jmx;
+
+import com.liferay.portal.instance.lifecycle.BasePortalInstanceLifecycleListener;
+import com.liferay.portal.instance.lifecycle.PortalInstanceLifecycleListener;
+import com.liferay.portal.kernel.model.Company;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Removes deleted companies from the HealthcheckManager's attributes
+ *
+ * @author Olaf Kock
+ */
+@Component(service = PortalInstanceLifecycleListener.class)
+public class HealthcheckManagerPortalInstanceLifecycleListener
+	extends BasePortalInstanceLifecycleListener {
+
+	@Override
+	public void portalInstanceUnregistered(Company company) {
+		_healthcheckManager.removeCompany(company.getCompanyId());
+	}
+
+	@Reference
+	private HealthcheckManager _healthcheckManager;
+
+}
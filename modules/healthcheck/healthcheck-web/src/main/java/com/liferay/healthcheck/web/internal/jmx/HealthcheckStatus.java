@@ -0,0 +1,110 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.jmx;
+
+/**
+ * The status of a single Healthcheck in a company's latest
+ * HealthcheckSnapshot, as exposed through HealthcheckMXBean. In a cluster,
+ * there is one status per cluster node.
+ *
+ * @author Olaf Kock
+ */
+public class HealthcheckStatus {
+
+	public static final String STATUS_FAILED = "FAILED";
+
+	public static final String STATUS_IGNORED = "IGNORED";
+
+	public static final String STATUS_SUCCEEDED = "SUCCEEDED";
+
+	public HealthcheckStatus(
+		long companyId, String className, String category,
+		String clusterNodeName, int failed, int ignored, int succeeded,
+		long lastRunTime, long lastRunDuration) {
+
+		_companyId = companyId;
+		_className = className;
+		_category = category;
+		_clusterNodeName = clusterNodeName;
+		_failed = failed;
+		_ignored = ignored;
+		_succeeded = succeeded;
+		_lastRunTime = lastRunTime;
+		_lastRunDuration = lastRunDuration;
+	}
+
+	public String getCategory() {
+		return _category;
+	}
+
+	public String getClassName() {
+		return _className;
+	}
+
+	/**
+	 * @return the name of the cluster node that ran the Healthcheck, or null
+	 *         if the Healthchecks were not executed cluster wide
+	 */
+	public String getClusterNodeName() {
+		return _clusterNodeName;
+	}
+
+	public long getCompanyId() {
+		return _companyId;
+	}
+
+	public int getFailed() {
+		return _failed;
+	}
+
+	public int getIgnored() {
+		return _ignored;
+	}
+
+	/**
+	 * @return the wall time in milliseconds of the Healthcheck's latest
+	 *         execution on the cluster node that exposes the MBean, or -1 if
+	 *         it did not run there yet
+	 */
+	public long getLastRunDuration() {
+		return _lastRunDuration;
+	}
+
+	public long getLastRunTime() {
+		return _lastRunTime;
+	}
+
+	/**
+	 * @return STATUS_FAILED if any item failed, STATUS_IGNORED if items were
+	 *         only ignored, STATUS_SUCCEEDED otherwise
+	 */
+	public String getStatus() {
+		if (_failed > 0) {
+			return STATUS_FAILED;
+		}
+
+		if (_ignored > 0) {
+			return STATUS_IGNORED;
+		}
+
+		return STATUS_SUCCEEDED;
+	}
+
+	public int getSucceeded() {
+		return _succeeded;
+	}
+
+	private final String _category;
+	private final String _className;
+	private final String _clusterNodeName;
+	private final long _companyId;
+	private final int _failed;
+	private final int _ignored;
+	private final long _lastRunDuration;
+	private final long _lastRunTime;
+	private final int _succeeded;
+
+}
@@ -0,0 +1,333 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.metrics;
+
+import com.liferay.healthcheck.Healthcheck;
+import com.liferay.healthcheck.HealthcheckItem;
+import com.liferay.healthcheck.web.internal.executor.HealthcheckExecutor;
+import com.liferay.healthcheck.web.internal.executor.HealthcheckResult;
+import com.liferay.healthcheck.web.internal.executor.HealthcheckTimingHistogram;
+import com.liferay.healthcheck.web.internal.ignore.HealthcheckIgnoreList;
+import com.liferay.healthcheck.web.internal.ignore.HealthcheckIgnores;
+import com.liferay.healthcheck.web.internal.registry.HealthcheckSnapshot;
+import com.liferay.healthcheck.web.internal.registry.HealthcheckSnapshotListener;
+import com.liferay.petra.string.StringPool;
+import com.liferay.portal.instance.lifecycle.BasePortalInstanceLifecycleListener;
+import com.liferay.portal.instance.lifecycle.PortalInstanceLifecycleListener;
+import com.liferay.portal.kernel.model.Company;
+import com.liferay.portal.kernel.service.CompanyLocalService;
+import com.liferay.portal.kernel.util.StringUtil;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Renders the latest Healthcheck results in the OpenMetrics text format
+ * whenever a snapshot gets registered. Scrapes only copy the prerendered
+ * bytes, no matter how many items the Healthchecks reported.
+ *
+ * The status is reported once per Healthcheck and cluster node, as items have
+ * no identity that is unique and stable enough for a label: Several items may
+ * share a source key, and their number changes between runs. The number of
+ * items by status is reported per company.
+ *
+ * The execution times are exposed as gaugehistogram, as
+ * HealthcheckTimingHistogram only covers the latest executions, and its
+ * buckets can therefore decrease.
+ *
+ * @author Olaf Kock
+ */
+@Component(
+	service = {
+		HealthcheckMetricsRenderer.class, HealthcheckSnapshotListener.class,
+		PortalInstanceLifecycleListener.class
+	}
+)
+public class HealthcheckMetricsRenderer
+	extends BasePortalInstanceLifecycleListener
+	implements HealthcheckSnapshotListener {
+
+	public static final String CONTENT_TYPE =
+		"application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+	/**
+	 * @return the latest rendered metrics. The array is shared and must not
+	 *         be modified.
+	 */
+	public byte[] getBytes() {
+		return _bytes.get();
+	}
+
+	@Override
+	public synchronized void onHealthcheckSnapshot(
+		HealthcheckSnapshot healthcheckSnapshot) {
+
+		_companyMetrics.put(
+			healthcheckSnapshot.getCompanyId(),
+			_renderCompanyMetrics(healthcheckSnapshot));
+
+		_bytes.set(_render());
+	}
+
+	/**
+	 * Drops the metrics of deleted companies, which don't get snapshots
+	 * anymore
+	 */
+	@Override
+	public synchronized void portalInstanceUnregistered(Company company) {
+		if (_companyMetrics.remove(company.getCompanyId()) != null) {
+			_bytes.set(_render());
+		}
+	}
+
+	private static String _escape(String value) {
+		if (value == null) {
+			return StringPool.BLANK;
+		}
+
+		return StringUtil.replace(
+			value, new String[] {"\\", "\"", "\n"},
+			new String[] {"\\\\", "\\\"", "\\n"});
+	}
+
+	private static String _toSeconds(long milliseconds) {
+		return String.valueOf(milliseconds / 1000.0);
+	}
+
+	private String _getWebId(long companyId) {
+		Company company = _companyLocalService.fetchCompany(companyId);
+
+		if (company == null) {
+			return String.valueOf(companyId);
+		}
+
+		return company.getWebId();
+	}
+
+	private byte[] _render() {
+		StringBuilder sb = new StringBuilder();
+
+		sb.append("# TYPE liferay_healthcheck_status gauge\n");
+		sb.append(
+			"# HELP liferay_healthcheck_status 1 if all items of the " +
+				"healthcheck succeeded or are ignored, 0 otherwise\n");
+
+		for (CompanyMetrics companyMetrics : _companyMetrics.values()) {
+			sb.append(companyMetrics._statusSamples);
+		}
+
+		sb.append("# TYPE liferay_healthcheck_items gauge\n");
+		sb.append(
+			"# HELP liferay_healthcheck_items Number of items in the latest " +
+				"run\n");
+
+		for (CompanyMetrics companyMetrics : _companyMetrics.values()) {
+			sb.append(companyMetrics._itemsSamples);
+		}
+
+		sb.append("# TYPE liferay_healthcheck_last_run_timestamp_seconds ");
+		sb.append("gauge\n");
+		sb.append("# UNIT liferay_healthcheck_last_run_timestamp_seconds ");
+		sb.append("seconds\n");
+		sb.append(
+			"# HELP liferay_healthcheck_last_run_timestamp_seconds Time of " +
+				"the latest run\n");
+
+		for (CompanyMetrics companyMetrics : _companyMetrics.values()) {
+			sb.append(companyMetrics._lastRunTimestampSamples);
+		}
+
+		sb.append("# TYPE liferay_healthcheck_last_run_duration_seconds ");
+		sb.append("gauge\n");
+		sb.append("# UNIT liferay_healthcheck_last_run_duration_seconds ");
+		sb.append("seconds\n");
+		sb.append(
+			"# HELP liferay_healthcheck_last_run_duration_seconds Duration " +
+				"of the latest run\n");
+
+		for (CompanyMetrics companyMetrics : _companyMetrics.values()) {
+			sb.append(companyMetrics._lastRunDurationSamples);
+		}
+
+		_renderDurationHistograms(sb);
+
+		sb.append("# EOF\n");
+
+		String metrics = sb.toString();
+
+		return metrics.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private CompanyMetrics _renderCompanyMetrics(
+		HealthcheckSnapshot healthcheckSnapshot) {
+
+		String company = _escape(
+			_getWebId(healthcheckSnapshot.getCompanyId()));
+		HealthcheckIgnores healthcheckIgnores =
+			_healthcheckIgnoreList.getHealthcheckIgnores(
+				healthcheckSnapshot.getCompanyId());
+
+		int failed = 0;
+		int ignored = 0;
+		int succeeded = 0;
+
+		StringBuilder sb = new StringBuilder();
+
+		for (HealthcheckResult healthcheckResult :
+				healthcheckSnapshot.getHealthcheckResults()) {
+
+			Healthcheck healthcheck = healthcheckResult.getHealthcheck();
+
+			Class<?> clazz = healthcheck.getClass();
+
+			String labels = String.join(
+				StringPool.BLANK, "company=\"", company, "\",category=\"",
+				_escape(healthcheck.getCategory()), "\",check=\"",
+				_escape(clazz.getName()), "\",node=\"",
+				_escape(healthcheckResult.getClusterNodeName()), "\"");
+
+			int status = 1;
+
+			for (HealthcheckItem healthcheckItem :
+					healthcheckResult.getHealthcheckItems()) {
+
+				if (healthcheckIgnores.contains(healthcheckItem)) {
+					ignored++;
+				}
+				else if (healthcheckItem.isSuccess()) {
+					succeeded++;
+				}
+				else {
+					failed++;
+
+					status = 0;
+				}
+			}
+
+			sb.append("liferay_healthcheck_status{");
+			sb.append(labels);
+			sb.append("} ");
+			sb.append(status);
+			sb.append(StringPool.NEW_LINE);
+		}
+
+		String companyLabel = "{company=\"" + company + "\"} ";
+
+		return new CompanyMetrics(
+			sb.toString(),
+			String.join(
+				StringPool.BLANK, "liferay_healthcheck_items{company=\"",
+				company, "\",status=\"failed\"} ", String.valueOf(failed),
+				"\nliferay_healthcheck_items{company=\"", company,
+				"\",status=\"ignored\"} ", String.valueOf(ignored),
+				"\nliferay_healthcheck_items{company=\"", company,
+				"\",status=\"succeeded\"} ", String.valueOf(succeeded),
+				StringPool.NEW_LINE),
+			String.join(
+				StringPool.BLANK,
+				"liferay_healthcheck_last_run_duration_seconds", companyLabel,
+				_toSeconds(healthcheckSnapshot.getDuration()),
+				StringPool.NEW_LINE),
+			String.join(
+				StringPool.BLANK,
+				"liferay_healthcheck_last_run_timestamp_seconds",
+				companyLabel, _toSeconds(healthcheckSnapshot.getCreateTime()),
+				StringPool.NEW_LINE));
+	}
+
+	private void _renderDurationHistograms(StringBuilder sb) {
+		sb.append("# TYPE liferay_healthcheck_duration_seconds ");
+		sb.append("gaugehistogram\n");
+		sb.append("# UNIT liferay_healthcheck_duration_seconds seconds\n");
+		sb.append(
+			"# HELP liferay_healthcheck_duration_seconds Execution times of " +
+				"the latest executions on this cluster node\n");
+
+		long[] bucketUpperBounds =
+			HealthcheckTimingHistogram.getBucketUpperBounds();
+
+		for (HealthcheckTimingHistogram healthcheckTimingHistogram :
+				_healthcheckExecutor.getHealthcheckTimingHistograms()) {
+
+			String check = _escape(healthcheckTimingHistogram.getClassName());
+
+			long[] bucketCounts = healthcheckTimingHistogram.getBucketCounts();
+
+			long count = 0;
+
+			for (int i = 0; i < bucketCounts.length; i++) {
+				count += bucketCounts[i];
+
+				sb.append("liferay_healthcheck_duration_seconds_bucket");
+				sb.append("{check=\"");
+				sb.append(check);
+				sb.append("\",le=\"");
+
+				if (i < bucketUpperBounds.length) {
+					sb.append(_toSeconds(bucketUpperBounds[i]));
+				}
+				else {
+					sb.append("+Inf");
+				}
+
+				sb.append("\"} ");
+				sb.append(count);
+				sb.append(StringPool.NEW_LINE);
+			}
+
+			sb.append("liferay_healthcheck_duration_seconds_gcount{check=\"");
+			sb.append(check);
+			sb.append("\"} ");
+			sb.append(count);
+			sb.append("\nliferay_healthcheck_duration_seconds_gsum{check=\"");
+			sb.append(check);
+			sb.append("\"} ");
+			sb.append(
+				_toSeconds(healthcheckTimingHistogram.getTotalWallTime()));
+			sb.append(StringPool.NEW_LINE);
+		}
+	}
+
+	private final AtomicReference<byte[]> _bytes = new AtomicReference<>(
+		"# EOF\n".getBytes(StandardCharsets.UTF_8));
+
+	@Reference
+	private CompanyLocalService _companyLocalService;
+
+	private final Map<Long, CompanyMetrics> _companyMetrics = new TreeMap<>();
+
+	@Reference
+	private HealthcheckExecutor _healthcheckExecutor;
+
+	@Reference
+	private HealthcheckIgnoreList _healthcheckIgnoreList;
+
+	private static class CompanyMetrics {
+
+		private CompanyMetrics(
+			String statusSamples, String itemsSamples,
+			String lastRunDurationSamples, String lastRunTimestampSamples) {
+
+			_statusSamples = statusSamples;
+			_itemsSamples = itemsSamples;
+			_lastRunDurationSamples = lastRunDurationSamples;
+			_lastRunTimestampSamples = lastRunTimestampSamples;
+		}
+
+		private final String _itemsSamples;
+		private final String _lastRunDurationSamples;
+		private final String _lastRunTimestampSamples;
+		private final String _statusSamples;
+
+	}
+
+}
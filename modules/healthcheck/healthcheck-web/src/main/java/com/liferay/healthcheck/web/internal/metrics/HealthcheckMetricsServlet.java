@@ -0,0 +1,92 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.metrics;
+
+import com.liferay.healthcheck.web.internal.configuration.HealthcheckWebConfiguration;
+import com.liferay.healthcheck.web.internal.servlet.BearerTokenUtil;
+import com.liferay.portal.configuration.metatype.bnd.util.ConfigurableUtil;
+
+import java.io.IOException;
+
+import java.util.Map;
+
+import javax.servlet.Servlet;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Serves the Healthcheck metrics that HealthcheckMetricsRenderer prepared,
+ * at /o/healthcheck/metrics. Clients need to send the configured token as
+ * bearer token. Without a configured token, the endpoint is disabled.
+ *
+ * @author Olaf Kock
+ */
+@Component(
+	configurationPid = "com.liferay.healthcheck.web.internal.configuration.HealthcheckWebConfiguration",
+	property = {
+		"osgi.http.whiteboard.servlet.name=com.liferay.healthcheck.web.internal.metrics.HealthcheckMetricsServlet",
+		"osgi.http.whiteboard.servlet.pattern=/healthcheck/metrics"
+	},
+	service = Servlet.class
+)
+public class HealthcheckMetricsServlet extends HttpServlet {
+
+	@Activate
+	@Modified
+	protected void activate(Map<String, Object> properties) {
+		HealthcheckWebConfiguration healthcheckWebConfiguration =
+			ConfigurableUtil.createConfigurable(
+				HealthcheckWebConfiguration.class, properties);
+
+		_authorization = BearerTokenUtil.getAuthorization(
+			healthcheckWebConfiguration.metricsToken());
+	}
+
+	@Override
+	protected void doGet(
+			HttpServletRequest httpServletRequest,
+			HttpServletResponse httpServletResponse)
+		throws IOException {
+
+		String authorization = _authorization;
+
+		if (authorization == null) {
+			httpServletResponse.sendError(HttpServletResponse.SC_NOT_FOUND);
+
+			return;
+		}
+
+		if (!BearerTokenUtil.isAuthorized(authorization, httpServletRequest)) {
+			httpServletResponse.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+
+			return;
+		}
+
+		byte[] bytes = _healthcheckMetricsRenderer.getBytes();
+
+		httpServletResponse.setContentLength(bytes.length);
+		httpServletResponse.setContentType(
+			HealthcheckMetricsRenderer.CONTENT_TYPE);
+
+		ServletOutputStream servletOutputStream =
+			httpServletResponse.getOutputStream();
+
+		servletOutputStream.write(bytes);
+	}
+
+	private volatile String _authorization;
+
+	@Reference
+	private HealthcheckMetricsRenderer _healthcheckMetricsRenderer;
+
+}
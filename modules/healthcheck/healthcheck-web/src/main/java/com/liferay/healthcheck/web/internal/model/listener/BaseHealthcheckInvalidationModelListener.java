@@ -0,0 +1,72 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.model.listener;
+
+import com.liferay.healthcheck.web.internal.invalidation.HealthcheckInvalidator;
+import com.liferay.portal.kernel.model.BaseModel;
+import com.liferay.portal.kernel.model.BaseModelListener;
+import com.liferay.portal.kernel.model.ShardedModel;
+import com.liferay.portal.kernel.transaction.TransactionCommitCallbackUtil;
+
+/**
+ * Invalidates the results of Healthchecks that depend on an entity, whenever
+ * an entity of its kind is added, updated or removed in a company. Results
+ * are only invalidated once the transaction is committed, so that no
+ * Healthcheck caches data that is not committed yet.
+ *
+ * @author Olaf Kock
+ */
+public abstract class BaseHealthcheckInvalidationModelListener
+	<T extends BaseModel<T> & ShardedModel>
+		extends BaseModelListener<T> {
+
+	@Override
+	public void onAfterCreate(T model) {
+		_invalidate(model);
+	}
+
+	@Override
+	public void onAfterRemove(T model) {
+		_invalidate(model);
+	}
+
+	@Override
+	public void onAfterUpdate(T originalModel, T model) {
+		if ((originalModel == null) ||
+			isInvalidatingUpdate(originalModel, model)) {
+
+			_invalidate(model);
+		}
+	}
+
+	protected abstract HealthcheckInvalidator getHealthcheckInvalidator();
+
+	/**
+	 * @return true if the update can change the result of a Healthcheck.
+	 *         Override this for entities that are updated frequently, in ways
+	 *         that no Healthcheck cares about.
+	 */
+	protected boolean isInvalidatingUpdate(T originalModel, T model) {
+		return true;
+	}
+
+	private void _invalidate(T model) {
+		String modelClassName = model.getModelClassName();
+		long companyId = model.getCompanyId();
+
+		TransactionCommitCallbackUtil.registerCallback(
+			() -> {
+				HealthcheckInvalidator healthcheckInvalidator =
+					getHealthcheckInvalidator();
+
+				healthcheckInvalidator.invalidateModel(
+					modelClassName, companyId);
+
+				return null;
+			});
+	}
+
+}
@@ -0,0 +1,30 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.model.listener;
+
+import com.liferay.client.extension.model.ClientExtensionEntry;
+import com.liferay.healthcheck.web.internal.invalidation.HealthcheckInvalidator;
+import com.liferay.portal.kernel.model.ModelListener;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * @author Olaf Kock
+ */
+@Component(service = ModelListener.class)
+public class ClientExtensionEntryModelListener
+	extends BaseHealthcheckInvalidationModelListener<ClientExtensionEntry> {
+
+	@Override
+	protected HealthcheckInvalidator getHealthcheckInvalidator() {
+		return _healthcheckInvalidator;
+	}
+
+	@Reference
+	private HealthcheckInvalidator _healthcheckInvalidator;
+
+}
@@ -0,0 +1,49 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.model.listener;
+
+import com.liferay.healthcheck.web.internal.invalidation.HealthcheckInvalidator;
+import com.liferay.portal.kernel.model.ModelListener;
+import com.liferay.portal.kernel.model.User;
+
+import java.util.Objects;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * @author Olaf Kock
+ */
+@Component(service = ModelListener.class)
+public class UserModelListener
+	extends BaseHealthcheckInvalidationModelListener<User> {
+
+	@Override
+	protected HealthcheckInvalidator getHealthcheckInvalidator() {
+		return _healthcheckInvalidator;
+	}
+
+	/**
+	 * Users are updated on every login. Only changes of the attributes that
+	 * Healthchecks check invalidate their results.
+	 */
+	@Override
+	protected boolean isInvalidatingUpdate(User originalUser, User user) {
+		if (!Objects.equals(
+				originalUser.getEmailAddress(), user.getEmailAddress()) ||
+			!Objects.equals(originalUser.getPassword(), user.getPassword()) ||
+			(originalUser.getStatus() != user.getStatus())) {
+
+			return true;
+		}
+
+		return false;
+	}
+
+	@Reference
+	private HealthcheckInvalidator _healthcheckInvalidator;
+
+}
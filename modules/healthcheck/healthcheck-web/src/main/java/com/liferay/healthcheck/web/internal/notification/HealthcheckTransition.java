@@ -0,0 +1,90 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.notification;
+
+import com.liferay.portal.kernel.json.JSONObject;
+import com.liferay.portal.kernel.json.JSONUtil;
+
+/**
+ * A change of a failed item between two runs.
+ *
+ * @author Olaf Kock
+ */
+public class HealthcheckTransition {
+
+	/**
+	 * An item failed that didn't fail in the previous run
+	 */
+	public static final String TYPE_NEW_FAILURE = "NEW_FAILURE";
+
+	/**
+	 * An item still fails with the same message, but different parameters
+	 */
+	public static final String TYPE_PARAMETERS_CHANGED = "PARAMETERS_CHANGED";
+
+	/**
+	 * An item that failed in the previous run doesn't fail anymore
+	 */
+	public static final String TYPE_RECOVERED = "RECOVERED";
+
+	public HealthcheckTransition(
+		String type, String className, String messageKey, String sourceKey,
+		String previousSourceKey) {
+
+		_type = type;
+		_className = className;
+		_messageKey = messageKey;
+		_sourceKey = sourceKey;
+		_previousSourceKey = previousSourceKey;
+	}
+
+	public String getClassName() {
+		return _className;
+	}
+
+	public String getMessageKey() {
+		return _messageKey;
+	}
+
+	/**
+	 * @return the source key in the previous run, or null for new failures
+	 */
+	public String getPreviousSourceKey() {
+		return _previousSourceKey;
+	}
+
+	/**
+	 * @return the source key in the current run, or null for recoveries
+	 */
+	public String getSourceKey() {
+		return _sourceKey;
+	}
+
+	public String getType() {
+		return _type;
+	}
+
+	public JSONObject toJSONObject() {
+		return JSONUtil.put(
+			"className", _className
+		).put(
+			"messageKey", _messageKey
+		).put(
+			"previousSourceKey", _previousSourceKey
+		).put(
+			"sourceKey", _sourceKey
+		).put(
+			"type", _type
+		);
+	}
+
+	private final String _className;
+	private final String _messageKey;
+	private final String _previousSourceKey;
+	private final String _sourceKey;
+	private final String _type;
+
+}
@@ -0,0 +1,399 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.notification;
+
+import com.liferay.healthcheck.Healthcheck;
+import com.liferay.healthcheck.HealthcheckItem;
+import com.liferay.healthcheck.web.internal.configuration.HealthcheckWebConfiguration;
+import com.liferay.healthcheck.web.internal.executor.HealthcheckResult;
+import com.liferay.healthcheck.web.internal.ignore.HealthcheckIgnoreList;
+import com.liferay.healthcheck.web.internal.ignore.HealthcheckIgnores;
+import com.liferay.healthcheck.web.internal.registry.HealthcheckSnapshot;
+import com.liferay.healthcheck.web.internal.registry.HealthcheckSnapshotListener;
+import com.liferay.petra.string.StringBundler;
+import com.liferay.petra.string.StringPool;
+import com.liferay.portal.configuration.metatype.bnd.util.ConfigurableUtil;
+import com.liferay.portal.kernel.json.JSONArray;
+import com.liferay.portal.kernel.json.JSONFactoryUtil;
+import com.liferay.portal.kernel.json.JSONUtil;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.messaging.Destination;
+import com.liferay.portal.kernel.messaging.DestinationConfiguration;
+import com.liferay.portal.kernel.messaging.DestinationFactory;
+import com.liferay.portal.kernel.messaging.Message;
+import com.liferay.portal.kernel.messaging.MessageBus;
+import com.liferay.portal.kernel.util.HashMapDictionaryBuilder;
+import com.liferay.portal.kernel.util.NamedThreadFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongPredicate;
+
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceRegistration;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Compares the failed items of each run with the ones of the previous run,
+ * and sends only what changed to the message bus destination
+ * {@link #DESTINATION_NAME}: new failures, recoveries, and failures whose
+ * parameters changed. The payload is a JSON object with the company ID and
+ * the list of transitions.
+ *
+ * Changes are batched per company: The first change starts a delay, and the
+ * notification compares the failed items of the last run within it with
+ * the ones that were notified last. Items that fail and recover within the
+ * delay, or change back and forth, don't cause notifications at all.
+ * Ignored items are left out, and the first run of a company after a
+ * restart only serves as the baseline.
+ *
+ * @author Olaf Kock
+ */
+@Component(
+	configurationPid = "com.liferay.healthcheck.web.internal.configuration.HealthcheckWebConfiguration",
+	service = HealthcheckSnapshotListener.class
+)
+public class HealthcheckTransitionNotifier
+	implements HealthcheckSnapshotListener {
+
+	public static final String DESTINATION_NAME =
+		"liferay/healthcheck_transitions";
+
+	@Override
+	public void onHealthcheckSnapshot(HealthcheckSnapshot healthcheckSnapshot) {
+		if (_scheduledExecutorService == null) {
+			return;
+		}
+
+		_scheduledExecutorService.execute(() -> _update(healthcheckSnapshot));
+	}
+
+	/**
+	 * @return the transitions between the given failed items, grouped by
+	 *         Healthcheck and message key, so that items that disappeared
+	 *         and appeared with the same message are reported as changed
+	 */
+	protected static List<HealthcheckTransition> diff(
+		Map<Long, FailedItem> previousFailedItems,
+		Map<Long, FailedItem> failedItems, LongPredicate ignoredPredicate) {
+
+		Map<String, List<FailedItem>> addedFailedItems = _group(
+			failedItems, previousFailedItems, ignoredPredicate);
+		Map<String, List<FailedItem>> removedFailedItems = _group(
+			previousFailedItems, failedItems, ignoredPredicate);
+
+		List<HealthcheckTransition> healthcheckTransitions = new ArrayList<>();
+
+		Set<String> groupKeys = new TreeSet<>(addedFailedItems.keySet());
+
+		groupKeys.addAll(removedFailedItems.keySet());
+
+		for (String groupKey : groupKeys) {
+			List<FailedItem> added = addedFailedItems.getOrDefault(
+				groupKey, Collections.emptyList());
+			List<FailedItem> removed = removedFailedItems.getOrDefault(
+				groupKey, Collections.emptyList());
+
+			int changed = Math.min(added.size(), removed.size());
+
+			for (int i = 0; i < changed; i++) {
+				FailedItem addedFailedItem = added.get(i);
+				FailedItem removedFailedItem = removed.get(i);
+
+				healthcheckTransitions.add(
+					new HealthcheckTransition(
+						HealthcheckTransition.TYPE_PARAMETERS_CHANGED,
+						addedFailedItem._className, addedFailedItem._messageKey,
+						addedFailedItem._sourceKey,
+						removedFailedItem._sourceKey));
+			}
+
+			_addTransitions(
+				HealthcheckTransition.TYPE_NEW_FAILURE,
+				added.subList(changed, added.size()), healthcheckTransitions);
+			_addTransitions(
+				HealthcheckTransition.TYPE_RECOVERED,
+				removed.subList(changed, removed.size()),
+				healthcheckTransitions);
+		}
+
+		return healthcheckTransitions;
+	}
+
+	@Activate
+	protected void activate(
+		BundleContext bundleContext, Map<String, Object> properties) {
+
+		HealthcheckWebConfiguration healthcheckWebConfiguration =
+			ConfigurableUtil.createConfigurable(
+				HealthcheckWebConfiguration.class, properties);
+
+		_notificationDelay = healthcheckWebConfiguration.notificationDelay();
+
+		if (_notificationDelay <= 0) {
+			return;
+		}
+
+		Destination destination = _destinationFactory.createDestination(
+			DestinationConfiguration.createSerialDestinationConfiguration(
+				DESTINATION_NAME));
+
+		_serviceRegistration = bundleContext.registerService(
+			Destination.class, destination,
+			HashMapDictionaryBuilder.<String, Object>put(
+				"destination.name", destination.getName()
+			).build());
+
+		_scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(
+			new NamedThreadFactory(
+				"Healthcheck Transition Notifier", Thread.NORM_PRIORITY,
+				HealthcheckTransitionNotifier.class.getClassLoader()));
+	}
+
+	@Deactivate
+	protected void deactivate() {
+		if (_scheduledExecutorService != null) {
+			_scheduledExecutorService.shutdownNow();
+		}
+
+		if (_serviceRegistration != null) {
+			_serviceRegistration.unregister();
+		}
+	}
+
+	private static void _addTransitions(
+		String type, Collection<FailedItem> failedItems,
+		List<HealthcheckTransition> healthcheckTransitions) {
+
+		for (FailedItem failedItem : failedItems) {
+			if (type.equals(HealthcheckTransition.TYPE_NEW_FAILURE)) {
+				healthcheckTransitions.add(
+					new HealthcheckTransition(
+						type, failedItem._className, failedItem._messageKey,
+						failedItem._sourceKey, null));
+			}
+			else {
+				healthcheckTransitions.add(
+					new HealthcheckTransition(
+						type, failedItem._className, failedItem._messageKey,
+						null, failedItem._sourceKey));
+			}
+		}
+	}
+
+	/**
+	 * @return the items that are only contained in the first map, and not
+	 *         ignored, grouped by Healthcheck and message key, and sorted by
+	 *         source key, so that changed items pair up consistently
+	 */
+	private static Map<String, List<FailedItem>> _group(
+		Map<Long, FailedItem> failedItems,
+		Map<Long, FailedItem> otherFailedItems,
+		LongPredicate ignoredPredicate) {
+
+		Map<String, List<FailedItem>> groupedFailedItems = new TreeMap<>();
+
+		for (Map.Entry<Long, FailedItem> entry : failedItems.entrySet()) {
+			if (otherFailedItems.containsKey(entry.getKey()) ||
+				ignoredPredicate.test(entry.getKey())) {
+
+				continue;
+			}
+
+			FailedItem failedItem = entry.getValue();
+
+			List<FailedItem> groupFailedItems =
+				groupedFailedItems.computeIfAbsent(
+					failedItem._className + StringPool.POUND +
+						failedItem._messageKey,
+					key -> new ArrayList<>());
+
+			groupFailedItems.add(failedItem);
+		}
+
+		for (List<FailedItem> groupFailedItems : groupedFailedItems.values()) {
+			groupFailedItems.sort(
+				(failedItem1, failedItem2) -> failedItem1._sourceKey.compareTo(
+					failedItem2._sourceKey));
+		}
+
+		return groupedFailedItems;
+	}
+
+	private void _flush(long companyId) {
+		_scheduledCompanyIds.remove(companyId);
+
+		Map<Long, FailedItem> failedItems = _failedItems.get(companyId);
+
+		HealthcheckIgnores healthcheckIgnores =
+			_healthcheckIgnoreList.getHealthcheckIgnores(companyId);
+
+		List<HealthcheckTransition> healthcheckTransitions = diff(
+			_notifiedFailedItems.get(companyId), failedItems,
+			healthcheckIgnores::contains);
+
+		_notifiedFailedItems.put(companyId, failedItems);
+
+		if (healthcheckTransitions.isEmpty()) {
+			return;
+		}
+
+		if (_log.isInfoEnabled()) {
+			_log.info(
+				StringBundler.concat(
+					"Sending ", healthcheckTransitions.size(),
+					" healthcheck transitions of company ", companyId));
+		}
+
+		JSONArray jsonArray = JSONFactoryUtil.createJSONArray();
+
+		for (HealthcheckTransition healthcheckTransition :
+				healthcheckTransitions) {
+
+			jsonArray.put(healthcheckTransition.toJSONObject());
+		}
+
+		Message message = new Message();
+
+		message.put("companyId", companyId);
+		message.setPayload(
+			JSONUtil.put(
+				"companyId", companyId
+			).put(
+				"transitions", jsonArray
+			).toString());
+
+		_messageBus.sendMessage(DESTINATION_NAME, message);
+	}
+
+	private Map<Long, FailedItem> _getFailedItems(
+		HealthcheckSnapshot healthcheckSnapshot) {
+
+		Map<Long, FailedItem> failedItems = new HashMap<>();
+
+		for (HealthcheckResult healthcheckResult :
+				healthcheckSnapshot.getHealthcheckResults()) {
+
+			Healthcheck healthcheck = healthcheckResult.getHealthcheck();
+
+			Class<?> clazz = healthcheck.getClass();
+
+			for (HealthcheckItem healthcheckItem :
+					healthcheckResult.getHealthcheckItems()) {
+
+				if (!healthcheckItem.isSuccess()) {
+					failedItems.put(
+						healthcheckItem.getFingerprint(),
+						new FailedItem(
+							clazz.getName(), healthcheckItem.getMessageKey(),
+							healthcheckItem.getSourceKey()));
+				}
+			}
+		}
+
+		return failedItems;
+	}
+
+	private void _update(HealthcheckSnapshot healthcheckSnapshot) {
+		long companyId = healthcheckSnapshot.getCompanyId();
+
+		// Snapshots are published again, unchanged, when the ignore list
+		// changes. Runs and refreshes always come with a newer create time.
+
+		Long lastCreateTime = _lastCreateTimes.get(companyId);
+
+		if ((lastCreateTime != null) &&
+			(lastCreateTime >= healthcheckSnapshot.getCreateTime())) {
+
+			return;
+		}
+
+		_lastCreateTimes.put(companyId, healthcheckSnapshot.getCreateTime());
+
+		Map<Long, FailedItem> failedItems = _getFailedItems(
+			healthcheckSnapshot);
+
+		_failedItems.put(companyId, failedItems);
+
+		Map<Long, FailedItem> notifiedFailedItems = _notifiedFailedItems.get(
+			companyId);
+
+		if (notifiedFailedItems == null) {
+			_notifiedFailedItems.put(companyId, failedItems);
+
+			return;
+		}
+
+		if (!notifiedFailedItems.keySet(
+			).equals(
+				failedItems.keySet()
+			) &&
+			_scheduledCompanyIds.add(companyId)) {
+
+			_scheduledExecutorService.schedule(
+				() -> _flush(companyId), _notificationDelay, TimeUnit.SECONDS);
+		}
+	}
+
+	private static final Log _log = LogFactoryUtil.getLog(
+		HealthcheckTransitionNotifier.class);
+
+	@Reference
+	private DestinationFactory _destinationFactory;
+
+	// All of the following maps are only accessed by the thread of the
+	// scheduled executor service
+
+	private final Map<Long, Map<Long, FailedItem>> _failedItems =
+		new HashMap<>();
+
+	@Reference
+	private HealthcheckIgnoreList _healthcheckIgnoreList;
+
+	private final Map<Long, Long> _lastCreateTimes = new HashMap<>();
+
+	@Reference
+	private MessageBus _messageBus;
+
+	private int _notificationDelay;
+	private final Map<Long, Map<Long, FailedItem>> _notifiedFailedItems =
+		new HashMap<>();
+	private final Set<Long> _scheduledCompanyIds = new HashSet<>();
+	private volatile ScheduledExecutorService _scheduledExecutorService;
+	private ServiceRegistration<Destination> _serviceRegistration;
+
+	protected static class FailedItem {
+
+		protected FailedItem(
+			String className, String messageKey, String sourceKey) {
+
+			_className = className;
+			_messageKey = messageKey;
+			_sourceKey = sourceKey;
+		}
+
+		private final String _className;
+		private final String _messageKey;
+		private final String _sourceKey;
+
+	}
+
+}
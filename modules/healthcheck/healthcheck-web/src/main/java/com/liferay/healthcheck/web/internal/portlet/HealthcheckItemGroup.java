@@ -0,0 +1,116 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.portlet;
+
+import com.liferay.healthcheck.HealthcheckItem;
+import com.liferay.healthcheck.web.internal.executor.HealthcheckResult;
+
+/**
+ * A row of the results: a single item, or all items of a Healthcheck with
+ * the same message key and outcome, when they are grouped. Only the rows of
+ * the visible page get localized, represented by their first item.
+ *
+ * @author Olaf Kock
+ */
+public class HealthcheckItemGroup {
+
+	public HealthcheckItemGroup(
+		String category, HealthcheckResult healthcheckResult,
+		HealthcheckItem healthcheckItem, boolean ignored) {
+
+		_category = category;
+		_healthcheckResult = healthcheckResult;
+		_healthcheckItem = healthcheckItem;
+		_ignored = ignored;
+	}
+
+	public HealthcheckItemGroup(
+		LocalizedHealthcheckItem localizedHealthcheckItem) {
+
+		this(localizedHealthcheckItem.getCategory(), null, null, false);
+
+		_localizedHealthcheckItem = localizedHealthcheckItem;
+	}
+
+	public String getCategory() {
+		return _category;
+	}
+
+	public int getCount() {
+		return _count;
+	}
+
+	public long getFingerprint() {
+		if (_healthcheckItem == null) {
+			return HealthcheckItem.getFingerprint(
+				_localizedHealthcheckItem.getSourceKey());
+		}
+
+		return _healthcheckItem.getFingerprint();
+	}
+
+	public HealthcheckItem getHealthcheckItem() {
+		return _healthcheckItem;
+	}
+
+	public HealthcheckResult getHealthcheckResult() {
+		return _healthcheckResult;
+	}
+
+	/**
+	 * @return the localized first item, or null if this row is not on the
+	 *         visible page
+	 */
+	public LocalizedHealthcheckItem getLocalizedHealthcheckItem() {
+		return _localizedHealthcheckItem;
+	}
+
+	public String getMessageKey() {
+		if (_healthcheckItem == null) {
+			return null;
+		}
+
+		return _healthcheckItem.getMessageKey();
+	}
+
+	public String getSourceKey() {
+		if (_healthcheckItem == null) {
+			return _localizedHealthcheckItem.getSourceKey();
+		}
+
+		return _healthcheckItem.getSourceKey();
+	}
+
+	public void increment() {
+		_count++;
+	}
+
+	public boolean isIgnored() {
+		return _ignored;
+	}
+
+	public boolean isSuccess() {
+		if (_healthcheckItem == null) {
+			return _localizedHealthcheckItem.isSuccess();
+		}
+
+		return _healthcheckItem.isSuccess();
+	}
+
+	public void setLocalizedHealthcheckItem(
+		LocalizedHealthcheckItem localizedHealthcheckItem) {
+
+		_localizedHealthcheckItem = localizedHealthcheckItem;
+	}
+
+	private final String _category;
+	private int _count = 1;
+	private final HealthcheckItem _healthcheckItem;
+	private final HealthcheckResult _healthcheckResult;
+	private final boolean _ignored;
+	private LocalizedHealthcheckItem _localizedHealthcheckItem;
+
+}
@@ -0,0 +1,229 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.portlet;
+
+import com.liferay.healthcheck.Healthcheck;
+import com.liferay.healthcheck.HealthcheckItem;
+import com.liferay.portal.kernel.util.ParamUtil;
+import com.liferay.portal.kernel.util.StringUtil;
+import com.liferay.portal.kernel.util.Validator;
+
+import javax.portlet.MutableRenderParameters;
+import javax.portlet.PortletRequest;
+import javax.portlet.PortletURL;
+import javax.portlet.RenderResponse;
+
+/**
+ * The filter, grouping and page of the results that the current request
+ * asks for, through render parameters. Filters only use what's available
+ * without localizing messages: the category, the status and the source key,
+ * which contains the message key and all parameters, so that only the
+ * visible page needs to be localized.
+ *
+ * @author Olaf Kock
+ */
+public class HealthcheckItemSearch {
+
+	public static final int DEFAULT_DELTA = 50;
+
+	public static final int MAX_DELTA = 500;
+
+	public static final String STATUS_FAILED = "failed";
+
+	public static final String STATUS_IGNORED = "ignored";
+
+	public static final String STATUS_SUCCEEDED = "succeeded";
+
+	public HealthcheckItemSearch(PortletRequest portletRequest) {
+		_category = ParamUtil.getString(portletRequest, "category");
+		_cur = Math.max(1, ParamUtil.getInteger(portletRequest, "cur", 1));
+		_delta = Math.min(
+			Math.max(
+				1,
+				ParamUtil.getInteger(portletRequest, "delta", DEFAULT_DELTA)),
+			MAX_DELTA);
+		_group = ParamUtil.getBoolean(portletRequest, "group");
+		_keywords = StringUtil.toLowerCase(
+			StringUtil.trim(ParamUtil.getString(portletRequest, "keywords")));
+		_messageKey = ParamUtil.getString(portletRequest, "messageKey");
+		_showIgnored = ParamUtil.getBoolean(portletRequest, "showIgnored");
+		_status = ParamUtil.getString(portletRequest, "status");
+	}
+
+	public String getCategory() {
+		return _category;
+	}
+
+	/**
+	 * @return the current page, starting with 1, but never after the last
+	 *         page
+	 */
+	public int getCur() {
+		return Math.min(_cur, getLastPage());
+	}
+
+	public int getDelta() {
+		return _delta;
+	}
+
+	/**
+	 * @return the index after the last result of the current page
+	 */
+	public int getEnd() {
+		return Math.min(_total, getCur() * _delta);
+	}
+
+	public String getKeywords() {
+		return _keywords;
+	}
+
+	public int getLastPage() {
+		return Math.max(1, (_total + _delta - 1) / _delta);
+	}
+
+	public String getMessageKey() {
+		return _messageKey;
+	}
+
+	/**
+	 * @return a render URL with the current filter and grouping, for the
+	 *         first page
+	 */
+	public PortletURL getPortletURL(RenderResponse renderResponse) {
+		PortletURL portletURL = renderResponse.createRenderURL();
+
+		MutableRenderParameters mutableRenderParameters =
+			portletURL.getRenderParameters();
+
+		_setValue(mutableRenderParameters, "category", _category);
+		_setValue(
+			mutableRenderParameters, "delta",
+			(_delta == DEFAULT_DELTA) ? null : String.valueOf(_delta));
+		_setValue(
+			mutableRenderParameters, "group",
+			_group ? Boolean.TRUE.toString() : null);
+		_setValue(mutableRenderParameters, "keywords", _keywords);
+		_setValue(mutableRenderParameters, "messageKey", _messageKey);
+		_setValue(
+			mutableRenderParameters, "showIgnored",
+			_showIgnored ? Boolean.TRUE.toString() : null);
+		_setValue(mutableRenderParameters, "status", _status);
+
+		return portletURL;
+	}
+
+	/**
+	 * @return the index of the first result of the current page
+	 */
+	public int getStart() {
+		return (getCur() - 1) * _delta;
+	}
+
+	public String getStatus() {
+		return _status;
+	}
+
+	public int getTotal() {
+		return _total;
+	}
+
+	public boolean isFiltered() {
+		if (Validator.isNotNull(_category) || Validator.isNotNull(_keywords) ||
+			Validator.isNotNull(_messageKey) || Validator.isNotNull(_status)) {
+
+			return true;
+		}
+
+		return false;
+	}
+
+	public boolean isGroup() {
+		return _group;
+	}
+
+	/**
+	 * @param  healthcheck the Healthcheck that delivered the item
+	 * @param  category the localized category of the Healthcheck
+	 * @param  healthcheckItem the item to match
+	 * @param  ignored whether the item is on the company's ignore list
+	 * @return true if the item is part of the results
+	 */
+	public boolean isMatch(
+		Healthcheck healthcheck, String category,
+		HealthcheckItem healthcheckItem, boolean ignored) {
+
+		if (_status.equals(STATUS_IGNORED)) {
+			if (!ignored) {
+				return false;
+			}
+		}
+		else if (ignored) {
+			if (!_showIgnored || Validator.isNotNull(_status)) {
+				return false;
+			}
+		}
+		else if ((_status.equals(STATUS_FAILED) &&
+				  healthcheckItem.isSuccess()) ||
+				 (_status.equals(STATUS_SUCCEEDED) &&
+				  !healthcheckItem.isSuccess())) {
+
+			return false;
+		}
+
+		if ((Validator.isNotNull(_category) &&
+			 !_category.equals(healthcheck.getCategory())) ||
+			(Validator.isNotNull(_messageKey) &&
+			 !_messageKey.equals(healthcheckItem.getMessageKey()))) {
+
+			return false;
+		}
+
+		if (Validator.isNull(_keywords) ||
+			StringUtil.toLowerCase(
+				category
+			).contains(
+				_keywords
+			) ||
+			StringUtil.toLowerCase(
+				healthcheckItem.getSourceKey()
+			).contains(
+				_keywords
+			)) {
+
+			return true;
+		}
+
+		return false;
+	}
+
+	public boolean isShowIgnored() {
+		return _showIgnored;
+	}
+
+	public void setTotal(int total) {
+		_total = total;
+	}
+
+	private void _setValue(
+		MutableRenderParameters mutableRenderParameters, String name,
+		String value) {
+
+		if (Validator.isNotNull(value)) {
+			mutableRenderParameters.setValue(name, value);
+		}
+	}
+
+	private final String _category;
+	private final int _cur;
+	private final int _delta;
+	private final boolean _group;
+	private final String _keywords;
+	private final String _messageKey;
+	private final boolean _showIgnored;
+	private final String _status;
+	private int _total;
+
+}
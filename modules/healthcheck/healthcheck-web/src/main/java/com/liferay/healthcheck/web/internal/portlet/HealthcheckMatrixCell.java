@@ -0,0 +1,66 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.portlet;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The outcome of a single Healthcheck for a single company, in the matrix of
+ * all instances.
+ *
+ * @author Olaf Kock
+ */
+public class HealthcheckMatrixCell {
+
+	public void add(LocalizedHealthcheckItem localizedHealthcheckItem) {
+		if (localizedHealthcheckItem.isSuccess()) {
+			_succeeded++;
+
+			return;
+		}
+
+		_failed++;
+
+		String message = localizedHealthcheckItem.getMessage();
+
+		if (localizedHealthcheckItem.getClusterNodeName() != null) {
+			message =
+				localizedHealthcheckItem.getClusterNodeName() + ": " + message;
+		}
+
+		_failedMessages.add(message);
+	}
+
+	public int getFailed() {
+		return _failed;
+	}
+
+	public List<String> getFailedMessages() {
+		return _failedMessages;
+	}
+
+	public int getSucceeded() {
+		return _succeeded;
+	}
+
+	/**
+	 * @return true if the Healthcheck did not deliver any item for this
+	 *         company
+	 */
+	public boolean isEmpty() {
+		if ((_failed == 0) && (_succeeded == 0)) {
+			return true;
+		}
+
+		return false;
+	}
+
+	private int _failed;
+	private final List<String> _failedMessages = new ArrayList<>();
+	private int _succeeded;
+
+}
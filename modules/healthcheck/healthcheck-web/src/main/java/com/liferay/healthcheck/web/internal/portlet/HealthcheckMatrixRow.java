@@ -0,0 +1,42 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.portlet;
+
+/**
+ * One Healthcheck in the matrix of all instances, with one cell per company.
+ *
+ * @author Olaf Kock
+ */
+public class HealthcheckMatrixRow {
+
+	public HealthcheckMatrixRow(String category, String name, int size) {
+		_category = category;
+		_name = name;
+
+		_healthcheckMatrixCells = new HealthcheckMatrixCell[size];
+
+		for (int i = 0; i < size; i++) {
+			_healthcheckMatrixCells[i] = new HealthcheckMatrixCell();
+		}
+	}
+
+	public String getCategory() {
+		return _category;
+	}
+
+	public HealthcheckMatrixCell getHealthcheckMatrixCell(int index) {
+		return _healthcheckMatrixCells[index];
+	}
+
+	public String getName() {
+		return _name;
+	}
+
+	private final String _category;
+	private final HealthcheckMatrixCell[] _healthcheckMatrixCells;
+	private final String _name;
+
+}
@@ -8,45 +8,62 @@ package com.liferay.healthcheck.web.internal.portlet;
 import com.liferay.healthcheck.Healthcheck;
 import com.liferay.healthcheck.HealthcheckItem;
 import com.liferay.healthcheck.web.internal.constants.HealthcheckWebPortletKeys;
-import com.liferay.osgi.service.tracker.collections.list.ServiceTrackerList;
-import com.liferay.osgi.service.tracker.collections.list.ServiceTrackerListFactory;
-import com.liferay.osgi.service.tracker.collections.map.PropertyServiceReferenceComparator;
+import com.liferay.healthcheck.web.internal.executor.HealthcheckExecutor;
+import com.liferay.healthcheck.web.internal.executor.HealthcheckResult;
+import com.liferay.healthcheck.web.internal.executor.HealthcheckTimingHistogram;
+import com.liferay.healthcheck.web.internal.history.HealthcheckHistory;
+import com.liferay.healthcheck.web.internal.ignore.HealthcheckIgnoreList;
+import com.liferay.healthcheck.web.internal.ignore.HealthcheckIgnores;
+import com.liferay.healthcheck.web.internal.registry.HealthcheckRegistry;
+import com.liferay.healthcheck.web.internal.registry.HealthcheckSnapshot;
+import com.liferay.healthcheck.web.internal.resources.HealthcheckMessageCache;
+import com.liferay.petra.string.StringBundler;
+import com.liferay.petra.string.StringPool;
+import com.liferay.portal.kernel.json.JSONUtil;
 import com.liferay.portal.kernel.language.Language;
 import com.liferay.portal.kernel.log.Log;
 import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.model.Company;
 import com.liferay.portal.kernel.portlet.bridges.mvc.MVCPortlet;
+import com.liferay.portal.kernel.service.CompanyLocalService;
 import com.liferay.portal.kernel.theme.ThemeDisplay;
+import com.liferay.portal.kernel.util.FastDateFormatFactoryUtil;
 import com.liferay.portal.kernel.util.ParamUtil;
 import com.liferay.portal.kernel.util.Portal;
-import com.liferay.portal.kernel.util.ResourceBundleUtil;
 import com.liferay.portal.kernel.util.WebKeys;
 
 import java.io.IOException;
+import java.io.PrintWriter;
 
+import java.text.Format;
+
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
 
 import javax.portlet.ActionRequest;
 import javax.portlet.ActionResponse;
 import javax.portlet.Portlet;
 import javax.portlet.PortletException;
-import javax.portlet.PortletPreferences;
 import javax.portlet.RenderRequest;
 import javax.portlet.RenderResponse;
+import javax.portlet.ResourceRequest;
+import javax.portlet.ResourceResponse;
+
+import javax.servlet.http.HttpServletResponse;
 
-import org.osgi.framework.BundleContext;
-import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
-import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
 
 /**
@@ -80,14 +97,39 @@ public class HealthcheckWebPortlet extends MVCPortlet {
 			RenderRequest renderRequest, RenderResponse renderResponse)
 		throws IOException, PortletException {
 
-		List<LocalizedHealthcheckItem> localizedHealthcheckItems =
-			new LinkedList<>();
-
 		ThemeDisplay themeDisplay = (ThemeDisplay)renderRequest.getAttribute(
 			WebKeys.THEME_DISPLAY);
 
 		Locale locale = themeDisplay.getLocale();
 
+		if (ParamUtil.getBoolean(renderRequest, "allInstances") &&
+			themeDisplay.getPermissionChecker(
+			).isOmniadmin() &&
+			!Objects.equals(
+				_portal.getHttpServletRequest(
+					renderRequest
+				).getMethod(),
+				"HEAD")) {
+
+			_prepareAllInstances(renderRequest, themeDisplay);
+
+			include("/view_all_instances.jsp", renderRequest, renderResponse);
+
+			return;
+		}
+
+		Map<String, String> healthcheckCategories = new TreeMap<>();
+		List<HealthcheckItemGroup> healthcheckItemGroups = new ArrayList<>();
+		HealthcheckIgnores healthcheckIgnores =
+			_healthcheckIgnoreList.getHealthcheckIgnores(
+				themeDisplay.getCompanyId());
+		HealthcheckItemSearch healthcheckItemSearch = new HealthcheckItemSearch(
+			renderRequest);
+
+		int failed = 0;
+		int succeeded = 0;
+		int ignored = 0;
+
 		if (themeDisplay.getPermissionChecker(
 			).isCompanyAdmin(
 				themeDisplay.getCompanyId()
@@ -98,140 +140,178 @@ public class HealthcheckWebPortlet extends MVCPortlet {
 				).getMethod(),
 				"HEAD")) {
 
-			for (Healthcheck healthcheck : _serviceTrackerList.toList()) {
-				try {
-					Collection<HealthcheckItem> checks = healthcheck.check(
-						themeDisplay.getCompanyId());
+			HealthcheckSnapshot healthcheckSnapshot =
+				_healthcheckRegistry.getHealthcheckSnapshot(
+					themeDisplay.getCompanyId());
 
-					_localize(
-						locale, checks, healthcheck, localizedHealthcheckItems);
-				}
-				catch (Exception exception) {
-					_log.error(exception);
+			if ((healthcheckSnapshot == null) ||
+				ParamUtil.getBoolean(renderRequest, "runHealthchecks")) {
 
-					String healthcheckClassName = healthcheck.getClass(
-					).getName();
+				// Only render the shell, the results will be streamed into
+				// it by serveResource, as soon as they are available
 
-					localizedHealthcheckItems.add(
-						new LocalizedHealthcheckItem(
-							false,
-							_lookup(
-								locale, healthcheck, healthcheck.getCategory()),
-							_lookup(
-								locale, healthcheck,
-								"an-exception-occurred-for-x-x-x",
-								healthcheckClassName,
-								exception.getClass(
-								).getName(),
-								exception.getMessage()),
-							null, healthcheckClassName + "-exception",
-							Collections.emptyList()));
-				}
+				renderRequest.setAttribute("streamHealthchecks", Boolean.TRUE);
 			}
-		}
-		else {
-			String permissionDenied = _language.get(
-				locale, "permission-denied");
+			else {
+				renderRequest.setAttribute(
+					"healthcheckSnapshotCreateDate",
+					_formatDate(
+						themeDisplay, healthcheckSnapshot.getCreateTime()));
 
-			localizedHealthcheckItems.add(
-				new LocalizedHealthcheckItem(
-					false, permissionDenied, permissionDenied, null,
-					permissionDenied, Collections.emptyList()));
-		}
+				// Filter, group and sort the items as they are, and only
+				// localize the ones on the visible page
 
-		Collections.sort(
-			localizedHealthcheckItems,
-			new Comparator<LocalizedHealthcheckItem>() {
-
-				@Override
-				public int compare(
-					LocalizedHealthcheckItem arg0,
-					LocalizedHealthcheckItem arg1) {
-
-					if (arg0.isSuccess() == arg1.isSuccess()) {
-						int categoryDiff = arg0.getCategory(
-						).compareTo(
-							arg1.getCategory()
-						);
-
-						if (categoryDiff == 0) {
-							return arg0.getMessage(
-							).compareTo(
-								arg1.getMessage()
-							);
-						}
+				Map<String, HealthcheckItemGroup> groupedHealthcheckItemGroups =
+					new HashMap<>();
 
-						return categoryDiff;
-					}
-					else if (arg0.isSuccess()) {
-						return 1;
-					}
+				for (HealthcheckResult healthcheckResult :
+						healthcheckSnapshot.getHealthcheckResults()) {
 
-					return -1;
-				}
+					Healthcheck healthcheck =
+						healthcheckResult.getHealthcheck();
 
-			});
+					String category = _lookup(
+						locale, healthcheck, healthcheck.getCategory());
 
-		PortletPreferences portletPreferences = renderRequest.getPreferences();
+					healthcheckCategories.put(
+						category, healthcheck.getCategory());
 
-		boolean showIgnored = ParamUtil.get(
-			renderRequest, "showIgnored", false);
+					for (HealthcheckItem healthcheckItem :
+							healthcheckResult.getHealthcheckItems()) {
 
-		String[] ignoredChecksArray = portletPreferences.getValues(
-			"ignore", new String[0]);
+						boolean ignoredItem = healthcheckIgnores.contains(
+							healthcheckItem);
 
-		Set<String> ignoredChecks = new HashSet<>(
-			Arrays.asList(ignoredChecksArray));
+						if (ignoredItem) {
+							if (_log.isTraceEnabled()) {
+								_log.trace(
+									"ignored: " +
+										healthcheckItem.getSourceKey());
+							}
 
-		Set<String> seenIgnoredChecks = new HashSet<>();
-		
-		int failed = 0;
-		int succeeded = 0;
-		int ignored = 0;
+							ignored++;
+						}
+						else if (healthcheckItem.isSuccess()) {
+							succeeded++;
+						}
+						else {
+							failed++;
+						}
 
-		for (Iterator<LocalizedHealthcheckItem> iterator =
-				localizedHealthcheckItems.iterator();
-			 iterator.hasNext();) {
+						if (!healthcheckItemSearch.isMatch(
+								healthcheck, category, healthcheckItem,
+								ignoredItem)) {
 
-			LocalizedHealthcheckItem currentItem = iterator.next();
+							continue;
+						}
 
-			if (ignoredChecks.contains(currentItem.getSourceKey())) {
-				if (_log.isTraceEnabled()) {
-					_log.trace("ignored: " + currentItem.getSourceKey());
-				}
+						if (!healthcheckItemSearch.isGroup()) {
+							healthcheckItemGroups.add(
+								new HealthcheckItemGroup(
+									category, healthcheckResult,
+									healthcheckItem, ignoredItem));
 
-				// TODO: Keep track when a certain ignored healthcheck
-				// was last seen, so that they can be automatically unignored.
-				// Might require duration as well as actual number of 
-				// executions (to deal with scheduled healthchecks, e.g. every
-				// 5 minutes, and manual ones, e.g. every week)
-				seenIgnoredChecks.add(currentItem.getSourceKey());
-				
-				if (!showIgnored) {
-					iterator.remove();
-				}
+							continue;
+						}
 
-				ignored++;
-			}
-			else if (currentItem.isSuccess()) {
-				if (_log.isTraceEnabled()) {
-					_log.trace("success: " + currentItem.getSourceKey());
+						String groupKey = _getGroupKey(
+							healthcheck, healthcheckItem, ignoredItem);
+
+						HealthcheckItemGroup healthcheckItemGroup =
+							groupedHealthcheckItemGroups.get(groupKey);
+
+						if (healthcheckItemGroup != null) {
+							healthcheckItemGroup.increment();
+
+							continue;
+						}
+
+						healthcheckItemGroup = new HealthcheckItemGroup(
+							category, healthcheckResult, healthcheckItem,
+							ignoredItem);
+
+						groupedHealthcheckItemGroups.put(
+							groupKey, healthcheckItemGroup);
+						healthcheckItemGroups.add(healthcheckItemGroup);
+					}
 				}
 
-				succeeded++;
-			}
-			else {
-				if (_log.isTraceEnabled()) {
-					_log.trace("failed:  " + currentItem.getSourceKey());
+				healthcheckItemGroups.sort(
+					Comparator.comparing(
+						HealthcheckItemGroup::isSuccess
+					).thenComparing(
+						HealthcheckItemGroup::getCategory
+					).thenComparing(
+						HealthcheckItemGroup::getSourceKey
+					));
+
+				healthcheckItemSearch.setTotal(healthcheckItemGroups.size());
+
+				healthcheckItemGroups = healthcheckItemGroups.subList(
+					healthcheckItemSearch.getStart(),
+					healthcheckItemSearch.getEnd());
+
+				long[] fingerprints = new long[healthcheckItemGroups.size()];
+
+				for (int i = 0; i < healthcheckItemGroups.size(); i++) {
+					HealthcheckItemGroup healthcheckItemGroup =
+						healthcheckItemGroups.get(i);
+
+					healthcheckItemGroup.setLocalizedHealthcheckItem(
+						_localize(
+							locale, healthcheckItemGroup.getHealthcheckResult(),
+							healthcheckItemGroup.getHealthcheckItem()));
+
+					fingerprints[i] = healthcheckItemGroup.getFingerprint();
 				}
 
-				failed++;
+				Arrays.sort(fingerprints);
+
+				renderRequest.setAttribute(
+					"healthcheckHistoryReport",
+					_healthcheckHistory.getHealthcheckHistoryReport(
+						themeDisplay.getCompanyId(),
+						fingerprint ->
+							Arrays.binarySearch(fingerprints, fingerprint) >=
+								0));
 			}
 		}
+		else {
+			String permissionDenied = _language.get(
+				locale, "permission-denied");
+
+			healthcheckItemGroups.add(
+				new HealthcheckItemGroup(
+					new LocalizedHealthcheckItem(
+						false, permissionDenied, permissionDenied, null,
+						permissionDenied, Collections.emptyList())));
+
+			healthcheckItemSearch.setTotal(1);
+		}
+
+		if (themeDisplay.getPermissionChecker(
+			).isOmniadmin()) {
+
+			List<HealthcheckTimingHistogram> healthcheckTimingHistograms =
+				_healthcheckExecutor.getHealthcheckTimingHistograms();
+
+			healthcheckTimingHistograms.sort(
+				Comparator.comparingLong(
+					(HealthcheckTimingHistogram healthcheckTimingHistogram) ->
+						healthcheckTimingHistogram.getWallTimePercentile(95)
+				).reversed());
+
+			renderRequest.setAttribute(
+				"healthcheckTimingHistograms", healthcheckTimingHistograms);
+		}
 
-		renderRequest.setAttribute("ignoredHealthchecks", ignoredChecks);
 		renderRequest.setAttribute(
-			"localizedHealthchecks", localizedHealthcheckItems);
+			"healthcheckCategories", healthcheckCategories);
+		renderRequest.setAttribute("healthcheckIgnores", healthcheckIgnores);
+		renderRequest.setAttribute(
+			"healthcheckItemGroups", healthcheckItemGroups);
+		renderRequest.setAttribute(
+			"healthcheckItemSearch", healthcheckItemSearch);
 		renderRequest.setAttribute("numberOfFailedHealthchecks", failed);
 		renderRequest.setAttribute("numberOfIgnoredHealthchecks", ignored);
 		renderRequest.setAttribute("numberOfSucceededHealthchecks", succeeded);
@@ -251,27 +331,34 @@ public class HealthcheckWebPortlet extends MVCPortlet {
 				themeDisplay.getCompanyId()
 			) && Objects.equals(actionRequest.getMethod(), "POST")) {
 
-			String key = ParamUtil.getString(actionRequest, "ignore");
-
-			PortletPreferences portletPreferences =
-				actionRequest.getPreferences();
-
-			String[] ignoredArray = portletPreferences.getValues(
-				"ignore", new String[0]);
+			_healthcheckIgnoreList.ignore(
+				themeDisplay.getCompanyId(),
+				_getSourceKeys(actionRequest, "ignore"));
+		}
+	}
 
-			Set<String> ignoredKeys = new HashSet<>(
-				Arrays.asList(ignoredArray));
+	public void resetIgnore(
+			ActionRequest actionRequest, ActionResponse actionResponse)
+		throws IOException, PortletException {
 
-			ignoredKeys.add(key);
+		ThemeDisplay themeDisplay = (ThemeDisplay)actionRequest.getAttribute(
+			WebKeys.THEME_DISPLAY);
 
-			portletPreferences.setValues(
-				"ignore", (String[])ignoredKeys.toArray(new String[0]));
+		if (themeDisplay.getPermissionChecker(
+			).isCompanyAdmin(
+				themeDisplay.getCompanyId()
+			)) {
 
-			portletPreferences.store();
+			_healthcheckIgnoreList.reset(themeDisplay.getCompanyId());
 		}
 	}
 
-	public void resetIgnore(
+	/**
+	 * Runs the Healthchecks for all active companies at once and registers
+	 * the results as their snapshots, which the all instances view renders
+	 * afterwards
+	 */
+	public void runAllInstancesHealthchecks(
 			ActionRequest actionRequest, ActionResponse actionResponse)
 		throws IOException, PortletException {
 
@@ -279,17 +366,122 @@ public class HealthcheckWebPortlet extends MVCPortlet {
 			WebKeys.THEME_DISPLAY);
 
 		if (themeDisplay.getPermissionChecker(
+			).isOmniadmin() &&
+			Objects.equals(actionRequest.getMethod(), "POST")) {
+
+			List<Company> companies = _getActiveCompanies();
+
+			long[] companyIds = new long[companies.size()];
+
+			for (int i = 0; i < companyIds.length; i++) {
+				Company company = companies.get(i);
+
+				companyIds[i] = company.getCompanyId();
+			}
+
+			_healthcheckRegistry.runHealthchecks(companyIds);
+		}
+
+		actionResponse.getRenderParameters(
+		).setValue(
+			"allInstances", "true"
+		);
+	}
+
+	@Override
+	public void serveResource(
+			ResourceRequest resourceRequest, ResourceResponse resourceResponse)
+		throws IOException, PortletException {
+
+		if (!Objects.equals(
+				resourceRequest.getResourceID(), "streamHealthchecks")) {
+
+			super.serveResource(resourceRequest, resourceResponse);
+
+			return;
+		}
+
+		ThemeDisplay themeDisplay = (ThemeDisplay)resourceRequest.getAttribute(
+			WebKeys.THEME_DISPLAY);
+
+		if (!themeDisplay.getPermissionChecker(
 			).isCompanyAdmin(
 				themeDisplay.getCompanyId()
 			)) {
 
-			PortletPreferences portletPreferences =
-				actionRequest.getPreferences();
-
-			portletPreferences.setValues("ignore", new String[0]);
+			resourceResponse.setProperty(
+				ResourceResponse.HTTP_STATUS_CODE,
+				String.valueOf(HttpServletResponse.SC_FORBIDDEN));
 
-			portletPreferences.store();
+			return;
 		}
+
+		HealthcheckIgnores healthcheckIgnores =
+			_healthcheckIgnoreList.getHealthcheckIgnores(
+				themeDisplay.getCompanyId());
+		Locale locale = themeDisplay.getLocale();
+
+		resourceResponse.setCharacterEncoding(StringPool.UTF8);
+		resourceResponse.setContentType("application/x-ndjson");
+
+		PrintWriter printWriter = resourceResponse.getWriter();
+
+		// One JSON object per line and Healthcheck item, flushed as soon as a
+		// Healthcheck completes, so that the browser can render the fastest
+		// results while the slower ones are still running
+
+		HealthcheckSnapshot healthcheckSnapshot =
+			_healthcheckRegistry.runHealthchecks(
+				themeDisplay.getCompanyId(),
+				healthcheckResult -> {
+					for (HealthcheckItem healthcheckItem :
+							healthcheckResult.getHealthcheckItems()) {
+
+						LocalizedHealthcheckItem localizedHealthcheckItem =
+							_localize(
+								locale, healthcheckResult, healthcheckItem);
+
+						printWriter.println(
+							JSONUtil.put(
+								"additionalDocumentation",
+								JSONUtil.putAll(
+									localizedHealthcheckItem.
+										getAdditionalDocumentation(
+										).toArray())
+							).put(
+								"category",
+								localizedHealthcheckItem.getCategory()
+							).put(
+								"clusterNodeName",
+								localizedHealthcheckItem.getClusterNodeName()
+							).put(
+								"ignored",
+								healthcheckIgnores.contains(
+									localizedHealthcheckItem.getSourceKey())
+							).put(
+								"link", localizedHealthcheckItem.getLink()
+							).put(
+								"message", localizedHealthcheckItem.getMessage()
+							).put(
+								"sourceKey",
+								localizedHealthcheckItem.getSourceKey()
+							).put(
+								"success", localizedHealthcheckItem.isSuccess()
+							));
+					}
+
+					printWriter.flush();
+				});
+
+		printWriter.println(
+			JSONUtil.put(
+				"lastRun",
+				_language.format(
+					locale, "last-run-x",
+					_formatDate(
+						themeDisplay, healthcheckSnapshot.getCreateTime()))));
+
+		printWriter.flush();
 	}
 
 	public void unignoreMessage(
@@ -304,72 +496,98 @@ public class HealthcheckWebPortlet extends MVCPortlet {
 				themeDisplay.getCompanyId()
 			) && Objects.equals(actionRequest.getMethod(), "POST")) {
 
-			String key = ParamUtil.getString(actionRequest, "unignore");
+			_healthcheckIgnoreList.unignore(
+				themeDisplay.getCompanyId(),
+				_getSourceKeys(actionRequest, "unignore"));
 
-			PortletPreferences portletPreferences =
-				actionRequest.getPreferences();
+			actionResponse.getRenderParameters(
+			).setValue(
+				"showIgnored", "true"
+			);
+		}
+	}
 
-			String[] ignoredArray = portletPreferences.getValues(
-				"ignore", new String[0]);
+	private String _formatDate(ThemeDisplay themeDisplay, long time) {
+		Format format = FastDateFormatFactoryUtil.getDateTime(
+			themeDisplay.getLocale(), themeDisplay.getTimeZone());
 
-			Set<String> ignoredKeys = new HashSet<>(
-				Arrays.asList(ignoredArray));
+		return format.format(new Date(time));
+	}
 
-			ignoredKeys.remove(key);
+	private List<Company> _getActiveCompanies() {
+		List<Company> companies = new ArrayList<>();
 
-			portletPreferences.setValues(
-				"ignore", (String[])ignoredKeys.toArray(new String[0]));
+		for (Company company : _companyLocalService.getCompanies()) {
+			if (company.isActive()) {
+				companies.add(company);
+			}
+		}
 
-			portletPreferences.store();
+		companies.sort(Comparator.comparing(Company::getWebId));
 
-			actionResponse.getRenderParameters(
-			).setValue(
-				"showIgnored", "true"
-			);
-		}
+		return companies;
 	}
 
-	@Activate
-	protected void activate(BundleContext bundleContext) {
-		_serviceTrackerList = ServiceTrackerListFactory.open(
-			bundleContext, Healthcheck.class,
-			new PropertyServiceReferenceComparator<>("service.ranking"));
+	/**
+	 * @return the key that groups the items of a Healthcheck with the same
+	 *         message key and outcome
+	 */
+	private String _getGroupKey(
+		Healthcheck healthcheck, HealthcheckItem healthcheckItem,
+		boolean ignored) {
+
+		Class<?> clazz = healthcheck.getClass();
+
+		return StringBundler.concat(
+			clazz.getName(), StringPool.POUND, healthcheckItem.getMessageKey(),
+			StringPool.POUND, healthcheckItem.isSuccess(), StringPool.POUND,
+			ignored);
 	}
 
-	@Deactivate
-	protected void deactivate() {
-		_serviceTrackerList.close();
+	/**
+	 * @return the source keys of the given parameter, which single item
+	 *         buttons use, and of the checked boxes for bulk changes
+	 */
+	private Set<String> _getSourceKeys(
+		ActionRequest actionRequest, String name) {
+
+		Set<String> sourceKeys = new HashSet<>();
+
+		Collections.addAll(
+			sourceKeys, ParamUtil.getStringValues(actionRequest, name));
+		Collections.addAll(
+			sourceKeys, ParamUtil.getStringValues(actionRequest, "sourceKey"));
+
+		sourceKeys.remove(StringPool.BLANK);
+
+		return sourceKeys;
 	}
 
-	private void _localize(
-		Locale locale, Collection<HealthcheckItem> healthcheckItems,
-		Healthcheck healthcheck,
-		List<LocalizedHealthcheckItem> localizedHealthcheckItems) {
-
-		for (HealthcheckItem healthcheckItem : healthcheckItems) {
-			String key = healthcheckItem.getMessageKey();
-			Object[] parameters = healthcheckItem.getMessageParameters();
-
-			localizedHealthcheckItems.add(
-				new LocalizedHealthcheckItem(
-					healthcheckItem.isSuccess(),
-					_lookup(locale, healthcheck, healthcheck.getCategory()),
-					_lookup(locale, healthcheck, key, parameters),
-					healthcheckItem.getLink(), healthcheckItem.getSourceKey(),
-					healthcheckItem.getAdditionalDocumentation()));
-		}
+	private LocalizedHealthcheckItem _localize(
+		Locale locale, HealthcheckResult healthcheckResult,
+		HealthcheckItem healthcheckItem) {
+
+		Healthcheck healthcheck = healthcheckResult.getHealthcheck();
+
+		return new LocalizedHealthcheckItem(
+			healthcheckItem.isSuccess(),
+			_lookup(locale, healthcheck, healthcheck.getCategory()),
+			_lookup(
+				locale, healthcheck, healthcheckItem.getMessageKey(),
+				healthcheckItem.getMessageParameters()),
+			healthcheckItem.getLink(), healthcheckItem.getSourceKey(),
+			healthcheckItem.getAdditionalDocumentation(),
+			healthcheckResult.getClusterNodeName());
 	}
 
 	private String _lookup(
 		Locale locale, Healthcheck healthcheck, String key,
 		Object... parameters) {
 
-		String message = ResourceBundleUtil.getString(
-			ResourceBundleUtil.getBundle(
-				locale,
-				healthcheck.getClass(
-				).getClassLoader()),
-			key, parameters);
+		Class<?> clazz = healthcheck.getClass();
+
+		String message = _healthcheckMessageCache.format(
+			locale, clazz.getClassLoader(), key, parameters);
 
 		if (message == null) {
 			message = _language.format(locale, key, parameters);
@@ -382,15 +600,107 @@ public class HealthcheckWebPortlet extends MVCPortlet {
 		return message;
 	}
 
+	/**
+	 * Arranges the latest snapshots of all active companies as a matrix, with
+	 * one row per Healthcheck and one column per company. Companies without
+	 * a snapshot get empty cells. Rendering never runs the Healthchecks, see
+	 * runAllInstancesHealthchecks.
+	 */
+	private void _prepareAllInstances(
+		RenderRequest renderRequest, ThemeDisplay themeDisplay) {
+
+		List<Company> companies = _getActiveCompanies();
+		Locale locale = themeDisplay.getLocale();
+
+		Map<Long, String> healthcheckSnapshotCreateDates = new HashMap<>();
+		Map<String, HealthcheckMatrixRow> healthcheckMatrixRows =
+			new LinkedHashMap<>();
+
+		for (int i = 0; i < companies.size(); i++) {
+			Company company = companies.get(i);
+
+			HealthcheckSnapshot healthcheckSnapshot =
+				_healthcheckRegistry.getHealthcheckSnapshot(
+					company.getCompanyId());
+
+			if (healthcheckSnapshot == null) {
+				continue;
+			}
+
+			healthcheckSnapshotCreateDates.put(
+				company.getCompanyId(),
+				_formatDate(
+					themeDisplay, healthcheckSnapshot.getCreateTime()));
+
+			for (HealthcheckResult healthcheckResult :
+					healthcheckSnapshot.getHealthcheckResults()) {
+
+				Healthcheck healthcheck = healthcheckResult.getHealthcheck();
+
+				Class<?> clazz = healthcheck.getClass();
+
+				HealthcheckMatrixRow healthcheckMatrixRow =
+					healthcheckMatrixRows.computeIfAbsent(
+						clazz.getName(),
+						key -> new HealthcheckMatrixRow(
+							_lookup(
+								locale, healthcheck, healthcheck.getCategory()),
+							clazz.getSimpleName(), companies.size()));
+
+				HealthcheckMatrixCell healthcheckMatrixCell =
+					healthcheckMatrixRow.getHealthcheckMatrixCell(i);
+
+				for (HealthcheckItem healthcheckItem :
+						healthcheckResult.getHealthcheckItems()) {
+
+					healthcheckMatrixCell.add(
+						_localize(locale, healthcheckResult, healthcheckItem));
+				}
+			}
+		}
+
+		List<HealthcheckMatrixRow> sortedHealthcheckMatrixRows =
+			new ArrayList<>(healthcheckMatrixRows.values());
+
+		sortedHealthcheckMatrixRows.sort(
+			Comparator.comparing(
+				HealthcheckMatrixRow::getCategory
+			).thenComparing(
+				HealthcheckMatrixRow::getName
+			));
+
+		renderRequest.setAttribute("companies", companies);
+		renderRequest.setAttribute(
+			"healthcheckMatrixRows", sortedHealthcheckMatrixRows);
+		renderRequest.setAttribute(
+			"healthcheckSnapshotCreateDates", healthcheckSnapshotCreateDates);
+	}
+
 	private static final Log _log = LogFactoryUtil.getLog(
 		HealthcheckWebPortlet.class);
 
+	@Reference
+	private CompanyLocalService _companyLocalService;
+
+	@Reference
+	private HealthcheckExecutor _healthcheckExecutor;
+
+	@Reference
+	private HealthcheckHistory _healthcheckHistory;
+
+	@Reference
+	private HealthcheckIgnoreList _healthcheckIgnoreList;
+
+	@Reference
+	private HealthcheckMessageCache _healthcheckMessageCache;
+
+	@Reference
+	private HealthcheckRegistry _healthcheckRegistry;
+
 	@Reference
 	private Language _language;
 
 	@Reference
 	private Portal _portal;
 
-	private ServiceTrackerList<Healthcheck> _serviceTrackerList;
-
 }
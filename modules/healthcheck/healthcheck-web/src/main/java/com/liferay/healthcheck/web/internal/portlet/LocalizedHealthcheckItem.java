@@ -16,12 +16,23 @@ public class LocalizedHealthcheckItem {
 		boolean success, String category, String message, String link,
 		String sourceKey, Collection<String> additionalDocumentation) {
 
+		this(
+			success, category, message, link, sourceKey,
+			additionalDocumentation, null);
+	}
+
+	public LocalizedHealthcheckItem(
+		boolean success, String category, String message, String link,
+		String sourceKey, Collection<String> additionalDocumentation,
+		String clusterNodeName) {
+
 		_success = success;
 		_category = category;
 		_message = message;
 		_additionalDocumentation = additionalDocumentation;
 		_link = link;
 		_sourceKey = sourceKey;
+		_clusterNodeName = clusterNodeName;
 	}
 
 	public String getCategory() {
@@ -31,6 +42,14 @@ public class LocalizedHealthcheckItem {
 	public Collection<String> getAdditionalDocumentation() {
 		return _additionalDocumentation;
 	}
+
+	/**
+	 * @return the cluster node that reported this item, or null if the
+	 *         Healthchecks did not run cluster wide
+	 */
+	public String getClusterNodeName() {
+		return _clusterNodeName;
+	}
 	
 	public String getLink() {
 		return _link;
@@ -50,6 +69,7 @@ public class LocalizedHealthcheckItem {
 
 	private final String _category;
 	private final Collection<String> _additionalDocumentation;
+	private final String _clusterNodeName;
 	private final String _link;
 	private final String _message;
 	private final String _sourceKey;
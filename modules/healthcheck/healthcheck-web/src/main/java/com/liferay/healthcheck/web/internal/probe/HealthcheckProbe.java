@@ -0,0 +1,275 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.probe;
+
+import com.liferay.healthcheck.Healthcheck;
+import com.liferay.healthcheck.HealthcheckItem;
+import com.liferay.healthcheck.web.internal.configuration.HealthcheckWebConfiguration;
+import com.liferay.healthcheck.web.internal.executor.HealthcheckExecutor;
+import com.liferay.healthcheck.web.internal.executor.HealthcheckResult;
+import com.liferay.healthcheck.web.internal.ignore.HealthcheckIgnoreList;
+import com.liferay.healthcheck.web.internal.ignore.HealthcheckIgnoreListListener;
+import com.liferay.healthcheck.web.internal.ignore.HealthcheckIgnores;
+import com.liferay.petra.string.StringBundler;
+import com.liferay.portal.configuration.metatype.bnd.util.ConfigurableUtil;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.service.CompanyLocalService;
+import com.liferay.portal.kernel.util.NamedThreadFactory;
+import com.liferay.portal.kernel.util.SetUtil;
+import com.liferay.portal.kernel.util.Validator;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Decides whether this cluster node is healthy enough to receive traffic,
+ * based on the configured Healthchecks. Every cluster node runs them locally
+ * in the background, as the scheduled run and the UI only register snapshots
+ * on the node that executed them. The response is built after every run and
+ * swapped atomically, so that probes never run a Healthcheck.
+ *
+ * Until the first run completed, the node is reported as healthy, so that
+ * a restart of the whole cluster does not take all nodes out of the load
+ * balancer. Optionally, the node is reported as unavailable when the latest
+ * run is older than three intervals, e.g. because the node is too busy to
+ * run them. The runs only take place while a probe token is configured.
+ *
+ * @author Olaf Kock
+ */
+@Component(
+	configurationPid = "com.liferay.healthcheck.web.internal.configuration.HealthcheckWebConfiguration",
+	service = {HealthcheckIgnoreListListener.class, HealthcheckProbe.class}
+)
+public class HealthcheckProbe implements HealthcheckIgnoreListListener {
+
+	public HealthcheckProbeResponse getHealthcheckProbeResponse() {
+		HealthcheckProbeResponse healthcheckProbeResponse =
+			_healthcheckProbeResponse;
+
+		if (healthcheckProbeResponse == null) {
+			return _UNKNOWN_HEALTHCHECK_PROBE_RESPONSE;
+		}
+
+		if (_staleRunUnavailable &&
+			((System.currentTimeMillis() -
+				healthcheckProbeResponse.getRunTime()) > _maxAge)) {
+
+			return _STALE_HEALTHCHECK_PROBE_RESPONSE;
+		}
+
+		return healthcheckProbeResponse;
+	}
+
+	@Override
+	public synchronized void onHealthcheckIgnoreListChanged(long companyId) {
+		_update();
+	}
+
+	@Activate
+	protected void activate(Map<String, Object> properties) {
+		_scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(
+			new NamedThreadFactory(
+				"Healthcheck Probe", Thread.NORM_PRIORITY,
+				HealthcheckProbe.class.getClassLoader()));
+
+		modified(properties);
+	}
+
+	@Deactivate
+	protected void deactivate() {
+		_scheduledExecutorService.shutdownNow();
+	}
+
+	@Modified
+	protected synchronized void modified(Map<String, Object> properties) {
+		HealthcheckWebConfiguration healthcheckWebConfiguration =
+			ConfigurableUtil.createConfigurable(
+				HealthcheckWebConfiguration.class, properties);
+
+		int probeInterval = Math.max(
+			1, healthcheckWebConfiguration.probeInterval());
+
+		_maxAge = TimeUnit.SECONDS.toMillis(probeInterval * 3L);
+		_probeHealthchecks = SetUtil.fromArray(
+			healthcheckWebConfiguration.probeHealthchecks());
+		_staleRunUnavailable =
+			healthcheckWebConfiguration.probeStaleRunUnavailable();
+
+		if (_scheduledFuture != null) {
+			_scheduledFuture.cancel(false);
+
+			_scheduledFuture = null;
+		}
+
+		// Results of other Healthchecks must not decide the response, not
+		// even those of a run that is still in progress
+
+		_generation++;
+		_healthcheckProbeResponse = null;
+		_healthcheckResults = null;
+
+		if (Validator.isNull(healthcheckWebConfiguration.probeToken())) {
+			return;
+		}
+
+		_scheduledFuture = _scheduledExecutorService.scheduleWithFixedDelay(
+			this::_run, 0, probeInterval, TimeUnit.SECONDS);
+	}
+
+	private boolean _isProbeHealthcheck(
+		Healthcheck healthcheck, Set<String> probeHealthchecks) {
+
+		Class<?> clazz = healthcheck.getClass();
+
+		if (probeHealthchecks.contains(clazz.getName()) ||
+			probeHealthchecks.contains(clazz.getSimpleName())) {
+
+			return true;
+		}
+
+		return false;
+	}
+
+	private void _run() {
+
+		// An exception would suppress all further runs
+
+		try {
+			int generation;
+			Set<String> probeHealthchecks;
+
+			synchronized (this) {
+				generation = _generation;
+				probeHealthchecks = _probeHealthchecks;
+			}
+
+			Map<Long, List<HealthcheckResult>> healthcheckResults =
+				_healthcheckExecutor.execute(
+					trackedHealthcheck -> _isProbeHealthcheck(
+						trackedHealthcheck.getHealthcheck(),
+						probeHealthchecks),
+					_companyLocalService.getCompanyIds());
+
+			synchronized (this) {
+				if (generation != _generation) {
+					return;
+				}
+
+				_healthcheckResults = healthcheckResults;
+				_runTime = System.currentTimeMillis();
+
+				_update();
+			}
+		}
+		catch (Exception exception) {
+			_log.error(
+				"Unable to run the healthchecks for load balancer probes",
+				exception);
+		}
+	}
+
+	private void _update() {
+		if (_healthcheckResults == null) {
+			return;
+		}
+
+		Set<String> failures = new TreeSet<>();
+
+		for (Map.Entry<Long, List<HealthcheckResult>> entry :
+				_healthcheckResults.entrySet()) {
+
+			HealthcheckIgnores healthcheckIgnores =
+				_healthcheckIgnoreList.getHealthcheckIgnores(entry.getKey());
+
+			for (HealthcheckResult healthcheckResult : entry.getValue()) {
+				for (HealthcheckItem healthcheckItem :
+						healthcheckResult.getHealthcheckItems()) {
+
+					if (!healthcheckItem.isSuccess() &&
+						!healthcheckIgnores.contains(healthcheckItem)) {
+
+						Healthcheck healthcheck =
+							healthcheckResult.getHealthcheck();
+
+						Class<?> clazz = healthcheck.getClass();
+
+						failures.add(clazz.getName());
+					}
+				}
+			}
+		}
+
+		if (failures.isEmpty()) {
+			_healthcheckProbeResponse = new HealthcheckProbeResponse(
+				HttpServletResponse.SC_OK, "OK\n", _runTime);
+
+			return;
+		}
+
+		StringBundler sb = new StringBundler((failures.size() * 2) + 1);
+
+		sb.append("FAILED\n");
+
+		for (String failure : failures) {
+			sb.append(failure);
+			sb.append("\n");
+		}
+
+		_healthcheckProbeResponse = new HealthcheckProbeResponse(
+			HttpServletResponse.SC_SERVICE_UNAVAILABLE, sb.toString(),
+			_runTime);
+	}
+
+	private static final HealthcheckProbeResponse
+		_STALE_HEALTHCHECK_PROBE_RESPONSE = new HealthcheckProbeResponse(
+			HttpServletResponse.SC_SERVICE_UNAVAILABLE, "STALE\n", 0);
+
+	private static final HealthcheckProbeResponse
+		_UNKNOWN_HEALTHCHECK_PROBE_RESPONSE = new HealthcheckProbeResponse(
+			HttpServletResponse.SC_OK, "UNKNOWN\n", 0);
+
+	private static final Log _log = LogFactoryUtil.getLog(
+		HealthcheckProbe.class);
+
+	@Reference
+	private CompanyLocalService _companyLocalService;
+
+	// Counts the configuration changes, only accessed while holding the lock
+	// on this instance
+
+	private int _generation;
+
+	@Reference
+	private HealthcheckExecutor _healthcheckExecutor;
+
+	@Reference
+	private HealthcheckIgnoreList _healthcheckIgnoreList;
+
+	private volatile HealthcheckProbeResponse _healthcheckProbeResponse;
+	private Map<Long, List<HealthcheckResult>> _healthcheckResults;
+	private volatile long _maxAge;
+	private volatile Set<String> _probeHealthchecks;
+	private long _runTime;
+	private ScheduledExecutorService _scheduledExecutorService;
+	private ScheduledFuture<?> _scheduledFuture;
+	private volatile boolean _staleRunUnavailable;
+
+}
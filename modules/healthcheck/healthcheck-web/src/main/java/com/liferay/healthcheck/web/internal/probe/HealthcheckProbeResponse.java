@@ -0,0 +1,48 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.probe;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A complete, immutable probe response, built once after a run, so that
+ * answering a probe does not allocate anything.
+ *
+ * @author Olaf Kock
+ */
+public class HealthcheckProbeResponse {
+
+	public HealthcheckProbeResponse(int status, String body, long runTime) {
+		_status = status;
+		_body = body.getBytes(StandardCharsets.UTF_8);
+		_runTime = runTime;
+	}
+
+	/**
+	 * @return the response body. The array is shared and must not be
+	 *         modified.
+	 */
+	public byte[] getBody() {
+		return _body;
+	}
+
+	/**
+	 * @return the time of the run that this response is based on, or 0 if it
+	 *         is not based on a run
+	 */
+	public long getRunTime() {
+		return _runTime;
+	}
+
+	public int getStatus() {
+		return _status;
+	}
+
+	private final byte[] _body;
+	private final long _runTime;
+	private final int _status;
+
+}
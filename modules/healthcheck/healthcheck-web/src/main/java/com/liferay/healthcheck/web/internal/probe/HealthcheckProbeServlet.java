@@ -0,0 +1,99 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.probe;
+
+import com.liferay.healthcheck.web.internal.configuration.HealthcheckWebConfiguration;
+import com.liferay.healthcheck.web.internal.servlet.BearerTokenUtil;
+import com.liferay.portal.configuration.metatype.bnd.util.ConfigurableUtil;
+
+import java.io.IOException;
+
+import java.util.Map;
+
+import javax.servlet.Servlet;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Answers load balancer and container orchestrator probes at
+ * /o/healthcheck/probe with 200 or 503, from the response that
+ * HealthcheckProbe prepared. Clients need to send the configured token as
+ * bearer token. Without a configured token, the endpoint is disabled.
+ *
+ * @author Olaf Kock
+ */
+@Component(
+	configurationPid = "com.liferay.healthcheck.web.internal.configuration.HealthcheckWebConfiguration",
+	property = {
+		"osgi.http.whiteboard.servlet.name=com.liferay.healthcheck.web.internal.probe.HealthcheckProbeServlet",
+		"osgi.http.whiteboard.servlet.pattern=/healthcheck/probe"
+	},
+	service = Servlet.class
+)
+public class HealthcheckProbeServlet extends HttpServlet {
+
+	@Activate
+	@Modified
+	protected void activate(Map<String, Object> properties) {
+		HealthcheckWebConfiguration healthcheckWebConfiguration =
+			ConfigurableUtil.createConfigurable(
+				HealthcheckWebConfiguration.class, properties);
+
+		_authorization = BearerTokenUtil.getAuthorization(
+			healthcheckWebConfiguration.probeToken());
+	}
+
+	@Override
+	protected void doGet(
+			HttpServletRequest httpServletRequest,
+			HttpServletResponse httpServletResponse)
+		throws IOException {
+
+		String authorization = _authorization;
+
+		if (authorization == null) {
+			httpServletResponse.sendError(HttpServletResponse.SC_NOT_FOUND);
+
+			return;
+		}
+
+		if (!BearerTokenUtil.isAuthorized(authorization, httpServletRequest)) {
+			httpServletResponse.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+
+			return;
+		}
+
+		HealthcheckProbeResponse healthcheckProbeResponse =
+			_healthcheckProbe.getHealthcheckProbeResponse();
+
+		byte[] body = healthcheckProbeResponse.getBody();
+
+		httpServletResponse.setContentLength(body.length);
+		httpServletResponse.setContentType(_CONTENT_TYPE);
+		httpServletResponse.setHeader("Cache-Control", "no-store");
+		httpServletResponse.setStatus(healthcheckProbeResponse.getStatus());
+
+		ServletOutputStream servletOutputStream =
+			httpServletResponse.getOutputStream();
+
+		servletOutputStream.write(body);
+	}
+
+	private static final String _CONTENT_TYPE = "text/plain; charset=utf-8";
+
+	private volatile String _authorization;
+
+	@Reference
+	private HealthcheckProbe _healthcheckProbe;
+
+}
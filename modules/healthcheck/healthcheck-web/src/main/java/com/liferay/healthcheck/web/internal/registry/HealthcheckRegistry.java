@@ -1,23 +1,469 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
 package com.liferay.healthcheck.web.internal.registry;
 
+import com.liferay.healthcheck.Healthcheck;
+import com.liferay.healthcheck.HealthcheckItem;
+import com.liferay.healthcheck.web.internal.cluster.ClusterHealthcheckExecutor;
+import com.liferay.healthcheck.web.internal.executor.HealthcheckResult;
+import com.liferay.healthcheck.web.internal.ignore.HealthcheckIgnoreList;
+import com.liferay.healthcheck.web.internal.ignore.HealthcheckIgnoreListListener;
+import com.liferay.healthcheck.web.internal.ignore.HealthcheckIgnores;
+import com.liferay.osgi.service.tracker.collections.list.ServiceTrackerList;
+import com.liferay.osgi.service.tracker.collections.list.ServiceTrackerListFactory;
+import com.liferay.petra.string.StringBundler;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.model.CompanyConstants;
+import com.liferay.portal.kernel.util.ArrayUtil;
+import com.liferay.portal.kernel.util.GetterUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.osgi.framework.BundleContext;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
 
+/**
+ * Keeps the latest HealthcheckSnapshot per company, so that the UI and other
+ * consumers don't need to run the Healthchecks themselves. In a cluster, a
+ * snapshot contains the results of all cluster nodes.
+ *
+ * Every registered snapshot is handed to all HealthcheckSnapshotListener
+ * services, so that they can precompute whatever they derive from it.
+ *
+ * @author Olaf Kock
+ */
 @Component(
-		immediate=true, 
-		service=HealthcheckRegistry.class
+	immediate = true,
+	service = {HealthcheckIgnoreListListener.class, HealthcheckRegistry.class}
 )
-public class HealthcheckRegistry {
-    public void registerHealthcheckResult(int failures) {
-        _lastFailures = failures;
-    }
-    
-    public int getHealthcheckResult() {
-        return _lastFailures;
-    }
-    
-    public boolean didRun() {
-        return _lastFailures != -1;
-    }
-    
-    private int _lastFailures = -1;
+public class HealthcheckRegistry implements HealthcheckIgnoreListListener {
+
+	/**
+	 * @return the latest snapshot for the given company, or null if the
+	 *         healthchecks did not run for it yet
+	 */
+	public HealthcheckSnapshot getHealthcheckSnapshot(long companyId) {
+		return _healthcheckSnapshots.get(companyId);
+	}
+
+	/**
+	 * @param  companyId the company, boxed, so that callers that already hold
+	 *         a Long, like a request attribute, don't need to box it again
+	 * @return the summary of the latest snapshot for the given company, or
+	 *         null if the healthchecks did not run for it yet. This is a
+	 *         single map lookup, cheap enough for every page render.
+	 */
+	public HealthcheckSummary getHealthcheckSummary(Long companyId) {
+		return _healthcheckSummaries.get(companyId);
+	}
+
+	/**
+	 * Updates the company's summary and notifies the listeners again about
+	 * the company's snapshot, so that they can update what they derived from
+	 * its ignored items.
+	 */
+	@Override
+	public void onHealthcheckIgnoreListChanged(long companyId) {
+		HealthcheckSnapshot healthcheckSnapshot = _healthcheckSnapshots.get(
+			companyId);
+
+		if (healthcheckSnapshot != null) {
+			_publish(healthcheckSnapshot);
+		}
+	}
+
+	/**
+	 * Runs only the Healthchecks with the given class names again, e.g.
+	 * after a change invalidated their results, and registers snapshots in
+	 * which their previous results are replaced. Only companies that already
+	 * have a snapshot are refreshed: Their first run executes all Healthchecks
+	 * anyway. A snapshot that was replaced by a complete run in the meantime
+	 * is left alone.
+	 *
+	 * Refreshed snapshots get the time of the refresh as their create time,
+	 * so that listeners can tell them from a snapshot that is only published
+	 * again.
+	 *
+	 * @param companyId the company to refresh, or CompanyConstants.SYSTEM to
+	 *        refresh all companies
+	 */
+	public void refreshHealthchecks(long companyId, Set<String> classNames) {
+		if (classNames.isEmpty()) {
+			return;
+		}
+
+		Map<Long, HealthcheckSnapshot> healthcheckSnapshots = new HashMap<>();
+
+		if (companyId == CompanyConstants.SYSTEM) {
+			healthcheckSnapshots.putAll(_healthcheckSnapshots);
+		}
+		else {
+			HealthcheckSnapshot healthcheckSnapshot = _healthcheckSnapshots.get(
+				companyId);
+
+			if (healthcheckSnapshot != null) {
+				healthcheckSnapshots.put(companyId, healthcheckSnapshot);
+			}
+		}
+
+		if (healthcheckSnapshots.isEmpty()) {
+			return;
+		}
+
+		if (_log.isDebugEnabled()) {
+			_log.debug(
+				StringBundler.concat(
+					"Refreshing healthchecks ", classNames, " for ",
+					healthcheckSnapshots.size(), " companies"));
+		}
+
+		long createTime = System.currentTimeMillis();
+
+		long[] companyIds = ArrayUtil.toLongArray(
+			healthcheckSnapshots.keySet());
+
+		Map<Long, List<HealthcheckResult>> healthcheckResults =
+			_clusterHealthcheckExecutor.execute(companyIds, classNames);
+
+		for (Map.Entry<Long, HealthcheckSnapshot> entry :
+				healthcheckSnapshots.entrySet()) {
+
+			HealthcheckSnapshot healthcheckSnapshot = entry.getValue();
+
+			HealthcheckSnapshot refreshedHealthcheckSnapshot =
+				new HealthcheckSnapshot(
+					entry.getKey(),
+					Math.max(
+						createTime, healthcheckSnapshot.getCreateTime() + 1),
+					healthcheckSnapshot.getDuration(),
+					_merge(
+						healthcheckSnapshot.getHealthcheckResults(),
+						healthcheckResults.getOrDefault(
+							entry.getKey(), Collections.emptyList()),
+						classNames));
+
+			if (_healthcheckSnapshots.replace(
+					entry.getKey(), healthcheckSnapshot,
+					refreshedHealthcheckSnapshot)) {
+
+				_publish(refreshedHealthcheckSnapshot);
+			}
+		}
+	}
+
+	/**
+	 * Registers the snapshot as the company's current one, unless a newer
+	 * snapshot was registered in the meantime, e.g. by a run that started
+	 * later but completed first. Only a registered snapshot is handed to the
+	 * listeners.
+	 */
+	public void registerHealthcheckSnapshot(
+		HealthcheckSnapshot healthcheckSnapshot) {
+
+		HealthcheckSnapshot registeredHealthcheckSnapshot =
+			_healthcheckSnapshots.merge(
+				healthcheckSnapshot.getCompanyId(), healthcheckSnapshot,
+				(oldHealthcheckSnapshot, newHealthcheckSnapshot) -> {
+					if (oldHealthcheckSnapshot.getCreateTime() >
+							newHealthcheckSnapshot.getCreateTime()) {
+
+						return oldHealthcheckSnapshot;
+					}
+
+					return newHealthcheckSnapshot;
+				});
+
+		if (registeredHealthcheckSnapshot != healthcheckSnapshot) {
+			if (_log.isDebugEnabled()) {
+				_log.debug(
+					"Skipping an outdated snapshot for company " +
+						healthcheckSnapshot.getCompanyId());
+			}
+
+			return;
+		}
+
+		_publish(healthcheckSnapshot);
+	}
+
+	/**
+	 * Runs all Healthchecks for the given company and registers the result as
+	 * the company's current snapshot.
+	 */
+	public HealthcheckSnapshot runHealthchecks(long companyId) {
+		if (_log.isDebugEnabled()) {
+			_log.debug("Running healthchecks for company " + companyId);
+		}
+
+		long createTime = System.currentTimeMillis();
+
+		List<HealthcheckResult> healthcheckResults =
+			_clusterHealthcheckExecutor.execute(companyId);
+
+		HealthcheckSnapshot healthcheckSnapshot = new HealthcheckSnapshot(
+			companyId, createTime, System.currentTimeMillis() - createTime,
+			healthcheckResults);
+
+		registerHealthcheckSnapshot(healthcheckSnapshot);
+
+		return healthcheckSnapshot;
+	}
+
+	/**
+	 * Runs all Healthchecks for all given companies at once and registers the
+	 * results as the companies' current snapshots. System scoped Healthchecks
+	 * are executed only once for all of them.
+	 *
+	 * @return the snapshots, in the order of the given companies
+	 */
+	public Map<Long, HealthcheckSnapshot> runHealthchecks(long[] companyIds) {
+		if (_log.isDebugEnabled()) {
+			_log.debug(
+				"Running healthchecks for " + companyIds.length +
+					" companies");
+		}
+
+		long createTime = System.currentTimeMillis();
+
+		Map<Long, List<HealthcheckResult>> healthcheckResults =
+			_clusterHealthcheckExecutor.execute(companyIds);
+
+		long duration = System.currentTimeMillis() - createTime;
+
+		Map<Long, HealthcheckSnapshot> healthcheckSnapshots =
+			new LinkedHashMap<>();
+
+		for (long companyId : companyIds) {
+			HealthcheckSnapshot healthcheckSnapshot = new HealthcheckSnapshot(
+				companyId, createTime, duration,
+				healthcheckResults.getOrDefault(
+					companyId, Collections.emptyList()));
+
+			registerHealthcheckSnapshot(healthcheckSnapshot);
+
+			healthcheckSnapshots.put(companyId, healthcheckSnapshot);
+		}
+
+		return healthcheckSnapshots;
+	}
+
+	/**
+	 * Runs all Healthchecks for the given company, hands each result to the
+	 * consumer as soon as it is available, and finally registers all results
+	 * as the company's current snapshot.
+	 */
+	public HealthcheckSnapshot runHealthchecks(
+		long companyId, Consumer<HealthcheckResult> healthcheckResultConsumer) {
+
+		if (_log.isDebugEnabled()) {
+			_log.debug("Running healthchecks for company " + companyId);
+		}
+
+		long createTime = System.currentTimeMillis();
+		List<HealthcheckResult> healthcheckResults = new ArrayList<>();
+
+		_clusterHealthcheckExecutor.execute(
+			companyId,
+			healthcheckResult -> {
+				healthcheckResults.add(healthcheckResult);
+
+				healthcheckResultConsumer.accept(healthcheckResult);
+			});
+
+		HealthcheckSnapshot healthcheckSnapshot = new HealthcheckSnapshot(
+			companyId, createTime, System.currentTimeMillis() - createTime,
+			healthcheckResults);
+
+		registerHealthcheckSnapshot(healthcheckSnapshot);
+
+		return healthcheckSnapshot;
+	}
+
+	@Activate
+	protected void activate(BundleContext bundleContext) {
+		_serviceTrackerList = ServiceTrackerListFactory.open(
+			bundleContext, HealthcheckSnapshotListener.class);
+	}
+
+	@Deactivate
+	protected void deactivate() {
+		_serviceTrackerList.close();
+	}
+
+	private String _getClassName(HealthcheckResult healthcheckResult) {
+		Healthcheck healthcheck = healthcheckResult.getHealthcheck();
+
+		return healthcheck.getClass(
+		).getName();
+	}
+
+	/**
+	 * Replaces the previous results of the refreshed Healthchecks, on all
+	 * cluster nodes, at the position of the first of them, so that the order
+	 * of the Healthchecks doesn't change.
+	 */
+	private List<HealthcheckResult> _merge(
+		List<HealthcheckResult> healthcheckResults,
+		List<HealthcheckResult> refreshedHealthcheckResults,
+		Set<String> classNames) {
+
+		Map<String, List<HealthcheckResult>> refreshedHealthcheckResultsMap =
+			new LinkedHashMap<>();
+
+		for (HealthcheckResult healthcheckResult :
+				refreshedHealthcheckResults) {
+
+			List<HealthcheckResult> classNameHealthcheckResults =
+				refreshedHealthcheckResultsMap.computeIfAbsent(
+					_getClassName(healthcheckResult),
+					key -> new ArrayList<>());
+
+			classNameHealthcheckResults.add(healthcheckResult);
+		}
+
+		List<HealthcheckResult> mergedHealthcheckResults = new ArrayList<>(
+			healthcheckResults.size());
+
+		for (HealthcheckResult healthcheckResult : healthcheckResults) {
+			String className = _getClassName(healthcheckResult);
+
+			if (!classNames.contains(className)) {
+				mergedHealthcheckResults.add(healthcheckResult);
+
+				continue;
+			}
+
+			List<HealthcheckResult> classNameHealthcheckResults =
+				refreshedHealthcheckResultsMap.remove(className);
+
+			if (classNameHealthcheckResults != null) {
+				mergedHealthcheckResults.addAll(classNameHealthcheckResults);
+			}
+		}
+
+		for (List<HealthcheckResult> classNameHealthcheckResults :
+				refreshedHealthcheckResultsMap.values()) {
+
+			mergedHealthcheckResults.addAll(classNameHealthcheckResults);
+		}
+
+		return mergedHealthcheckResults;
+	}
+
+	private void _publish(HealthcheckSnapshot healthcheckSnapshot) {
+		HealthcheckSummary healthcheckSummary = _toHealthcheckSummary(
+			healthcheckSnapshot);
+
+		// A summary of an older snapshot, e.g. from a slow refresh, must not
+		// replace the summary of a newer one
+
+		_healthcheckSummaries.merge(
+			healthcheckSnapshot.getCompanyId(), healthcheckSummary,
+			(oldHealthcheckSummary, newHealthcheckSummary) -> {
+				if (oldHealthcheckSummary.getLastRunTime() >
+						newHealthcheckSummary.getLastRunTime()) {
+
+					return oldHealthcheckSummary;
+				}
+
+				return newHealthcheckSummary;
+			});
+
+		for (HealthcheckSnapshotListener healthcheckSnapshotListener :
+				_serviceTrackerList) {
+
+			try {
+				healthcheckSnapshotListener.onHealthcheckSnapshot(
+					healthcheckSnapshot);
+			}
+			catch (Exception exception) {
+				_log.error(
+					"Unable to notify " + healthcheckSnapshotListener,
+					exception);
+			}
+		}
+	}
+
+	private HealthcheckSummary _toHealthcheckSummary(
+		HealthcheckSnapshot healthcheckSnapshot) {
+
+		HealthcheckIgnores healthcheckIgnores =
+			_healthcheckIgnoreList.getHealthcheckIgnores(
+				healthcheckSnapshot.getCompanyId());
+
+		Map<String, Integer> categoryFailures = new TreeMap<>();
+		int failed = 0;
+		int ignored = 0;
+
+		for (HealthcheckResult healthcheckResult :
+				healthcheckSnapshot.getHealthcheckResults()) {
+
+			for (HealthcheckItem healthcheckItem :
+					healthcheckResult.getHealthcheckItems()) {
+
+				if (healthcheckIgnores.contains(healthcheckItem)) {
+					ignored++;
+				}
+				else if (!healthcheckItem.isSuccess()) {
+					Healthcheck healthcheck =
+						healthcheckResult.getHealthcheck();
+
+					categoryFailures.merge(
+						GetterUtil.getString(healthcheck.getCategory()), 1,
+						Integer::sum);
+
+					failed++;
+				}
+			}
+		}
+
+		String worstCategory = null;
+		int worstCategoryFailures = 0;
+
+		// Categories are sorted, so that ties are resolved alphabetically
+
+		for (Map.Entry<String, Integer> entry : categoryFailures.entrySet()) {
+			if (entry.getValue() > worstCategoryFailures) {
+				worstCategory = entry.getKey();
+				worstCategoryFailures = entry.getValue();
+			}
+		}
+
+		return new HealthcheckSummary(
+			healthcheckSnapshot.getCompanyId(), failed, ignored,
+			healthcheckSnapshot.getCreateTime(), worstCategory);
+	}
+
+	private static final Log _log = LogFactoryUtil.getLog(
+		HealthcheckRegistry.class);
+
+	@Reference
+	private ClusterHealthcheckExecutor _clusterHealthcheckExecutor;
+
+	@Reference
+	private HealthcheckIgnoreList _healthcheckIgnoreList;
+
+	private final Map<Long, HealthcheckSnapshot> _healthcheckSnapshots =
+		new ConcurrentHashMap<>();
+	private final Map<Long, HealthcheckSummary> _healthcheckSummaries =
+		new ConcurrentHashMap<>();
+	private ServiceTrackerList<HealthcheckSnapshotListener>
+		_serviceTrackerList;
+
 }
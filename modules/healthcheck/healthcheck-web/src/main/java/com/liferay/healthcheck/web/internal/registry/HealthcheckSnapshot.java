@@ -0,0 +1,91 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.registry;
+
+import com.liferay.healthcheck.HealthcheckItem;
+import com.liferay.healthcheck.web.internal.executor.HealthcheckResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The immutable outcome of running all Healthchecks for one company at a
+ * given time. Snapshots are replaced as a whole, never modified.
+ *
+ * @author Olaf Kock
+ */
+public class HealthcheckSnapshot {
+
+	public HealthcheckSnapshot(
+		long companyId, long createTime, long duration,
+		List<HealthcheckResult> healthcheckResults) {
+
+		_companyId = companyId;
+		_createTime = createTime;
+		_duration = duration;
+		_healthcheckResults = Collections.unmodifiableList(
+			new ArrayList<>(healthcheckResults));
+
+		int failed = 0;
+		int succeeded = 0;
+
+		for (HealthcheckResult healthcheckResult : _healthcheckResults) {
+			for (HealthcheckItem healthcheckItem :
+					healthcheckResult.getHealthcheckItems()) {
+
+				if (healthcheckItem.isSuccess()) {
+					succeeded++;
+				}
+				else {
+					failed++;
+				}
+			}
+		}
+
+		_failed = failed;
+		_succeeded = succeeded;
+	}
+
+	public long getCompanyId() {
+		return _companyId;
+	}
+
+	public long getCreateTime() {
+		return _createTime;
+	}
+
+	/**
+	 * @return the time in milliseconds that it took to run the Healthchecks
+	 */
+	public long getDuration() {
+		return _duration;
+	}
+
+	/**
+	 * @return the number of failed items, including those that are ignored
+	 *         in the UI
+	 */
+	public int getFailed() {
+		return _failed;
+	}
+
+	public List<HealthcheckResult> getHealthcheckResults() {
+		return _healthcheckResults;
+	}
+
+	public int getSucceeded() {
+		return _succeeded;
+	}
+
+	private final long _companyId;
+	private final long _createTime;
+	private final long _duration;
+	private final int _failed;
+	private final List<HealthcheckResult> _healthcheckResults;
+	private final int _succeeded;
+
+}
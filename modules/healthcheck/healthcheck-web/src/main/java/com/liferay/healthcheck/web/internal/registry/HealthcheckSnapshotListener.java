@@ -0,0 +1,20 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.registry;
+
+/**
+ * Gets notified whenever HealthcheckRegistry registers a snapshot, or the
+ * ignored items of a company changed. Notifications happen on the thread that
+ * ran the Healthchecks, so implementations should only precompute what they
+ * need and return quickly.
+ *
+ * @author Olaf Kock
+ */
+public interface HealthcheckSnapshotListener {
+
+	public void onHealthcheckSnapshot(HealthcheckSnapshot healthcheckSnapshot);
+
+}
@@ -0,0 +1,62 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.registry;
+
+/**
+ * The key figures of a company's latest HealthcheckSnapshot, taking its
+ * ignored items into account. Summaries are mostly read by templates on every
+ * page render, therefore their values are boxed only once, when the summary
+ * is created.
+ *
+ * @author Olaf Kock
+ */
+public class HealthcheckSummary {
+
+	public HealthcheckSummary(
+		long companyId, int failed, int ignored, long lastRunTime,
+		String worstCategory) {
+
+		_companyId = companyId;
+		_failed = failed;
+		_ignored = ignored;
+		_lastRunTime = lastRunTime;
+		_worstCategory = worstCategory;
+	}
+
+	public long getCompanyId() {
+		return _companyId;
+	}
+
+	/**
+	 * @return the number of failed items, excluding the ignored ones
+	 */
+	public Integer getFailed() {
+		return _failed;
+	}
+
+	public Integer getIgnored() {
+		return _ignored;
+	}
+
+	public Long getLastRunTime() {
+		return _lastRunTime;
+	}
+
+	/**
+	 * @return the category with the most failed items, or null if no item
+	 *         failed
+	 */
+	public String getWorstCategory() {
+		return _worstCategory;
+	}
+
+	private final long _companyId;
+	private final Integer _failed;
+	private final Integer _ignored;
+	private final Long _lastRunTime;
+	private final String _worstCategory;
+
+}
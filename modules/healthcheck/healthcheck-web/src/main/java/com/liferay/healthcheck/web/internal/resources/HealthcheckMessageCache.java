@@ -0,0 +1,156 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.resources;
+
+import com.liferay.portal.kernel.util.ArrayUtil;
+import com.liferay.portal.kernel.util.ResourceBundleUtil;
+
+import java.text.MessageFormat;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.BundleListener;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+
+/**
+ * Keeps the resource bundles of Healthchecks per locale and class loader,
+ * and the message patterns compiled from them per locale and key, so that
+ * rendering many results doesn't resolve the same bundle or parse the same
+ * pattern over and over again.
+ *
+ * Redeploying a bundle replaces its class loader, and deploying a language
+ * fragment changes its host's messages. Therefore the cache is cleared
+ * whenever a bundle starts, stops, or is updated or uninstalled. This also
+ * releases the class loaders of stopped bundles.
+ *
+ * @author Olaf Kock
+ */
+@Component(service = HealthcheckMessageCache.class)
+public class HealthcheckMessageCache implements BundleListener {
+
+	@Override
+	public void bundleChanged(BundleEvent bundleEvent) {
+		int type = bundleEvent.getType();
+
+		if ((type == BundleEvent.STARTED) || (type == BundleEvent.STOPPED) ||
+			(type == BundleEvent.UNINSTALLED) ||
+			(type == BundleEvent.UPDATED)) {
+
+			_localizedMessages.clear();
+		}
+	}
+
+	/**
+	 * @param  locale the locale of the message
+	 * @param  classLoader the class loader of the Healthcheck, to find its
+	 *         <code>content.Language</code> resource bundle
+	 * @param  key the message key
+	 * @param  parameters the parameters to format the message with
+	 * @return the formatted message, or null if the Healthcheck's resource
+	 *         bundle doesn't contain the key
+	 */
+	public String format(
+		Locale locale, ClassLoader classLoader, String key,
+		Object... parameters) {
+
+		Map<Locale, LocalizedMessages> localizedMessages =
+			_localizedMessages.computeIfAbsent(
+				classLoader, curClassLoader -> new ConcurrentHashMap<>());
+
+		LocalizedMessages messages = localizedMessages.computeIfAbsent(
+			locale,
+			curLocale -> new LocalizedMessages(
+				locale, ResourceBundleUtil.getBundle(locale, classLoader)));
+
+		return messages._format(key, parameters);
+	}
+
+	@Activate
+	protected void activate(BundleContext bundleContext) {
+		_bundleContext = bundleContext;
+
+		_bundleContext.addBundleListener(this);
+	}
+
+	@Deactivate
+	protected void deactivate() {
+		_bundleContext.removeBundleListener(this);
+
+		_localizedMessages.clear();
+	}
+
+	private BundleContext _bundleContext;
+	private final Map<ClassLoader, Map<Locale, LocalizedMessages>>
+		_localizedMessages = new ConcurrentHashMap<>();
+
+	private static class LocalizedMessages {
+
+		private LocalizedMessages(
+			Locale locale, ResourceBundle resourceBundle) {
+
+			_locale = locale;
+			_resourceBundle = resourceBundle;
+		}
+
+		private String _format(String key, Object[] parameters) {
+			Message message = _messages.computeIfAbsent(
+				key,
+				curKey -> new Message(
+					_locale,
+					ResourceBundleUtil.getString(_resourceBundle, key)));
+
+			return message._format(parameters);
+		}
+
+		private final Locale _locale;
+		private final Map<String, Message> _messages =
+			new ConcurrentHashMap<>();
+		private final ResourceBundle _resourceBundle;
+
+	}
+
+	private static class Message {
+
+		private Message(Locale locale, String pattern) {
+			_locale = locale;
+			_pattern = pattern;
+		}
+
+		private String _format(Object[] parameters) {
+			if ((_pattern == null) || ArrayUtil.isEmpty(parameters)) {
+				return _pattern;
+			}
+
+			MessageFormat messageFormat = _messageFormat;
+
+			if (messageFormat == null) {
+				messageFormat = new MessageFormat(_pattern, _locale);
+
+				_messageFormat = messageFormat;
+			}
+
+			// MessageFormat is not thread safe, but formatting is much
+			// cheaper than compiling the pattern again
+
+			synchronized (messageFormat) {
+				return messageFormat.format(parameters);
+			}
+		}
+
+		private final Locale _locale;
+		private volatile MessageFormat _messageFormat;
+		private final String _pattern;
+
+	}
+
+}
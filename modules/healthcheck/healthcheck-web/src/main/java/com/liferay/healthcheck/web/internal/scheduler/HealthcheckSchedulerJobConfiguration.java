@@ -0,0 +1,115 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.scheduler;
+
+import com.liferay.healthcheck.web.internal.configuration.HealthcheckWebConfiguration;
+import com.liferay.healthcheck.web.internal.registry.HealthcheckRegistry;
+import com.liferay.petra.function.UnsafeRunnable;
+import com.liferay.portal.configuration.metatype.bnd.util.ConfigurableUtil;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.model.Company;
+import com.liferay.portal.kernel.scheduler.SchedulerJobConfiguration;
+import com.liferay.portal.kernel.scheduler.TimeUnit;
+import com.liferay.portal.kernel.scheduler.TriggerConfiguration;
+import com.liferay.portal.kernel.service.CompanyLocalService;
+import com.liferay.portal.kernel.util.ArrayUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Runs all Healthchecks for every company in the background, so that opening
+ * the UI only renders the latest snapshot instead of running all checks.
+ * Configuration changes reactivate this component, which reschedules the job.
+ *
+ * @author Olaf Kock
+ */
+@Component(
+	configurationPid = "com.liferay.healthcheck.web.internal.configuration.HealthcheckWebConfiguration",
+	service = SchedulerJobConfiguration.class
+)
+public class HealthcheckSchedulerJobConfiguration
+	implements SchedulerJobConfiguration {
+
+	/**
+	 * Runs the Healthchecks for all active companies at once, so that system
+	 * scoped Healthchecks are executed only once per run, instead of once per
+	 * company.
+	 */
+	@Override
+	public UnsafeRunnable<Exception> getJobExecutorUnsafeRunnable() {
+		return () -> {
+			if (!_scheduledRunEnabled) {
+				return;
+			}
+
+			_healthcheckRegistry.runHealthchecks(_getActiveCompanyIds());
+		};
+	}
+
+	@Override
+	public TriggerConfiguration getTriggerConfiguration() {
+		return _triggerConfiguration;
+	}
+
+	@Activate
+	protected void activate(Map<String, Object> properties) {
+		HealthcheckWebConfiguration healthcheckWebConfiguration =
+			ConfigurableUtil.createConfigurable(
+				HealthcheckWebConfiguration.class, properties);
+
+		int scheduledRunInterval = Math.max(
+			1, healthcheckWebConfiguration.scheduledRunInterval());
+
+		_scheduledRunEnabled =
+			healthcheckWebConfiguration.scheduledRunEnabled();
+
+		_triggerConfiguration = TriggerConfiguration.createTriggerConfiguration(
+			scheduledRunInterval, TimeUnit.MINUTE);
+
+		if (_log.isInfoEnabled()) {
+			if (_scheduledRunEnabled) {
+				_log.info(
+					"Running healthchecks every " + scheduledRunInterval +
+						" minutes");
+			}
+			else {
+				_log.info("Scheduled healthchecks are disabled");
+			}
+		}
+	}
+
+	private long[] _getActiveCompanyIds() {
+		List<Long> companyIds = new ArrayList<>();
+
+		for (Company company : _companyLocalService.getCompanies()) {
+			if (company.isActive()) {
+				companyIds.add(company.getCompanyId());
+			}
+		}
+
+		return ArrayUtil.toLongArray(companyIds);
+	}
+
+	private static final Log _log = LogFactoryUtil.getLog(
+		HealthcheckSchedulerJobConfiguration.class);
+
+	@Reference
+	private CompanyLocalService _companyLocalService;
+
+	@Reference
+	private HealthcheckRegistry _healthcheckRegistry;
+
+	private volatile boolean _scheduledRunEnabled;
+	private TriggerConfiguration _triggerConfiguration;
+
+}
@@ -0,0 +1,60 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.servlet;
+
+import com.liferay.portal.kernel.util.Validator;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Checks the bearer tokens that monitoring systems and load balancers send to
+ * the Healthcheck endpoints.
+ *
+ * @author Olaf Kock
+ */
+public class BearerTokenUtil {
+
+	/**
+	 * @return the expected value of the Authorization header, or null if the
+	 *         token is blank, which disables the endpoint
+	 */
+	public static String getAuthorization(String token) {
+		if (Validator.isBlank(token)) {
+			return null;
+		}
+
+		return "Bearer " + token.trim();
+	}
+
+	/**
+	 * Compares the Authorization header in constant time, so that the token
+	 * can't be guessed from the response times, and without allocating
+	 * anything, as probes can be frequent.
+	 */
+	public static boolean isAuthorized(
+		String authorization, HttpServletRequest httpServletRequest) {
+
+		String header = httpServletRequest.getHeader("Authorization");
+
+		if ((authorization == null) || (header == null) || header.isEmpty()) {
+			return false;
+		}
+
+		// A different length fails the comparison, but all characters of the
+		// expected value are compared anyway, so that the loop takes the same
+		// time for every header
+
+		int difference = authorization.length() ^ header.length();
+
+		for (int i = 0; i < authorization.length(); i++) {
+			difference |=
+				authorization.charAt(i) ^ header.charAt(i % header.length());
+		}
+
+		return difference == 0;
+	}
+
+}
@@ -1,8 +1,15 @@
-package com.liferay.healthcheck.web.internal.template;
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
 
+package com.liferay.healthcheck.web.internal.template;
 
 import com.liferay.healthcheck.web.internal.registry.HealthcheckRegistry;
+import com.liferay.healthcheck.web.internal.registry.HealthcheckSummary;
 import com.liferay.portal.kernel.template.TemplateContextContributor;
+import com.liferay.portal.kernel.util.Portal;
+import com.liferay.portal.kernel.util.WebKeys;
 
 import java.util.Map;
 
@@ -11,24 +18,67 @@ import javax.servlet.http.HttpServletRequest;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
 
+/**
+ * Makes the current company's Healthcheck summary available to themes:
+ * <code>healthcheckFailures</code> holds the number of failed items, or -1 if
+ * the Healthchecks did not run yet, and <code>healthcheckSummary</code> holds
+ * the HealthcheckSummary, once they ran. This runs on every page render, so
+ * it only looks up the prepared summary and doesn't allocate anything.
+ *
+ * @author Olaf Kock
+ */
 @Component(
-		immediate=true,
-		property = {
-				"type=" + TemplateContextContributor.TYPE_GLOBAL,
-				"service.ranking:Integer=1"
-		},
-		service=TemplateContextContributor.class
+	immediate = true,
+	property = {
+		"service.ranking:Integer=1",
+		"type=" + TemplateContextContributor.TYPE_GLOBAL
+	},
+	service = TemplateContextContributor.class
 )
+public class HealthcheckTemplateContextContributor
+	implements TemplateContextContributor {
+
+	@Override
+	public void prepare(
+		Map<String, Object> contextObjects,
+		HttpServletRequest httpServletRequest) {
+
+		HealthcheckSummary healthcheckSummary =
+			_healthcheckRegistry.getHealthcheckSummary(
+				_getCompanyId(httpServletRequest));
+
+		if (healthcheckSummary == null) {
+			contextObjects.put("healthcheckFailures", _UNKNOWN_FAILURES);
+
+			return;
+		}
 
-public class HealthcheckTemplateContextContributor implements TemplateContextContributor {
+		contextObjects.put(
+			"healthcheckFailures", healthcheckSummary.getFailed());
+		contextObjects.put("healthcheckSummary", healthcheckSummary);
+	}
 
-    @Override
-	public void prepare(Map<String, Object> contextObjects, HttpServletRequest httpServletRequest) {
-        contextObjects.put("healthcheckFailures", _healthcheckRegistry.getHealthcheckResult());
-    }
+	private Long _getCompanyId(HttpServletRequest httpServletRequest) {
 
+		// The portal keeps the company ID as boxed request attribute, reuse
+		// it instead of boxing it again for the lookup
 
-	@Reference 
+		Long companyId = (Long)httpServletRequest.getAttribute(
+			WebKeys.COMPANY_ID);
+
+		if (companyId == null) {
+			companyId = _portal.getCompanyId(httpServletRequest);
+		}
+
+		return companyId;
+	}
+
+	private static final Integer _UNKNOWN_FAILURES = -1;
+
+	@Reference
 	private HealthcheckRegistry _healthcheckRegistry;
 
+	@Reference
+	private Portal _portal;
+
 }
@@ -12,13 +12,39 @@
 <%@ taglib uri="http://liferay.com/tld/aui" prefix="aui" %><%@
 taglib uri="http://liferay.com/tld/clay" prefix="clay" %><%@
 taglib uri="http://liferay.com/tld/learn" prefix="liferay-learn" %><%@
+taglib uri="http://liferay.com/tld/portlet" prefix="liferay-portlet" %><%@
 taglib uri="http://liferay.com/tld/theme" prefix="liferay-theme" %><%@
 taglib uri="http://liferay.com/tld/ui" prefix="liferay-ui" %>
 
-<%@ page import="com.liferay.healthcheck.web.internal.portlet.LocalizedHealthcheckItem" %>
+<%@ page import="com.liferay.healthcheck.web.internal.executor.HealthcheckTiming" %><%@
+page import="com.liferay.healthcheck.web.internal.executor.HealthcheckTimingHistogram" %><%@
+page import="com.liferay.healthcheck.web.internal.history.HealthcheckHistoryEntry" %><%@
+page import="com.liferay.healthcheck.web.internal.history.HealthcheckHistoryReport" %><%@
+page import="com.liferay.healthcheck.web.internal.ignore.HealthcheckIgnores" %><%@
+page import="com.liferay.healthcheck.web.internal.portlet.HealthcheckItemGroup" %><%@
+page import="com.liferay.healthcheck.web.internal.portlet.HealthcheckItemSearch" %><%@
+page import="com.liferay.healthcheck.web.internal.portlet.HealthcheckMatrixCell" %><%@
+page import="com.liferay.healthcheck.web.internal.portlet.HealthcheckMatrixRow" %><%@
+page import="com.liferay.healthcheck.web.internal.portlet.LocalizedHealthcheckItem" %><%@
+page import="com.liferay.petra.string.StringPool" %><%@
+page import="com.liferay.portal.kernel.model.Company" %><%@
+page import="com.liferay.portal.kernel.util.FastDateFormatFactoryUtil" %><%@
+page import="com.liferay.portal.kernel.util.GetterUtil" %><%@
+page import="com.liferay.portal.kernel.util.HtmlUtil" %><%@
+page import="com.liferay.portal.kernel.util.ParamUtil" %><%@
+page import="com.liferay.portal.kernel.util.StringUtil" %><%@
+page import="com.liferay.portal.kernel.util.TextFormatter" %>
 
-<%@ page import="java.util.List" %><%@
-page import="java.util.Set" %>
+<%@ page import="java.text.Format" %>
+
+<%@ page import="java.util.Date" %><%@
+page import="java.util.List" %><%@
+page import="java.util.Map" %><%@
+page import="java.util.Objects" %><%@
+page import="java.util.concurrent.TimeUnit" %>
+
+<%@ page import="javax.portlet.MutableRenderParameters" %><%@
+page import="javax.portlet.PortletURL" %>
 
 <liferay-theme:defineObjects />
 
@@ -40,11 +40,48 @@ private String shorten(String url) {
 	</p>
 
 	<%
-	List<LocalizedHealthcheckItem> checks = (List<LocalizedHealthcheckItem>)renderRequest.getAttribute("localizedHealthchecks");
+	Map<String, String> healthcheckCategories = (Map<String, String>)renderRequest.getAttribute("healthcheckCategories");
+	List<HealthcheckItemGroup> healthcheckItemGroups = (List<HealthcheckItemGroup>)renderRequest.getAttribute("healthcheckItemGroups");
+	HealthcheckHistoryReport healthcheckHistoryReport = (HealthcheckHistoryReport)renderRequest.getAttribute("healthcheckHistoryReport");
+	HealthcheckItemSearch healthcheckItemSearch = (HealthcheckItemSearch)renderRequest.getAttribute("healthcheckItemSearch");
+
+	Format dateFormat = FastDateFormatFactoryUtil.getDateTime(locale, timeZone);
 	int numberOfIgnoredHealthchecks = (int)renderRequest.getAttribute("numberOfIgnoredHealthchecks");
-	Set<String> theIgnoredChecks = (Set<String>)renderRequest.getAttribute("ignoredHealthchecks");
+	boolean streamHealthchecks = renderRequest.getAttribute("streamHealthchecks") != null;
+	HealthcheckIgnores healthcheckIgnores = (HealthcheckIgnores)renderRequest.getAttribute("healthcheckIgnores");
 	%>
 
+	<c:if test='<%= streamHealthchecks || (renderRequest.getAttribute("healthcheckSnapshotCreateDate") != null) %>'>
+		<p>
+			<span id="<portlet:namespace />lastRun">
+				<c:choose>
+					<c:when test="<%= streamHealthchecks %>">
+						<span aria-hidden="true" class="loading-animation loading-animation-sm"></span>
+
+						<liferay-ui:message key="running-healthchecks" />
+					</c:when>
+					<c:otherwise>
+						<liferay-ui:message arguments='<%= renderRequest.getAttribute("healthcheckSnapshotCreateDate") %>' key="last-run-x" />
+					</c:otherwise>
+				</c:choose>
+			</span>
+
+			<portlet:renderURL var="runHealthchecksURL">
+				<portlet:param name="runHealthchecks" value="true" />
+			</portlet:renderURL>
+
+			<aui:button disabled="<%= streamHealthchecks %>" href="<%= runHealthchecksURL %>" name="runHealthchecks" value="run-healthchecks-now" />
+
+			<c:if test="<%= permissionChecker.isOmniadmin() %>">
+				<portlet:renderURL var="allInstancesURL">
+					<portlet:param name="allInstances" value="true" />
+				</portlet:renderURL>
+
+				<aui:button href="<%= allInstancesURL %>" value="healthchecks-of-all-instances" />
+			</c:if>
+		</p>
+	</c:if>
+
 	<div class="align-items-lg-start align-items-md-start align-items-sm-start align-items-start flex-lg-row flex-md-row flex-row flex-sm-row row">
 		<div class="col col-12 col-lg-3 col-md-4 col-sm-12"></div>
 		<div class="col col-6 col-lg-2 col-md-2 col-sm-4" style="text-align: center;">
@@ -54,7 +91,7 @@ private String shorten(String url) {
 				/>
 
 				<br />
-				<%= (int)renderRequest.getAttribute("numberOfFailedHealthchecks") %>
+				<span id="<portlet:namespace />numberOfFailedHealthchecks"><%= (int)renderRequest.getAttribute("numberOfFailedHealthchecks") %></span>
 			</div>
 
 			<liferay-ui:message key="failed" />
@@ -67,7 +104,7 @@ private String shorten(String url) {
 				/>
 
 				<br />
-				<%= (int)renderRequest.getAttribute("numberOfSucceededHealthchecks") %>
+				<span id="<portlet:namespace />numberOfSucceededHealthchecks"><%= (int)renderRequest.getAttribute("numberOfSucceededHealthchecks") %></span>
 			</div>
 
 			<liferay-ui:message key="succeeded-checks" />
@@ -80,7 +117,7 @@ private String shorten(String url) {
 				/>
 
 				<br />
-				<%= (int)renderRequest.getAttribute("numberOfIgnoredHealthchecks") %>
+				<span id="<portlet:namespace />numberOfIgnoredHealthchecks"><%= (int)renderRequest.getAttribute("numberOfIgnoredHealthchecks") %></span>
 			</div>
 
 			<liferay-ui:message key="ignored" />
@@ -89,15 +126,78 @@ private String shorten(String url) {
 		<div class="col col-12 col-lg-3 col-md-4 col-sm-12"></div>
 	</div>
 
+	<c:if test='<%= renderRequest.getAttribute("healthcheckSnapshotCreateDate") != null %>'>
+		<liferay-portlet:renderURL varImpl="searchURL" />
+
+		<form action="<%= searchURL %>" class="form-inline" method="get" name="<portlet:namespace />searchFm" style="gap: 0.5rem; margin-bottom: 1rem;">
+			<liferay-portlet:renderURLParams varImpl="searchURL" />
+
+			<input name="<portlet:namespace />messageKey" type="hidden" value="<%= HtmlUtil.escapeAttribute(healthcheckItemSearch.getMessageKey()) %>" />
+			<input name="<portlet:namespace />showIgnored" type="hidden" value="<%= healthcheckItemSearch.isShowIgnored() %>" />
+
+			<select aria-label="<liferay-ui:message key="category" />" class="form-control" name="<portlet:namespace />category">
+				<option value=""><liferay-ui:message key="all-categories" /></option>
+
+				<%
+				for (Map.Entry<String, String> entry : healthcheckCategories.entrySet()) {
+				%>
+
+					<option <%= Objects.equals(entry.getValue(), healthcheckItemSearch.getCategory()) ? "selected" : "" %> value="<%= HtmlUtil.escapeAttribute(entry.getValue()) %>"><%= HtmlUtil.escape(entry.getKey()) %></option>
+
+				<%
+				}
+				%>
+
+			</select>
+
+			<select aria-label="<liferay-ui:message key="status" />" class="form-control" name="<portlet:namespace />status">
+				<option value=""><liferay-ui:message key="all-statuses" /></option>
+				<option <%= Objects.equals(HealthcheckItemSearch.STATUS_FAILED, healthcheckItemSearch.getStatus()) ? "selected" : "" %> value="<%= HealthcheckItemSearch.STATUS_FAILED %>"><liferay-ui:message key="failed" /></option>
+				<option <%= Objects.equals(HealthcheckItemSearch.STATUS_SUCCEEDED, healthcheckItemSearch.getStatus()) ? "selected" : "" %> value="<%= HealthcheckItemSearch.STATUS_SUCCEEDED %>"><liferay-ui:message key="succeeded-checks" /></option>
+				<option <%= Objects.equals(HealthcheckItemSearch.STATUS_IGNORED, healthcheckItemSearch.getStatus()) ? "selected" : "" %> value="<%= HealthcheckItemSearch.STATUS_IGNORED %>"><liferay-ui:message key="ignored" /></option>
+			</select>
+
+			<input aria-label="<liferay-ui:message key="keywords" />" class="form-control" name="<portlet:namespace />keywords" placeholder="<liferay-ui:message key="keywords" />" type="text" value="<%= HtmlUtil.escapeAttribute(healthcheckItemSearch.getKeywords()) %>" />
+
+			<label class="form-check-label">
+				<input <%= healthcheckItemSearch.isGroup() ? "checked" : "" %> name="<portlet:namespace />group" type="checkbox" value="true" />
+
+				<liferay-ui:message key="group-identical-messages" />
+			</label>
+
+			<button class="btn btn-secondary" type="submit"><liferay-ui:message key="filter" /></button>
+
+			<c:if test="<%= healthcheckItemSearch.isFiltered() %>">
+				<portlet:renderURL var="clearFiltersURL" />
+
+				<a href="<%= clearFiltersURL %>"><liferay-ui:message key="clear-filters" /></a>
+			</c:if>
+		</form>
+	</c:if>
+
 	<% int popovercount=0; %>
 
+	<portlet:actionURL name="ignoreMessage" var="ignoreSelectedAction" />
+
+	<portlet:actionURL name="unignoreMessage" var="unignoreSelectedAction" />
+
+	<form method="post" name="<portlet:namespace />bulkFm">
 	<table>
+		<tbody id="<portlet:namespace />failedHealthchecks">
 
 		<%
-		for (LocalizedHealthcheckItem check : checks) {
+		for (HealthcheckItemGroup healthcheckItemGroup : healthcheckItemGroups) {
+			LocalizedHealthcheckItem check = healthcheckItemGroup.getLocalizedHealthcheckItem();
+
+			HealthcheckHistoryEntry healthcheckHistoryEntry = null;
+
+			if (healthcheckHistoryReport != null) {
+				healthcheckHistoryEntry = healthcheckHistoryReport.getHealthcheckHistoryEntry(healthcheckItemGroup.getFingerprint());
+			}
+
 			String style = check.isSuccess() ? "" : "font-weight:bold;";
 
-			if (theIgnoredChecks.contains(check.getSourceKey())) {
+			if (healthcheckItemGroup.isIgnored()) {
 				style += "opacity:0.5;";
 			}
 
@@ -105,11 +205,50 @@ private String shorten(String url) {
 		%>
 
 		<tr style="border: 1px solid grey; <%= style %>">
+			<td style="padding: 0.5rem;">
+				<c:if test="<%= healthcheckItemGroup.getCount() == 1 %>">
+					<input aria-label="<liferay-ui:message key="select" />" name="<portlet:namespace />sourceKey" type="checkbox" value="<%= HtmlUtil.escapeAttribute(check.getSourceKey()) %>" />
+				</c:if>
+			</td>
 			<td style="min-width: 3em; text-align: center;"><clay:icon
 					symbol="<%= symbol %>" /></td>
-			<td><%= check.getCategory() %></td>
+			<td>
+				<%= check.getCategory() %>
+
+				<c:if test="<%= check.getClusterNodeName() != null %>">
+					<br />
+					<small><liferay-ui:message arguments="<%= HtmlUtil.escape(check.getClusterNodeName()) %>" key="cluster-node-x" /></small>
+				</c:if>
+			</td>
 			<td style="overflow-wrap: anywhere;">
 				<%= check.getMessage() %>
+
+				<c:if test="<%= healthcheckItemGroup.getCount() > 1 %>">
+
+					<%
+					PortletURL occurrencesURL = healthcheckItemSearch.getPortletURL(renderResponse);
+
+					MutableRenderParameters mutableRenderParameters = occurrencesURL.getRenderParameters();
+
+					mutableRenderParameters.removeParameter("group");
+					mutableRenderParameters.setValue("messageKey", healthcheckItemGroup.getMessageKey());
+					%>
+
+					<a class="badge badge-secondary" href="<%= occurrencesURL %>"><liferay-ui:message arguments="<%= healthcheckItemGroup.getCount() %>" key="show-x-occurrences" /></a>
+				</c:if>
+
+				<c:if test="<%= (healthcheckHistoryReport != null) && healthcheckHistoryReport.isFlapping(healthcheckItemGroup.getFingerprint()) %>">
+					<span class="badge badge-warning" title="<liferay-ui:message key="flapping-help" />"><liferay-ui:message key="flapping" /></span>
+				</c:if>
+
+				<c:if test="<%= healthcheckHistoryEntry != null %>">
+					<br />
+
+					<small class="text-secondary">
+						<liferay-ui:message arguments="<%= dateFormat.format(new Date(healthcheckHistoryEntry.getFirstSeenTime())) %>" key="first-seen-x" />
+					</small>
+				</c:if>
+
 				<c:if test="<%= check.getAdditionalDocumentation().size() > 0 %>">
 				<button popovertarget="additional-documentation-<%=popovercount%>" class="btn btn-borderless">
 				<clay:icon
@@ -141,7 +280,9 @@ private String shorten(String url) {
 			<td style="padding: 2px;"><aui:button-row>
 
 			<c:choose>
-				<c:when test="<%= theIgnoredChecks.contains(check.getSourceKey()) %>">
+				<c:when test="<%= healthcheckItemGroup.getCount() > 1 %>">
+				</c:when>
+				<c:when test="<%= healthcheckItemGroup.isIgnored() %>">
 
 						<portlet:actionURL name="unignoreMessage" var="unignoreAction">
 							<portlet:param name="unignore" value="<%= check.getSourceKey() %>" />
@@ -169,8 +310,308 @@ private String shorten(String url) {
 		}
 		%>
 
+		</tbody>
+		<tbody id="<portlet:namespace />succeededHealthchecks"></tbody>
 	</table>
 
+	<aui:button-row>
+		<button class="btn btn-secondary" formaction="<%= ignoreSelectedAction %>" type="submit"><liferay-ui:message key="ignore-selected" /></button>
+		<button class="btn btn-secondary" formaction="<%= unignoreSelectedAction %>" type="submit"><liferay-ui:message key="unignore-selected" /></button>
+	</aui:button-row>
+	</form>
+
+	<c:if test="<%= healthcheckItemSearch.getLastPage() > 1 %>">
+
+		<%
+		int cur = healthcheckItemSearch.getCur();
+
+		PortletURL pageURL = healthcheckItemSearch.getPortletURL(renderResponse);
+
+		MutableRenderParameters pageRenderParameters = pageURL.getRenderParameters();
+		%>
+
+		<nav class="align-items-center d-flex" style="gap: 1rem;">
+			<c:if test="<%= cur > 1 %>">
+
+				<%
+				pageRenderParameters.setValue("cur", String.valueOf(cur - 1));
+				%>
+
+				<a class="btn btn-secondary btn-sm" href="<%= pageURL %>"><liferay-ui:message key="previous" /></a>
+			</c:if>
+
+			<span><liferay-ui:message arguments="<%= new Object[] {healthcheckItemSearch.getStart() + 1, healthcheckItemSearch.getEnd(), healthcheckItemSearch.getTotal()} %>" key="results-x-to-x-of-x" /></span>
+
+			<c:if test="<%= cur < healthcheckItemSearch.getLastPage() %>">
+
+				<%
+				pageRenderParameters.setValue("cur", String.valueOf(cur + 1));
+				%>
+
+				<a class="btn btn-secondary btn-sm" href="<%= pageURL %>"><liferay-ui:message key="next" /></a>
+			</c:if>
+		</nav>
+	</c:if>
+
+	<c:if test="<%= streamHealthchecks %>">
+		<portlet:renderURL var="viewAllResultsURL" />
+
+		<p hidden id="<portlet:namespace />moreResults" style="margin-top: 1rem;">
+			<span id="<portlet:namespace />moreResultsMessage"></span>
+
+			<a href="<%= viewAllResultsURL %>"><liferay-ui:message key="view-all-results" /></a>
+		</p>
+
+		<portlet:actionURL name="ignoreMessage" var="ignoreActionTemplate">
+			<portlet:param name="ignore" value="SOURCE_KEY" />
+		</portlet:actionURL>
+
+		<portlet:resourceURL id="streamHealthchecks" var="streamHealthchecksURL" />
+
+		<portlet:actionURL name="unignoreMessage" var="unignoreActionTemplate">
+			<portlet:param name="unignore" value="SOURCE_KEY" />
+		</portlet:actionURL>
+
+		<aui:script>
+			(function () {
+				const namespace = '<portlet:namespace />';
+				const delta = <%= healthcheckItemSearch.getDelta() %>;
+				const showIgnored = <%= healthcheckItemSearch.isShowIgnored() %>;
+
+				const counters = {
+					failed: document.getElementById(namespace + 'numberOfFailedHealthchecks'),
+					ignored: document.getElementById(namespace + 'numberOfIgnoredHealthchecks'),
+					succeeded: document.getElementById(namespace + 'numberOfSucceededHealthchecks'),
+				};
+
+				// Only render the first page of each table while streaming, the
+				// others are available in the paginated view once all results
+				// are in
+
+				const rendered = {
+					failedHealthchecks: 0,
+					succeededHealthchecks: 0,
+				};
+
+				let hidden = 0;
+				let popoverCount = 0;
+
+				const createIcon = (symbol) => {
+					const svg = document.createElementNS('http://www.w3.org/2000/svg', 'svg');
+
+					svg.setAttribute('class', 'lexicon-icon lexicon-icon-' + symbol);
+					svg.setAttribute('role', 'presentation');
+
+					const use = document.createElementNS('http://www.w3.org/2000/svg', 'use');
+
+					use.setAttribute('href', Liferay.Icons.spritemap + '#' + symbol);
+
+					svg.appendChild(use);
+
+					return svg;
+				};
+
+				const increment = (counter) => {
+					counter.textContent = parseInt(counter.textContent, 10) + 1;
+				};
+
+				const addRow = (item) => {
+					if (item.ignored) {
+						increment(counters.ignored);
+
+						if (!showIgnored) {
+							return;
+						}
+					}
+					else if (item.success) {
+						increment(counters.succeeded);
+					}
+					else {
+						increment(counters.failed);
+					}
+
+					const tbodyId = item.success ? 'succeededHealthchecks' : 'failedHealthchecks';
+
+					if (rendered[tbodyId] >= delta) {
+						hidden++;
+
+						return;
+					}
+
+					rendered[tbodyId]++;
+
+					const row = document.createElement('tr');
+
+					row.style.border = '1px solid grey';
+
+					if (!item.success) {
+						row.style.fontWeight = 'bold';
+					}
+
+					if (item.ignored) {
+						row.style.opacity = '0.5';
+					}
+
+					const selectCell = row.insertCell();
+
+					selectCell.style.padding = '0.5rem';
+
+					const checkbox = document.createElement('input');
+
+					checkbox.name = namespace + 'sourceKey';
+					checkbox.type = 'checkbox';
+					checkbox.value = item.sourceKey;
+					checkbox.setAttribute('aria-label', '<liferay-ui:message key="select" unicode="<%= true %>" />');
+
+					selectCell.appendChild(checkbox);
+
+					const iconCell = row.insertCell();
+
+					iconCell.style.minWidth = '3em';
+					iconCell.style.textAlign = 'center';
+					iconCell.appendChild(createIcon(item.success ? 'check-circle' : 'exclamation-circle'));
+
+					const categoryCell = row.insertCell();
+
+					categoryCell.textContent = item.category;
+
+					if (item.clusterNodeName) {
+						const clusterNode = document.createElement('small');
+
+						clusterNode.textContent = '<liferay-ui:message key="cluster-node-x" unicode="<%= true %>" />'.replace('{0}', item.clusterNodeName);
+
+						categoryCell.appendChild(document.createElement('br'));
+						categoryCell.appendChild(clusterNode);
+					}
+
+					const messageCell = row.insertCell();
+
+					messageCell.style.overflowWrap = 'anywhere';
+
+					// Messages may contain markup, just like in the server side rendering
+
+					messageCell.innerHTML = item.message;
+
+					if (item.additionalDocumentation.length > 0) {
+						const popoverId = namespace + 'additionalDocumentationStreamed' + popoverCount++;
+
+						const button = document.createElement('button');
+
+						button.className = 'btn btn-borderless';
+						button.setAttribute('popovertarget', popoverId);
+						button.appendChild(createIcon('info-circle-open'));
+
+						const popover = document.createElement('div');
+
+						popover.className = 'additional-documentation';
+						popover.id = popoverId;
+						popover.setAttribute('popover', '');
+
+						const list = document.createElement('ul');
+
+						item.additionalDocumentation.forEach((url) => {
+							const link = document.createElement('a');
+
+							link.href = url;
+							link.textContent = url;
+
+							list.appendChild(document.createElement('li')).appendChild(link);
+						});
+
+						popover.appendChild(list);
+
+						messageCell.appendChild(button);
+						messageCell.appendChild(popover);
+					}
+
+					const linkCell = row.insertCell();
+
+					linkCell.style.padding = '0.5rem';
+					linkCell.style.wordWrap = 'normal';
+
+					if (item.link) {
+						const link = document.createElement('a');
+
+						link.href = item.link;
+						link.appendChild(createIcon('cog'));
+
+						linkCell.appendChild(link);
+					}
+
+					const buttonCell = row.insertCell();
+
+					buttonCell.style.padding = '2px';
+
+					const button = document.createElement('button');
+
+					button.className = 'btn btn-secondary';
+					button.textContent = item.ignored ? '<liferay-ui:message key="unignore[command]" unicode="<%= true %>" />' : '<liferay-ui:message key="ignore[command]" unicode="<%= true %>" />';
+					button.type = 'button';
+
+					const actionURL = item.ignored ? '<%= HtmlUtil.escapeJS(unignoreActionTemplate) %>' : '<%= HtmlUtil.escapeJS(ignoreActionTemplate) %>';
+
+					button.addEventListener('click', () => {
+						submitForm(document.hrefFm, actionURL.replace('SOURCE_KEY', encodeURIComponent(item.sourceKey)));
+					});
+
+					buttonCell.appendChild(button);
+
+					document.getElementById(namespace + tbodyId).appendChild(row);
+				};
+
+				const handleLine = (line) => {
+					if (!line.trim()) {
+						return;
+					}
+
+					const item = JSON.parse(line);
+
+					if (item.lastRun) {
+						document.getElementById(namespace + 'lastRun').textContent = item.lastRun;
+						document.getElementById(namespace + 'runHealthchecks').disabled = false;
+
+						if (hidden > 0) {
+							document.getElementById(namespace + 'moreResultsMessage').textContent = '<liferay-ui:message key="x-more-results" unicode="<%= true %>" />'.replace('{0}', hidden);
+							document.getElementById(namespace + 'moreResults').hidden = false;
+						}
+					}
+					else {
+						addRow(item);
+					}
+				};
+
+				Liferay.Util.fetch('<%= HtmlUtil.escapeJS(streamHealthchecksURL) %>').then((response) => {
+					const decoder = new TextDecoder();
+					const reader = response.body.getReader();
+
+					let buffer = '';
+
+					const read = () => reader.read().then((result) => {
+						if (result.value) {
+							buffer += decoder.decode(result.value, {stream: true});
+						}
+
+						const lines = buffer.split('\n');
+
+						buffer = lines.pop();
+
+						lines.forEach(handleLine);
+
+						if (result.done) {
+							handleLine(buffer);
+
+							return;
+						}
+
+						return read();
+					});
+
+					return read();
+				});
+			})();
+		</aui:script>
+	</c:if>
+
 	<c:if test="<%= numberOfIgnoredHealthchecks > 0 %>">
 
 	<aui:button-row>
@@ -187,4 +628,105 @@ private String shorten(String url) {
 		</div>
 	</aui:button-row>
 	</c:if>
+
+	<%
+	List<HealthcheckTimingHistogram> healthcheckTimingHistograms = (List<HealthcheckTimingHistogram>)renderRequest.getAttribute("healthcheckTimingHistograms");
+	%>
+
+	<c:if test="<%= (healthcheckTimingHistograms != null) && !healthcheckTimingHistograms.isEmpty() %>">
+		<details style="margin-top: 2rem;">
+			<summary><liferay-ui:message key="execution-times" /></summary>
+
+			<p class="text-secondary">
+				<liferay-ui:message key="execution-times-help" />
+			</p>
+
+			<%
+			long[] bucketUpperBounds = HealthcheckTimingHistogram.getBucketUpperBounds();
+			%>
+
+			<table class="table table-autofit">
+				<thead>
+					<tr>
+						<th><liferay-ui:message key="healthcheck" /></th>
+						<th><liferay-ui:message key="executions" /></th>
+						<th><liferay-ui:message key="last-execution" /></th>
+						<th><liferay-ui:message key="median" /></th>
+						<th><liferay-ui:message key="95th-percentile" /></th>
+						<th><liferay-ui:message key="maximum" /></th>
+						<th><liferay-ui:message key="average-cpu-time" /></th>
+						<th><liferay-ui:message key="average-allocated-memory" /></th>
+						<th></th>
+					</tr>
+				</thead>
+				<tbody>
+
+				<%
+				for (HealthcheckTimingHistogram healthcheckTimingHistogram : healthcheckTimingHistograms) {
+					HealthcheckTiming lastHealthcheckTiming = healthcheckTimingHistogram.getLastHealthcheckTiming();
+					long meanAllocatedBytes = healthcheckTimingHistogram.getMeanAllocatedBytes();
+					long meanCpuTime = healthcheckTimingHistogram.getMeanCpuTime();
+
+					long[] bucketCounts = healthcheckTimingHistogram.getBucketCounts();
+
+					long maxBucketCount = 1;
+
+					for (long bucketCount : bucketCounts) {
+						maxBucketCount = Math.max(maxBucketCount, bucketCount);
+					}
+				%>
+
+					<tr>
+						<td title="<%= HtmlUtil.escapeAttribute(healthcheckTimingHistogram.getClassName()) %>">
+							<%= HtmlUtil.escape(StringUtil.extractLast(healthcheckTimingHistogram.getClassName(), StringPool.PERIOD)) %>
+						</td>
+						<td><%= healthcheckTimingHistogram.getCount() %></td>
+						<td><liferay-ui:message arguments="<%= TimeUnit.NANOSECONDS.toMillis(lastHealthcheckTiming.getWallTime()) %>" key="x-ms" /></td>
+						<td><liferay-ui:message arguments="<%= healthcheckTimingHistogram.getWallTimePercentile(50) %>" key="x-ms" /></td>
+						<td><liferay-ui:message arguments="<%= healthcheckTimingHistogram.getWallTimePercentile(95) %>" key="x-ms" /></td>
+						<td><liferay-ui:message arguments="<%= healthcheckTimingHistogram.getMaxWallTime() %>" key="x-ms" /></td>
+						<td>
+							<c:choose>
+								<c:when test="<%= meanCpuTime >= 0 %>">
+									<liferay-ui:message arguments="<%= meanCpuTime %>" key="x-ms" />
+								</c:when>
+								<c:otherwise>
+									-
+								</c:otherwise>
+							</c:choose>
+						</td>
+						<td>
+							<c:choose>
+								<c:when test="<%= meanAllocatedBytes >= 0 %>">
+									<%= TextFormatter.formatStorageSize(meanAllocatedBytes, locale) %>
+								</c:when>
+								<c:otherwise>
+									-
+								</c:otherwise>
+							</c:choose>
+						</td>
+						<td style="white-space: nowrap;">
+
+							<%
+							for (int i = 0; i < bucketCounts.length; i++) {
+								String bucketLabel = (i < bucketUpperBounds.length) ? "<= " + bucketUpperBounds[i] + " ms" : "> " + bucketUpperBounds[bucketUpperBounds.length - 1] + " ms";
+							%>
+
+								<span class="bg-primary d-inline-block" style="height: <%= 2 + (bucketCounts[i] * 22 / maxBucketCount) %>px; vertical-align: bottom; width: 6px;" title="<%= HtmlUtil.escapeAttribute(bucketLabel + ": " + bucketCounts[i]) %>"></span>
+
+							<%
+							}
+							%>
+
+						</td>
+					</tr>
+
+				<%
+				}
+				%>
+
+				</tbody>
+			</table>
+		</details>
+	</c:if>
 </div>
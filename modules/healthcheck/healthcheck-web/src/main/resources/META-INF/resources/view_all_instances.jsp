@@ -0,0 +1,101 @@
+<%--
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+--%>
+
+<%@ include file="/init.jsp" %>
+
+<%
+List<Company> companies = (List<Company>)renderRequest.getAttribute("companies");
+List<HealthcheckMatrixRow> healthcheckMatrixRows = (List<HealthcheckMatrixRow>)renderRequest.getAttribute("healthcheckMatrixRows");
+Map<Long, String> healthcheckSnapshotCreateDates = (Map<Long, String>)renderRequest.getAttribute("healthcheckSnapshotCreateDates");
+%>
+
+<div class="container-fluid container-fluid-max-xl sheet">
+	<p>
+		<b><liferay-ui:message key="healthchecks-of-all-instances" /></b>
+	</p>
+
+	<p>
+		<portlet:renderURL var="backURL" />
+
+		<aui:button href="<%= backURL %>" value="back-to-current-instance" />
+
+		<portlet:actionURL name="runAllInstancesHealthchecks" var="runAllInstancesHealthchecksURL" />
+
+		<aui:button onClick='<%= "submitForm(document.hrefFm, \'" + HtmlUtil.escapeJS(runAllInstancesHealthchecksURL) + "\');" %>' value="run-healthchecks-now" />
+	</p>
+
+	<div class="table-responsive">
+		<table class="healthcheck-matrix table table-bordered">
+			<thead>
+				<tr>
+					<th><liferay-ui:message key="category" /></th>
+					<th><liferay-ui:message key="healthcheck" /></th>
+
+					<%
+					for (Company company : companies) {
+					%>
+
+						<th title="<%= HtmlUtil.escapeAttribute(GetterUtil.getString(healthcheckSnapshotCreateDates.get(company.getCompanyId()))) %>"><%= HtmlUtil.escape(company.getWebId()) %></th>
+
+					<%
+					}
+					%>
+
+				</tr>
+			</thead>
+
+			<tbody>
+
+				<%
+				for (HealthcheckMatrixRow healthcheckMatrixRow : healthcheckMatrixRows) {
+				%>
+
+					<tr>
+						<td><%= healthcheckMatrixRow.getCategory() %></td>
+						<td><%= HtmlUtil.escape(healthcheckMatrixRow.getName()) %></td>
+
+						<%
+						for (int i = 0; i < companies.size(); i++) {
+							HealthcheckMatrixCell healthcheckMatrixCell = healthcheckMatrixRow.getHealthcheckMatrixCell(i);
+						%>
+
+							<td style="text-align: center;" title="<%= HtmlUtil.escapeAttribute(StringUtil.merge(healthcheckMatrixCell.getFailedMessages(), StringPool.NEW_LINE)) %>">
+								<c:choose>
+									<c:when test="<%= healthcheckMatrixCell.isEmpty() %>">
+										-
+									</c:when>
+									<c:when test="<%= healthcheckMatrixCell.getFailed() > 0 %>">
+										<b>
+											<clay:icon
+												symbol="exclamation-circle"
+											/>
+
+											<%= healthcheckMatrixCell.getFailed() %> / <%= healthcheckMatrixCell.getFailed() + healthcheckMatrixCell.getSucceeded() %>
+										</b>
+									</c:when>
+									<c:otherwise>
+										<clay:icon
+											symbol="check-circle"
+										/>
+									</c:otherwise>
+								</c:choose>
+							</td>
+
+						<%
+						}
+						%>
+
+					</tr>
+
+				<%
+				}
+				%>
+
+			</tbody>
+		</table>
+	</div>
+</div>
@@ -0,0 +1,126 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.executor;
+
+import com.liferay.healthcheck.Healthcheck;
+import com.liferay.healthcheck.HealthcheckItem;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Olaf Kock
+ */
+public class HealthcheckCircuitBreakerTest {
+
+	@Before
+	public void setUp() {
+		_healthcheckCircuitBreaker.setBackoff(TimeUnit.MINUTES.toMillis(1));
+		_healthcheckCircuitBreaker.setThreshold(2);
+	}
+
+	@Test
+	public void testRecordResult() {
+		_healthcheckCircuitBreaker.recordTimeout(_healthcheck, _COMPANY_ID);
+		_healthcheckCircuitBreaker.recordResult(_healthcheck, _COMPANY_ID);
+
+		// A result resets the consecutive timeouts
+
+		_healthcheckCircuitBreaker.recordTimeout(_healthcheck, _COMPANY_ID);
+
+		Assert.assertNull(
+			_healthcheckCircuitBreaker.getCircuitOpenHealthcheckItem(
+				_healthcheck, _COMPANY_ID));
+	}
+
+	@Test
+	public void testRecordTimeout() {
+		_healthcheckCircuitBreaker.recordTimeout(_healthcheck, _COMPANY_ID);
+
+		Assert.assertNull(
+			_healthcheckCircuitBreaker.getCircuitOpenHealthcheckItem(
+				_healthcheck, _COMPANY_ID));
+
+		_healthcheckCircuitBreaker.recordTimeout(_healthcheck, _COMPANY_ID);
+
+		Assert.assertNotNull(
+			_healthcheckCircuitBreaker.getCircuitOpenHealthcheckItem(
+				_healthcheck, _COMPANY_ID));
+
+		// Circuits are kept per company
+
+		Assert.assertNull(
+			_healthcheckCircuitBreaker.getCircuitOpenHealthcheckItem(
+				_healthcheck, _COMPANY_ID + 1));
+
+		_healthcheckCircuitBreaker.recordResult(_healthcheck, _COMPANY_ID);
+
+		Assert.assertNull(
+			_healthcheckCircuitBreaker.getCircuitOpenHealthcheckItem(
+				_healthcheck, _COMPANY_ID));
+	}
+
+	@Test
+	public void testRecordTimeoutAfterBackoff() throws InterruptedException {
+		_healthcheckCircuitBreaker.setBackoff(50);
+
+		_healthcheckCircuitBreaker.recordTimeout(_healthcheck, _COMPANY_ID);
+		_healthcheckCircuitBreaker.recordTimeout(_healthcheck, _COMPANY_ID);
+
+		Thread.sleep(100);
+
+		// After the back-off, the Healthcheck is tried once more, and a
+		// single further timeout opens the circuit again
+
+		Assert.assertNull(
+			_healthcheckCircuitBreaker.getCircuitOpenHealthcheckItem(
+				_healthcheck, _COMPANY_ID));
+
+		_healthcheckCircuitBreaker.setBackoff(TimeUnit.MINUTES.toMillis(1));
+
+		_healthcheckCircuitBreaker.recordTimeout(_healthcheck, _COMPANY_ID);
+
+		Assert.assertNotNull(
+			_healthcheckCircuitBreaker.getCircuitOpenHealthcheckItem(
+				_healthcheck, _COMPANY_ID));
+	}
+
+	@Test
+	public void testSetThreshold() {
+		_healthcheckCircuitBreaker.setThreshold(0);
+
+		_healthcheckCircuitBreaker.recordTimeout(_healthcheck, _COMPANY_ID);
+
+		Assert.assertNotNull(
+			_healthcheckCircuitBreaker.getCircuitOpenHealthcheckItem(
+				_healthcheck, _COMPANY_ID));
+	}
+
+	private static final long _COMPANY_ID = 1;
+
+	private final Healthcheck _healthcheck = new Healthcheck() {
+
+		@Override
+		public Collection<HealthcheckItem> check(long companyId) {
+			return Collections.emptyList();
+		}
+
+		@Override
+		public String getCategory() {
+			return "category";
+		}
+
+	};
+
+	private final HealthcheckCircuitBreaker _healthcheckCircuitBreaker =
+		new HealthcheckCircuitBreaker();
+
+}
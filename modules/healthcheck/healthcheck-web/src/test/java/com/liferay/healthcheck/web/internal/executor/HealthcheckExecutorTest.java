@@ -0,0 +1,331 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.executor;
+
+import com.liferay.healthcheck.Healthcheck;
+import com.liferay.healthcheck.HealthcheckItem;
+import com.liferay.osgi.service.tracker.collections.list.ServiceTrackerList;
+import com.liferay.portal.kernel.model.CompanyConstants;
+import com.liferay.portal.kernel.test.ReflectionTestUtil;
+
+import java.lang.reflect.Proxy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.osgi.framework.ServiceReference;
+
+/**
+ * Runs the executor on its own pools, without activating it, and with a
+ * timeout of one second.
+ *
+ * @author Olaf Kock
+ */
+public class HealthcheckExecutorTest {
+
+	@Before
+	public void setUp() {
+		_setExecutorService(4);
+
+		ReflectionTestUtil.setFieldValue(
+			_healthcheckExecutor, "_scheduledExecutorService",
+			_scheduledExecutorService);
+		ReflectionTestUtil.setFieldValue(
+			_healthcheckExecutor, "_serviceTrackerList",
+			Proxy.newProxyInstance(
+				ServiceTrackerList.class.getClassLoader(),
+				new Class<?>[] {ServiceTrackerList.class},
+				(proxy, method, args) -> {
+					if (method.getName(
+						).equals(
+							"iterator"
+						)) {
+
+						return _trackedHealthchecks.iterator();
+					}
+
+					if (method.getName(
+						).equals(
+							"toList"
+						)) {
+
+						return new ArrayList<>(_trackedHealthchecks);
+					}
+
+					return null;
+				}));
+		ReflectionTestUtil.setFieldValue(_healthcheckExecutor, "_timeout", 1L);
+
+		_healthcheckCircuitBreaker = ReflectionTestUtil.getFieldValue(
+			_healthcheckExecutor, "_healthcheckCircuitBreaker");
+
+		_healthcheckCircuitBreaker.setBackoff(TimeUnit.MINUTES.toMillis(1));
+		_healthcheckCircuitBreaker.setThreshold(2);
+	}
+
+	@After
+	public void tearDown() {
+		_countDownLatch.countDown();
+
+		_executorService.shutdownNow();
+		_scheduledExecutorService.shutdownNow();
+	}
+
+	@Test
+	public void testExecute() {
+		_addHealthcheck(new SuccessHealthcheck());
+
+		HealthcheckItem healthcheckItem = _executeSingle();
+
+		Assert.assertTrue(healthcheckItem.isSuccess());
+		Assert.assertEquals("message-key", healthcheckItem.getMessageKey());
+	}
+
+	@Test
+	public void testExecuteWithException() {
+		_addHealthcheck(new ExceptionHealthcheck());
+
+		Assert.assertTrue(
+			_executeSingle() instanceof ExceptionHealthcheckItem);
+	}
+
+	@Test
+	public void testExecuteWithOpenCircuit() {
+		SleepingHealthcheck sleepingHealthcheck = new SleepingHealthcheck();
+
+		_addHealthcheck(sleepingHealthcheck);
+
+		Assert.assertTrue(_executeSingle() instanceof TimeoutHealthcheckItem);
+		Assert.assertTrue(_executeSingle() instanceof TimeoutHealthcheckItem);
+
+		// The second consecutive timeout opens the circuit
+
+		Assert.assertTrue(
+			_executeSingle() instanceof CircuitOpenHealthcheckItem);
+		Assert.assertEquals(2, sleepingHealthcheck.getChecks());
+
+		_healthcheckCircuitBreaker.recordResult(
+			sleepingHealthcheck, _COMPANY_ID);
+
+		Assert.assertTrue(_executeSingle() instanceof TimeoutHealthcheckItem);
+		Assert.assertEquals(3, sleepingHealthcheck.getChecks());
+	}
+
+	@Test
+	public void testExecuteWithSaturatedPool() {
+		_setExecutorService(1);
+
+		_healthcheckCircuitBreaker.setThreshold(1);
+
+		BlockingHealthcheck blockingHealthcheck = new BlockingHealthcheck(
+			_countDownLatch);
+		SuccessHealthcheck successHealthcheck = new SuccessHealthcheck();
+
+		_addHealthcheck(blockingHealthcheck);
+		_addHealthcheck(successHealthcheck);
+
+		List<HealthcheckResult> healthcheckResults =
+			_healthcheckExecutor.execute(_COMPANY_ID);
+
+		Assert.assertEquals(
+			healthcheckResults.toString(), 2, healthcheckResults.size());
+
+		for (HealthcheckResult healthcheckResult : healthcheckResults) {
+			Assert.assertTrue(
+				_getHealthcheckItem(healthcheckResult) instanceof
+					TimeoutHealthcheckItem);
+		}
+
+		// Only the Healthcheck that started counts as timed out, the other
+		// one never got a thread
+
+		Assert.assertNotNull(
+			_healthcheckCircuitBreaker.getCircuitOpenHealthcheckItem(
+				blockingHealthcheck, _COMPANY_ID));
+		Assert.assertNull(
+			_healthcheckCircuitBreaker.getCircuitOpenHealthcheckItem(
+				successHealthcheck, _COMPANY_ID));
+	}
+
+	@Test
+	public void testExecuteWithTimeout() {
+		_addHealthcheck(new SleepingHealthcheck());
+
+		Assert.assertTrue(_executeSingle() instanceof TimeoutHealthcheckItem);
+	}
+
+	private static HealthcheckItem _getHealthcheckItem(
+		HealthcheckResult healthcheckResult) {
+
+		Collection<HealthcheckItem> healthcheckItems =
+			healthcheckResult.getHealthcheckItems();
+
+		Assert.assertEquals(
+			healthcheckItems.toString(), 1, healthcheckItems.size());
+
+		Iterator<HealthcheckItem> iterator = healthcheckItems.iterator();
+
+		return iterator.next();
+	}
+
+	@SuppressWarnings("unchecked")
+	private void _addHealthcheck(Healthcheck healthcheck) {
+		_trackedHealthchecks.add(
+			new TrackedHealthcheck(
+				healthcheck,
+				(ServiceReference<Healthcheck>)Proxy.newProxyInstance(
+					ServiceReference.class.getClassLoader(),
+					new Class<?>[] {ServiceReference.class},
+					(proxy, method, args) -> null)));
+	}
+
+	private HealthcheckItem _executeSingle() {
+		List<HealthcheckResult> healthcheckResults =
+			_healthcheckExecutor.execute(_COMPANY_ID);
+
+		Assert.assertEquals(
+			healthcheckResults.toString(), 1, healthcheckResults.size());
+
+		return _getHealthcheckItem(healthcheckResults.get(0));
+	}
+
+	/**
+	 * Sets a pool with as many threads as Healthchecks may run in parallel
+	 */
+	private void _setExecutorService(int maxParallelHealthchecks) {
+		if (_executorService != null) {
+			_executorService.shutdownNow();
+		}
+
+		_executorService = Executors.newFixedThreadPool(
+			maxParallelHealthchecks);
+
+		ReflectionTestUtil.setFieldValue(
+			_healthcheckExecutor, "_executorService", _executorService);
+		ReflectionTestUtil.setFieldValue(
+			_healthcheckExecutor, "_maxParallelHealthchecks",
+			maxParallelHealthchecks);
+	}
+
+	// Setting the company of a thread needs no services for the system
+	// company
+
+	private static final long _COMPANY_ID = CompanyConstants.SYSTEM;
+
+	private final CountDownLatch _countDownLatch = new CountDownLatch(1);
+	private ExecutorService _executorService;
+	private HealthcheckCircuitBreaker _healthcheckCircuitBreaker;
+	private final HealthcheckExecutor _healthcheckExecutor =
+		new HealthcheckExecutor();
+	private final ScheduledExecutorService _scheduledExecutorService =
+		Executors.newSingleThreadScheduledExecutor();
+	private final List<TrackedHealthcheck> _trackedHealthchecks =
+		new ArrayList<>();
+
+	/**
+	 * Ignores its cancellation, and keeps its thread until the latch is
+	 * released
+	 */
+	private static class BlockingHealthcheck implements Healthcheck {
+
+		private BlockingHealthcheck(CountDownLatch countDownLatch) {
+			_countDownLatch = countDownLatch;
+		}
+
+		@Override
+		public Collection<HealthcheckItem> check(long companyId) {
+			while (true) {
+				try {
+					_countDownLatch.await();
+
+					return Collections.emptyList();
+				}
+				catch (InterruptedException interruptedException) {
+				}
+			}
+		}
+
+		@Override
+		public String getCategory() {
+			return "category";
+		}
+
+		private final CountDownLatch _countDownLatch;
+
+	}
+
+	private static class ExceptionHealthcheck implements Healthcheck {
+
+		@Override
+		public Collection<HealthcheckItem> check(long companyId)
+			throws Exception {
+
+			throw new Exception("failure");
+		}
+
+		@Override
+		public String getCategory() {
+			return "category";
+		}
+
+	}
+
+	private static class SleepingHealthcheck implements Healthcheck {
+
+		@Override
+		public Collection<HealthcheckItem> check(long companyId)
+			throws Exception {
+
+			_checks.incrementAndGet();
+
+			Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+
+			return Collections.emptyList();
+		}
+
+		@Override
+		public String getCategory() {
+			return "category";
+		}
+
+		public int getChecks() {
+			return _checks.get();
+		}
+
+		private final AtomicInteger _checks = new AtomicInteger();
+
+	}
+
+	private static class SuccessHealthcheck implements Healthcheck {
+
+		@Override
+		public Collection<HealthcheckItem> check(long companyId) {
+			return Collections.singletonList(
+				new HealthcheckItem(true, "link", "message-key"));
+		}
+
+		@Override
+		public String getCategory() {
+			return "category";
+		}
+
+	}
+
+}
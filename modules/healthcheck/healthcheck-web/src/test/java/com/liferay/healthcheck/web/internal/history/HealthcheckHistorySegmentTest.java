@@ -0,0 +1,155 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.history;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Olaf Kock
+ */
+public class HealthcheckHistorySegmentTest {
+
+	@Before
+	public void setUp() throws IOException {
+		_file = File.createTempFile("healthcheck-history", ".hch");
+
+		_file.delete();
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(_file.toPath());
+	}
+
+	@Test
+	public void testAppend() throws IOException {
+		try (HealthcheckHistorySegment healthcheckHistorySegment =
+				HealthcheckHistorySegment.create(_file)) {
+
+			Assert.assertEquals(0, healthcheckHistorySegment.getCount());
+
+			Assert.assertTrue(
+				healthcheckHistorySegment.append(
+					1, 2, 3, HealthcheckHistorySegment.FLAG_SUCCESS, 0));
+			Assert.assertTrue(
+				healthcheckHistorySegment.append(
+					1, 2, 0, HealthcheckHistorySegment.FLAG_RUN, 1));
+
+			Assert.assertEquals(2, healthcheckHistorySegment.getCount());
+
+			_assertRecord(
+				healthcheckHistorySegment, 0, 1, 2, 3,
+				HealthcheckHistorySegment.FLAG_SUCCESS, 0);
+			_assertRecord(
+				healthcheckHistorySegment, 1, 1, 2, 0,
+				HealthcheckHistorySegment.FLAG_RUN, 1);
+		}
+	}
+
+	@Test
+	public void testAppendToFullSegment() throws IOException {
+		try (HealthcheckHistorySegment healthcheckHistorySegment =
+				HealthcheckHistorySegment.create(_file)) {
+
+			for (int i = 0; i < HealthcheckHistorySegment.CAPACITY; i++) {
+				Assert.assertFalse(healthcheckHistorySegment.isFull());
+				Assert.assertTrue(
+					healthcheckHistorySegment.append(1, i, i, 0, 0));
+			}
+
+			Assert.assertTrue(healthcheckHistorySegment.isFull());
+			Assert.assertFalse(healthcheckHistorySegment.append(1, 0, 0, 0, 0));
+			Assert.assertEquals(
+				HealthcheckHistorySegment.CAPACITY,
+				healthcheckHistorySegment.getCount());
+
+			int index = HealthcheckHistorySegment.CAPACITY - 1;
+
+			_assertRecord(
+				healthcheckHistorySegment, index, 1, index, index, 0, 0);
+		}
+	}
+
+	@Test
+	public void testCreateExistingFile() throws IOException {
+		HealthcheckHistorySegment healthcheckHistorySegment =
+			HealthcheckHistorySegment.create(_file);
+
+		healthcheckHistorySegment.close();
+
+		try {
+			HealthcheckHistorySegment.create(_file);
+
+			Assert.fail();
+		}
+		catch (IOException ioException) {
+		}
+	}
+
+	@Test
+	public void testOpen() throws IOException {
+		try (HealthcheckHistorySegment healthcheckHistorySegment =
+				HealthcheckHistorySegment.create(_file)) {
+
+			healthcheckHistorySegment.append(
+				1, 2, 3, HealthcheckHistorySegment.FLAG_IGNORED, 0);
+		}
+
+		try (HealthcheckHistorySegment healthcheckHistorySegment =
+				HealthcheckHistorySegment.open(_file)) {
+
+			Assert.assertEquals(1, healthcheckHistorySegment.getCount());
+
+			_assertRecord(
+				healthcheckHistorySegment, 0, 1, 2, 3,
+				HealthcheckHistorySegment.FLAG_IGNORED, 0);
+
+			// Appends continue after the existing records
+
+			healthcheckHistorySegment.append(
+				1, 4, 0, HealthcheckHistorySegment.FLAG_RUN, 1);
+
+			Assert.assertEquals(2, healthcheckHistorySegment.getCount());
+		}
+	}
+
+	@Test
+	public void testOpenInvalidFile() throws IOException {
+		Files.write(_file.toPath(), new byte[] {1, 2, 3, 4});
+
+		try {
+			HealthcheckHistorySegment.open(_file);
+
+			Assert.fail();
+		}
+		catch (IOException ioException) {
+		}
+	}
+
+	private void _assertRecord(
+		HealthcheckHistorySegment healthcheckHistorySegment, int index,
+		long companyId, long time, long fingerprint, int flags, int value) {
+
+		Assert.assertEquals(
+			companyId, healthcheckHistorySegment.getCompanyId(index));
+		Assert.assertEquals(time, healthcheckHistorySegment.getTime(index));
+		Assert.assertEquals(
+			fingerprint, healthcheckHistorySegment.getFingerprint(index));
+		Assert.assertEquals(flags, healthcheckHistorySegment.getFlags(index));
+		Assert.assertEquals(value, healthcheckHistorySegment.getValue(index));
+	}
+
+	private File _file;
+
+}
@@ -0,0 +1,261 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.history;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.nio.file.Files;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Olaf Kock
+ */
+public class HealthcheckHistoryTest {
+
+	@Before
+	public void setUp() throws IOException {
+		_directory = Files.createTempDirectory(
+			"healthcheck-history"
+		).toFile();
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		for (HealthcheckHistorySegment healthcheckHistorySegment :
+				_healthcheckHistorySegments) {
+
+			healthcheckHistorySegment.close();
+
+			Files.delete(
+				healthcheckHistorySegment.getFile(
+				).toPath());
+		}
+
+		Files.delete(_directory.toPath());
+	}
+
+	@Test
+	public void testGetHealthcheckHistoryReport() throws IOException {
+		HealthcheckHistorySegment healthcheckHistorySegment = _addSegment();
+
+		_appendRun(
+			healthcheckHistorySegment, _COMPANY_ID, 1000,
+			new long[] {_FINGERPRINT_1, _FINGERPRINT_2},
+			HealthcheckHistorySegment.FLAG_SUCCESS);
+		_appendRun(
+			healthcheckHistorySegment, _OTHER_COMPANY_ID, 1500,
+			new long[] {_FINGERPRINT_3}, 0);
+		_appendRun(
+			healthcheckHistorySegment, _COMPANY_ID, 2000,
+			new long[] {_FINGERPRINT_1}, 0);
+
+		HealthcheckHistoryReport healthcheckHistoryReport = _scan(
+			fingerprint -> true);
+
+		Assert.assertEquals(2, healthcheckHistoryReport.getRuns());
+		Assert.assertEquals(1000, healthcheckHistoryReport.getFirstRunTime());
+
+		HealthcheckHistoryEntry healthcheckHistoryEntry =
+			healthcheckHistoryReport.getHealthcheckHistoryEntry(
+				_FINGERPRINT_1);
+
+		Assert.assertEquals(1000, healthcheckHistoryEntry.getFirstSeenTime());
+		Assert.assertEquals(0, healthcheckHistoryEntry.getLastSeenRun());
+		Assert.assertEquals(2000, healthcheckHistoryEntry.getLastSeenTime());
+		Assert.assertEquals(2, healthcheckHistoryEntry.getSeenRuns());
+		Assert.assertFalse(healthcheckHistoryEntry.isSuccess());
+
+		healthcheckHistoryEntry =
+			healthcheckHistoryReport.getHealthcheckHistoryEntry(
+				_FINGERPRINT_2);
+
+		Assert.assertEquals(1, healthcheckHistoryEntry.getLastSeenRun());
+		Assert.assertEquals(1000, healthcheckHistoryEntry.getLastSeenTime());
+		Assert.assertEquals(1, healthcheckHistoryEntry.getSeenRuns());
+		Assert.assertTrue(healthcheckHistoryEntry.isSuccess());
+
+		// Records of other companies are skipped
+
+		Assert.assertNull(
+			healthcheckHistoryReport.getHealthcheckHistoryEntry(
+				_FINGERPRINT_3));
+	}
+
+	@Test
+	public void testGetHealthcheckHistoryReportAcrossSegments()
+		throws IOException {
+
+		HealthcheckHistorySegment healthcheckHistorySegment = _addSegment();
+
+		healthcheckHistorySegment.append(
+			_COMPANY_ID, 1000, _FINGERPRINT_1, 0, 0);
+
+		healthcheckHistorySegment = _addSegment();
+
+		healthcheckHistorySegment.append(
+			_COMPANY_ID, 1000, _FINGERPRINT_2, 0, 0);
+		healthcheckHistorySegment.append(
+			_COMPANY_ID, 1000, 0, HealthcheckHistorySegment.FLAG_RUN, 2);
+
+		HealthcheckHistoryReport healthcheckHistoryReport = _scan(
+			fingerprint -> true);
+
+		Assert.assertEquals(1, healthcheckHistoryReport.getRuns());
+		Assert.assertNotNull(
+			healthcheckHistoryReport.getHealthcheckHistoryEntry(
+				_FINGERPRINT_1));
+		Assert.assertNotNull(
+			healthcheckHistoryReport.getHealthcheckHistoryEntry(
+				_FINGERPRINT_2));
+	}
+
+	@Test
+	public void testGetHealthcheckHistoryReportWithFingerprintPredicate()
+		throws IOException {
+
+		_appendRun(
+			_addSegment(), _COMPANY_ID, 1000,
+			new long[] {_FINGERPRINT_1, _FINGERPRINT_2}, 0);
+
+		HealthcheckHistoryReport healthcheckHistoryReport = _scan(
+			fingerprint -> fingerprint == _FINGERPRINT_2);
+
+		Assert.assertEquals(1, healthcheckHistoryReport.getRuns());
+		Assert.assertNull(
+			healthcheckHistoryReport.getHealthcheckHistoryEntry(
+				_FINGERPRINT_1));
+		Assert.assertNotNull(
+			healthcheckHistoryReport.getHealthcheckHistoryEntry(
+				_FINGERPRINT_2));
+	}
+
+	@Test
+	public void testGetHealthcheckHistoryReportWithInterruptedRuns()
+		throws IOException {
+
+		HealthcheckHistorySegment healthcheckHistorySegment = _addSegment();
+
+		// An interrupted run before a complete one
+
+		healthcheckHistorySegment.append(
+			_COMPANY_ID, 1000, _FINGERPRINT_1, 0, 0);
+
+		_appendRun(
+			healthcheckHistorySegment, _COMPANY_ID, 2000,
+			new long[] {_FINGERPRINT_2}, 0);
+
+		// An interrupted run at the end
+
+		healthcheckHistorySegment.append(
+			_COMPANY_ID, 3000, _FINGERPRINT_3, 0, 0);
+
+		HealthcheckHistoryReport healthcheckHistoryReport = _scan(
+			fingerprint -> true);
+
+		Assert.assertEquals(1, healthcheckHistoryReport.getRuns());
+		Assert.assertNull(
+			healthcheckHistoryReport.getHealthcheckHistoryEntry(
+				_FINGERPRINT_1));
+		Assert.assertNotNull(
+			healthcheckHistoryReport.getHealthcheckHistoryEntry(
+				_FINGERPRINT_2));
+		Assert.assertNull(
+			healthcheckHistoryReport.getHealthcheckHistoryEntry(
+				_FINGERPRINT_3));
+	}
+
+	@Test
+	public void testIsFlapping() throws IOException {
+		HealthcheckHistorySegment healthcheckHistorySegment = _addSegment();
+
+		for (int i = 0; i < 6; i++) {
+			long[] fingerprints = {_FINGERPRINT_2};
+
+			if ((i % 2) == 0) {
+				fingerprints = new long[] {_FINGERPRINT_1, _FINGERPRINT_2};
+			}
+
+			_appendRun(
+				healthcheckHistorySegment, _COMPANY_ID, 1000 * (i + 1),
+				fingerprints, 0);
+		}
+
+		HealthcheckHistoryReport healthcheckHistoryReport = _scan(
+			fingerprint -> true);
+
+		Assert.assertEquals(
+			5,
+			healthcheckHistoryReport.getHealthcheckHistoryEntry(
+				_FINGERPRINT_1
+			).getTransitions(
+				6
+			));
+		Assert.assertTrue(healthcheckHistoryReport.isFlapping(_FINGERPRINT_1));
+		Assert.assertFalse(
+			healthcheckHistoryReport.isFlapping(_FINGERPRINT_2));
+		Assert.assertFalse(
+			healthcheckHistoryReport.isFlapping(_FINGERPRINT_3));
+	}
+
+	private HealthcheckHistorySegment _addSegment() throws IOException {
+		HealthcheckHistorySegment healthcheckHistorySegment =
+			HealthcheckHistorySegment.create(
+				new File(
+					_directory, (_healthcheckHistorySegments.size() + 1) +
+						".hch"));
+
+		_healthcheckHistorySegments.add(healthcheckHistorySegment);
+
+		return healthcheckHistorySegment;
+	}
+
+	private void _appendRun(
+		HealthcheckHistorySegment healthcheckHistorySegment, long companyId,
+		long time, long[] fingerprints, int flags) {
+
+		for (long fingerprint : fingerprints) {
+			healthcheckHistorySegment.append(
+				companyId, time, fingerprint, flags, 0);
+		}
+
+		healthcheckHistorySegment.append(
+			companyId, time, 0, HealthcheckHistorySegment.FLAG_RUN,
+			fingerprints.length);
+	}
+
+	private HealthcheckHistoryReport _scan(
+		LongPredicate fingerprintPredicate) {
+
+		return HealthcheckHistory.getHealthcheckHistoryReport(
+			_healthcheckHistorySegments.toArray(
+				new HealthcheckHistorySegment[0]),
+			_COMPANY_ID, fingerprintPredicate);
+	}
+
+	private static final long _COMPANY_ID = 1;
+
+	private static final long _FINGERPRINT_1 = 11;
+
+	private static final long _FINGERPRINT_2 = 12;
+
+	private static final long _FINGERPRINT_3 = 13;
+
+	private static final long _OTHER_COMPANY_ID = 2;
+
+	private File _directory;
+	private final List<HealthcheckHistorySegment> _healthcheckHistorySegments =
+		new ArrayList<>();
+
+}
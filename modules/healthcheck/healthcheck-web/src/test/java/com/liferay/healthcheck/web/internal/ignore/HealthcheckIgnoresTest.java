@@ -0,0 +1,132 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.ignore;
+
+import com.liferay.healthcheck.HealthcheckItem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Olaf Kock
+ */
+public class HealthcheckIgnoresTest {
+
+	@Test
+	public void testAdd() {
+		HealthcheckIgnores healthcheckIgnores = HealthcheckIgnores.EMPTY.add(
+			Arrays.asList("b", "a"));
+
+		Assert.assertTrue(healthcheckIgnores.contains("a"));
+		Assert.assertTrue(healthcheckIgnores.contains("b"));
+		Assert.assertFalse(healthcheckIgnores.contains("c"));
+		Assert.assertEquals(2, healthcheckIgnores.size());
+
+		Assert.assertTrue(HealthcheckIgnores.EMPTY.isEmpty());
+		Assert.assertFalse(HealthcheckIgnores.EMPTY.contains("a"));
+	}
+
+	@Test
+	public void testAddWithoutChanges() {
+		HealthcheckIgnores healthcheckIgnores = HealthcheckIgnores.EMPTY.add(
+			Arrays.asList("a", "b"));
+
+		Assert.assertSame(
+			healthcheckIgnores,
+			healthcheckIgnores.add(Collections.singletonList("a")));
+		Assert.assertSame(
+			HealthcheckIgnores.EMPTY,
+			HealthcheckIgnores.EMPTY.add(Collections.emptyList()));
+	}
+
+	@Test
+	public void testContainsHealthcheckItem() {
+		HealthcheckItem healthcheckItem = new HealthcheckItem(
+			false, "link", "message-key", "parameter", 1);
+
+		HealthcheckIgnores healthcheckIgnores = HealthcheckIgnores.EMPTY.add(
+			Collections.singletonList(healthcheckItem.getSourceKey()));
+
+		Assert.assertTrue(healthcheckIgnores.contains(healthcheckItem));
+		Assert.assertFalse(
+			healthcheckIgnores.contains(
+				new HealthcheckItem(
+					false, "link", "message-key", "parameter", 2)));
+	}
+
+	@Test
+	public void testContainsManySourceKeys() {
+		List<String> sourceKeys = new ArrayList<>();
+
+		for (int i = 0; i < 1000; i++) {
+			sourceKeys.add("source-key-" + i);
+		}
+
+		HealthcheckIgnores healthcheckIgnores = HealthcheckIgnores.EMPTY.add(
+			sourceKeys);
+
+		Assert.assertEquals(1000, healthcheckIgnores.size());
+
+		for (int i = 0; i < 1000; i++) {
+			Assert.assertTrue(healthcheckIgnores.contains("source-key-" + i));
+			Assert.assertFalse(
+				healthcheckIgnores.contains("other-source-key-" + i));
+		}
+	}
+
+	@Test
+	public void testContainsNull() {
+		HealthcheckIgnores healthcheckIgnores = HealthcheckIgnores.EMPTY.add(
+			Collections.singletonList("a"));
+
+		Assert.assertFalse(healthcheckIgnores.contains((String)null));
+	}
+
+	@Test
+	public void testContainsZeroFingerprint() {
+		HealthcheckIgnores healthcheckIgnores = new HealthcheckIgnores(
+			Collections.singletonMap(0L, "zero"));
+
+		Assert.assertTrue(healthcheckIgnores.contains(0L));
+		Assert.assertFalse(HealthcheckIgnores.EMPTY.contains(0L));
+	}
+
+	@Test
+	public void testGetSourceKeys() {
+		HealthcheckIgnores healthcheckIgnores = HealthcheckIgnores.EMPTY.add(
+			Arrays.asList("c", "a", "b"));
+
+		Assert.assertEquals(
+			Arrays.asList("a", "b", "c"), healthcheckIgnores.getSourceKeys());
+	}
+
+	@Test
+	public void testRemove() {
+		HealthcheckIgnores healthcheckIgnores = HealthcheckIgnores.EMPTY.add(
+			Arrays.asList("a", "b"));
+
+		HealthcheckIgnores removedHealthcheckIgnores =
+			healthcheckIgnores.remove(Collections.singletonList("a"));
+
+		Assert.assertFalse(removedHealthcheckIgnores.contains("a"));
+		Assert.assertTrue(removedHealthcheckIgnores.contains("b"));
+		Assert.assertEquals(1, removedHealthcheckIgnores.size());
+
+		// The original list is immutable
+
+		Assert.assertTrue(healthcheckIgnores.contains("a"));
+
+		Assert.assertSame(
+			removedHealthcheckIgnores,
+			removedHealthcheckIgnores.remove(Collections.singletonList("c")));
+	}
+
+}
@@ -0,0 +1,206 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.metrics;
+
+import com.liferay.healthcheck.Healthcheck;
+import com.liferay.healthcheck.HealthcheckItem;
+import com.liferay.healthcheck.web.internal.executor.HealthcheckExecutor;
+import com.liferay.healthcheck.web.internal.executor.HealthcheckResult;
+import com.liferay.healthcheck.web.internal.ignore.HealthcheckIgnoreList;
+import com.liferay.healthcheck.web.internal.ignore.HealthcheckIgnores;
+import com.liferay.healthcheck.web.internal.registry.HealthcheckSnapshot;
+import com.liferay.portal.kernel.model.Company;
+import com.liferay.portal.kernel.service.CompanyLocalService;
+import com.liferay.portal.kernel.test.ReflectionTestUtil;
+
+import java.lang.reflect.Proxy;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Olaf Kock
+ */
+public class HealthcheckMetricsRendererTest {
+
+	@Before
+	public void setUp() {
+		ReflectionTestUtil.setFieldValue(
+			_healthcheckMetricsRenderer, "_companyLocalService",
+			Proxy.newProxyInstance(
+				CompanyLocalService.class.getClassLoader(),
+				new Class<?>[] {CompanyLocalService.class},
+				(proxy, method, args) -> {
+					if (method.getName(
+						).equals(
+							"fetchCompany"
+						)) {
+
+						return _getCompany((Long)args[0]);
+					}
+
+					return null;
+				}));
+		ReflectionTestUtil.setFieldValue(
+			_healthcheckMetricsRenderer, "_healthcheckExecutor",
+			new HealthcheckExecutor());
+		ReflectionTestUtil.setFieldValue(
+			_healthcheckMetricsRenderer, "_healthcheckIgnoreList",
+			new HealthcheckIgnoreList() {
+
+				@Override
+				public HealthcheckIgnores getHealthcheckIgnores(
+					long companyId) {
+
+					return ReflectionTestUtil.invoke(
+						HealthcheckIgnores.EMPTY, "add",
+						new Class<?>[] {Collection.class},
+						Collections.singletonList(
+							_IGNORED_HEALTHCHECK_ITEM.getSourceKey()));
+				}
+
+			});
+	}
+
+	@Test
+	public void testGetBytesBeforeFirstSnapshot() {
+		Assert.assertEquals("# EOF\n", _getMetrics());
+	}
+
+	@Test
+	public void testOnHealthcheckSnapshot() {
+		_healthcheckMetricsRenderer.onHealthcheckSnapshot(
+			_createHealthcheckSnapshot(1));
+
+		String metrics = _getMetrics();
+
+		Assert.assertTrue(metrics, metrics.endsWith("\n# EOF\n"));
+
+		// Label values are escaped, the missing node name is blank
+
+		_assertContains(
+			metrics,
+			"liferay_healthcheck_status{company=\"web\\\"id\\\\1\"," +
+				"category=\"category\",check=\"" +
+					MetricsHealthcheck.class.getName() + "\",node=\"\"} 0\n");
+
+		// Ignored items don't count as failed
+
+		_assertContains(
+			metrics,
+			"liferay_healthcheck_items{company=\"web\\\"id\\\\1\"," +
+				"status=\"failed\"} 1\n");
+		_assertContains(
+			metrics,
+			"liferay_healthcheck_items{company=\"web\\\"id\\\\1\"," +
+				"status=\"ignored\"} 1\n");
+		_assertContains(
+			metrics,
+			"liferay_healthcheck_items{company=\"web\\\"id\\\\1\"," +
+				"status=\"succeeded\"} 1\n");
+
+		_assertContains(
+			metrics,
+			"liferay_healthcheck_last_run_duration_seconds{company=\"" +
+				"web\\\"id\\\\1\"} 1.5\n");
+		_assertContains(
+			metrics,
+			"liferay_healthcheck_last_run_timestamp_seconds{company=\"" +
+				"web\\\"id\\\\1\"} 1000.0\n");
+	}
+
+	@Test
+	public void testPortalInstanceUnregistered() {
+		_healthcheckMetricsRenderer.onHealthcheckSnapshot(
+			_createHealthcheckSnapshot(1));
+		_healthcheckMetricsRenderer.onHealthcheckSnapshot(
+			_createHealthcheckSnapshot(2));
+
+		_healthcheckMetricsRenderer.portalInstanceUnregistered(
+			_getCompany(1));
+
+		String metrics = _getMetrics();
+
+		Assert.assertFalse(metrics, metrics.contains("web\\\"id\\\\1"));
+
+		_assertContains(metrics, "web\\\"id\\\\2");
+	}
+
+	private static void _assertContains(String metrics, String sample) {
+		Assert.assertTrue(metrics, metrics.contains(sample));
+	}
+
+	private static HealthcheckSnapshot _createHealthcheckSnapshot(
+		long companyId) {
+
+		return new HealthcheckSnapshot(
+			companyId, 1000000, 1500,
+			Collections.singletonList(
+				new HealthcheckResult(
+					new MetricsHealthcheck(),
+					Arrays.asList(
+						new HealthcheckItem(false, "link", "failed"),
+						_IGNORED_HEALTHCHECK_ITEM,
+						new HealthcheckItem(true, "link", "succeeded")))));
+	}
+
+	private static Company _getCompany(long companyId) {
+		return (Company)Proxy.newProxyInstance(
+			Company.class.getClassLoader(), new Class<?>[] {Company.class},
+			(proxy, method, args) -> {
+				if (method.getName(
+					).equals(
+						"getCompanyId"
+					)) {
+
+					return companyId;
+				}
+
+				if (method.getName(
+					).equals(
+						"getWebId"
+					)) {
+
+					return "web\"id\\" + companyId;
+				}
+
+				return null;
+			});
+	}
+
+	private String _getMetrics() {
+		return new String(
+			_healthcheckMetricsRenderer.getBytes(), StandardCharsets.UTF_8);
+	}
+
+	private static final HealthcheckItem _IGNORED_HEALTHCHECK_ITEM =
+		new HealthcheckItem(false, "link", "ignored");
+
+	private final HealthcheckMetricsRenderer _healthcheckMetricsRenderer =
+		new HealthcheckMetricsRenderer();
+
+	private static class MetricsHealthcheck implements Healthcheck {
+
+		@Override
+		public Collection<HealthcheckItem> check(long companyId) {
+			return Collections.emptyList();
+		}
+
+		@Override
+		public String getCategory() {
+			return "category";
+		}
+
+	}
+
+}
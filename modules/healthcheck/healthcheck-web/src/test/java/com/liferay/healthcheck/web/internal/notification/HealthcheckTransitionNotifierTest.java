@@ -0,0 +1,141 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.notification;
+
+import com.liferay.healthcheck.HealthcheckItem;
+import com.liferay.healthcheck.web.internal.notification.HealthcheckTransitionNotifier.FailedItem;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Olaf Kock
+ */
+public class HealthcheckTransitionNotifierTest {
+
+	@Test
+	public void testDiff() {
+		List<HealthcheckTransition> healthcheckTransitions =
+			HealthcheckTransitionNotifier.diff(
+				_toFailedItems(new String[] {"Check1", "key-a", "key-a-1"}),
+				_toFailedItems(new String[] {"Check2", "key-b", "key-b-1"}),
+				fingerprint -> false);
+
+		Assert.assertEquals(
+			healthcheckTransitions.toString(), 2,
+			healthcheckTransitions.size());
+
+		_assertHealthcheckTransition(
+			healthcheckTransitions.get(0), HealthcheckTransition.TYPE_RECOVERED,
+			"Check1", "key-a", null, "key-a-1");
+		_assertHealthcheckTransition(
+			healthcheckTransitions.get(1),
+			HealthcheckTransition.TYPE_NEW_FAILURE, "Check2", "key-b",
+			"key-b-1", null);
+	}
+
+	@Test
+	public void testDiffWithChangedParameters() {
+		List<HealthcheckTransition> healthcheckTransitions =
+			HealthcheckTransitionNotifier.diff(
+				_toFailedItems(
+					new String[] {"Check", "key", "key-1"},
+					new String[] {"Check", "key", "key-3"}),
+				_toFailedItems(
+					new String[] {"Check", "key", "key-2"},
+					new String[] {"Check", "key", "key-4"},
+					new String[] {"Check", "key", "key-5"}),
+				fingerprint -> false);
+
+		Assert.assertEquals(
+			healthcheckTransitions.toString(), 3,
+			healthcheckTransitions.size());
+
+		// Items pair up in the order of their source keys
+
+		_assertHealthcheckTransition(
+			healthcheckTransitions.get(0),
+			HealthcheckTransition.TYPE_PARAMETERS_CHANGED, "Check", "key",
+			"key-2", "key-1");
+		_assertHealthcheckTransition(
+			healthcheckTransitions.get(1),
+			HealthcheckTransition.TYPE_PARAMETERS_CHANGED, "Check", "key",
+			"key-4", "key-3");
+		_assertHealthcheckTransition(
+			healthcheckTransitions.get(2),
+			HealthcheckTransition.TYPE_NEW_FAILURE, "Check", "key", "key-5",
+			null);
+	}
+
+	@Test
+	public void testDiffWithIgnoredItems() {
+		List<HealthcheckTransition> healthcheckTransitions =
+			HealthcheckTransitionNotifier.diff(
+				Collections.emptyMap(),
+				_toFailedItems(
+					new String[] {"Check", "key-a", "key-a-1"},
+					new String[] {"Check", "key-b", "key-b-1"}),
+				fingerprint ->
+					fingerprint == HealthcheckItem.getFingerprint("key-a-1"));
+
+		Assert.assertEquals(
+			healthcheckTransitions.toString(), 1,
+			healthcheckTransitions.size());
+
+		_assertHealthcheckTransition(
+			healthcheckTransitions.get(0),
+			HealthcheckTransition.TYPE_NEW_FAILURE, "Check", "key-b",
+			"key-b-1", null);
+	}
+
+	@Test
+	public void testDiffWithoutChanges() {
+		Map<Long, FailedItem> failedItems = _toFailedItems(
+			new String[] {"Check", "key", "key-1"});
+
+		Assert.assertEquals(
+			Collections.emptyList(),
+			HealthcheckTransitionNotifier.diff(
+				failedItems, new HashMap<>(failedItems),
+				fingerprint -> false));
+	}
+
+	private static void _assertHealthcheckTransition(
+		HealthcheckTransition healthcheckTransition, String type,
+		String className, String messageKey, String sourceKey,
+		String previousSourceKey) {
+
+		Assert.assertEquals(type, healthcheckTransition.getType());
+		Assert.assertEquals(className, healthcheckTransition.getClassName());
+		Assert.assertEquals(
+			messageKey, healthcheckTransition.getMessageKey());
+		Assert.assertEquals(sourceKey, healthcheckTransition.getSourceKey());
+		Assert.assertEquals(
+			previousSourceKey, healthcheckTransition.getPreviousSourceKey());
+	}
+
+	/**
+	 * @param  values the class name, message key and source key of each item
+	 * @return the items by the fingerprints of their source keys
+	 */
+	private static Map<Long, FailedItem> _toFailedItems(String[]... values) {
+		Map<Long, FailedItem> failedItems = new HashMap<>();
+
+		for (String[] value : values) {
+			failedItems.put(
+				HealthcheckItem.getFingerprint(value[2]),
+				new FailedItem(value[0], value[1], value[2]));
+		}
+
+		return failedItems;
+	}
+
+}
@@ -0,0 +1,166 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.portlet;
+
+import com.liferay.healthcheck.Healthcheck;
+import com.liferay.healthcheck.HealthcheckItem;
+
+import java.lang.reflect.Proxy;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.portlet.PortletRequest;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Olaf Kock
+ */
+public class HealthcheckItemSearchTest {
+
+	@Test
+	public void testIsMatch() {
+		HealthcheckItemSearch healthcheckItemSearch = _createSearch();
+
+		Assert.assertTrue(_isMatch(healthcheckItemSearch, _FAILED, false));
+		Assert.assertTrue(_isMatch(healthcheckItemSearch, _SUCCEEDED, false));
+		Assert.assertFalse(_isMatch(healthcheckItemSearch, _FAILED, true));
+	}
+
+	@Test
+	public void testIsMatchWithCategory() {
+		Assert.assertTrue(
+			_isMatch(_createSearch("category", _CATEGORY), _FAILED, false));
+		Assert.assertFalse(
+			_isMatch(_createSearch("category", "other"), _FAILED, false));
+	}
+
+	@Test
+	public void testIsMatchWithKeywords() {
+
+		// Keywords are trimmed and compared regardless of case
+
+		Assert.assertTrue(
+			_isMatch(_createSearch("keywords", " Localized "), _FAILED, false));
+		Assert.assertTrue(
+			_isMatch(
+				_createSearch("keywords", "FAILED-MESSAGE-KEY-1"), _FAILED,
+				false));
+		Assert.assertFalse(
+			_isMatch(
+				_createSearch("keywords", "failed-message-key-2"), _FAILED,
+				false));
+	}
+
+	@Test
+	public void testIsMatchWithMessageKey() {
+		HealthcheckItemSearch healthcheckItemSearch = _createSearch(
+			"messageKey", "failed-message-key");
+
+		Assert.assertTrue(_isMatch(healthcheckItemSearch, _FAILED, false));
+		Assert.assertFalse(_isMatch(healthcheckItemSearch, _SUCCEEDED, false));
+	}
+
+	@Test
+	public void testIsMatchWithShowIgnored() {
+		Assert.assertTrue(
+			_isMatch(_createSearch("showIgnored", "true"), _FAILED, true));
+
+		// A status filter hides ignored items, unless it selects them
+
+		Assert.assertFalse(
+			_isMatch(
+				_createSearch(
+					"showIgnored", "true", "status",
+					HealthcheckItemSearch.STATUS_FAILED),
+				_FAILED, true));
+	}
+
+	@Test
+	public void testIsMatchWithStatus() {
+		HealthcheckItemSearch healthcheckItemSearch = _createSearch(
+			"status", HealthcheckItemSearch.STATUS_FAILED);
+
+		Assert.assertTrue(_isMatch(healthcheckItemSearch, _FAILED, false));
+		Assert.assertFalse(_isMatch(healthcheckItemSearch, _SUCCEEDED, false));
+
+		healthcheckItemSearch = _createSearch(
+			"status", HealthcheckItemSearch.STATUS_SUCCEEDED);
+
+		Assert.assertFalse(_isMatch(healthcheckItemSearch, _FAILED, false));
+		Assert.assertTrue(_isMatch(healthcheckItemSearch, _SUCCEEDED, false));
+
+		healthcheckItemSearch = _createSearch(
+			"status", HealthcheckItemSearch.STATUS_IGNORED);
+
+		Assert.assertFalse(_isMatch(healthcheckItemSearch, _FAILED, false));
+		Assert.assertTrue(_isMatch(healthcheckItemSearch, _FAILED, true));
+		Assert.assertTrue(_isMatch(healthcheckItemSearch, _SUCCEEDED, true));
+	}
+
+	/**
+	 * @param parameters the names and values of the render parameters
+	 */
+	private static HealthcheckItemSearch _createSearch(String... parameters) {
+		Map<String, String> parameterMap = new HashMap<>();
+
+		for (int i = 0; i < parameters.length; i += 2) {
+			parameterMap.put(parameters[i], parameters[i + 1]);
+		}
+
+		PortletRequest portletRequest = (PortletRequest)Proxy.newProxyInstance(
+			PortletRequest.class.getClassLoader(),
+			new Class<?>[] {PortletRequest.class},
+			(proxy, method, args) -> {
+				if (method.getName(
+					).equals(
+						"getParameter"
+					)) {
+
+					return parameterMap.get(args[0]);
+				}
+
+				return null;
+			});
+
+		return new HealthcheckItemSearch(portletRequest);
+	}
+
+	private static boolean _isMatch(
+		HealthcheckItemSearch healthcheckItemSearch,
+		HealthcheckItem healthcheckItem, boolean ignored) {
+
+		return healthcheckItemSearch.isMatch(
+			_healthcheck, "Localized Category", healthcheckItem, ignored);
+	}
+
+	private static final String _CATEGORY = "category";
+
+	private static final HealthcheckItem _FAILED = new HealthcheckItem(
+		false, "link", "failed-message-key", 1);
+
+	private static final HealthcheckItem _SUCCEEDED = new HealthcheckItem(
+		true, "link", "succeeded-message-key");
+
+	private static final Healthcheck _healthcheck = new Healthcheck() {
+
+		@Override
+		public Collection<HealthcheckItem> check(long companyId) {
+			return Collections.emptyList();
+		}
+
+		@Override
+		public String getCategory() {
+			return _CATEGORY;
+		}
+
+	};
+
+}
@@ -0,0 +1,222 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.probe;
+
+import com.liferay.healthcheck.Healthcheck;
+import com.liferay.healthcheck.HealthcheckItem;
+import com.liferay.healthcheck.web.internal.executor.HealthcheckExecutor;
+import com.liferay.healthcheck.web.internal.executor.HealthcheckResult;
+import com.liferay.healthcheck.web.internal.executor.TrackedHealthcheck;
+import com.liferay.healthcheck.web.internal.ignore.HealthcheckIgnoreList;
+import com.liferay.healthcheck.web.internal.ignore.HealthcheckIgnores;
+import com.liferay.portal.kernel.service.CompanyLocalService;
+import com.liferay.portal.kernel.test.ReflectionTestUtil;
+
+import java.lang.reflect.Proxy;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Runs the probe without activating it, so that runs only happen when a test
+ * invokes them.
+ *
+ * @author Olaf Kock
+ */
+public class HealthcheckProbeTest {
+
+	@Before
+	public void setUp() {
+		ReflectionTestUtil.setFieldValue(
+			_healthcheckProbe, "_companyLocalService",
+			Proxy.newProxyInstance(
+				CompanyLocalService.class.getClassLoader(),
+				new Class<?>[] {CompanyLocalService.class},
+				(proxy, method, args) -> {
+					if (method.getName(
+						).equals(
+							"getCompanyIds"
+						)) {
+
+						return new long[] {_COMPANY_ID};
+					}
+
+					return null;
+				}));
+		ReflectionTestUtil.setFieldValue(
+			_healthcheckProbe, "_healthcheckExecutor",
+			new HealthcheckExecutor() {
+
+				@Override
+				public Map<Long, List<HealthcheckResult>> execute(
+					Predicate<TrackedHealthcheck> predicate,
+					long[] companyIds) {
+
+					_runnable.run();
+
+					return Collections.singletonMap(
+						_COMPANY_ID, _healthcheckResults);
+				}
+
+			});
+		ReflectionTestUtil.setFieldValue(
+			_healthcheckProbe, "_healthcheckIgnoreList",
+			new HealthcheckIgnoreList() {
+
+				@Override
+				public HealthcheckIgnores getHealthcheckIgnores(
+					long companyId) {
+
+					return _healthcheckIgnores;
+				}
+
+			});
+		ReflectionTestUtil.setFieldValue(
+			_healthcheckProbe, "_maxAge", 60000L);
+		ReflectionTestUtil.setFieldValue(
+			_healthcheckProbe, "_probeHealthchecks", Collections.emptySet());
+	}
+
+	@Test
+	public void testGetHealthcheckProbeResponse() {
+		_setHealthcheckItem(true);
+
+		_run();
+
+		_assertHealthcheckProbeResponse(HttpServletResponse.SC_OK, "OK\n");
+	}
+
+	@Test
+	public void testGetHealthcheckProbeResponseBeforeFirstRun() {
+		_assertHealthcheckProbeResponse(
+			HttpServletResponse.SC_OK, "UNKNOWN\n");
+	}
+
+	@Test
+	public void testGetHealthcheckProbeResponseWithFailure() {
+		_setHealthcheckItem(false);
+
+		_run();
+
+		_assertHealthcheckProbeResponse(
+			HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+			"FAILED\n" + ProbedHealthcheck.class.getName() + "\n");
+	}
+
+	@Test
+	public void testGetHealthcheckProbeResponseWithStaleRun() {
+		ReflectionTestUtil.setFieldValue(
+			_healthcheckProbe, "_healthcheckProbeResponse",
+			new HealthcheckProbeResponse(HttpServletResponse.SC_OK, "OK\n", 0));
+
+		// Staleness is opt-in
+
+		_assertHealthcheckProbeResponse(HttpServletResponse.SC_OK, "OK\n");
+
+		ReflectionTestUtil.setFieldValue(
+			_healthcheckProbe, "_staleRunUnavailable", true);
+
+		_assertHealthcheckProbeResponse(
+			HttpServletResponse.SC_SERVICE_UNAVAILABLE, "STALE\n");
+	}
+
+	@Test
+	public void testOnHealthcheckIgnoreListChanged() {
+		HealthcheckItem healthcheckItem = _setHealthcheckItem(false);
+
+		_run();
+
+		_healthcheckIgnores = ReflectionTestUtil.invoke(
+			HealthcheckIgnores.EMPTY, "add", new Class<?>[] {Collection.class},
+			Collections.singletonList(healthcheckItem.getSourceKey()));
+
+		_healthcheckProbe.onHealthcheckIgnoreListChanged(_COMPANY_ID);
+
+		_assertHealthcheckProbeResponse(HttpServletResponse.SC_OK, "OK\n");
+	}
+
+	@Test
+	public void testRunDuringConfigurationChange() {
+		_setHealthcheckItem(false);
+
+		// The configuration changes while the Healthchecks run, so the results
+		// of the previous configuration are dropped
+
+		_runnable = () -> {
+			int generation = ReflectionTestUtil.getFieldValue(
+				_healthcheckProbe, "_generation");
+
+			ReflectionTestUtil.setFieldValue(
+				_healthcheckProbe, "_generation", generation + 1);
+		};
+
+		_run();
+
+		_assertHealthcheckProbeResponse(
+			HttpServletResponse.SC_OK, "UNKNOWN\n");
+	}
+
+	private void _assertHealthcheckProbeResponse(int status, String body) {
+		HealthcheckProbeResponse healthcheckProbeResponse =
+			_healthcheckProbe.getHealthcheckProbeResponse();
+
+		Assert.assertEquals(status, healthcheckProbeResponse.getStatus());
+		Assert.assertEquals(
+			body,
+			new String(
+				healthcheckProbeResponse.getBody(), StandardCharsets.UTF_8));
+	}
+
+	private void _run() {
+		ReflectionTestUtil.invoke(_healthcheckProbe, "_run", new Class<?>[0]);
+	}
+
+	private HealthcheckItem _setHealthcheckItem(boolean success) {
+		HealthcheckItem healthcheckItem = new HealthcheckItem(
+			success, "link", "message-key", "parameter");
+
+		_healthcheckResults = Collections.singletonList(
+			new HealthcheckResult(
+				new ProbedHealthcheck(),
+				Collections.singletonList(healthcheckItem)));
+
+		return healthcheckItem;
+	}
+
+	private static final long _COMPANY_ID = 1;
+
+	private HealthcheckIgnores _healthcheckIgnores = HealthcheckIgnores.EMPTY;
+	private final HealthcheckProbe _healthcheckProbe = new HealthcheckProbe();
+	private List<HealthcheckResult> _healthcheckResults;
+	private Runnable _runnable = () -> {
+	};
+
+	private static class ProbedHealthcheck implements Healthcheck {
+
+		@Override
+		public Collection<HealthcheckItem> check(long companyId) {
+			return Collections.emptyList();
+		}
+
+		@Override
+		public String getCategory() {
+			return "category";
+		}
+
+	}
+
+}
@@ -0,0 +1,97 @@
+/**
+ * SPDX-FileCopyrightText: (c) 2024 Liferay, Inc. https://liferay.com
+ * SPDX-License-Identifier: LGPL-2.1-or-later OR LicenseRef-Liferay-DXP-EULA-2.0.0-2023-06
+ */
+
+package com.liferay.healthcheck.web.internal.servlet;
+
+import java.lang.reflect.Proxy;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Olaf Kock
+ */
+public class BearerTokenUtilTest {
+
+	@Test
+	public void testGetAuthorization() {
+		Assert.assertNull(BearerTokenUtil.getAuthorization(null));
+		Assert.assertNull(BearerTokenUtil.getAuthorization(" "));
+		Assert.assertEquals(
+			"Bearer token", BearerTokenUtil.getAuthorization(" token "));
+	}
+
+	@Test
+	public void testIsAuthorized() {
+		String authorization = BearerTokenUtil.getAuthorization("token");
+
+		Assert.assertTrue(
+			BearerTokenUtil.isAuthorized(
+				authorization, _getHttpServletRequest("Bearer token")));
+
+		Assert.assertFalse(
+			BearerTokenUtil.isAuthorized(
+				authorization, _getHttpServletRequest("Bearer tokem")));
+		Assert.assertFalse(
+			BearerTokenUtil.isAuthorized(
+				authorization, _getHttpServletRequest("bearer token")));
+	}
+
+	@Test
+	public void testIsAuthorizedWithDifferentLength() {
+		String authorization = BearerTokenUtil.getAuthorization("token");
+
+		// Headers that are a prefix of the expected value, or start with it,
+		// must not pass, although all compared characters match
+
+		Assert.assertFalse(
+			BearerTokenUtil.isAuthorized(
+				authorization, _getHttpServletRequest("Bearer tok")));
+		Assert.assertFalse(
+			BearerTokenUtil.isAuthorized(
+				authorization, _getHttpServletRequest("Bearer tokentoken")));
+		Assert.assertFalse(
+			BearerTokenUtil.isAuthorized(
+				authorization, _getHttpServletRequest("B")));
+	}
+
+	@Test
+	public void testIsAuthorizedWithoutToken() {
+		Assert.assertFalse(
+			BearerTokenUtil.isAuthorized(
+				null, _getHttpServletRequest("Bearer token")));
+		Assert.assertFalse(
+			BearerTokenUtil.isAuthorized(
+				BearerTokenUtil.getAuthorization("token"),
+				_getHttpServletRequest(null)));
+		Assert.assertFalse(
+			BearerTokenUtil.isAuthorized(
+				BearerTokenUtil.getAuthorization("token"),
+				_getHttpServletRequest("")));
+	}
+
+	private static HttpServletRequest _getHttpServletRequest(
+		String authorization) {
+
+		return (HttpServletRequest)Proxy.newProxyInstance(
+			HttpServletRequest.class.getClassLoader(),
+			new Class<?>[] {HttpServletRequest.class},
+			(proxy, method, args) -> {
+				if (method.getName(
+					).equals(
+						"getHeader"
+					) &&
+					"Authorization".equals(args[0])) {
+
+					return authorization;
+				}
+
+				return null;
+			});
+	}
+
+}